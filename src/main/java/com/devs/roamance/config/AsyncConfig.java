@@ -1,9 +1,11 @@
 package com.devs.roamance.config;
 
 import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -20,9 +22,23 @@ public class AsyncConfig implements AsyncConfigurer, WebMvcConfigurer {
     return asyncExecutor();
   }
 
+  @Value("${application.async.mode:platform}")
+  private String asyncMode;
+
   @Bean(name = "asyncExecutor")
   public AsyncTaskExecutor asyncExecutor() {
 
+    // In virtual mode every task gets its own virtual thread, and concurrency towards external
+    // services is capped by WorkloadLimiter instead of the pool size
+    if ("virtual".equalsIgnoreCase(asyncMode)) {
+
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("Async-");
+      executor.setVirtualThreads(true);
+      executor.setTaskTerminationTimeout(30_000);
+
+      return new DelegatingSecurityContextAsyncTaskExecutor(executor);
+    }
+
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
     executor.setCorePoolSize(50);
@@ -34,6 +50,44 @@ public class AsyncConfig implements AsyncConfigurer, WebMvcConfigurer {
     return new DelegatingSecurityContextAsyncTaskExecutor(executor);
   }
 
+  // Dedicated, bounded pool for outbox jobs so enrichment spikes never compete with request-path
+  // work for the shared async executor queue
+  @Bean(name = "aiEnrichmentExecutor")
+  public ThreadPoolTaskExecutor aiEnrichmentExecutor(
+      @Value("${application.ai-enrichment.worker-count:4}") int workerCount,
+      @Value("${application.ai-enrichment.batch-size:4}") int batchSize) {
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    // A claimed batch always fits, whatever part of it the workers cannot start right away waits
+    executor.setCorePoolSize(workerCount);
+    executor.setMaxPoolSize(workerCount);
+    executor.setQueueCapacity(Math.max(batchSize, workerCount));
+    executor.setThreadNamePrefix("AiEnrichment-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+
+    return executor;
+  }
+
+  // Single thread, so the presence announcements of a user go out in the order they happened
+  @Bean(name = "presenceExecutor")
+  public ThreadPoolTaskExecutor presenceExecutor(
+      @Value("${application.presence.queue-capacity:10000}") int queueCapacity) {
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("Presence-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(10);
+    executor.initialize();
+
+    return executor;
+  }
+
   @Override
   public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
     configurer.setTaskExecutor(asyncExecutor());
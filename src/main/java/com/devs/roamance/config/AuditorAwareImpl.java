@@ -1,5 +1,7 @@
 package com.devs.roamance.config;
 
+import com.devs.roamance.security.AuthTokenFilter;
+import com.devs.roamance.security.JwtClaims;
 import com.devs.roamance.security.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Optional;
@@ -52,6 +54,16 @@ public class AuditorAwareImpl implements AuditorAware<UUID> {
         (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
     if (attrs != null) {
       HttpServletRequest request = attrs.getRequest();
+
+      if (request.getAttribute(AuthTokenFilter.JWT_CLAIMS_ATTRIBUTE) instanceof JwtClaims claims
+          && claims.userId() != null) {
+        try {
+          return Optional.of(UUID.fromString(claims.userId()));
+        } catch (IllegalArgumentException e) {
+          log.warn("Could not parse UUID from verified JWT claims: {}", claims.userId());
+        }
+      }
+
       String token = jwtUtils.getTokenFromHeader(request.getHeader("Authorization"));
       if (token != null) {
         try {
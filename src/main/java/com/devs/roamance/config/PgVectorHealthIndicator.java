@@ -0,0 +1,41 @@
+package com.devs.roamance.config;
+
+import com.devs.roamance.util.PgVectorStoreRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the vector database. It only backs AI features, so an unreachable database is reported
+ * as UNKNOWN, which does not turn the aggregate health DOWN. The pgvector health group maps it to
+ * 503 for monitoring that checks the vector database itself.
+ */
+@Component("pgVector")
+public class PgVectorHealthIndicator implements HealthIndicator {
+
+  private final PgVectorStoreRegistry pgVectorStoreRegistry;
+
+  public PgVectorHealthIndicator(PgVectorStoreRegistry pgVectorStoreRegistry) {
+    this.pgVectorStoreRegistry = pgVectorStoreRegistry;
+  }
+
+  @Override
+  public Health health() {
+
+    Health.Builder builder;
+    try {
+      builder =
+          pgVectorStoreRegistry.isReachable(2)
+              ? Health.up()
+              : Health.unknown().withDetail("reachable", false);
+    } catch (Exception e) {
+      builder = Health.unknown().withDetail("reachable", false).withException(e);
+    }
+
+    return builder
+        .withDetail("maxPoolSize", pgVectorStoreRegistry.getMaximumPoolSize())
+        .withDetail("activeConnections", pgVectorStoreRegistry.getActiveConnections())
+        .withDetail("initializedStores", pgVectorStoreRegistry.getInitializedStoreCount())
+        .build();
+  }
+}
@@ -0,0 +1,33 @@
+package com.devs.roamance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+  // Declared here because any other scheduler bean replaces the auto-configured one, it keeps the
+  // spring.task.scheduling settings and runs every job that does not name a scheduler
+  @Bean(name = "taskScheduler")
+  public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+    return builder.build();
+  }
+
+  // Presence sweeps, typing broadcasts and relay announcements run every few hundred milliseconds
+  // and must not wait behind flushes, reconciliations and cleanups on the shared scheduler
+  @Bean(name = "chatScheduler")
+  public ThreadPoolTaskScheduler chatScheduler(
+      @Value("${application.chat-scheduler.pool-size:2}") int poolSize) {
+
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(poolSize);
+    scheduler.setThreadNamePrefix("ChatScheduler-");
+
+    return scheduler;
+  }
+}
@@ -1,11 +1,18 @@
 package com.devs.roamance.config;
 
+import java.security.Principal;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -17,7 +24,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
   @Override
   public void registerStompEndpoints(StompEndpointRegistry registry) {
 
-    registry.addEndpoint("/ws").setAllowedOrigins(frontendUrl).withSockJS();
+    registry
+        .addEndpoint("/ws")
+        .setHandshakeHandler(new UserIdHandshakeHandler())
+        .setAllowedOrigins(frontendUrl)
+        .withSockJS();
   }
 
   @Override
@@ -29,4 +40,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     registry.setUserDestinationPrefix("/user");
   }
+
+  /**
+   * Names WebSocket sessions by user id instead of email, so /user/{id}/... destinations and the
+   * chat relay address users by the id everything else uses.
+   */
+  private static class UserIdHandshakeHandler extends DefaultHandshakeHandler {
+
+    @Override
+    protected Principal determineUser(
+        ServerHttpRequest request, WebSocketHandler wsHandler, Map<String, Object> attributes) {
+
+      Principal principal = request.getPrincipal();
+
+      if (!(principal instanceof Authentication authentication)
+          || authentication.getDetails() == null) {
+        return principal;
+      }
+
+      UsernamePasswordAuthenticationToken user =
+          new UsernamePasswordAuthenticationToken(
+              authentication.getDetails().toString(), null, authentication.getAuthorities());
+      user.setDetails(authentication.getDetails());
+
+      return user;
+    }
+  }
 }
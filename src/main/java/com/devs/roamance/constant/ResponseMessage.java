@@ -19,6 +19,9 @@ public final class ResponseMessage {
   public static final String USER_NOT_FOUND_ID = "No user present with id: %s!";
   public static final String USER_NOT_FOUND_EMAIL = "No user present with email: %s!";
   public static final String USER_ALREADY_EXIST = "User already exists with email: %s!";
+  public static final String USER_FOLLOW_SUCCESS = "User followed successfully.";
+  public static final String USER_UNFOLLOW_SUCCESS = "User unfollowed successfully.";
+  public static final String USER_FOLLOW_SELF_DENIED = "You can't follow yourself!";
 
   // ==================== User Info Related ====================
 
@@ -56,6 +59,7 @@ public final class ResponseMessage {
   // ==================== Validation Related ====================
 
   public static final String VALIDATION_FAILED = "Validation failed!";
+  public static final String INVALID_CURSOR = "Invalid pagination cursor!";
 
   // ==================== Journal Related ====================
 
@@ -108,6 +112,7 @@ public final class ResponseMessage {
   public static final String CHAT_FETCH_SUCCESS = "Chat fetched successfully.";
   public static final String CHATS_FETCH_SUCCESS = "Chats fetched successfully.";
   public static final String CHAT_ALREADY_EXIST = "Chat already exists!";
+  public static final String CHAT_MARK_READ_SUCCESS = "Chat marked as read successfully.";
   public static final String CHAT_NOT_FOUND = "No chat present with id: %s!";
   public static final String CHAT_ACCESS_DENIED = "You don't have permission to access this chat!";
 
@@ -115,6 +120,8 @@ public final class ResponseMessage {
 
   public static final String MESSAGE_CREATE_SUCCESS = "Message created successfully.";
   public static final String MESSAGES_FETCH_SUCCESS = "Messages fetched successfully.";
+  public static final String MESSAGE_QUEUE_FULL = "Too many messages right now, please try again.";
+  public static final String MESSAGE_SEND_FAILED = "Message could not be sent, please try again.";
 
   // ========================== Itinerary Related ==========================
 
@@ -163,4 +170,6 @@ public final class ResponseMessage {
   public static final String ITINERARY_GENERATION_FAILED = "Itinerary generation failed!";
   public static final String PROOFREAD_INPUT_NULL = "Proofread input is null!";
   public static final String AI_MODEL_BUILD_FAILED = "AI model build failed!";
+  public static final String AI_VECTOR_INDEXING_FAILED = "Adding content to vector db failed!";
+  public static final String AI_TIDBITS_GENERATION_FAILED = "Tidbits and safety analysis failed!";
 }
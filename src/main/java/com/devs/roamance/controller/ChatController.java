@@ -1,5 +1,8 @@
 package com.devs.roamance.controller;
 
+import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.ChatInboxDto;
 import com.devs.roamance.dto.response.social.ChatListResponseDto;
 import com.devs.roamance.dto.response.social.ChatResponseDto;
 import com.devs.roamance.service.ChatService;
@@ -29,6 +32,25 @@ public class ChatController {
     return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
   }
 
+  @GetMapping("/inbox")
+  public ResponseEntity<CursorListResponseDto<ChatInboxDto>> getInbox(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int pageSize) {
+
+    CursorListResponseDto<ChatInboxDto> responseDto =
+        chatService.getInbox(cursor, PaginationSortingUtil.validatePageSize(pageSize));
+
+    return ResponseEntity.ok(responseDto);
+  }
+
+  @PostMapping("/{chatId}/read")
+  public ResponseEntity<BaseResponseDto> markChatAsRead(@PathVariable @NotNull UUID chatId) {
+
+    BaseResponseDto responseDto = chatService.markAsRead(chatId);
+
+    return ResponseEntity.ok(responseDto);
+  }
+
   @GetMapping("/{chatId}")
   public ResponseEntity<ChatResponseDto> getChatById(@PathVariable @NotNull UUID chatId) {
 
@@ -1,6 +1,8 @@
 package com.devs.roamance.controller;
 
 import com.devs.roamance.dto.request.social.CommentRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.CommentDto;
 import com.devs.roamance.dto.response.social.CommentListResponseDto;
 import com.devs.roamance.dto.response.social.CommentResponseDto;
 import com.devs.roamance.service.CommentService;
@@ -55,4 +57,17 @@ public class CommentController {
 
     return ResponseEntity.ok(responseDto);
   }
+
+  @GetMapping("/by-post/{postId}/cursor")
+  public ResponseEntity<CursorListResponseDto<CommentDto>> getCommentsByPostIdAndCursor(
+      @PathVariable @NotNull UUID postId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int pageSize) {
+
+    CursorListResponseDto<CommentDto> responseDto =
+        commentService.getByPostIdAndCursor(
+            postId, cursor, PaginationSortingUtil.validatePageSize(pageSize));
+
+    return ResponseEntity.ok(responseDto);
+  }
 }
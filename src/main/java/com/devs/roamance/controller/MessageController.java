@@ -1,6 +1,8 @@
 package com.devs.roamance.controller;
 
 import com.devs.roamance.dto.request.social.MessageRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.MessageDto;
 import com.devs.roamance.dto.response.social.MessageListResponseDto;
 import com.devs.roamance.dto.response.social.MessageResponseDto;
 import com.devs.roamance.service.MessageService;
@@ -46,4 +48,17 @@ public class MessageController {
 
     return ResponseEntity.ok(responseDto);
   }
+
+  @GetMapping("/chat/{chatId}/cursor")
+  public ResponseEntity<CursorListResponseDto<MessageDto>> getMessagesByChatIdAndCursor(
+      @PathVariable @NotNull UUID chatId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int pageSize) {
+
+    CursorListResponseDto<MessageDto> responseDto =
+        messageService.getByChatIdAndCursor(
+            chatId, cursor, PaginationSortingUtil.validatePageSize(pageSize));
+
+    return ResponseEntity.ok(responseDto);
+  }
 }
@@ -2,6 +2,8 @@ package com.devs.roamance.controller;
 
 import com.devs.roamance.dto.request.social.PostRequestDto;
 import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.PostDto;
 import com.devs.roamance.dto.response.social.PostListResponseDto;
 import com.devs.roamance.dto.response.social.PostResponseDto;
 import com.devs.roamance.dto.response.user.UserListResponseDto;
@@ -49,6 +51,41 @@ public class PostController {
     return ResponseEntity.ok(responseDto);
   }
 
+  @GetMapping("/cursor")
+  public ResponseEntity<CursorListResponseDto<PostDto>> getAllPostsByCursor(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int pageSize) {
+
+    CursorListResponseDto<PostDto> responseDto =
+        postService.getAllByCursor(cursor, PaginationSortingUtil.validatePageSize(pageSize));
+
+    return ResponseEntity.ok(responseDto);
+  }
+
+  @GetMapping("/feed")
+  public ResponseEntity<CursorListResponseDto<PostDto>> getHomeFeed(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int pageSize) {
+
+    CursorListResponseDto<PostDto> responseDto =
+        postService.getHomeFeed(cursor, PaginationSortingUtil.validatePageSize(pageSize));
+
+    return ResponseEntity.ok(responseDto);
+  }
+
+  @GetMapping("/trending")
+  public ResponseEntity<PostListResponseDto> getTrendingPosts(
+      @RequestParam(defaultValue = "0") int pageNumber,
+      @RequestParam(defaultValue = "10") int pageSize) {
+
+    int[] validatedParams = PaginationSortingUtil.validatePaginationParams(pageNumber, pageSize);
+
+    PostListResponseDto responseDto =
+        postService.getTrending(validatedParams[0], validatedParams[1]);
+
+    return ResponseEntity.ok(responseDto);
+  }
+
   @GetMapping("/{postId}")
   public ResponseEntity<PostResponseDto> getPostById(@PathVariable @NotNull UUID postId) {
 
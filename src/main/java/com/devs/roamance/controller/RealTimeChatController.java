@@ -1,39 +1,72 @@
 package com.devs.roamance.controller;
 
 import com.devs.roamance.dto.request.social.RealTimeChatRequestDto;
-import com.devs.roamance.dto.response.user.UserDto;
+import com.devs.roamance.dto.response.social.PresenceDto;
+import com.devs.roamance.util.ChatMessageWriter;
+import com.devs.roamance.util.PresenceTracker;
+import com.devs.roamance.util.TypingIndicator;
 import com.devs.roamance.util.UserUtil;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 @Controller
 public class RealTimeChatController {
 
-  private final SimpMessagingTemplate simpMessagingTemplate;
+  private final ChatMessageWriter chatMessageWriter;
+  private final PresenceTracker presenceTracker;
+  private final TypingIndicator typingIndicator;
   private final UserUtil userUtil;
-  private final ModelMapper modelMapper;
 
   public RealTimeChatController(
-      SimpMessagingTemplate simpMessagingTemplate, UserUtil userUtil, ModelMapper modelMapper) {
+      ChatMessageWriter chatMessageWriter,
+      PresenceTracker presenceTracker,
+      TypingIndicator typingIndicator,
+      UserUtil userUtil) {
 
-    this.simpMessagingTemplate = simpMessagingTemplate;
+    this.chatMessageWriter = chatMessageWriter;
+    this.presenceTracker = presenceTracker;
+    this.typingIndicator = typingIndicator;
     this.userUtil = userUtil;
-    this.modelMapper = modelMapper;
   }
 
+  // The message is relayed to the participants once it is persisted, the sender gets an
+  // acknowledgement on /user/queue/message-acks
   @MessageMapping("/chat/{chatId}")
-  public RealTimeChatRequestDto sendToUser(
-      @Valid @Payload RealTimeChatRequestDto message, @DestinationVariable String chatId) {
+  public void sendToUser(
+      @Valid @Payload RealTimeChatRequestDto message,
+      @DestinationVariable UUID chatId,
+      Principal principal) {
 
-    message.setUser(modelMapper.map(userUtil.getAuthenticatedUser(), UserDto.class));
+    chatMessageWriter.submit(chatId, userUtil.getUserId(principal), principal.getName(), message);
+  }
+
+  // Typing is broadcast to the other participants on /user/queue/typing, coalesced per chat
+  @MessageMapping("/chat/{chatId}/typing")
+  public void typing(@DestinationVariable UUID chatId, Principal principal) {
+
+    typingIndicator.typing(chatId, userUtil.getUserId(principal));
+  }
+
+  @MessageMapping("/presence/heartbeat")
+  public void heartbeat(
+      Principal principal, @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+
+    presenceTracker.heartbeat(userUtil.getUserId(principal), sessionId);
+  }
 
-    simpMessagingTemplate.convertAndSendToUser(chatId, "/queue/messages", message);
+  // Answered on subscription, later changes arrive on /user/queue/presence
+  @SubscribeMapping("/presence")
+  public List<PresenceDto> getOnlinePartners(Principal principal) {
 
-    return message;
+    return presenceTracker.getOnlinePartners(userUtil.getUserId(principal));
   }
 }
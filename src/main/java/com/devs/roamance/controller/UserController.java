@@ -75,7 +75,7 @@ public class UserController {
   @GetMapping("/me")
   public ResponseEntity<UserResponseDto> getUserProfile() {
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     UserResponseDto responseDto = userService.get(userId);
 
@@ -100,17 +100,25 @@ public class UserController {
   public ResponseEntity<BaseResponseDto> updateUser(
       @Valid @RequestBody UserUpdateRequestDto requestDto) {
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     BaseResponseDto responseDto = userService.update(requestDto, userId);
 
     return ResponseEntity.ok(responseDto);
   }
 
+  @PostMapping("/follow/{userId}")
+  public ResponseEntity<BaseResponseDto> toggleUserFollow(@PathVariable @NotNull UUID userId) {
+
+    BaseResponseDto responseDto = userService.toggleFollow(userId);
+
+    return ResponseEntity.ok(responseDto);
+  }
+
   @DeleteMapping
   public ResponseEntity<BaseResponseDto> deleteUser() {
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     BaseResponseDto responseDto = userService.delete(userId);
 
@@ -52,7 +52,7 @@ public class UserInfoController {
   @GetMapping("/me")
   public ResponseEntity<UserInfoResponseDto> getUserProfile() {
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     UserInfoResponseDto responseDto = userInfoService.getByUserId(userId);
 
@@ -69,7 +69,7 @@ public class UserInfoController {
   @PutMapping
   public ResponseEntity<UserInfoResponseDto> updateUserInfo(
       @Valid @RequestBody UserInfoRequestDto requestDto) {
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
     UserInfoResponseDto responseDto = userInfoService.updateByUserId(requestDto, userId);
     return ResponseEntity.status(responseDto.getStatus()).body(responseDto);
   }
@@ -83,7 +83,7 @@ public class UserInfoController {
 
   @DeleteMapping
   public ResponseEntity<BaseResponseDto> deleteUserInfo() {
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
     BaseResponseDto responseDto = userInfoService.deleteByUserId(userId);
     return ResponseEntity.status(responseDto.getStatus()).body(responseDto);
   }
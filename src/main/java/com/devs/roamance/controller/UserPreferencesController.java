@@ -58,7 +58,7 @@ public class UserPreferencesController {
 
   @GetMapping("/me")
   public ResponseEntity<UserPreferencesResponseDto> getCurrentUserPreferences() {
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
     UserPreferencesResponseDto responseDto = userPreferencesService.getByUserId(userId);
     return ResponseEntity.ok(responseDto);
   }
@@ -80,7 +80,7 @@ public class UserPreferencesController {
   @PutMapping
   public ResponseEntity<UserPreferencesResponseDto> updateUserPreferences(
       @Valid @RequestBody UserPreferencesRequestDto requestDto) {
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
     UserPreferencesResponseDto responseDto =
         userPreferencesService.updateByUserId(requestDto, userId);
     return ResponseEntity.status(responseDto.getStatus()).body(responseDto);
@@ -95,7 +95,7 @@ public class UserPreferencesController {
 
   @DeleteMapping
   public ResponseEntity<BaseResponseDto> deleteUserPreferences() {
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
     BaseResponseDto responseDto = userPreferencesService.deleteByUserId(userId);
     return ResponseEntity.status(responseDto.getStatus()).body(responseDto);
   }
@@ -1,7 +1,9 @@
 package com.devs.roamance.dto.request.social;
 
 import com.devs.roamance.dto.response.user.UserDto;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Null;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,4 +16,9 @@ import lombok.Setter;
 public class RealTimeChatRequestDto extends MessageRequestDto {
 
   @Null private UserDto user;
+
+  // Chosen by the client and echoed in the acknowledgement, so it can match the two up
+  @JsonProperty("client_message_id")
+  @Size(max = 64, message = "Client message id can not contain more than 64 characters")
+  private String clientMessageId;
 }
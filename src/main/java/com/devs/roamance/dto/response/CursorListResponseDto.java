@@ -0,0 +1,26 @@
+package com.devs.roamance.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorListResponseDto<T> extends BaseResponseDto {
+
+  private List<T> data = new ArrayList<>();
+  private String nextCursor;
+
+  public CursorListResponseDto(
+      int status, boolean success, String message, List<T> data, String nextCursor) {
+
+    super(status, success, message);
+    this.data = data;
+    this.nextCursor = nextCursor;
+  }
+}
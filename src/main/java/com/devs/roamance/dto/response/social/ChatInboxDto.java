@@ -0,0 +1,39 @@
+package com.devs.roamance.dto.response.social;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatInboxDto {
+
+  private UUID id;
+
+  @JsonProperty("user_id")
+  private UUID userId;
+
+  @JsonProperty("user_name")
+  private String userName;
+
+  @JsonProperty("user_profile_image")
+  private String userProfileImage;
+
+  @JsonProperty("last_message_id")
+  private UUID lastMessageId;
+
+  @JsonProperty("last_activity_at")
+  private OffsetDateTime lastActivityAt;
+
+  @JsonProperty("last_message_preview")
+  private String lastMessagePreview;
+
+  @JsonProperty("unread_count")
+  private int unreadCount;
+}
@@ -0,0 +1,38 @@
+package com.devs.roamance.dto.response.social;
+
+import com.devs.roamance.dto.response.BaseResponseDto;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageAckDto extends BaseResponseDto {
+
+  @JsonProperty("client_message_id")
+  private String clientMessageId;
+
+  @JsonProperty("chat_id")
+  private UUID chatId;
+
+  private MessageDto data;
+
+  public ChatMessageAckDto(
+      int status,
+      boolean success,
+      String message,
+      String clientMessageId,
+      UUID chatId,
+      MessageDto data) {
+
+    super(status, success, message);
+    this.clientMessageId = clientMessageId;
+    this.chatId = chatId;
+    this.data = data;
+  }
+}
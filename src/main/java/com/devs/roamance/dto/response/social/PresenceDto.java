@@ -0,0 +1,24 @@
+package com.devs.roamance.dto.response.social;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDto {
+
+  @JsonProperty("user_id")
+  private UUID userId;
+
+  private boolean online;
+
+  @JsonProperty("last_seen_at")
+  private OffsetDateTime lastSeenAt;
+}
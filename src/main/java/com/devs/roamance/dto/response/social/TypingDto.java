@@ -0,0 +1,23 @@
+package com.devs.roamance.dto.response.social;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingDto {
+
+  @JsonProperty("chat_id")
+  private UUID chatId;
+
+  @JsonProperty("user_ids")
+  private List<UUID> userIds = new ArrayList<>();
+}
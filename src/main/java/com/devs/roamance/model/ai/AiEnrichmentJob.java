@@ -0,0 +1,66 @@
+package com.devs.roamance.model.ai;
+
+import com.devs.roamance.model.audit.AuditTime;
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+/**
+ * Outbox row for AI work that has to happen after a post is created. It is written in the same
+ * transaction as the post and picked up by the enrichment worker, so the work survives restarts and
+ * failed Gemini/Nomic calls.
+ */
+@Entity
+@Table(
+    name = "ai_enrichment_jobs",
+    indexes = {
+      @Index(
+          name = "idx_ai_enrichment_jobs_status_next_attempt",
+          columnList = "status, next_attempt_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class AiEnrichmentJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "post_id", nullable = false)
+  private UUID postId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 32)
+  private AiEnrichmentJobType type;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private AiEnrichmentJobStatus status = AiEnrichmentJobStatus.PENDING;
+
+  private int attempts = 0;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private OffsetDateTime nextAttemptAt;
+
+  @Column(name = "locked_at")
+  private OffsetDateTime lockedAt;
+
+  @Column(name = "last_error", length = 2000)
+  private String lastError;
+
+  @Embedded private AuditTime audit = new AuditTime();
+
+  public AiEnrichmentJob(UUID postId, AiEnrichmentJobType type, OffsetDateTime nextAttemptAt) {
+    this.postId = postId;
+    this.type = type;
+    this.nextAttemptAt = nextAttemptAt;
+  }
+}
@@ -0,0 +1,8 @@
+package com.devs.roamance.model.ai;
+
+public enum AiEnrichmentJobStatus {
+  PENDING,
+  RUNNING,
+  DONE,
+  FAILED
+}
@@ -0,0 +1,6 @@
+package com.devs.roamance.model.ai;
+
+public enum AiEnrichmentJobType {
+  TIDBITS_AND_SAFETY,
+  VECTOR_INDEX
+}
@@ -14,10 +14,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "chats")
+@Table(
+    name = "chats",
+    uniqueConstraints =
+        @UniqueConstraint(name = "uk_chats_participant_key", columnNames = "participant_key"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,15 +36,20 @@ public class Chat {
 
   @JsonIgnore
   @ManyToMany(
-      fetch = FetchType.EAGER, // Although a List, But only two users per chat for now (one to one)
+      fetch = FetchType.LAZY, // Although a List, But only two users per chat for now (one to one)
       cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
   @JoinTable(
       name = "chat_users",
       joinColumns = @JoinColumn(name = "chat_id"),
       inverseJoinColumns = @JoinColumn(name = "user_id"))
   @Size(min = 2, max = 2)
+  @BatchSize(size = 50)
   private List<User> users = new ArrayList<>();
 
+  // Both user ids in a fixed order, the unique constraint allows one chat per pair of users
+  @Column(name = "participant_key", length = 73, updatable = false)
+  private String participantKey;
+
   @JsonIgnore
   @OneToMany(
       mappedBy = "chat",
@@ -53,4 +62,31 @@ public class Chat {
   private String lastText;
 
   @Embedded private Audit audit = new Audit();
+
+  public static String participantKeyOf(UUID user1, UUID user2) {
+
+    String first = user1.toString();
+    String second = user2.toString();
+
+    return first.compareTo(second) <= 0 ? first + ":" + second : second + ":" + first;
+  }
+
+  /** Text a message leaves as the last text of its chat, null for a message without content. */
+  public static String lastTextOf(
+      String senderName, String text, List<String> imagePaths, List<String> videoPaths) {
+
+    if (text != null && !text.isEmpty()) {
+      return text;
+    }
+
+    if (imagePaths != null && !imagePaths.isEmpty()) {
+      return senderName + (imagePaths.size() == 1 ? " sent a photo" : " sent photos");
+    }
+
+    if (videoPaths != null && !videoPaths.isEmpty()) {
+      return senderName + (videoPaths.size() == 1 ? " sent a video" : " sent videos");
+    }
+
+    return null;
+  }
 }
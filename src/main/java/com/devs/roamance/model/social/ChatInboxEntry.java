@@ -0,0 +1,80 @@
+package com.devs.roamance.model.social;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A chat in the inbox of one of its users. Rows hold what the inbox shows for the chat (the other
+ * user, the last message and the unread count) and are updated when a message is sent or read, so
+ * an inbox page is a range scan over the user's rows without touching messages or chat_users.
+ */
+@Entity
+@Table(
+    name = "chat_inbox",
+    indexes =
+        @Index(
+            name = "idx_chat_inbox_user_id_last_activity_at_chat_id",
+            columnList = "user_id, last_activity_at, chat_id"))
+@IdClass(ChatInboxEntry.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatInboxEntry {
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+
+    private UUID userId;
+    private UUID chatId;
+  }
+
+  public static final int PREVIEW_LENGTH = 200;
+
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Id
+  @Column(name = "chat_id", nullable = false)
+  private UUID chatId;
+
+  @Column(name = "other_user_id", nullable = false)
+  private UUID otherUserId;
+
+  @Column(name = "last_message_id")
+  private UUID lastMessageId;
+
+  // Time of the last message, or of the chat's creation while it has none
+  @Column(name = "last_activity_at", nullable = false)
+  private OffsetDateTime lastActivityAt;
+
+  @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+  private String lastMessagePreview;
+
+  @Column(name = "unread_count", nullable = false)
+  private int unreadCount = 0;
+
+  @Column(name = "last_read_at")
+  private OffsetDateTime lastReadAt;
+
+  public static String previewOf(String text) {
+
+    if (text == null || text.length() <= PREVIEW_LENGTH) {
+      return text;
+    }
+
+    return text.substring(0, PREVIEW_LENGTH);
+  }
+}
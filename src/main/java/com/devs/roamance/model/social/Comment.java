@@ -16,7 +16,11 @@ import lombok.Setter;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "comments")
+@Table(
+    name = "comments",
+    indexes = {
+      @Index(name = "idx_comments_post_id_created_at_id", columnList = "post_id, created_at, id")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
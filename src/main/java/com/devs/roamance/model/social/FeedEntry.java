@@ -0,0 +1,58 @@
+package com.devs.roamance.model.social;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A post in the home feed of a user. Rows are written when a post is created (fan-out on write), so
+ * that reading a feed is a single range scan over the user's rows in post order. The author and
+ * creation time are copied from the post so neither the scan nor cleanups have to join posts.
+ */
+@Entity
+@Table(
+    name = "feed_entries",
+    indexes = {
+      @Index(
+          name = "idx_feed_entries_user_id_created_at_post_id",
+          columnList = "user_id, post_created_at, post_id"),
+      @Index(name = "idx_feed_entries_post_id", columnList = "post_id")
+    })
+@IdClass(FeedEntry.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedEntry {
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+
+    private UUID userId;
+    private UUID postId;
+  }
+
+  @Id
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Id
+  @Column(name = "post_id", nullable = false)
+  private UUID postId;
+
+  @Column(name = "author_id", nullable = false)
+  private UUID authorId;
+
+  @Column(name = "post_created_at", nullable = false)
+  private OffsetDateTime postCreatedAt;
+}
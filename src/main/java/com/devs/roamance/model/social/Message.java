@@ -14,10 +14,15 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "messages")
+@Table(
+    name = "messages",
+    indexes = {
+      @Index(name = "idx_messages_chat_id_created_at_id", columnList = "chat_id, created_at, id")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,16 +39,18 @@ public class Message {
   private String text;
 
   @Size(max = 20)
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   private List<String> imagePaths = new ArrayList<>();
 
   @Size(max = 3)
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   private List<String> videoPaths = new ArrayList<>();
 
   @JsonIgnore
   @ManyToOne(
-      fetch = FetchType.EAGER,
+      fetch = FetchType.LAZY,
       cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.DETACH, CascadeType.REFRESH})
   @JoinColumn(name = "user_id", referencedColumnName = "id")
   private User user;
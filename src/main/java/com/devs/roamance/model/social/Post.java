@@ -10,10 +10,20 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import java.util.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "posts")
+@Table(
+    name = "posts",
+    indexes = {
+      @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+      @Index(name = "idx_posts_user_id_created_at_id", columnList = "user_id, created_at, id"),
+      @Index(
+          name = "idx_posts_user_id_fanned_out_created_at_id",
+          columnList = "user_id, fanned_out, created_at, id")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,12 +39,15 @@ public class Post {
   @Column(length = 10_000)
   private String text;
 
+  // Lazy and batch fetched, so a page of posts loads its media with one IN query per collection
   @Size(max = 50)
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   private List<String> imagePaths = new ArrayList<>();
 
   @Size(max = 5)
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   private List<String> videoPaths = new ArrayList<>();
 
   @Embedded private Location location;
@@ -44,12 +57,23 @@ public class Post {
   @Column(length = 10_000)
   private String tidbits;
 
+  // Only changed by the delta flushes of PostCounters, entity updates must not overwrite them
+  // with stale values
+  @Column(updatable = false)
   private int likesCount = 0;
+
+  @Column(updatable = false)
   private int commentsCount = 0;
 
+  // Cleared by FeedUtil.fanOut when the author is above the fan-out limit, such posts are pulled
+  // into the feeds of followers at read time for as long as they exist
+  @ColumnDefault("true")
+  @Column(name = "fanned_out", nullable = false, updatable = false)
+  private boolean fannedOut = true;
+
   @JsonIgnore
   @ManyToOne(
-      fetch = FetchType.EAGER,
+      fetch = FetchType.LAZY,
       cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.DETACH, CascadeType.REFRESH})
   @JoinColumn(name = "user_id", referencedColumnName = "id")
   private User user;
@@ -0,0 +1,37 @@
+package com.devs.roamance.model.social;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A like or comment count change of a post that is not applied to {@code posts} yet. Rows are
+ * appended in the transaction of the like or comment and folded into the post counters by
+ * PostCounters, so counters plus pending deltas always match the join tables.
+ */
+@Entity
+@Table(
+    name = "post_counter_deltas",
+    indexes = @Index(name = "idx_post_counter_deltas_post_id", columnList = "post_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCounterDelta {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "post_id", nullable = false)
+  private UUID postId;
+
+  @Column(name = "likes_delta", nullable = false)
+  private int likesDelta;
+
+  @Column(name = "comments_delta", nullable = false)
+  private int commentsDelta;
+}
@@ -0,0 +1,119 @@
+package com.devs.roamance.model.travel.itinerary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Overlap checks for the activities of a day plan. Checking a single activity is a plain scan, as
+ * building an index for one lookup costs more than it saves. Checking all activities against each
+ * other sorts them by start time once and finds every collision in a single sweep. Activities
+ * without a start or end time are ignored. Touching intervals (one ends when the next starts) do
+ * not collide.
+ */
+public final class ActivitySchedule {
+
+  /** Two activities whose time ranges overlap. */
+  public record Collision(Activity first, Activity second) {}
+
+  private static final Comparator<Activity> BY_START_THEN_END =
+      Comparator.comparing(Activity::getStartTime).thenComparing(Activity::getEndTime);
+
+  private final List<Activity> activities;
+
+  private ActivitySchedule(List<Activity> activities) {
+    this.activities = activities;
+  }
+
+  /**
+   * Returns the activities the candidate overlaps with. The candidate itself (same instance or same
+   * id) is never reported, so an updated activity can be checked against its own day plan.
+   *
+   * @param activities the activities of the day plan
+   * @param candidate the activity to check
+   * @return Overlapping activities ordered by start time, empty if there are none
+   */
+  public static List<Activity> findCollisions(Collection<Activity> activities, Activity candidate) {
+
+    if (!isScheduled(candidate)) {
+      return List.of();
+    }
+
+    List<Activity> collisions = new ArrayList<>();
+
+    for (Activity other : activities) {
+      if (isScheduled(other)
+          && !isSame(candidate, other)
+          && other.getStartTime().isBefore(candidate.getEndTime())
+          && other.getEndTime().isAfter(candidate.getStartTime())) {
+        collisions.add(other);
+      }
+    }
+
+    collisions.sort(BY_START_THEN_END);
+
+    return collisions;
+  }
+
+  public static ActivitySchedule of(Collection<Activity> activities) {
+
+    List<Activity> scheduled = new ArrayList<>(activities.size());
+    boolean sorted = true;
+
+    for (Activity activity : activities) {
+      if (!isScheduled(activity)) {
+        continue;
+      }
+      if (!scheduled.isEmpty()
+          && BY_START_THEN_END.compare(scheduled.get(scheduled.size() - 1), activity) > 0) {
+        sorted = false;
+      }
+      scheduled.add(activity);
+    }
+
+    // Day plan activities are loaded ordered by start time, so sorting is usually skipped
+    if (!sorted) {
+      scheduled.sort(BY_START_THEN_END);
+    }
+
+    return new ActivitySchedule(scheduled);
+  }
+
+  /**
+   * Finds every pair of overlapping activities with a sweep over the start times
+   *
+   * @return All collisions, ordered by the start time of the later activity
+   */
+  public List<Collision> findAllCollisions() {
+
+    List<Collision> collisions = new ArrayList<>();
+    PriorityQueue<Activity> running =
+        new PriorityQueue<>(Comparator.comparing(Activity::getEndTime));
+
+    for (Activity activity : activities) {
+      while (!running.isEmpty() && !running.peek().getEndTime().isAfter(activity.getStartTime())) {
+        running.poll();
+      }
+
+      for (Activity other : running) {
+        collisions.add(new Collision(other, activity));
+      }
+
+      running.add(activity);
+    }
+
+    return collisions;
+  }
+
+  private static boolean isScheduled(Activity activity) {
+    return activity.getStartTime() != null && activity.getEndTime() != null;
+  }
+
+  private static boolean isSame(Activity candidate, Activity other) {
+    return candidate == other
+        || (candidate.getId() != null && Objects.equals(candidate.getId(), other.getId()));
+  }
+}
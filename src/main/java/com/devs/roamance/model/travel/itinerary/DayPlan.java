@@ -15,11 +15,12 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
@@ -56,7 +57,9 @@ public class DayPlan {
   @ElementCollection(fetch = FetchType.LAZY)
   private List<@NotBlank @Size(max = 10_000) String> notes = new ArrayList<>();
 
-  @Formula("(SELECT COALESCE(SUM(a.cost), 0) FROM activities a WHERE a.day_plan_id = id)")
+  // Maintained incrementally by ItineraryCostUtil, entity updates must not overwrite it
+  @ColumnDefault("0")
+  @Column(name = "total_cost", nullable = false, updatable = false)
   private BigDecimal totalCost = BigDecimal.ZERO;
 
   @JsonIgnore
@@ -77,27 +80,27 @@ public class DayPlan {
 
   public void validateNoTimeCollisions(Activity currentActivity) {
 
-    if (currentActivity.getStartTime() == null || currentActivity.getEndTime() == null) return;
-
     // need to fetch activities EAGERLY with DayPlan using entity graph to avoid n+1
-    for (Activity otherActivity : activities) {
+    List<Activity> collisions = ActivitySchedule.findCollisions(activities, currentActivity);
 
-      if (currentActivity.getId() != null
-          && (currentActivity.getId().equals(otherActivity.getId())
-              || otherActivity.getStartTime() == null
-              || otherActivity.getEndTime() == null)) continue;
+    if (!collisions.isEmpty()) {
 
-      boolean startsBeforeEnd = currentActivity.getStartTime().isBefore(otherActivity.getEndTime());
-      boolean endsAfterStart = currentActivity.getEndTime().isAfter(otherActivity.getStartTime());
+      throw new ScheduleCollisionException(
+          "Activity schedule collision detected with "
+              + collisions.stream().map(DayPlan::describeTimes).collect(Collectors.joining(", ")));
+    }
+  }
 
-      if (startsBeforeEnd && endsAfterStart) {
+  /**
+   * Checks all activities of the day plan against each other in a single sweep
+   *
+   * @return Every pair of overlapping activities, empty if the schedule is valid
+   */
+  public List<ActivitySchedule.Collision> findTimeCollisions() {
+    return ActivitySchedule.of(activities).findAllCollisions();
+  }
 
-        throw new ScheduleCollisionException(
-            "Activity schedule collision detected with start time : "
-                + otherActivity.getStartTime()
-                + " and end time : "
-                + otherActivity.getEndTime());
-      }
-    }
+  private static String describeTimes(Activity activity) {
+    return "start time : " + activity.getStartTime() + " and end time : " + activity.getEndTime();
   }
 }
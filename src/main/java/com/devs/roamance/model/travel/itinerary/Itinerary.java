@@ -19,7 +19,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
@@ -54,18 +54,9 @@ public class Itinerary {
   @ElementCollection(fetch = FetchType.LAZY)
   private List<@NotBlank @Size(max = 10_000) String> notes = new ArrayList<>();
 
-  @Formula(
-      """
-      (
-        SELECT COALESCE(SUM(
-          (SELECT COALESCE(SUM(a.cost), 0)
-           FROM activities a
-           WHERE a.day_plan_id = dp.id)
-        ), 0)
-        FROM day_plans dp
-        WHERE dp.itinerary_id = id
-      )
-      """)
+  // Maintained incrementally by ItineraryCostUtil, entity updates must not overwrite it
+  @ColumnDefault("0")
+  @Column(name = "total_cost", nullable = false, updatable = false)
   private BigDecimal totalCost = BigDecimal.ZERO;
 
   @JsonIgnore
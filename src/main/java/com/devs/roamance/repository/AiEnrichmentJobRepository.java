@@ -0,0 +1,66 @@
+package com.devs.roamance.repository;
+
+import com.devs.roamance.model.ai.AiEnrichmentJob;
+import com.devs.roamance.model.ai.AiEnrichmentJobStatus;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AiEnrichmentJobRepository extends JpaRepository<AiEnrichmentJob, UUID> {
+
+  // Rows locked by another worker are skipped instead of waited on, so several instances can poll
+  // the same table without handing out a job twice
+  @Query(
+      value =
+          "SELECT * FROM ai_enrichment_jobs j "
+              + "WHERE j.status = 'PENDING' AND j.next_attempt_at <= :now "
+              + "ORDER BY j.next_attempt_at "
+              + "LIMIT :limit "
+              + "FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<AiEnrichmentJob> claimDue(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+  @Modifying
+  @Query(
+      "UPDATE AiEnrichmentJob j SET j.status = :pending, j.lockedAt = null "
+          + "WHERE j.status = :running AND j.lockedAt < :cutoff")
+  int releaseStale(
+      @Param("cutoff") OffsetDateTime cutoff,
+      @Param("running") AiEnrichmentJobStatus running,
+      @Param("pending") AiEnrichmentJobStatus pending);
+
+  // Only the worker holding the claim can finish a job. A worker whose claim went stale and was
+  // handed to another worker no longer matches locked_at, so it cannot overwrite the outcome.
+  @Modifying
+  @Query(
+      "UPDATE AiEnrichmentJob j SET j.status = :status, j.lockedAt = null, "
+          + "j.nextAttemptAt = :nextAttemptAt, j.lastError = :lastError, "
+          + "j.audit.lastModifiedAt = :finishedAt "
+          + "WHERE j.id = :id AND j.status = :running AND j.lockedAt = :lockedAt")
+  int finish(
+      @Param("id") UUID id,
+      @Param("lockedAt") OffsetDateTime lockedAt,
+      @Param("running") AiEnrichmentJobStatus running,
+      @Param("status") AiEnrichmentJobStatus status,
+      @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+      @Param("lastError") String lastError,
+      @Param("finishedAt") OffsetDateTime finishedAt);
+
+  @Modifying
+  @Query(
+      "DELETE FROM AiEnrichmentJob j "
+          + "WHERE j.status IN :statuses AND j.audit.lastModifiedAt < :cutoff")
+  int deleteFinishedBefore(
+      @Param("statuses") Collection<AiEnrichmentJobStatus> statuses,
+      @Param("cutoff") OffsetDateTime cutoff);
+
+  long countByStatus(AiEnrichmentJobStatus status);
+
+  @Query("SELECT MIN(j.audit.createdAt) FROM AiEnrichmentJob j WHERE j.status = :status")
+  OffsetDateTime findOldestCreatedAtByStatus(@Param("status") AiEnrichmentJobStatus status);
+}
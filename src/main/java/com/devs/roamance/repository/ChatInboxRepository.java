@@ -0,0 +1,92 @@
+package com.devs.roamance.repository;
+
+import com.devs.roamance.model.social.ChatInboxEntry;
+import com.devs.roamance.repository.projection.ChatInboxItem;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ChatInboxRepository extends JpaRepository<ChatInboxEntry, ChatInboxEntry.Key> {
+
+  // Keyset pagination over the inbox index, most recent activity first
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.ChatInboxItem("
+          + "e.chatId, u.id, u.name, u.profileImage, e.lastMessageId, e.lastActivityAt, "
+          + "e.lastMessagePreview, e.unreadCount) "
+          + "FROM ChatInboxEntry e JOIN User u ON u.id = e.otherUserId "
+          + "WHERE e.userId = :userId "
+          + "ORDER BY e.lastActivityAt DESC, e.chatId DESC")
+  Slice<ChatInboxItem> findFirstSlice(@Param("userId") UUID userId, Pageable pageable);
+
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.ChatInboxItem("
+          + "e.chatId, u.id, u.name, u.profileImage, e.lastMessageId, e.lastActivityAt, "
+          + "e.lastMessagePreview, e.unreadCount) "
+          + "FROM ChatInboxEntry e JOIN User u ON u.id = e.otherUserId "
+          + "WHERE e.userId = :userId "
+          + "AND (e.lastActivityAt, e.chatId) < (:lastActivityAt, :chatId) "
+          + "ORDER BY e.lastActivityAt DESC, e.chatId DESC")
+  Slice<ChatInboxItem> findSliceBefore(
+      @Param("userId") UUID userId,
+      @Param("lastActivityAt") OffsetDateTime lastActivityAt,
+      @Param("chatId") UUID chatId,
+      Pageable pageable);
+
+  // The users someone has a chat with, a range scan over the primary key of the inbox
+  @Query("SELECT e.otherUserId FROM ChatInboxEntry e WHERE e.userId = :userId")
+  List<UUID> findOtherUserIds(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO chat_inbox "
+              + "(user_id, chat_id, other_user_id, last_activity_at, unread_count) "
+              + "VALUES (:user1, :chatId, :user2, :createdAt, 0), "
+              + "(:user2, :chatId, :user1, :createdAt, 0) "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void addChat(
+      @Param("chatId") UUID chatId,
+      @Param("user1") UUID user1,
+      @Param("user2") UUID user2,
+      @Param("createdAt") OffsetDateTime createdAt);
+
+  // The sender has seen the chat, every other user gets one more unread message. A message that
+  // commits after a newer one does not replace it as the last message.
+  @Modifying
+  @Query(
+      value =
+          "UPDATE chat_inbox SET "
+              + "last_message_id = CASE WHEN last_activity_at <= :sentAt "
+              + "  THEN :messageId ELSE last_message_id END, "
+              + "last_message_preview = CASE WHEN last_activity_at <= :sentAt "
+              + "  THEN :preview ELSE last_message_preview END, "
+              + "last_activity_at = GREATEST(last_activity_at, :sentAt), "
+              + "unread_count = CASE WHEN user_id = :senderId THEN 0 ELSE unread_count + 1 END, "
+              + "last_read_at = CASE WHEN user_id = :senderId THEN :sentAt ELSE last_read_at END "
+              + "WHERE chat_id = :chatId",
+      nativeQuery = true)
+  int recordMessage(
+      @Param("chatId") UUID chatId,
+      @Param("senderId") UUID senderId,
+      @Param("messageId") UUID messageId,
+      @Param("sentAt") OffsetDateTime sentAt,
+      @Param("preview") String preview);
+
+  @Modifying
+  @Query(
+      value =
+          "UPDATE chat_inbox SET unread_count = 0, last_read_at = :readAt "
+              + "WHERE user_id = :userId AND chat_id = :chatId",
+      nativeQuery = true)
+  int markAsRead(
+      @Param("userId") UUID userId,
+      @Param("chatId") UUID chatId,
+      @Param("readAt") OffsetDateTime readAt);
+}
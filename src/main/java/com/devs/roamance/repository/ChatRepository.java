@@ -1,18 +1,52 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.social.Chat;
-import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.projection.ChatParticipant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ChatRepository extends JpaRepository<Chat, UUID> {
 
-  @Query("SELECT c FROM Chat c WHERE :user1 MEMBER OF c.users AND :user2 MEMBER OF c.users")
-  Chat findByUsers(@Param("user1") User user1, @Param("user2") User user2);
+  Optional<Chat> findByParticipantKey(String participantKey);
 
   Page<Chat> findAllByUsers_Id(UUID id, Pageable pageable);
+
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.ChatParticipant(c.id, u.id) "
+          + "FROM Chat c JOIN c.users u WHERE c.id IN :chatIds")
+  List<ChatParticipant> findParticipantsByChatIds(@Param("chatIds") Collection<UUID> chatIds);
+
+  // Creating a chat for a pair of users. A concurrent insert of the same key waits for the other
+  // transaction and then inserts nothing, so both end up with the same chat.
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO chats "
+              + "(id, participant_key, created_at, last_modified_at, created_by, last_modified_by) "
+              + "VALUES (:id, :participantKey, :now, :now, :userId, :userId) "
+              + "ON CONFLICT (participant_key) DO NOTHING",
+      nativeQuery = true)
+  int insertIfAbsent(
+      @Param("id") UUID id,
+      @Param("participantKey") String participantKey,
+      @Param("userId") UUID userId,
+      @Param("now") OffsetDateTime now);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO chat_users (chat_id, user_id) "
+              + "VALUES (:chatId, :user1), (:chatId, :user2)",
+      nativeQuery = true)
+  void addUsers(
+      @Param("chatId") UUID chatId, @Param("user1") UUID user1, @Param("user2") UUID user2);
 }
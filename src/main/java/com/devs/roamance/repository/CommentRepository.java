@@ -1,12 +1,32 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.social.Comment;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
 
   Page<Comment> findAllByPostId(UUID postId, Pageable pageable);
+
+  // Keyset pagination, oldest first
+  @Query(
+      "SELECT c FROM Comment c WHERE c.post.id = :postId "
+          + "ORDER BY c.audit.createdAt ASC, c.id ASC")
+  Slice<Comment> findFirstSliceByPostId(@Param("postId") UUID postId, Pageable pageable);
+
+  @Query(
+      "SELECT c FROM Comment c WHERE c.post.id = :postId "
+          + "AND (c.audit.createdAt, c.id) > (:createdAt, :id) "
+          + "ORDER BY c.audit.createdAt ASC, c.id ASC")
+  Slice<Comment> findSliceByPostIdAfter(
+      @Param("postId") UUID postId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") UUID id,
+      Pageable pageable);
 }
@@ -1,12 +1,14 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.travel.itinerary.DayPlan;
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
@@ -32,4 +34,10 @@ public interface DayPlanRepository extends JpaRepository<DayPlan, UUID> {
   Optional<DayPlan> findByIdWithItinerary(@Param("id") @NonNull UUID id);
 
   Page<DayPlan> findAllByItineraryId(UUID itineraryId, Pageable pageable);
+
+  @Modifying
+  @Query(
+      value = "UPDATE day_plans SET total_cost = total_cost + :delta WHERE id = :dayPlanId",
+      nativeQuery = true)
+  void addToTotalCost(@Param("dayPlanId") UUID dayPlanId, @Param("delta") BigDecimal delta);
 }
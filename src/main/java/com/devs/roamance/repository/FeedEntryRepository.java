@@ -0,0 +1,92 @@
+package com.devs.roamance.repository;
+
+import com.devs.roamance.model.social.FeedEntry;
+import com.devs.roamance.repository.projection.FeedItem;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, FeedEntry.Key> {
+
+  // Keyset pagination over the feed index, newest first
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.FeedItem(e.postId, e.postCreatedAt) "
+          + "FROM FeedEntry e WHERE e.userId = :userId "
+          + "ORDER BY e.postCreatedAt DESC, e.postId DESC")
+  List<FeedItem> findFirstItems(@Param("userId") UUID userId, Pageable pageable);
+
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.FeedItem(e.postId, e.postCreatedAt) "
+          + "FROM FeedEntry e WHERE e.userId = :userId "
+          + "AND (e.postCreatedAt, e.postId) < (:createdAt, :postId) "
+          + "ORDER BY e.postCreatedAt DESC, e.postId DESC")
+  List<FeedItem> findItemsBefore(
+      @Param("userId") UUID userId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("postId") UUID postId,
+      Pageable pageable);
+
+  // Decides once whether a new post is fanned out, the flag is what reads rely on afterwards
+  @Modifying
+  @Query(
+      value =
+          "UPDATE posts p SET fanned_out = false FROM users u "
+              + "WHERE p.id = :postId AND u.id = p.user_id AND u.followers_count > :followerLimit",
+      nativeQuery = true)
+  int markNotFannedOut(@Param("postId") UUID postId, @Param("followerLimit") long followerLimit);
+
+  // The author's own feed always gets the post, followers only if it is flagged as fanned out.
+  // The creation time is read back from the row, so feed and post cursors compare equal.
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO feed_entries (user_id, post_id, author_id, post_created_at) "
+              + "SELECT p.user_id, p.id, p.user_id, p.created_at FROM posts p "
+              + "WHERE p.id = :postId "
+              + "UNION ALL "
+              + "SELECT f.follower_id, p.id, p.user_id, p.created_at FROM posts p "
+              + "JOIN user_follows f ON f.followee_id = p.user_id "
+              + "WHERE p.id = :postId AND p.fanned_out "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  int fanOut(@Param("postId") UUID postId);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO feed_entries (user_id, post_id, author_id, post_created_at) "
+              + "SELECT :userId, p.id, p.user_id, p.created_at FROM posts p "
+              + "WHERE p.user_id = :authorId "
+              + "ORDER BY p.created_at DESC LIMIT :limit "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  int backfill(
+      @Param("userId") UUID userId, @Param("authorId") UUID authorId, @Param("limit") int limit);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM feed_entries WHERE user_id = :userId AND author_id = :authorId",
+      nativeQuery = true)
+  int deleteAllByUserIdAndAuthorId(@Param("userId") UUID userId, @Param("authorId") UUID authorId);
+
+  @Modifying
+  @Query(value = "DELETE FROM feed_entries WHERE post_id = :postId", nativeQuery = true)
+  int deleteAllByPostId(@Param("postId") UUID postId);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM feed_entries WHERE user_id = :userId OR author_id = :userId",
+      nativeQuery = true)
+  int deleteAllOfUser(@Param("userId") UUID userId);
+
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM feed_entries WHERE post_created_at < :cutoff", nativeQuery = true)
+  int deleteAllOlderThan(@Param("cutoff") OffsetDateTime cutoff);
+}
@@ -1,13 +1,16 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.travel.itinerary.Itinerary;
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 
 public interface ItineraryRepository extends JpaRepository<Itinerary, UUID> {
@@ -20,4 +23,22 @@ public interface ItineraryRepository extends JpaRepository<Itinerary, UUID> {
   Optional<Itinerary> findByIdLite(UUID id);
 
   Page<Itinerary> findAllByUserId(UUID userId, Pageable pageable);
+
+  @Modifying
+  @Query(
+      value =
+          "UPDATE itineraries SET total_cost = total_cost + :delta "
+              + "WHERE id = (SELECT d.itinerary_id FROM day_plans d WHERE d.id = :dayPlanId)",
+      nativeQuery = true)
+  void addToTotalCostByDayPlanId(
+      @Param("dayPlanId") UUID dayPlanId, @Param("delta") BigDecimal delta);
+
+  @Modifying
+  @Query(
+      value =
+          "UPDATE itineraries SET total_cost = total_cost "
+              + "- (SELECT d.total_cost FROM day_plans d WHERE d.id = :dayPlanId) "
+              + "WHERE id = (SELECT d.itinerary_id FROM day_plans d WHERE d.id = :dayPlanId)",
+      nativeQuery = true)
+  void subtractDayPlanTotalCost(@Param("dayPlanId") UUID dayPlanId);
 }
@@ -1,6 +1,7 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.travel.journal.Journal;
+import com.devs.roamance.repository.projection.JournalSummary;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -8,6 +9,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -22,6 +25,20 @@ public interface JournalRepository extends JpaRepository<Journal, UUID> {
   @NonNull
   List<Journal> findAll();
 
-  @EntityGraph(attributePaths = {"subsections"})
-  Page<Journal> findAllByAudit_CreatedBy(UUID createdBy, Pageable pageable);
+  // List pages only need the number of subsections, so they are counted in the same query
+  @Query(
+      value =
+          "SELECT new com.devs.roamance.repository.projection.JournalSummary(j, COUNT(s)) "
+              + "FROM Journal j LEFT JOIN j.subsections s GROUP BY j",
+      countQuery = "SELECT COUNT(j) FROM Journal j")
+  Page<JournalSummary> findAllSummaries(Pageable pageable);
+
+  @Query(
+      value =
+          "SELECT new com.devs.roamance.repository.projection.JournalSummary(j, COUNT(s)) "
+              + "FROM Journal j LEFT JOIN j.subsections s "
+              + "WHERE j.audit.createdBy = :createdBy GROUP BY j",
+      countQuery = "SELECT COUNT(j) FROM Journal j WHERE j.audit.createdBy = :createdBy")
+  Page<JournalSummary> findAllSummariesByCreatedBy(
+      @Param("createdBy") UUID createdBy, Pageable pageable);
 }
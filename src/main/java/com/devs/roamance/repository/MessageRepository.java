@@ -1,12 +1,32 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.social.Message;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
 
   Page<Message> findAllByChatId(UUID chatId, Pageable pageable);
+
+  // Keyset pagination, newest first
+  @Query(
+      "SELECT m FROM Message m WHERE m.chat.id = :chatId "
+          + "ORDER BY m.audit.createdAt DESC, m.id DESC")
+  Slice<Message> findFirstSliceByChatId(@Param("chatId") UUID chatId, Pageable pageable);
+
+  @Query(
+      "SELECT m FROM Message m WHERE m.chat.id = :chatId "
+          + "AND (m.audit.createdAt, m.id) < (:createdAt, :id) "
+          + "ORDER BY m.audit.createdAt DESC, m.id DESC")
+  Slice<Message> findSliceByChatIdBefore(
+      @Param("chatId") UUID chatId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") UUID id,
+      Pageable pageable);
 }
@@ -1,18 +1,53 @@
 package com.devs.roamance.repository;
 
 import com.devs.roamance.model.social.Post;
+import com.devs.roamance.repository.projection.FeedItem;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PostRepository extends JpaRepository<Post, UUID> {
 
   Page<Post> findAllByUserId(UUID userId, Pageable pageable);
 
+  // Keyset pagination, newest first
+  @Query("SELECT p FROM Post p ORDER BY p.audit.createdAt DESC, p.id DESC")
+  Slice<Post> findFirstSlice(Pageable pageable);
+
+  @Query(
+      "SELECT p FROM Post p WHERE (p.audit.createdAt, p.id) < (:createdAt, :id) "
+          + "ORDER BY p.audit.createdAt DESC, p.id DESC")
+  Slice<Post> findSliceBefore(
+      @Param("createdAt") OffsetDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+  // Home feed posts of followed authors that were not fanned out when created, see FeedUtil
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.FeedItem(p.id, p.audit.createdAt) "
+          + "FROM Post p WHERE p.fannedOut = false AND p.user.id IN "
+          + "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) "
+          + "ORDER BY p.audit.createdAt DESC, p.id DESC")
+  List<FeedItem> findFirstPulledFeedItems(@Param("userId") UUID userId, Pageable pageable);
+
+  @Query(
+      "SELECT new com.devs.roamance.repository.projection.FeedItem(p.id, p.audit.createdAt) "
+          + "FROM Post p WHERE p.fannedOut = false AND p.user.id IN "
+          + "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) "
+          + "AND (p.audit.createdAt, p.id) < (:createdAt, :id) "
+          + "ORDER BY p.audit.createdAt DESC, p.id DESC")
+  List<FeedItem> findPulledFeedItemsBefore(
+      @Param("userId") UUID userId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") UUID id,
+      Pageable pageable);
+
   Page<Post> findAllBySavedBy_Id(UUID userId, Pageable pageable);
 
   @Query(
@@ -59,29 +94,14 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
       nativeQuery = true)
   void unlikeByUser(@Param("postId") UUID postId, @Param("userId") UUID userId);
 
+  // Targeted update so background AI analysis never overwrites concurrently changed counters
+  @Transactional
   @Modifying
   @Query(
-      value = "UPDATE posts SET likes_count = likes_count + 1 WHERE id = :postId",
-      nativeQuery = true)
-  void incrementLikeCount(@Param("postId") UUID postId);
-
-  @Modifying
-  @Query(
-      value = "UPDATE posts SET likes_count = likes_count - 1 WHERE id = :postId",
-      nativeQuery = true)
-  void decrementLikeCount(@Param("postId") UUID postId);
-
-  // increment or decrementing comments count
-
-  @Modifying
-  @Query(
-      value = "UPDATE posts SET comments_count = comments_count + 1 WHERE id = :postId",
-      nativeQuery = true)
-  void incrementCommentCount(@Param("postId") UUID postId);
-
-  @Modifying
-  @Query(
-      value = "UPDATE posts SET comments_count = comments_count - 1 WHERE id = :postId",
+      value = "UPDATE posts SET is_safe = :isSafe, tidbits = :tidbits WHERE id = :postId",
       nativeQuery = true)
-  void decrementCommentCount(@Param("postId") UUID postId);
+  void updateAnalysis(
+      @Param("postId") UUID postId,
+      @Param("isSafe") Boolean isSafe,
+      @Param("tidbits") String tidbits);
 }
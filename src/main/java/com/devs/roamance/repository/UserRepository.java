@@ -6,6 +6,7 @@ import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,14 +16,65 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
   Page<User> findAllByLikedPosts_Id(UUID postId, Pageable pageable);
 
+  // Served from the trigram index on LOWER(name), see UserSearchIndexInitializer. Exact matches
+  // rank first, then prefix matches, then the rest; name and id keep pages stable.
   @Query(
-      "SELECT u FROM User u "
-          + "WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) "
-          + "ORDER BY "
-          + "CASE "
-          + "   WHEN LOWER(u.name) = LOWER(:query) THEN 0 "
-          + "   WHEN LOWER(u.name) LIKE LOWER(CONCAT(:query, '%')) THEN 1 "
-          + "   ELSE 2 "
-          + "END")
+      value =
+          "SELECT u.* FROM users u "
+              + "WHERE LOWER(u.name) LIKE '%' || LOWER(:query) || '%' "
+              + "ORDER BY "
+              + "CASE "
+              + "   WHEN LOWER(u.name) = LOWER(:query) THEN 0 "
+              + "   WHEN LOWER(u.name) LIKE LOWER(:query) || '%' THEN 1 "
+              + "   ELSE 2 "
+              + "END, u.name, u.id",
+      countQuery =
+          "SELECT COUNT(*) FROM users u WHERE LOWER(u.name) LIKE '%' || LOWER(:query) || '%'",
+      nativeQuery = true)
   Page<User> searchUsers(@Param("query") String query, Pageable pageable);
+
+  // Following or unfollowing a user
+  @Query(
+      value =
+          "SELECT COUNT(*) > 0 FROM user_follows "
+              + "WHERE follower_id = :followerId AND followee_id = :followeeId",
+      nativeQuery = true)
+  boolean isFollowing(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO user_follows (follower_id, followee_id) "
+              + "VALUES (:followerId, :followeeId)",
+      nativeQuery = true)
+  void follow(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId);
+
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM user_follows "
+              + "WHERE follower_id = :followerId AND followee_id = :followeeId",
+      nativeQuery = true)
+  void unfollow(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId);
+
+  @Modifying
+  @Query(
+      value = "UPDATE users SET followers_count = followers_count + :delta WHERE id = :userId",
+      nativeQuery = true)
+  void addToFollowersCount(@Param("userId") UUID userId, @Param("delta") long delta);
+
+  // Removing every follow of a user that is about to be deleted
+  @Modifying
+  @Query(
+      value =
+          "UPDATE users SET followers_count = followers_count - 1 WHERE id IN "
+              + "(SELECT followee_id FROM user_follows WHERE follower_id = :userId)",
+      nativeQuery = true)
+  void decrementFollowersCountOfFollowed(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM user_follows WHERE follower_id = :userId OR followee_id = :userId",
+      nativeQuery = true)
+  void deleteAllFollowsOf(@Param("userId") UUID userId);
 }
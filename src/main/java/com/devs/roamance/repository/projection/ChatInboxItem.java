@@ -0,0 +1,15 @@
+package com.devs.roamance.repository.projection;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** A chat of an inbox page together with the name and image of the other user. */
+public record ChatInboxItem(
+    UUID chatId,
+    UUID userId,
+    String userName,
+    String userProfileImage,
+    UUID lastMessageId,
+    OffsetDateTime lastActivityAt,
+    String lastMessagePreview,
+    int unreadCount) {}
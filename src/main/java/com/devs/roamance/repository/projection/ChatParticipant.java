@@ -0,0 +1,6 @@
+package com.devs.roamance.repository.projection;
+
+import java.util.UUID;
+
+/** A user taking part in a chat, one row of {@code chat_users}. */
+public record ChatParticipant(UUID chatId, UUID userId) {}
@@ -0,0 +1,7 @@
+package com.devs.roamance.repository.projection;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** A post of a home feed, identified by its ID and creation time (the feed's sort key). */
+public record FeedItem(UUID postId, OffsetDateTime createdAt) {}
@@ -0,0 +1,6 @@
+package com.devs.roamance.repository.projection;
+
+import com.devs.roamance.model.travel.journal.Journal;
+
+/** A journal (without its subsections loaded) together with the number of its subsections. */
+public record JournalSummary(Journal journal, Long subsectionCount) {}
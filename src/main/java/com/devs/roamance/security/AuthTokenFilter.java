@@ -14,7 +14,6 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +24,8 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 @Component
 public class AuthTokenFilter extends OncePerRequestFilter {
 
+  public static final String JWT_CLAIMS_ATTRIBUTE = AuthTokenFilter.class.getName() + ".claims";
+
   private final HandlerExceptionResolver exceptionResolver;
 
   private final JwtUtils jwtUtils;
@@ -59,16 +60,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
       if (token != null) {
 
-        String tokenType = jwtUtils.getTokenType(token);
+        // Verified once here; everything later in the request reads these claims instead of
+        // parsing the token again
+        JwtClaims claims = jwtUtils.parseToken(token);
 
-        if (!"access".equals(tokenType)) {
+        if (!"access".equals(claims.type())) {
 
           throw new IllegalArgumentException(ResponseMessage.INVALID_TOKEN_TYPE);
         }
 
-        jwtUtils.validateToken(token);
+        request.setAttribute(JWT_CLAIMS_ATTRIBUTE, claims);
 
-        authenticateUserFromToken(token);
+        authenticateUserFromClaims(claims);
       } else {
 
         throw new AuthTokenNotFoundException(ResponseMessage.AUTH_TOKEN_MISSING);
@@ -91,17 +94,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private void authenticateUserFromToken(String token) {
+  private void authenticateUserFromClaims(JwtClaims claims) {
     try {
-      String email = jwtUtils.getEmailFromToken(token);
-
-      List<String> roles = jwtUtils.getRolesFromToken(token);
-
       List<GrantedAuthority> authorities =
-          roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+          claims.roles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+
+      UsernamePasswordAuthenticationToken authentication =
+          new UsernamePasswordAuthenticationToken(claims.email(), null, authorities);
 
-      Authentication authentication =
-          new UsernamePasswordAuthenticationToken(email, null, authorities);
+      // Same shape as the authentication built at login, so the auditor can read the user id
+      // without touching the token
+      authentication.setDetails(claims.userId());
 
       SecurityContextHolder.getContext().setAuthentication(authentication);
 
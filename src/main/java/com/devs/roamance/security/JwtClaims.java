@@ -0,0 +1,13 @@
+package com.devs.roamance.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Claims of a token whose signature and expiry have already been verified. */
+public record JwtClaims(
+    String email, String type, List<String> roles, String userId, Instant expiresAt) {
+
+  public boolean isExpired() {
+    return expiresAt != null && !Instant.now().isBefore(expiresAt);
+  }
+}
@@ -1,12 +1,20 @@
 package com.devs.roamance.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -25,9 +33,30 @@ public class JwtUtils {
   @Value("${application.security.jwt.refresh-token-expiration}")
   private int refreshTokenExpiration;
 
-  private Key key() {
+  @Value("${application.security.jwt.claims-cache-size:10000}")
+  private int claimsCacheSize;
 
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+  private SecretKey signingKey;
+  private JwtParser parser;
+
+  // Verified claims keyed by the SHA-256 of the token, each entry is only served until the token's
+  // own expiry
+  private Map<String, JwtClaims> verifiedTokens;
+
+  @PostConstruct
+  void init() {
+
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    parser = Jwts.parser().verifyWith(signingKey).build();
+
+    verifiedTokens =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<String, JwtClaims> eldest) {
+                return size() > claimsCacheSize;
+              }
+            });
   }
 
   public String generateAccessToken(Authentication authentication) {
@@ -55,7 +84,7 @@ public class JwtUtils {
         .claim("userId", userId)
         .issuedAt(new Date())
         .expiration(new Date((new Date()).getTime() + expiresIn))
-        .signWith(key())
+        .signWith(signingKey)
         .compact();
   }
 
@@ -69,38 +98,80 @@ public class JwtUtils {
     return null;
   }
 
+  /**
+   * Verifies the token and returns its claims. A token is only parsed and verified once; later
+   * calls with the same token are served from a bounded cache until the token expires.
+   *
+   * @param token the compact JWT
+   * @return Verified claims of the token
+   */
+  public JwtClaims parseToken(String token) {
+
+    if (token == null || token.isBlank()) {
+      throw new IllegalArgumentException("JWT is null or empty");
+    }
+
+    String tokenHash = hash(token);
+
+    JwtClaims cached = verifiedTokens.get(tokenHash);
+    if (cached != null) {
+      if (!cached.isExpired()) {
+        return cached;
+      }
+      verifiedTokens.remove(tokenHash);
+    }
+
+    Claims payload = parser.parseSignedClaims(token).getPayload();
+
+    @SuppressWarnings("unchecked")
+    List<String> roles = payload.get("roles", List.class);
+
+    JwtClaims claims =
+        new JwtClaims(
+            payload.getSubject(),
+            payload.get("type", String.class),
+            roles != null ? List.copyOf(roles) : List.of(),
+            payload.get("userId", String.class),
+            payload.getExpiration() != null ? payload.getExpiration().toInstant() : null);
+
+    verifiedTokens.put(tokenHash, claims);
+
+    return claims;
+  }
+
   public void validateToken(String token) {
 
-    Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(token);
+    parseToken(token);
   }
 
   public String getEmailFromToken(String token) {
 
-    return getTokenPayload(token).getSubject();
+    return parseToken(token).email();
   }
 
   public String getTokenType(String token) {
 
-    return getTokenPayload(token).get("type", String.class);
+    return parseToken(token).type();
   }
 
-  @SuppressWarnings("unchecked")
   public List<String> getRolesFromToken(String token) {
 
-    return getTokenPayload(token).get("roles", List.class);
+    return parseToken(token).roles();
   }
 
   public String getUserIdFromToken(String token) {
 
-    return getTokenPayload(token).get("userId", String.class);
+    return parseToken(token).userId();
   }
 
-  private Claims getTokenPayload(String token) {
+  private static String hash(String token) {
 
-    return Jwts.parser()
-        .verifyWith((SecretKey) key())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
   }
 }
@@ -1,5 +1,8 @@
 package com.devs.roamance.service;
 
+import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.ChatInboxDto;
 import com.devs.roamance.dto.response.social.ChatListResponseDto;
 import com.devs.roamance.dto.response.social.ChatResponseDto;
 import java.util.UUID;
@@ -12,4 +15,8 @@ public interface ChatService {
 
   ChatListResponseDto getForCurrentUser(
       Integer pageNumber, Integer pageSize, String sortBy, String sortDir);
+
+  CursorListResponseDto<ChatInboxDto> getInbox(String cursor, int pageSize);
+
+  BaseResponseDto markAsRead(UUID chatId);
 }
@@ -1,6 +1,8 @@
 package com.devs.roamance.service;
 
 import com.devs.roamance.dto.request.social.CommentRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.CommentDto;
 import com.devs.roamance.dto.response.social.CommentListResponseDto;
 import com.devs.roamance.dto.response.social.CommentResponseDto;
 import java.util.UUID;
@@ -13,4 +15,6 @@ public interface CommentService {
 
   CommentListResponseDto getByPostId(
       UUID postId, Integer pageNumber, Integer pageSize, String sortBy, String sortDir);
+
+  CursorListResponseDto<CommentDto> getByPostIdAndCursor(UUID postId, String cursor, int pageSize);
 }
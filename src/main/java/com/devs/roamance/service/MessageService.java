@@ -1,6 +1,8 @@
 package com.devs.roamance.service;
 
 import com.devs.roamance.dto.request.social.MessageRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.MessageDto;
 import com.devs.roamance.dto.response.social.MessageListResponseDto;
 import com.devs.roamance.dto.response.social.MessageResponseDto;
 import java.util.UUID;
@@ -11,4 +13,6 @@ public interface MessageService {
 
   MessageListResponseDto getByChatId(
       UUID chatId, int pageNumber, int pageSize, String sortBy, String sortDir);
+
+  CursorListResponseDto<MessageDto> getByChatIdAndCursor(UUID chatId, String cursor, int pageSize);
 }
@@ -2,6 +2,8 @@ package com.devs.roamance.service;
 
 import com.devs.roamance.dto.request.social.PostRequestDto;
 import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
+import com.devs.roamance.dto.response.social.PostDto;
 import com.devs.roamance.dto.response.social.PostListResponseDto;
 import com.devs.roamance.dto.response.social.PostResponseDto;
 import com.devs.roamance.dto.response.user.UserListResponseDto;
@@ -13,6 +15,12 @@ public interface PostService
 
   PostListResponseDto getAll(int pageNumber, int pageSize, String sortBy, String sortDir);
 
+  CursorListResponseDto<PostDto> getAllByCursor(String cursor, int pageSize);
+
+  CursorListResponseDto<PostDto> getHomeFeed(String cursor, int pageSize);
+
+  PostListResponseDto getTrending(int pageNumber, int pageSize);
+
   PostListResponseDto getByIds(List<UUID> postIds, int pageNumber, int pageSize);
 
   PostListResponseDto getByUserId(
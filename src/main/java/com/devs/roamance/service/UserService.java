@@ -2,6 +2,7 @@ package com.devs.roamance.service;
 
 import com.devs.roamance.dto.request.user.UserCreateRequestDto;
 import com.devs.roamance.dto.request.user.UserUpdateRequestDto;
+import com.devs.roamance.dto.response.BaseResponseDto;
 import com.devs.roamance.dto.response.user.UserListResponseDto;
 import com.devs.roamance.dto.response.user.UserResponseDto;
 import java.util.UUID;
@@ -15,4 +16,6 @@ public interface UserService
   UserResponseDto getByEmail(String email);
 
   UserListResponseDto search(String query, int page, int size);
+
+  BaseResponseDto toggleFollow(UUID userId);
 }
@@ -4,6 +4,7 @@ import static dev.langchain4j.model.googleai.GeminiHarmBlockThreshold.BLOCK_LOW_
 import static dev.langchain4j.model.googleai.GeminiHarmBlockThreshold.BLOCK_MEDIUM_AND_ABOVE;
 import static dev.langchain4j.model.googleai.GeminiHarmCategory.*;
 
+import com.devs.roamance.config.GeminiModelConfig;
 import com.devs.roamance.constant.AiSystemInstruction;
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.common.AiPoweredItineraryDto;
@@ -18,10 +19,14 @@ import com.devs.roamance.dto.response.ai.TidbitsAndSafetyDto;
 import com.devs.roamance.exception.AiGenerationFailedException;
 import com.devs.roamance.pojo.ItineraryPojo;
 import com.devs.roamance.service.AiService;
-import com.devs.roamance.util.GeminiModelUtil;
+import com.devs.roamance.util.GeminiModelRegistry;
 import com.devs.roamance.util.NomicImageEmbeddingUtil;
+import com.devs.roamance.util.PgVectorStoreRegistry;
+import com.devs.roamance.util.RagSearchCache;
 import com.devs.roamance.util.RagUtil;
 import com.devs.roamance.util.RestUtil;
+import com.devs.roamance.util.WorkloadLimiter;
+import com.devs.roamance.util.WorkloadLimiter.Workload;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.message.*;
 import dev.langchain4j.model.chat.ChatLanguageModel;
@@ -33,6 +38,7 @@ import dev.langchain4j.model.output.FinishReason;
 import dev.langchain4j.rag.RetrievalAugmentor;
 import dev.langchain4j.service.AiServices;
 import dev.langchain4j.service.V;
+import jakarta.annotation.PostConstruct;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -50,33 +56,74 @@ public class AiServiceImpl implements AiService {
 
   private final ModelMapper modelMapper;
 
-  @Value("${application.gemini.api-key}")
-  private String geminiApiKey;
-
   @Value("${application.nomic.api-key}")
   private String nomicApiKey;
 
-  private String geminiModelName = "gemini-2.0-flash";
+  private static final GeminiModelConfig TIDBITS_MODEL_CONFIG =
+      GeminiModelConfig.builder()
+          .safetySettings(
+              Map.of(
+                  HARM_CATEGORY_HARASSMENT, BLOCK_LOW_AND_ABOVE,
+                  HARM_CATEGORY_DANGEROUS_CONTENT, BLOCK_MEDIUM_AND_ABOVE,
+                  HARM_CATEGORY_SEXUALLY_EXPLICIT, BLOCK_LOW_AND_ABOVE,
+                  HARM_CATEGORY_HATE_SPEECH, BLOCK_LOW_AND_ABOVE,
+                  HARM_CATEGORY_CIVIC_INTEGRITY, BLOCK_MEDIUM_AND_ABOVE))
+          .temperature(0.3)
+          .build();
+
+  private static final GeminiModelConfig PROOFREADING_MODEL_CONFIG =
+      GeminiModelConfig.builder().temperature(0.5).build();
+
+  private static final GeminiModelConfig IMAGE_DESCRIPTION_MODEL_CONFIG =
+      GeminiModelConfig.builder().temperature(0.1).build();
+
+  private static final GeminiModelConfig RAG_MODEL_CONFIG =
+      GeminiModelConfig.builder().temperature(0.4).responseFormat(ResponseFormat.JSON).build();
+
+  private static final GeminiModelConfig ITINERARY_MODEL_CONFIG =
+      GeminiModelConfig.builder().responseFormat(ResponseFormat.JSON).build();
 
   private final RestUtil restUtil;
-  private final GeminiModelUtil geminiModelUtil;
+  private final GeminiModelRegistry geminiModelRegistry;
   private final RagUtil ragUtil;
   private final NomicImageEmbeddingUtil nomicImageEmbeddingUtil;
+  private final RagSearchCache ragSearchCache;
+  private final WorkloadLimiter workloadLimiter;
 
   public AiServiceImpl(
       RestUtil restUtil,
-      GeminiModelUtil geminiModelUtil,
+      GeminiModelRegistry geminiModelRegistry,
       RagUtil ragUtil,
       NomicImageEmbeddingUtil nomicImageEmbeddingUtil,
+      RagSearchCache ragSearchCache,
+      WorkloadLimiter workloadLimiter,
       ModelMapper modelMapper) {
 
     this.restUtil = restUtil;
-    this.geminiModelUtil = geminiModelUtil;
+    this.geminiModelRegistry = geminiModelRegistry;
     this.ragUtil = ragUtil;
     this.nomicImageEmbeddingUtil = nomicImageEmbeddingUtil;
+    this.ragSearchCache = ragSearchCache;
+    this.workloadLimiter = workloadLimiter;
     this.modelMapper = modelMapper;
   }
 
+  @PostConstruct
+  void warmUpModels() {
+    try {
+      geminiModelRegistry.warmUp(
+          List.of(
+              TIDBITS_MODEL_CONFIG,
+              IMAGE_DESCRIPTION_MODEL_CONFIG,
+              RAG_MODEL_CONFIG,
+              ITINERARY_MODEL_CONFIG),
+          List.of(PROOFREADING_MODEL_CONFIG));
+
+    } catch (Exception e) {
+      log.error("Gemini model warm up failed: {}", e.getMessage(), e);
+    }
+  }
+
   private interface RagAssistant {
 
     @dev.langchain4j.service.SystemMessage(AiSystemInstruction.FOR_POST_IDS_RETRIEVAL)
@@ -105,20 +152,7 @@ public class AiServiceImpl implements AiService {
 
     ChatLanguageModel model;
     try {
-      model =
-          geminiModelUtil.geminiModelBuilder(
-              geminiApiKey,
-              geminiModelName,
-              builder ->
-                  builder
-                      .safetySettings(
-                          Map.of(
-                              HARM_CATEGORY_HARASSMENT, BLOCK_LOW_AND_ABOVE,
-                              HARM_CATEGORY_DANGEROUS_CONTENT, BLOCK_MEDIUM_AND_ABOVE,
-                              HARM_CATEGORY_SEXUALLY_EXPLICIT, BLOCK_LOW_AND_ABOVE,
-                              HARM_CATEGORY_HATE_SPEECH, BLOCK_LOW_AND_ABOVE,
-                              HARM_CATEGORY_CIVIC_INTEGRITY, BLOCK_MEDIUM_AND_ABOVE))
-                      .temperature(0.3));
+      model = geminiModelRegistry.chatModel(TIDBITS_MODEL_CONFIG);
 
     } catch (Exception e) {
       log.error("Gemini model build failed : {}", e.getMessage(), e);
@@ -144,9 +178,7 @@ public class AiServiceImpl implements AiService {
 
     StreamingChatLanguageModel model;
     try {
-      model =
-          geminiModelUtil.geminiStreamingModelBuilder(
-              geminiApiKey, geminiModelName, builder -> builder.temperature(0.5));
+      model = geminiModelRegistry.streamingModel(PROOFREADING_MODEL_CONFIG);
 
     } catch (Exception e) {
       log.error("Gemini model build failed:{}", e.getMessage(), e);
@@ -167,25 +199,51 @@ public class AiServiceImpl implements AiService {
   public CompletableFuture<Void> addContentToVectorDb(
       MultiModalAiRequestDto requestDto, UUID contentId) {
 
+    boolean hasText = requestDto.getText() != null && !requestDto.getText().isEmpty();
+    boolean hasMedia = requestDto.getMediaUrls() != null && !requestDto.getMediaUrls().isEmpty();
+    boolean failed = false;
+
+    // Clear vectors left by an earlier, partially failed attempt so that retries stay idempotent
     try {
-      ragUtil.embedAndStore(
-          nomicApiKey,
-          Document.from(requestDto.getText()),
+      ragUtil.removeContent(
           contentId.toString(),
-          "search_document",
-          "texts");
+          PgVectorStoreRegistry.TEXTS_TABLE,
+          PgVectorStoreRegistry.IMAGE_DESCRIPTIONS_TABLE,
+          PgVectorStoreRegistry.IMAGE_EMBEDDINGS_TABLE);
 
     } catch (Exception e) {
-      log.error("Text embeddings generation failed: {}", e.getMessage(), e);
+      log.error("Removing previous embeddings failed: {}", e.getMessage(), e);
+      return CompletableFuture.failedFuture(
+          new AiGenerationFailedException(ResponseMessage.AI_VECTOR_INDEXING_FAILED));
+    }
+
+    if (hasText) {
+      try {
+        ragUtil.embedAndStore(
+            nomicApiKey,
+            Document.from(requestDto.getText()),
+            contentId.toString(),
+            "search_document",
+            PgVectorStoreRegistry.TEXTS_TABLE);
+
+      } catch (Exception e) {
+        log.error("Text embeddings generation failed: {}", e.getMessage(), e);
+        failed = true;
+      }
+    }
+
+    if (!hasMedia) {
+      return failed
+          ? CompletableFuture.failedFuture(
+              new AiGenerationFailedException(ResponseMessage.AI_VECTOR_INDEXING_FAILED))
+          : CompletableFuture.completedFuture(null);
     }
 
     Map<String, RestUtil.Media> mediaBytes = downloadMedia(requestDto.getMediaUrls());
 
     ChatLanguageModel model;
     try {
-      model =
-          geminiModelUtil.geminiModelBuilder(
-              geminiApiKey, geminiModelName, builder -> builder.temperature(0.1));
+      model = geminiModelRegistry.chatModel(IMAGE_DESCRIPTION_MODEL_CONFIG);
 
     } catch (Exception e) {
       log.error("Gemini model build failed: {}", e.getMessage(), e);
@@ -196,38 +254,49 @@ public class AiServiceImpl implements AiService {
 
     try {
       List<EmbeddingResponse> imageEmbeddings =
-          nomicImageEmbeddingUtil.embedImageUrls(nomicApiKey, requestDto.getMediaUrls());
+          workloadLimiter.call(
+              Workload.NOMIC,
+              () ->
+                  nomicImageEmbeddingUtil.embedImageUrls(nomicApiKey, requestDto.getMediaUrls()));
 
-      ragUtil.store(imageEmbeddings, 768, contentId.toString(), "image_embeddings");
+      ragUtil.store(
+          imageEmbeddings, contentId.toString(), PgVectorStoreRegistry.IMAGE_EMBEDDINGS_TABLE);
 
     } catch (InterruptedException e) {
       log.error("Image embeddings generation interrupted: {}", e.getMessage(), e);
       Thread.currentThread().interrupt();
+      failed = true;
 
     } catch (Exception e) {
       log.error("Image embeddings generation failed: {}", e.getMessage(), e);
+      failed = true;
     }
 
     ChatResponse chatResponse =
         generateResponse(model, AiSystemInstruction.FOR_IMAGE_DESCRIPTION, mediaBytes, null);
 
     if (chatResponse == null) {
-      return CompletableFuture.completedFuture(null);
-    }
+      failed = true;
 
-    try {
-      ragUtil.embedAndStore(
-          nomicApiKey,
-          Document.from(chatResponse.aiMessage().text()),
-          contentId.toString(),
-          "search_document",
-          "image_descriptions");
-
-    } catch (Exception e) {
-      log.error("Text embeddings generation failed: {}", e.getMessage(), e);
+    } else {
+      try {
+        ragUtil.embedAndStore(
+            nomicApiKey,
+            Document.from(chatResponse.aiMessage().text()),
+            contentId.toString(),
+            "search_document",
+            PgVectorStoreRegistry.IMAGE_DESCRIPTIONS_TABLE);
+
+      } catch (Exception e) {
+        log.error("Text embeddings generation failed: {}", e.getMessage(), e);
+        failed = true;
+      }
     }
 
-    return CompletableFuture.completedFuture(null);
+    return failed
+        ? CompletableFuture.failedFuture(
+            new AiGenerationFailedException(ResponseMessage.AI_VECTOR_INDEXING_FAILED))
+        : CompletableFuture.completedFuture(null);
   }
 
   @Override
@@ -235,11 +304,34 @@ public class AiServiceImpl implements AiService {
   public CompletableFuture<PostIdListRagSearchDto> getPostIdsUsingRag(
       MultiModalRagRequestDto requestDto) {
 
+    if (requestDto.getQuery() == null || requestDto.getQuery().isEmpty()) {
+      log.info("Query is null or empty");
+      return CompletableFuture.completedFuture(new PostIdListRagSearchDto());
+    }
+
+    // Read before anything is retrieved, so posts deleted during the search are not cached again
+    long cacheGeneration = ragSearchCache.generation();
+
+    float[] queryEmbedding = null;
+    if (ragSearchCache.isEnabled()) {
+      try {
+        queryEmbedding =
+            RagSearchCache.normalize(ragUtil.embedQuery(nomicApiKey, requestDto.getQuery()));
+
+        Optional<PostIdListRagSearchDto> cached =
+            ragSearchCache.get(queryEmbedding, requestDto.getImageUrl());
+        if (cached.isPresent()) {
+          return CompletableFuture.completedFuture(cached.get());
+        }
+
+      } catch (Exception e) {
+        log.warn("RAG search cache lookup failed: {}", e.getMessage(), e);
+      }
+    }
+
     ChatLanguageModel model;
     try {
-      model =
-          geminiModelUtil.geminiModelBuilder(
-              geminiApiKey, geminiModelName, builder -> builder.temperature(0.1));
+      model = geminiModelRegistry.chatModel(IMAGE_DESCRIPTION_MODEL_CONFIG);
 
     } catch (Exception e) {
       log.error("Gemini model build failed: {}", e.getMessage(), e);
@@ -257,7 +349,7 @@ public class AiServiceImpl implements AiService {
         generateResponse(model, AiSystemInstruction.FOR_IMAGE_DESCRIPTION, mediaBytes, null);
 
     String query;
-    if (chatResponse != null && requestDto.getQuery() != null && !requestDto.getQuery().isEmpty()) {
+    if (chatResponse != null) {
 
       query =
           "Query: "
@@ -265,22 +357,15 @@ public class AiServiceImpl implements AiService {
               + "Query Image Description: "
               + chatResponse.aiMessage().text();
 
-    } else if (requestDto.getQuery() != null && !requestDto.getQuery().isEmpty()) {
-      query = "Query: " + requestDto.getQuery();
     } else {
-      log.info("Query is null or empty");
-      return CompletableFuture.completedFuture(new PostIdListRagSearchDto());
+      query = "Query: " + requestDto.getQuery();
     }
 
     RetrievalAugmentor augmentor =
         ragUtil.buildAugmentor(nomicApiKey, "search_query", "texts", "image_descriptions");
 
     try {
-      model =
-          geminiModelUtil.geminiModelBuilder(
-              geminiApiKey,
-              geminiModelName,
-              builder -> builder.temperature(0.4).responseFormat(ResponseFormat.JSON));
+      model = geminiModelRegistry.chatModel(RAG_MODEL_CONFIG);
 
     } catch (Exception e) {
       log.error("Gemini model build failed : {}", e.getMessage(), e);
@@ -295,7 +380,13 @@ public class AiServiceImpl implements AiService {
             .retrievalAugmentor(augmentor)
             .build();
 
-    PostIdListRagSearchDto postIdListRagSearchDto = ragAssistant.answer(query);
+    PostIdListRagSearchDto postIdListRagSearchDto =
+        workloadLimiter.call(Workload.GEMINI, () -> ragAssistant.answer(query));
+
+    if (queryEmbedding != null) {
+      ragSearchCache.put(
+          queryEmbedding, requestDto.getImageUrl(), postIdListRagSearchDto, cacheGeneration);
+    }
 
     return CompletableFuture.completedFuture(postIdListRagSearchDto);
   }
@@ -307,11 +398,7 @@ public class AiServiceImpl implements AiService {
 
     ChatLanguageModel model;
     try {
-      model =
-          geminiModelUtil.geminiModelBuilder(
-              geminiApiKey,
-              geminiModelName,
-              builder -> builder.responseFormat(ResponseFormat.JSON));
+      model = geminiModelRegistry.chatModel(ITINERARY_MODEL_CONFIG);
 
     } catch (Exception e) {
       log.error("Gemini model build failed :{}", e.getMessage(), e);
@@ -325,12 +412,15 @@ public class AiServiceImpl implements AiService {
           AiServices.builder(ItineraryAiService.class).chatLanguageModel(model).build();
 
       ItineraryPojo itineraryPojo =
-          itineraryAiService.generateItinerary(
-              requestDto.getLocation(),
-              requestDto.getStartDate(),
-              requestDto.getNumberOfDays(),
-              requestDto.getBudgetLevel(),
-              requestDto.getNumberOfPeople());
+          workloadLimiter.call(
+              Workload.GEMINI,
+              () ->
+                  itineraryAiService.generateItinerary(
+                      requestDto.getLocation(),
+                      requestDto.getStartDate(),
+                      requestDto.getNumberOfDays(),
+                      requestDto.getBudgetLevel(),
+                      requestDto.getNumberOfPeople()));
 
       AiPoweredItineraryDto aiPoweredItineraryDto =
           modelMapper.map(itineraryPojo, AiPoweredItineraryDto.class);
@@ -363,7 +453,7 @@ public class AiServiceImpl implements AiService {
       addContentToUserMessage(userMessageBuilder, mediaBytes, text);
       UserMessage userMessage = userMessageBuilder.build();
 
-      return model.chat(systemMessage, userMessage);
+      return workloadLimiter.call(Workload.GEMINI, () -> model.chat(systemMessage, userMessage));
 
     } catch (NullPointerException e) {
       /* This is quite hacky. But due to a bug in langchain4j, currently this is the only solution that I came up with
@@ -451,8 +541,8 @@ public class AiServiceImpl implements AiService {
     }
 
     for (Map.Entry<String, RestUtil.Media> entry : mediaBytes.entrySet()) {
-      String base64Image = Base64.getEncoder().encodeToString(entry.getValue().content());
-      ImageContent imageContent = ImageContent.from(base64Image, entry.getValue().mimeType());
+      ImageContent imageContent =
+          ImageContent.from(entry.getValue().base64(), entry.getValue().mimeType());
       userMessageBuilder.addContent(imageContent);
     }
   }
@@ -15,8 +15,11 @@ import com.devs.roamance.repository.ActivityRepository;
 import com.devs.roamance.repository.DayPlanRepository;
 import com.devs.roamance.service.ActivityService;
 import com.devs.roamance.util.ActivityUtil;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.ItineraryCostUtil;
 import com.devs.roamance.util.PaginationSortingUtil;
 import com.devs.roamance.util.UserUtil;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 import org.modelmapper.ModelMapper;
@@ -33,20 +36,26 @@ public class ActivityServiceImpl implements ActivityService {
   private final ActivityRepository activityRepository;
   private final DayPlanRepository dayPlanRepository;
   private final ActivityUtil activityUtil;
+  private final ItineraryCostUtil itineraryCostUtil;
   private final UserUtil userUtil;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
 
   public ActivityServiceImpl(
       ActivityRepository activityRepository,
       DayPlanRepository dayPlanRepository,
       ActivityUtil activityUtil,
+      ItineraryCostUtil itineraryCostUtil,
       UserUtil userUtil,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper) {
 
     this.activityRepository = activityRepository;
     this.dayPlanRepository = dayPlanRepository;
     this.activityUtil = activityUtil;
+    this.itineraryCostUtil = itineraryCostUtil;
     this.userUtil = userUtil;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
   }
 
@@ -78,7 +87,9 @@ public class ActivityServiceImpl implements ActivityService {
     Activity savedActivity = activityRepository.save(activity);
     activityRepository.flush();
 
-    ActivityDto dto = modelMapper.map(savedActivity, ActivityDto.class);
+    itineraryCostUtil.applyActivityCostChange(dayPlan.getId(), null, savedActivity.getCost());
+
+    ActivityDto dto = dtoMapper.toActivityDto(savedActivity);
 
     return new ActivityResponseDto(201, true, ResponseMessage.ACTIVITY_CREATE_SUCCESS, dto);
   }
@@ -94,7 +105,7 @@ public class ActivityServiceImpl implements ActivityService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.ACTIVITY_NOT_FOUND, activityId)));
 
-    ActivityDto dto = modelMapper.map(activity, ActivityDto.class);
+    ActivityDto dto = dtoMapper.toActivityDto(activity);
 
     return new ActivityResponseDto(200, true, ResponseMessage.ACTIVITY_FETCH_SUCCESS, dto);
   }
@@ -109,8 +120,7 @@ public class ActivityServiceImpl implements ActivityService {
 
     Page<Activity> activities = activityRepository.findAllByDayPlanId(dayPlanId, pageable);
 
-    List<ActivityDto> dtos =
-        activities.stream().map(activity -> modelMapper.map(activity, ActivityDto.class)).toList();
+    List<ActivityDto> dtos = activities.stream().map(dtoMapper::toActivityDto).toList();
 
     return new ActivityListResponseDto(200, true, ResponseMessage.ACTIVITIES_FETCH_SUCCESS, dtos);
   }
@@ -127,12 +137,14 @@ public class ActivityServiceImpl implements ActivityService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.ACTIVITY_NOT_FOUND, activityId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!existingActivity.getUser().getId().equals(userId)) {
       throw new UnauthorizedActionException(ResponseMessage.ACTIVITY_UPDATE_ACTION_DENIED);
     }
 
+    BigDecimal previousCost = existingActivity.getCost();
+
     if (updateRequestDto.getLocation() != null) {
       existingActivity.setLocation(modelMapper.map(updateRequestDto.getLocation(), Location.class));
     }
@@ -170,7 +182,10 @@ public class ActivityServiceImpl implements ActivityService {
     Activity savedActivity = activityRepository.save(existingActivity);
     activityRepository.flush();
 
-    ActivityDto dto = modelMapper.map(savedActivity, ActivityDto.class);
+    itineraryCostUtil.applyActivityCostChange(
+        existingActivity.getDayPlan().getId(), previousCost, savedActivity.getCost());
+
+    ActivityDto dto = dtoMapper.toActivityDto(savedActivity);
 
     return new ActivityResponseDto(200, true, ResponseMessage.ACTIVITY_UPDATE_SUCCESS, dto);
   }
@@ -187,13 +202,16 @@ public class ActivityServiceImpl implements ActivityService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.ACTIVITY_NOT_FOUND, activityId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!activity.getUser().getId().equals(userId)) {
 
       throw new UnauthorizedActionException(ResponseMessage.ACTIVITY_DELETE_ACTION_DENIED);
     }
 
+    itineraryCostUtil.applyActivityCostChange(
+        activity.getDayPlan().getId(), activity.getCost(), null);
+
     activityRepository.delete(activity);
 
     return new BaseResponseDto(200, true, ResponseMessage.ACTIVITY_DELETE_SUCCESS);
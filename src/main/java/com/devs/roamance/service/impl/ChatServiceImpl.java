@@ -1,25 +1,35 @@
 package com.devs.roamance.service.impl;
 
 import com.devs.roamance.constant.ResponseMessage;
+import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.ChatDto;
+import com.devs.roamance.dto.response.social.ChatInboxDto;
 import com.devs.roamance.dto.response.social.ChatListResponseDto;
 import com.devs.roamance.dto.response.social.ChatResponseDto;
 import com.devs.roamance.exception.ResourceNotFoundException;
 import com.devs.roamance.exception.UnauthorizedAccessException;
 import com.devs.roamance.exception.UserNotFoundException;
 import com.devs.roamance.model.social.Chat;
-import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.ChatInboxRepository;
 import com.devs.roamance.repository.ChatRepository;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.ChatInboxItem;
 import com.devs.roamance.service.ChatService;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.PaginationSortingUtil;
 import com.devs.roamance.util.UserUtil;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,18 +38,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class ChatServiceImpl implements ChatService {
 
   private final ChatRepository chatRepository;
+  private final ChatInboxRepository chatInboxRepository;
   private final UserRepository userRepository;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
   private final UserUtil userUtil;
 
   public ChatServiceImpl(
       ChatRepository chatRepository,
+      ChatInboxRepository chatInboxRepository,
       UserRepository userRepository,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper,
       UserUtil userUtil) {
 
     this.chatRepository = chatRepository;
+    this.chatInboxRepository = chatInboxRepository;
     this.userRepository = userRepository;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
     this.userUtil = userUtil;
   }
@@ -48,40 +64,54 @@ public class ChatServiceImpl implements ChatService {
   @Transactional
   public ChatResponseDto create(UUID userId) {
 
-    User currentUser = userUtil.getAuthenticatedUser();
+    UUID currentUserId = userUtil.getAuthenticatedUserId();
 
-    User chatUser =
-        userRepository
-            .findById(userId)
-            .orElseThrow(
-                () ->
-                    new UserNotFoundException(
-                        String.format(ResponseMessage.USER_NOT_FOUND_ID, userId)));
+    if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(String.format(ResponseMessage.USER_NOT_FOUND_ID, userId));
+    }
+
+    String participantKey = Chat.participantKeyOf(currentUserId, userId);
 
-    Chat oldChat = chatRepository.findByUsers(currentUser, chatUser);
+    Optional<Chat> oldChat = chatRepository.findByParticipantKey(participantKey);
 
-    if (oldChat != null) {
+    if (oldChat.isPresent()) {
 
-      ChatDto dto = modelMapper.map(oldChat, ChatDto.class);
+      ChatDto dto = dtoMapper.toChatDto(oldChat.get());
 
       return new ChatResponseDto(200, true, ResponseMessage.CHAT_ALREADY_EXIST, dto);
     }
 
-    Chat newChat = new Chat();
-    newChat.getUsers().add(currentUser);
-    newChat.getUsers().add(chatUser);
+    // Upsert on the participant key, so concurrent "start chat" requests create a single chat
+    UUID chatId = UUID.randomUUID();
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    boolean created =
+        chatRepository.insertIfAbsent(chatId, participantKey, currentUserId, now) == 1;
 
-    Chat chat = chatRepository.save(newChat);
+    if (created) {
+      chatRepository.addUsers(chatId, currentUserId, userId);
+      chatInboxRepository.addChat(chatId, currentUserId, userId, now);
+    }
 
-    ChatDto dto = modelMapper.map(chat, ChatDto.class);
+    Chat chat =
+        chatRepository
+            .findByParticipantKey(participantKey)
+            .orElseThrow(
+                () ->
+                    new ResourceNotFoundException(
+                        String.format(ResponseMessage.CHAT_NOT_FOUND, chatId)));
+
+    ChatDto dto = dtoMapper.toChatDto(chat);
 
-    return new ChatResponseDto(201, true, ResponseMessage.CHAT_CREATE_SUCCESS, dto);
+    return created
+        ? new ChatResponseDto(201, true, ResponseMessage.CHAT_CREATE_SUCCESS, dto)
+        : new ChatResponseDto(200, true, ResponseMessage.CHAT_ALREADY_EXIST, dto);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public ChatResponseDto get(UUID chatId) {
 
-    UUID currentUserId = userUtil.getAuthenticatedUser().getId();
+    UUID currentUserId = userUtil.getAuthenticatedUserId();
 
     Chat chat =
         chatRepository
@@ -97,16 +127,17 @@ public class ChatServiceImpl implements ChatService {
       throw new UnauthorizedAccessException(ResponseMessage.CHAT_ACCESS_DENIED);
     }
 
-    ChatDto dto = modelMapper.map(chat, ChatDto.class);
+    ChatDto dto = dtoMapper.toChatDto(chat);
 
     return new ChatResponseDto(200, true, ResponseMessage.CHAT_FETCH_SUCCESS, dto);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public ChatListResponseDto getForCurrentUser(
       Integer pageNumber, Integer pageSize, String sortBy, String sortDir) {
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     Pageable pageable =
         PageRequest.of(
@@ -114,8 +145,48 @@ public class ChatServiceImpl implements ChatService {
 
     Page<Chat> chats = chatRepository.findAllByUsers_Id(userId, pageable);
 
-    List<ChatDto> dtos = chats.stream().map(chat -> modelMapper.map(chat, ChatDto.class)).toList();
+    List<ChatDto> dtos = chats.stream().map(dtoMapper::toChatDto).toList();
 
     return new ChatListResponseDto(200, true, ResponseMessage.CHATS_FETCH_SUCCESS, dtos);
   }
+
+  @Override
+  public CursorListResponseDto<ChatInboxDto> getInbox(String cursor, int pageSize) {
+
+    UUID userId = userUtil.getAuthenticatedUserId();
+
+    CursorUtil.Cursor after = CursorUtil.decode(cursor);
+    Pageable pageable = PageRequest.of(0, pageSize);
+
+    Slice<ChatInboxItem> items =
+        after == null
+            ? chatInboxRepository.findFirstSlice(userId, pageable)
+            : chatInboxRepository.findSliceBefore(userId, after.createdAt(), after.id(), pageable);
+
+    List<ChatInboxDto> dtos = items.stream().map(dtoMapper::toChatInboxDto).toList();
+
+    return new CursorListResponseDto<>(
+        200,
+        true,
+        ResponseMessage.CHATS_FETCH_SUCCESS,
+        dtos,
+        CursorUtil.nextCursorAt(items, ChatInboxItem::lastActivityAt, ChatInboxItem::chatId));
+  }
+
+  @Override
+  @Transactional
+  public BaseResponseDto markAsRead(UUID chatId) {
+
+    UUID userId = userUtil.getAuthenticatedUserId();
+
+    // Only users of the chat have an inbox row for it
+    int updated =
+        chatInboxRepository.markAsRead(userId, chatId, OffsetDateTime.now(ZoneOffset.UTC));
+
+    if (updated == 0) {
+      throw new ResourceNotFoundException(String.format(ResponseMessage.CHAT_NOT_FOUND, chatId));
+    }
+
+    return new BaseResponseDto(200, true, ResponseMessage.CHAT_MARK_READ_SUCCESS);
+  }
 }
@@ -2,6 +2,7 @@ package com.devs.roamance.service.impl;
 
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.request.social.CommentRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.CommentDto;
 import com.devs.roamance.dto.response.social.CommentListResponseDto;
 import com.devs.roamance.dto.response.social.CommentResponseDto;
@@ -12,7 +13,11 @@ import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.CommentRepository;
 import com.devs.roamance.repository.PostRepository;
 import com.devs.roamance.service.CommentService;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.PaginationSortingUtil;
+import com.devs.roamance.util.PostCounters;
+import com.devs.roamance.util.TrendingPostRanker;
 import com.devs.roamance.util.UserUtil;
 import java.util.List;
 import java.util.UUID;
@@ -20,6 +25,7 @@ import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,17 +36,26 @@ public class CommentServiceImpl implements CommentService {
   private final CommentRepository commentRepository;
   private final PostRepository postRepository;
   private final UserUtil userUtil;
+  private final PostCounters postCounters;
+  private final TrendingPostRanker trendingPostRanker;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
 
   public CommentServiceImpl(
       CommentRepository commentRepository,
       PostRepository postRepository,
       UserUtil userUtil,
+      PostCounters postCounters,
+      TrendingPostRanker trendingPostRanker,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper) {
 
     this.commentRepository = commentRepository;
     this.postRepository = postRepository;
     this.userUtil = userUtil;
+    this.postCounters = postCounters;
+    this.trendingPostRanker = trendingPostRanker;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
   }
 
@@ -63,12 +78,13 @@ public class CommentServiceImpl implements CommentService {
     comment.setUser(user);
     comment.setPost(post);
 
-    postRepository.incrementCommentCount(postId);
-
     Comment savedComment = commentRepository.save(comment);
     commentRepository.flush();
 
-    CommentDto dto = modelMapper.map(savedComment, CommentDto.class);
+    postCounters.addComments(postId, 1);
+    trendingPostRanker.addComments(postId, 1);
+
+    CommentDto dto = dtoMapper.toCommentDto(savedComment);
 
     return new CommentResponseDto(201, true, ResponseMessage.COMMENT_CREATE_SUCCESS, dto);
   }
@@ -84,7 +100,7 @@ public class CommentServiceImpl implements CommentService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.COMMENT_NOT_FOUND, commentId)));
 
-    CommentDto dto = modelMapper.map(comment, CommentDto.class);
+    CommentDto dto = dtoMapper.toCommentDto(comment);
 
     return new CommentResponseDto(200, true, ResponseMessage.COMMENT_FETCH_SUCCESS, dto);
   }
@@ -103,9 +119,35 @@ public class CommentServiceImpl implements CommentService {
 
     Page<Comment> comments = commentRepository.findAllByPostId(postId, pageable);
 
-    List<CommentDto> dtos =
-        comments.stream().map(comment -> modelMapper.map(comment, CommentDto.class)).toList();
+    List<CommentDto> dtos = comments.stream().map(dtoMapper::toCommentDto).toList();
 
     return new CommentListResponseDto(200, true, ResponseMessage.COMMENTS_FETCH_SUCCESS, dtos);
   }
+
+  @Override
+  public CursorListResponseDto<CommentDto> getByPostIdAndCursor(
+      UUID postId, String cursor, int pageSize) {
+
+    if (!postRepository.existsById(postId)) {
+      throw new ResourceNotFoundException(String.format(ResponseMessage.POST_NOT_FOUND, postId));
+    }
+
+    CursorUtil.Cursor after = CursorUtil.decode(cursor);
+    Pageable pageable = PageRequest.of(0, pageSize);
+
+    Slice<Comment> comments =
+        after == null
+            ? commentRepository.findFirstSliceByPostId(postId, pageable)
+            : commentRepository.findSliceByPostIdAfter(
+                postId, after.createdAt(), after.id(), pageable);
+
+    List<CommentDto> dtos = comments.stream().map(dtoMapper::toCommentDto).toList();
+
+    return new CursorListResponseDto<>(
+        200,
+        true,
+        ResponseMessage.COMMENTS_FETCH_SUCCESS,
+        dtos,
+        CursorUtil.nextCursor(comments, Comment::getAudit, Comment::getId));
+  }
 }
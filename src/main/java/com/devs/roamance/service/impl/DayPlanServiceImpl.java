@@ -15,6 +15,8 @@ import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.DayPlanRepository;
 import com.devs.roamance.repository.ItineraryRepository;
 import com.devs.roamance.service.DayPlanService;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.ItineraryCostUtil;
 import com.devs.roamance.util.PaginationSortingUtil;
 import com.devs.roamance.util.UserUtil;
 import java.util.List;
@@ -33,18 +35,24 @@ public class DayPlanServiceImpl implements DayPlanService {
 
   private final DayPlanRepository dayPlanRepository;
   private final ItineraryRepository itineraryRepository;
+  private final ItineraryCostUtil itineraryCostUtil;
   private final UserUtil userUtil;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
 
   public DayPlanServiceImpl(
       DayPlanRepository dayPlanRepository,
       ItineraryRepository itineraryRepository,
+      ItineraryCostUtil itineraryCostUtil,
       UserUtil userUtil,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper) {
 
     this.dayPlanRepository = dayPlanRepository;
     this.itineraryRepository = itineraryRepository;
+    this.itineraryCostUtil = itineraryCostUtil;
     this.userUtil = userUtil;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
   }
 
@@ -75,7 +83,7 @@ public class DayPlanServiceImpl implements DayPlanService {
       DayPlan savedDayPlan = dayPlanRepository.save(dayPlan);
       dayPlanRepository.flush();
 
-      DayPlanDetailDto dto = modelMapper.map(savedDayPlan, DayPlanDetailDto.class);
+      DayPlanDetailDto dto = dtoMapper.toDayPlanDetailDto(savedDayPlan);
 
       return new DayPlanResponseDto(201, true, ResponseMessage.DAY_PLAN_CREATE_SUCCESS, dto);
 
@@ -97,7 +105,7 @@ public class DayPlanServiceImpl implements DayPlanService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.DAY_PLAN_NOT_FOUND, dayPlanId)));
 
-    DayPlanDetailDto dto = modelMapper.map(dayPlan, DayPlanDetailDto.class);
+    DayPlanDetailDto dto = dtoMapper.toDayPlanDetailDto(dayPlan);
 
     return new DayPlanResponseDto(200, true, ResponseMessage.DAY_PLAN_FETCH_SUCCESS, dto);
   }
@@ -112,8 +120,7 @@ public class DayPlanServiceImpl implements DayPlanService {
 
     Page<DayPlan> dayPlans = dayPlanRepository.findAllByItineraryId(itineraryId, pageable);
 
-    List<DayPlanBriefDto> dtos =
-        dayPlans.stream().map(dayPlan -> modelMapper.map(dayPlan, DayPlanBriefDto.class)).toList();
+    List<DayPlanBriefDto> dtos = dayPlans.stream().map(dtoMapper::toDayPlanBriefDto).toList();
 
     return new DayPlanListResponseDto(200, true, ResponseMessage.DAY_PLANS_FETCH_SUCCESS, dtos);
   }
@@ -130,7 +137,7 @@ public class DayPlanServiceImpl implements DayPlanService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.DAY_PLAN_NOT_FOUND, dayPlanId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!existingDayPlan.getUser().getId().equals(userId)) {
       throw new UnauthorizedActionException(ResponseMessage.DAY_PLAN_UPDATE_ACTION_DENIED);
@@ -154,7 +161,7 @@ public class DayPlanServiceImpl implements DayPlanService {
       DayPlan savedDayPlan = dayPlanRepository.save(existingDayPlan);
       dayPlanRepository.flush();
 
-      DayPlanDetailDto dto = modelMapper.map(savedDayPlan, DayPlanDetailDto.class);
+      DayPlanDetailDto dto = dtoMapper.toDayPlanDetailDto(savedDayPlan);
 
       return new DayPlanResponseDto(200, true, ResponseMessage.DAY_PLAN_UPDATE_SUCCESS, dto);
 
@@ -177,12 +184,14 @@ public class DayPlanServiceImpl implements DayPlanService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.DAY_PLAN_NOT_FOUND, dayPlanId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!dayPlan.getUser().getId().equals(userId)) {
       throw new UnauthorizedActionException(ResponseMessage.DAY_PLAN_DELETE_ACTION_DENIED);
     }
 
+    itineraryCostUtil.removeDayPlanCost(dayPlanId);
+
     dayPlanRepository.delete(dayPlan);
 
     return new BaseResponseDto(200, true, ResponseMessage.DAY_PLAN_DELETE_SUCCESS);
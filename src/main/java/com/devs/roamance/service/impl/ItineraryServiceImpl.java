@@ -16,6 +16,7 @@ import com.devs.roamance.model.travel.itinerary.Itinerary;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.ItineraryRepository;
 import com.devs.roamance.service.ItineraryService;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.ItineraryUtil;
 import com.devs.roamance.util.PaginationSortingUtil;
 import com.devs.roamance.util.UserUtil;
@@ -35,17 +36,20 @@ public class ItineraryServiceImpl implements ItineraryService {
 
   private final ItineraryRepository itineraryRepository;
   private final ItineraryUtil itineraryUtil;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
   private final UserUtil userUtil;
 
   public ItineraryServiceImpl(
       ItineraryRepository itineraryRepository,
       ItineraryUtil itineraryUtil,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper,
       UserUtil userUtil) {
 
     this.itineraryRepository = itineraryRepository;
     this.itineraryUtil = itineraryUtil;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
     this.userUtil = userUtil;
   }
@@ -63,7 +67,7 @@ public class ItineraryServiceImpl implements ItineraryService {
     Itinerary savedItinerary = itineraryRepository.save(itinerary);
     itineraryRepository.flush();
 
-    ItineraryDetailDto dto = modelMapper.map(savedItinerary, ItineraryDetailDto.class);
+    ItineraryDetailDto dto = dtoMapper.toItineraryDetailDto(savedItinerary);
 
     return new ItineraryResponseDto(201, true, ResponseMessage.ITINERARY_CREATE_SUCCESS, dto);
   }
@@ -82,7 +86,7 @@ public class ItineraryServiceImpl implements ItineraryService {
     Itinerary savedItinerary = itineraryRepository.save(itinerary);
     itineraryRepository.flush();
 
-    ItineraryDetailDto dto = modelMapper.map(savedItinerary, ItineraryDetailDto.class);
+    ItineraryDetailDto dto = dtoMapper.toItineraryDetailDto(savedItinerary);
 
     return new ItineraryResponseDto(201, true, ResponseMessage.ITINERARY_CREATE_SUCCESS, dto);
   }
@@ -98,9 +102,7 @@ public class ItineraryServiceImpl implements ItineraryService {
     Page<Itinerary> itineraries = itineraryRepository.findAll(pageable);
 
     List<ItineraryBriefDto> dtos =
-        itineraries.stream()
-            .map(itinerary -> modelMapper.map(itinerary, ItineraryBriefDto.class))
-            .toList();
+        itineraries.stream().map(dtoMapper::toItineraryBriefDto).toList();
 
     return new ItineraryListResponseDto(200, true, ResponseMessage.ITINERARIES_FETCH_SUCCESS, dtos);
   }
@@ -116,7 +118,7 @@ public class ItineraryServiceImpl implements ItineraryService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.ITINERARY_NOT_FOUND, itineraryId)));
 
-    ItineraryDetailDto dto = modelMapper.map(itinerary, ItineraryDetailDto.class);
+    ItineraryDetailDto dto = dtoMapper.toItineraryDetailDto(itinerary);
 
     return new ItineraryResponseDto(200, true, ResponseMessage.ITINERARY_FETCH_SUCCESS, dto);
   }
@@ -132,9 +134,7 @@ public class ItineraryServiceImpl implements ItineraryService {
     Page<Itinerary> itineraries = itineraryRepository.findAllByUserId(userId, pageable);
 
     List<ItineraryBriefDto> dtos =
-        itineraries.stream()
-            .map(itinerary -> modelMapper.map(itinerary, ItineraryBriefDto.class))
-            .toList();
+        itineraries.stream().map(dtoMapper::toItineraryBriefDto).toList();
 
     return new ItineraryListResponseDto(200, true, ResponseMessage.ITINERARIES_FETCH_SUCCESS, dtos);
   }
@@ -151,7 +151,7 @@ public class ItineraryServiceImpl implements ItineraryService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.ITINERARY_NOT_FOUND, itineraryId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!existingItinerary.getUser().getId().equals(userId)) {
       throw new UnauthorizedActionException(ResponseMessage.ITINERARY_UPDATE_ACTION_DENIED);
@@ -184,7 +184,7 @@ public class ItineraryServiceImpl implements ItineraryService {
     Itinerary savedItinerary = itineraryRepository.save(existingItinerary);
     itineraryRepository.flush();
 
-    ItineraryDetailDto dto = modelMapper.map(savedItinerary, ItineraryDetailDto.class);
+    ItineraryDetailDto dto = dtoMapper.toItineraryDetailDto(savedItinerary);
 
     return new ItineraryResponseDto(200, true, ResponseMessage.ITINERARY_UPDATE_SUCCESS, dto);
   }
@@ -201,7 +201,7 @@ public class ItineraryServiceImpl implements ItineraryService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.ITINERARY_NOT_FOUND, itineraryId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!itinerary.getUser().getId().equals(userId)) {
 
@@ -28,6 +28,7 @@ import com.devs.roamance.model.travel.journal.Subsection;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.JournalRepository;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.JournalSummary;
 import com.devs.roamance.service.JournalService;
 import com.devs.roamance.util.PaginationSortingUtil;
 import com.devs.roamance.util.UserUtil;
@@ -137,11 +138,11 @@ public class JournalServiceImpl implements JournalService {
         PageRequest.of(
             pageNumber, pageSize, Sort.by(PaginationSortingUtil.getSortDirection(sortDir), sortBy));
 
-    Page<Journal> journalPage;
+    Page<JournalSummary> journalPage;
 
     if (isAdmin) {
       log.info("User has ADMIN role, returning all journals with pagination");
-      journalPage = journalRepository.findAll(pageable);
+      journalPage = journalRepository.findAllSummaries(pageable);
     } else {
       String email = authentication.getName();
       Optional<UUID> userId = userRepository.findByEmail(email).map(User::getId);
@@ -149,7 +150,7 @@ public class JournalServiceImpl implements JournalService {
       log.info("User has USER role, returning only their journals, userId: {}", userId);
 
       if (userId.isPresent()) {
-        journalPage = journalRepository.findAllByAudit_CreatedBy(userId.get(), pageable);
+        journalPage = journalRepository.findAllSummariesByCreatedBy(userId.get(), pageable);
       } else {
         return new JournalListResponseDto(
             200, true, ResponseMessage.JOURNALS_FETCH_SUCCESS, List.of());
@@ -159,13 +160,9 @@ public class JournalServiceImpl implements JournalService {
     List<JournalBriefDto> journalDtos =
         journalPage.getContent().stream()
             .map(
-                journal -> {
-                  Journal journalWithSubsections =
-                      journalRepository.findById(journal.getId()).orElse(journal);
-
-                  JournalBriefDto dto =
-                      modelMapper.map(journalWithSubsections, JournalBriefDto.class);
-                  dto.setTotalSubsections(journalWithSubsections.getSubsections().size());
+                summary -> {
+                  JournalBriefDto dto = modelMapper.map(summary.journal(), JournalBriefDto.class);
+                  dto.setTotalSubsections(summary.subsectionCount().intValue());
                   return dto;
                 })
             .toList();
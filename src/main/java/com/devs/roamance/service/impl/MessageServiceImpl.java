@@ -2,16 +2,21 @@ package com.devs.roamance.service.impl;
 
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.request.social.MessageRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.MessageDto;
 import com.devs.roamance.dto.response.social.MessageListResponseDto;
 import com.devs.roamance.dto.response.social.MessageResponseDto;
 import com.devs.roamance.exception.ResourceNotFoundException;
 import com.devs.roamance.model.social.Chat;
+import com.devs.roamance.model.social.ChatInboxEntry;
 import com.devs.roamance.model.social.Message;
 import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.ChatInboxRepository;
 import com.devs.roamance.repository.ChatRepository;
 import com.devs.roamance.repository.MessageRepository;
 import com.devs.roamance.service.MessageService;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.PaginationSortingUtil;
 import com.devs.roamance.util.UserUtil;
 import java.util.List;
@@ -20,6 +25,7 @@ import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,17 +35,23 @@ public class MessageServiceImpl implements MessageService {
 
   private final MessageRepository messageRepository;
   private final ChatRepository chatRepository;
+  private final ChatInboxRepository chatInboxRepository;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
   private final UserUtil userUtil;
 
   public MessageServiceImpl(
       MessageRepository messageRepository,
       ChatRepository chatRepository,
+      ChatInboxRepository chatInboxRepository,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper,
       UserUtil userUtil) {
 
     this.messageRepository = messageRepository;
     this.chatRepository = chatRepository;
+    this.chatInboxRepository = chatInboxRepository;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
     this.userUtil = userUtil;
   }
@@ -60,21 +72,15 @@ public class MessageServiceImpl implements MessageService {
 
     Message newMessage = modelMapper.map(requestDto, Message.class);
 
-    if (requestDto.getText() != null && !requestDto.getText().isEmpty()) {
+    String lastText =
+        Chat.lastTextOf(
+            user.getName(),
+            requestDto.getText(),
+            requestDto.getImagePaths(),
+            requestDto.getVideoPaths());
 
-      chat.setLastText(requestDto.getText());
-
-    } else if (requestDto.getImagePaths() != null && !requestDto.getImagePaths().isEmpty()) {
-
-      chat.setLastText(
-          user.getName()
-              + (requestDto.getImagePaths().size() == 1 ? " sent a photo" : " sent photos"));
-
-    } else if (requestDto.getVideoPaths() != null && !requestDto.getVideoPaths().isEmpty()) {
-
-      chat.setLastText(
-          user.getName()
-              + (requestDto.getVideoPaths().size() == 1 ? " sent a video" : " sent videos"));
+    if (lastText != null) {
+      chat.setLastText(lastText);
     }
 
     newMessage.setUser(user);
@@ -83,12 +89,20 @@ public class MessageServiceImpl implements MessageService {
     Message savedMessage = messageRepository.save(newMessage);
     messageRepository.flush();
 
-    MessageDto dto = modelMapper.map(savedMessage, MessageDto.class);
+    chatInboxRepository.recordMessage(
+        chatId,
+        user.getId(),
+        savedMessage.getId(),
+        savedMessage.getAudit().getCreatedAt(),
+        ChatInboxEntry.previewOf(chat.getLastText()));
+
+    MessageDto dto = dtoMapper.toMessageDto(savedMessage);
 
     return new MessageResponseDto(201, true, ResponseMessage.MESSAGE_CREATE_SUCCESS, dto);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public MessageListResponseDto getByChatId(
       UUID chatId, int pageNumber, int pageSize, String sortBy, String sortDir) {
 
@@ -98,9 +112,32 @@ public class MessageServiceImpl implements MessageService {
 
     Page<Message> messages = messageRepository.findAllByChatId(chatId, pageable);
 
-    List<MessageDto> dtos =
-        messages.stream().map(message -> modelMapper.map(message, MessageDto.class)).toList();
+    List<MessageDto> dtos = messages.stream().map(dtoMapper::toMessageDto).toList();
 
     return new MessageListResponseDto(200, true, ResponseMessage.MESSAGES_FETCH_SUCCESS, dtos);
   }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorListResponseDto<MessageDto> getByChatIdAndCursor(
+      UUID chatId, String cursor, int pageSize) {
+
+    CursorUtil.Cursor before = CursorUtil.decode(cursor);
+    Pageable pageable = PageRequest.of(0, pageSize);
+
+    Slice<Message> messages =
+        before == null
+            ? messageRepository.findFirstSliceByChatId(chatId, pageable)
+            : messageRepository.findSliceByChatIdBefore(
+                chatId, before.createdAt(), before.id(), pageable);
+
+    List<MessageDto> dtos = messages.stream().map(dtoMapper::toMessageDto).toList();
+
+    return new CursorListResponseDto<>(
+        200,
+        true,
+        ResponseMessage.MESSAGES_FETCH_SUCCESS,
+        dtos,
+        CursorUtil.nextCursor(messages, Message::getAudit, Message::getId));
+  }
 }
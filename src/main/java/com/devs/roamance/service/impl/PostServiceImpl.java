@@ -3,6 +3,7 @@ package com.devs.roamance.service.impl;
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.request.social.PostRequestDto;
 import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.PostDto;
 import com.devs.roamance.dto.response.social.PostListResponseDto;
 import com.devs.roamance.dto.response.social.PostResponseDto;
@@ -14,17 +15,28 @@ import com.devs.roamance.model.social.Post;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.PostRepository;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.FeedItem;
 import com.devs.roamance.service.PostService;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.FeedUtil;
 import com.devs.roamance.util.PaginationSortingUtil;
+import com.devs.roamance.util.PostCounters;
 import com.devs.roamance.util.PostUtil;
+import com.devs.roamance.util.TrendingPostRanker;
 import com.devs.roamance.util.UserUtil;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +49,10 @@ public class PostServiceImpl implements PostService {
   private final UserRepository userRepository;
   private final PostUtil postUtil;
   private final UserUtil userUtil;
+  private final PostCounters postCounters;
+  private final FeedUtil feedUtil;
+  private final TrendingPostRanker trendingPostRanker;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
 
   public PostServiceImpl(
@@ -44,12 +60,20 @@ public class PostServiceImpl implements PostService {
       UserRepository userRepository,
       PostUtil postUtil,
       UserUtil userUtil,
+      PostCounters postCounters,
+      FeedUtil feedUtil,
+      TrendingPostRanker trendingPostRanker,
+      DtoMapper dtoMapper,
       ModelMapper modelMapper) {
 
     this.postRepository = postRepository;
     this.userRepository = userRepository;
     this.postUtil = postUtil;
     this.userUtil = userUtil;
+    this.postCounters = postCounters;
+    this.feedUtil = feedUtil;
+    this.trendingPostRanker = trendingPostRanker;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
   }
 
@@ -67,15 +91,16 @@ public class PostServiceImpl implements PostService {
     Post savedPost = postRepository.save(post);
     postRepository.flush();
 
-    postUtil.backgroundAiAnalysis(savedPost.getId(), createRequestDto);
-    postUtil.addToVectorDb(savedPost.getId(), createRequestDto);
+    postUtil.enqueueAiEnrichment(savedPost.getId());
+    feedUtil.fanOut(savedPost.getId());
 
-    PostDto dto = modelMapper.map(savedPost, PostDto.class);
+    PostDto dto = dtoMapper.toPostDto(savedPost);
 
     return new PostResponseDto(201, true, ResponseMessage.POST_CREATE_SUCCESS, dto);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public PostResponseDto get(UUID postId) {
 
     Post post =
@@ -86,12 +111,13 @@ public class PostServiceImpl implements PostService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.POST_NOT_FOUND, postId)));
 
-    PostDto dto = modelMapper.map(post, PostDto.class);
+    PostDto dto = dtoMapper.toPostDto(post);
 
     return new PostResponseDto(200, true, ResponseMessage.POST_FETCH_SUCCESS, dto);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public PostListResponseDto getAll(int pageNumber, int pageSize, String sortBy, String sortDir) {
 
     Pageable pageable =
@@ -100,12 +126,76 @@ public class PostServiceImpl implements PostService {
 
     Page<Post> posts = postRepository.findAll(pageable);
 
-    List<PostDto> dtos = posts.stream().map(post -> modelMapper.map(post, PostDto.class)).toList();
+    List<PostDto> dtos = posts.stream().map(dtoMapper::toPostDto).toList();
 
     return new PostListResponseDto(200, true, ResponseMessage.POSTS_FETCH_SUCCESS, dtos);
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public CursorListResponseDto<PostDto> getAllByCursor(String cursor, int pageSize) {
+
+    CursorUtil.Cursor after = CursorUtil.decode(cursor);
+    Pageable pageable = PageRequest.of(0, pageSize);
+
+    Slice<Post> posts =
+        after == null
+            ? postRepository.findFirstSlice(pageable)
+            : postRepository.findSliceBefore(after.createdAt(), after.id(), pageable);
+
+    List<PostDto> dtos = posts.stream().map(dtoMapper::toPostDto).toList();
+
+    return new CursorListResponseDto<>(
+        200,
+        true,
+        ResponseMessage.POSTS_FETCH_SUCCESS,
+        dtos,
+        CursorUtil.nextCursor(posts, Post::getAudit, Post::getId));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorListResponseDto<PostDto> getHomeFeed(String cursor, int pageSize) {
+
+    CursorUtil.Cursor after = CursorUtil.decode(cursor);
+    UUID userId = userUtil.getAuthenticatedUserId();
+
+    // One extra item tells whether there is a next slice
+    List<FeedItem> items = feedUtil.findItems(userId, after, pageSize + 1);
+    boolean hasNext = items.size() > pageSize;
+    if (hasNext) {
+      items = items.subList(0, pageSize);
+    }
+
+    List<PostDto> dtos =
+        findAllInOrder(items.stream().map(FeedItem::postId).toList()).stream()
+            .map(dtoMapper::toPostDto)
+            .toList();
+
+    // The cursor points at the last feed item, so a slice of deleted posts still continues
+    Slice<FeedItem> slice = new SliceImpl<>(items, PageRequest.of(0, pageSize), hasNext);
+
+    return new CursorListResponseDto<>(
+        200,
+        true,
+        ResponseMessage.POSTS_FETCH_SUCCESS,
+        dtos,
+        CursorUtil.nextCursorAt(slice, FeedItem::createdAt, FeedItem::postId));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public PostListResponseDto getTrending(int pageNumber, int pageSize) {
+
+    List<UUID> postIds = trendingPostRanker.getTopPostIds(pageNumber * pageSize, pageSize);
+
+    List<PostDto> dtos = findAllInOrder(postIds).stream().map(dtoMapper::toPostDto).toList();
+
+    return new PostListResponseDto(200, true, ResponseMessage.POSTS_FETCH_SUCCESS, dtos);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public PostListResponseDto getByIds(List<UUID> postIds, int pageNumber, int pageSize) {
 
     Pageable pageable = PageRequest.of(pageNumber, pageSize);
@@ -114,12 +204,13 @@ public class PostServiceImpl implements PostService {
 
     Page<Post> posts = postRepository.findAllByIds(idsArray, pageable);
 
-    List<PostDto> dtos = posts.stream().map(post -> modelMapper.map(post, PostDto.class)).toList();
+    List<PostDto> dtos = posts.stream().map(dtoMapper::toPostDto).toList();
 
     return new PostListResponseDto(200, true, ResponseMessage.POSTS_FETCH_SUCCESS, dtos);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public PostListResponseDto getByUserId(
       UUID userId, int pageNumber, int pageSize, String sortBy, String sortDir) {
 
@@ -129,12 +220,13 @@ public class PostServiceImpl implements PostService {
 
     Page<Post> posts = postRepository.findAllByUserId(userId, pageable);
 
-    List<PostDto> dtos = posts.stream().map(post -> modelMapper.map(post, PostDto.class)).toList();
+    List<PostDto> dtos = posts.stream().map(dtoMapper::toPostDto).toList();
 
     return new PostListResponseDto(200, true, ResponseMessage.POSTS_FETCH_SUCCESS, dtos);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public PostListResponseDto getSavedByCurrentUser(
       int pageNumber, int pageSize, String sortBy, String sortDir) {
 
@@ -142,16 +234,17 @@ public class PostServiceImpl implements PostService {
         PageRequest.of(
             pageNumber, pageSize, Sort.by(PaginationSortingUtil.getSortDirection(sortDir), sortBy));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     Page<Post> posts = postRepository.findAllBySavedBy_Id(userId, pageable);
 
-    List<PostDto> dtos = posts.stream().map(post -> modelMapper.map(post, PostDto.class)).toList();
+    List<PostDto> dtos = posts.stream().map(dtoMapper::toPostDto).toList();
 
     return new PostListResponseDto(200, true, ResponseMessage.POSTS_FETCH_SUCCESS, dtos);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public UserListResponseDto getUsersWhoLiked(
       UUID postId, int pageNumber, int pageSize, String sortBy, String sortDir) {
 
@@ -161,7 +254,7 @@ public class PostServiceImpl implements PostService {
 
     Page<User> users = userRepository.findAllByLikedPosts_Id(postId, pageable);
 
-    List<UserDto> dtos = users.stream().map(user -> modelMapper.map(user, UserDto.class)).toList();
+    List<UserDto> dtos = users.stream().map(dtoMapper::toUserDto).toList();
 
     return new UserListResponseDto(200, true, ResponseMessage.USERS_FETCH_SUCCESS, dtos);
   }
@@ -178,7 +271,7 @@ public class PostServiceImpl implements PostService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.POST_NOT_FOUND, postId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!existingPost.getUser().getId().equals(userId)) {
       throw new UnauthorizedActionException(ResponseMessage.POST_UPDATE_ACTION_DENIED);
@@ -197,7 +290,7 @@ public class PostServiceImpl implements PostService {
     Post savedPost = postRepository.save(existingPost);
     postRepository.flush();
 
-    PostDto dto = modelMapper.map(savedPost, PostDto.class);
+    PostDto dto = dtoMapper.toPostDto(savedPost);
 
     return new PostResponseDto(200, true, ResponseMessage.POST_UPDATE_SUCCESS, dto);
   }
@@ -210,18 +303,20 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException(String.format(ResponseMessage.POST_NOT_FOUND, postId));
     }
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     boolean isSaved = postRepository.isSavedByUser(postId, userId);
 
     if (isSaved) {
 
       postRepository.unsaveByUser(postId, userId);
+      trendingPostRanker.addSaves(postId, -1);
 
       return new BaseResponseDto(200, true, ResponseMessage.POST_UNSAVE_SUCCESS);
     } else {
 
       postRepository.saveByUser(postId, userId);
+      trendingPostRanker.addSaves(postId, 1);
 
       return new BaseResponseDto(200, true, ResponseMessage.POST_SAVE_SUCCESS);
     }
@@ -235,20 +330,22 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException(String.format(ResponseMessage.POST_NOT_FOUND, postId));
     }
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     boolean isLiked = postRepository.isLikedByUser(postId, userId);
 
     if (isLiked) {
 
       postRepository.unlikeByUser(postId, userId);
-      postRepository.decrementLikeCount(postId);
+      postCounters.addLikes(postId, -1);
+      trendingPostRanker.addLikes(postId, -1);
 
       return new BaseResponseDto(200, true, ResponseMessage.POST_UNLIKE_SUCCESS);
     } else {
 
       postRepository.likeByUser(postId, userId);
-      postRepository.incrementLikeCount(postId);
+      postCounters.addLikes(postId, 1);
+      trendingPostRanker.addLikes(postId, 1);
 
       return new BaseResponseDto(200, true, ResponseMessage.POST_LIKE_SUCCESS);
     }
@@ -266,7 +363,7 @@ public class PostServiceImpl implements PostService {
                     new ResourceNotFoundException(
                         String.format(ResponseMessage.POST_NOT_FOUND, postId)));
 
-    UUID userId = userUtil.getAuthenticatedUser().getId();
+    UUID userId = userUtil.getAuthenticatedUserId();
 
     if (!post.getUser().getId().equals(userId)) {
 
@@ -274,7 +371,21 @@ public class PostServiceImpl implements PostService {
     }
 
     postRepository.delete(post);
+    feedUtil.removePost(postId);
+    trendingPostRanker.remove(postId);
+
+    postUtil.removeFromVectorDb(postId);
+    postUtil.evictFromRagSearchCache(postId);
 
     return new BaseResponseDto(200, true, ResponseMessage.POST_DELETE_SUCCESS);
   }
+
+  /** Loads posts by ID in the given order, posts deleted in the meantime are skipped. */
+  private List<Post> findAllInOrder(List<UUID> postIds) {
+
+    Map<UUID, Post> postsById = new HashMap<>();
+    postRepository.findAllById(postIds).forEach(post -> postsById.put(post.getId(), post));
+
+    return postIds.stream().map(postsById::get).filter(Objects::nonNull).toList();
+  }
 }
@@ -13,7 +13,11 @@ import com.devs.roamance.model.user.Role;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.UserRepository;
 import com.devs.roamance.service.UserService;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.FeedUtil;
 import com.devs.roamance.util.PaginationSortingUtil;
+import com.devs.roamance.util.UserSnapshotCache;
+import com.devs.roamance.util.UserUtil;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -31,15 +35,29 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserServiceImpl implements UserService {
 
   private final UserRepository userRepository;
+  private final DtoMapper dtoMapper;
   private final ModelMapper modelMapper;
   private final PasswordEncoder passwordEncoder;
+  private final UserSnapshotCache userSnapshotCache;
+  private final UserUtil userUtil;
+  private final FeedUtil feedUtil;
 
   public UserServiceImpl(
-      UserRepository userRepository, ModelMapper modelMapper, PasswordEncoder passwordEncoder) {
+      UserRepository userRepository,
+      DtoMapper dtoMapper,
+      ModelMapper modelMapper,
+      PasswordEncoder passwordEncoder,
+      UserSnapshotCache userSnapshotCache,
+      UserUtil userUtil,
+      FeedUtil feedUtil) {
 
     this.userRepository = userRepository;
+    this.dtoMapper = dtoMapper;
     this.modelMapper = modelMapper;
     this.passwordEncoder = passwordEncoder;
+    this.userSnapshotCache = userSnapshotCache;
+    this.userUtil = userUtil;
+    this.feedUtil = feedUtil;
   }
 
   @Override
@@ -58,7 +76,7 @@ public class UserServiceImpl implements UserService {
       User savedUser = userRepository.save(user);
       userRepository.flush();
 
-      UserDto dto = modelMapper.map(savedUser, UserDto.class);
+      UserDto dto = dtoMapper.toUserDto(savedUser);
       return new UserResponseDto(201, true, ResponseMessage.REGISTRATION_SUCCESS, dto);
 
     } catch (DataIntegrityViolationException e) {
@@ -77,8 +95,7 @@ public class UserServiceImpl implements UserService {
 
     Page<User> userPage = userRepository.findAll(pageable);
 
-    List<UserDto> dtoList =
-        userPage.getContent().stream().map(user -> modelMapper.map(user, UserDto.class)).toList();
+    List<UserDto> dtoList = userPage.getContent().stream().map(dtoMapper::toUserDto).toList();
 
     return new UserListResponseDto(200, true, ResponseMessage.USERS_FETCH_SUCCESS, dtoList);
   }
@@ -94,7 +111,7 @@ public class UserServiceImpl implements UserService {
                     new UserNotFoundException(
                         String.format(ResponseMessage.USER_NOT_FOUND_ID, userId)));
 
-    UserDto dto = modelMapper.map(user, UserDto.class);
+    UserDto dto = dtoMapper.toUserDto(user);
 
     return new UserResponseDto(200, true, ResponseMessage.USER_FETCH_SUCCESS, dto);
   }
@@ -110,7 +127,7 @@ public class UserServiceImpl implements UserService {
                     new UserNotFoundException(
                         String.format(ResponseMessage.USER_NOT_FOUND_EMAIL, email)));
 
-    UserDto dto = modelMapper.map(user, UserDto.class);
+    UserDto dto = dtoMapper.toUserDto(user);
 
     return new UserResponseDto(200, true, ResponseMessage.USER_FETCH_SUCCESS, dto);
   }
@@ -122,8 +139,7 @@ public class UserServiceImpl implements UserService {
 
     Page<User> userPage = userRepository.searchUsers(query, pageable);
 
-    List<UserDto> dtoList =
-        userPage.getContent().stream().map(user -> modelMapper.map(user, UserDto.class)).toList();
+    List<UserDto> dtoList = userPage.getContent().stream().map(dtoMapper::toUserDto).toList();
 
     return new UserListResponseDto(200, true, ResponseMessage.USERS_FETCH_SUCCESS, dtoList);
   }
@@ -153,11 +169,46 @@ public class UserServiceImpl implements UserService {
     User savedUser = userRepository.save(existingUser);
     userRepository.flush();
 
-    UserDto dto = modelMapper.map(savedUser, UserDto.class);
+    userSnapshotCache.evict(userId);
+
+    UserDto dto = dtoMapper.toUserDto(savedUser);
 
     return new UserResponseDto(200, true, ResponseMessage.USER_UPDATE_SUCCESS, dto);
   }
 
+  @Override
+  @Transactional
+  public BaseResponseDto toggleFollow(UUID userId) {
+
+    UUID followerId = userUtil.getAuthenticatedUserId();
+
+    if (followerId.equals(userId)) {
+      throw new IllegalArgumentException(ResponseMessage.USER_FOLLOW_SELF_DENIED);
+    }
+
+    if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(String.format(ResponseMessage.USER_NOT_FOUND_ID, userId));
+    }
+
+    boolean isFollowing = userRepository.isFollowing(followerId, userId);
+
+    if (isFollowing) {
+
+      userRepository.unfollow(followerId, userId);
+      userRepository.addToFollowersCount(userId, -1);
+      feedUtil.onUnfollow(followerId, userId);
+
+      return new BaseResponseDto(200, true, ResponseMessage.USER_UNFOLLOW_SUCCESS);
+    } else {
+
+      userRepository.follow(followerId, userId);
+      userRepository.addToFollowersCount(userId, 1);
+      feedUtil.onFollow(followerId, userId);
+
+      return new BaseResponseDto(200, true, ResponseMessage.USER_FOLLOW_SUCCESS);
+    }
+  }
+
   @Override
   @Transactional
   public BaseResponseDto delete(UUID userId) {
@@ -170,8 +221,15 @@ public class UserServiceImpl implements UserService {
                     new UserNotFoundException(
                         String.format(ResponseMessage.USER_NOT_FOUND_ID, userId)));
 
+    // Follows reference the user from both sides and feed entries hold plain IDs
+    userRepository.decrementFollowersCountOfFollowed(userId);
+    userRepository.deleteAllFollowsOf(userId);
+    feedUtil.removeUser(userId);
+
     userRepository.delete(existingUser);
 
+    userSnapshotCache.evict(userId);
+
     return new BaseResponseDto(200, true, ResponseMessage.USER_DELETE_SUCCESS);
   }
 }
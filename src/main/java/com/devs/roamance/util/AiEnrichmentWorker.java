@@ -0,0 +1,337 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.exception.ResourceNotFoundException;
+import com.devs.roamance.model.ai.AiEnrichmentJob;
+import com.devs.roamance.model.ai.AiEnrichmentJobStatus;
+import com.devs.roamance.repository.AiEnrichmentJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Polls the {@code ai_enrichment_jobs} outbox, claims due jobs with {@code FOR UPDATE SKIP LOCKED}
+ * and hands them to the bounded enrichment pool without waiting for them, so the shared scheduler
+ * is never held by Gemini/Nomic calls. Only as many jobs are claimed as there are free in-flight
+ * slots, at most {@code batch-size} jobs run or wait in the pool at any time. Failed jobs are
+ * retried with exponential backoff until the attempt limit is reached, jobs left RUNNING by a
+ * crashed instance are released again. A job is only finished while its claim is still the current
+ * one, so a worker whose claim went stale cannot overwrite the outcome of the worker that took the
+ * job over. Finished jobs are purged after the retention period.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+    name = "application.ai-enrichment.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class AiEnrichmentWorker {
+
+  private final AiEnrichmentJobRepository aiEnrichmentJobRepository;
+  private final PostUtil postUtil;
+  private final ThreadPoolTaskExecutor aiEnrichmentExecutor;
+  private final TransactionTemplate transactionTemplate;
+
+  // Free in-flight slots, taken when a job is claimed and given back when it is finished
+  private final Semaphore inFlightSlots;
+
+  private final AtomicLong queueDepth = new AtomicLong();
+  private final AtomicLong oldestJobAgeSeconds = new AtomicLong();
+
+  private final Counter succeededJobs;
+  private final Counter retriedJobs;
+  private final Counter failedJobs;
+
+  @Value("${application.ai-enrichment.max-attempts:8}")
+  private int maxAttempts;
+
+  @Value("${application.ai-enrichment.base-backoff-ms:5000}")
+  private long baseBackoffMs;
+
+  @Value("${application.ai-enrichment.max-backoff-ms:1800000}")
+  private long maxBackoffMs;
+
+  @Value("${application.ai-enrichment.stale-after-ms:600000}")
+  private long staleAfterMs;
+
+  @Value("${application.ai-enrichment.retention-days:7}")
+  private int retentionDays;
+
+  public AiEnrichmentWorker(
+      AiEnrichmentJobRepository aiEnrichmentJobRepository,
+      PostUtil postUtil,
+      @Qualifier("aiEnrichmentExecutor") ThreadPoolTaskExecutor aiEnrichmentExecutor,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${application.ai-enrichment.batch-size:4}") int batchSize) {
+
+    this.aiEnrichmentJobRepository = aiEnrichmentJobRepository;
+    this.postUtil = postUtil;
+    this.aiEnrichmentExecutor = aiEnrichmentExecutor;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.inFlightSlots = new Semaphore(Math.max(1, batchSize));
+
+    Gauge.builder("roamance.ai.enrichment.queue.depth", queueDepth, AtomicLong::get)
+        .description("Number of pending AI enrichment jobs")
+        .register(meterRegistry);
+    Gauge.builder("roamance.ai.enrichment.queue.oldest.age", oldestJobAgeSeconds, AtomicLong::get)
+        .description("Age in seconds of the oldest pending AI enrichment job")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+
+    this.succeededJobs = jobCounter(meterRegistry, "succeeded");
+    this.retriedJobs = jobCounter(meterRegistry, "retried");
+    this.failedJobs = jobCounter(meterRegistry, "failed");
+  }
+
+  @Scheduled(
+      fixedDelayString = "${application.ai-enrichment.poll-interval-ms:2000}",
+      initialDelayString = "${application.ai-enrichment.initial-delay-ms:10000}")
+  public void poll() {
+
+    try {
+      releaseStaleJobs();
+
+      int slots = inFlightSlots.drainPermits();
+      List<AiEnrichmentJob> jobs = List.of();
+
+      try {
+        if (slots > 0) {
+          jobs = claimDueJobs(slots);
+        }
+      } finally {
+        // Slots no job was claimed for are free for the next poll
+        inFlightSlots.release(slots - jobs.size());
+      }
+
+      refreshQueueMetrics();
+
+      jobs.forEach(this::submit);
+
+    } catch (Exception e) {
+      log.error("AI enrichment polling failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private void releaseStaleJobs() {
+
+    OffsetDateTime cutoff = now().minus(Duration.ofMillis(staleAfterMs));
+
+    Integer released =
+        transactionTemplate.execute(
+            status ->
+                aiEnrichmentJobRepository.releaseStale(
+                    cutoff, AiEnrichmentJobStatus.RUNNING, AiEnrichmentJobStatus.PENDING));
+
+    if (released != null && released > 0) {
+      log.warn("Released {} stale AI enrichment jobs", released);
+    }
+  }
+
+  private List<AiEnrichmentJob> claimDueJobs(int limit) {
+
+    List<AiEnrichmentJob> jobs =
+        transactionTemplate.execute(
+            status -> {
+              // Truncated to what the column stores, so finish() can match the claim exactly
+              OffsetDateTime now = now().truncatedTo(ChronoUnit.MICROS);
+
+              List<AiEnrichmentJob> claimed = aiEnrichmentJobRepository.claimDue(now, limit);
+
+              claimed.forEach(
+                  job -> {
+                    job.setStatus(AiEnrichmentJobStatus.RUNNING);
+                    job.setLockedAt(now);
+                    job.setAttempts(job.getAttempts() + 1);
+                  });
+
+              return aiEnrichmentJobRepository.saveAll(claimed);
+            });
+
+    return jobs == null ? List.of() : jobs;
+  }
+
+  private void submit(AiEnrichmentJob job) {
+
+    try {
+      aiEnrichmentExecutor.execute(
+          () -> {
+            try {
+              process(job);
+            } finally {
+              inFlightSlots.release();
+            }
+          });
+
+    } catch (TaskRejectedException e) {
+      // Only happens while shutting down, the job is handed back instead of waiting to go stale
+      inFlightSlots.release();
+      finish(job, AiEnrichmentJobStatus.PENDING, job.getNextAttemptAt(), "Rejected on shutdown");
+    }
+  }
+
+  private void process(AiEnrichmentJob job) {
+
+    try {
+      switch (job.getType()) {
+        case TIDBITS_AND_SAFETY -> postUtil.applyAiAnalysis(job.getPostId());
+        case VECTOR_INDEX -> postUtil.indexInVectorDb(job.getPostId());
+      }
+
+      complete(job, null);
+
+    } catch (ResourceNotFoundException e) {
+      // The post was deleted before its enrichment ran, so there is nothing left to do
+      complete(job, e.getMessage());
+
+    } catch (Exception e) {
+      fail(job, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    }
+  }
+
+  private void complete(AiEnrichmentJob job, String note) {
+
+    if (finish(job, AiEnrichmentJobStatus.DONE, job.getNextAttemptAt(), note)) {
+      succeededJobs.increment();
+    }
+  }
+
+  private void fail(AiEnrichmentJob job, Throwable error) {
+
+    String lastError = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+
+    if (job.getAttempts() >= maxAttempts) {
+      log.error(
+          "AI enrichment job {} ({}) for post {} failed permanently after {} attempts: {}",
+          job.getId(),
+          job.getType(),
+          job.getPostId(),
+          job.getAttempts(),
+          error.getMessage(),
+          error);
+
+      if (finish(job, AiEnrichmentJobStatus.FAILED, job.getNextAttemptAt(), lastError)) {
+        failedJobs.increment();
+      }
+
+    } else {
+      Duration backoff = backoff(job.getAttempts());
+
+      log.warn(
+          "AI enrichment job {} ({}) for post {} failed on attempt {}, retrying in {}s: {}",
+          job.getId(),
+          job.getType(),
+          job.getPostId(),
+          job.getAttempts(),
+          backoff.toSeconds(),
+          error.getMessage());
+
+      if (finish(job, AiEnrichmentJobStatus.PENDING, now().plus(backoff), lastError)) {
+        retriedJobs.increment();
+      }
+    }
+  }
+
+  private boolean finish(
+      AiEnrichmentJob job,
+      AiEnrichmentJobStatus status,
+      OffsetDateTime nextAttemptAt,
+      String lastError) {
+
+    Integer updated =
+        transactionTemplate.execute(
+            txStatus ->
+                aiEnrichmentJobRepository.finish(
+                    job.getId(),
+                    job.getLockedAt(),
+                    AiEnrichmentJobStatus.RUNNING,
+                    status,
+                    nextAttemptAt,
+                    lastError,
+                    now()));
+
+    if (updated == null || updated == 0) {
+      log.warn(
+          "AI enrichment job {} ({}) for post {} was released and claimed again while it ran, "
+              + "its outcome is left to the current claim",
+          job.getId(),
+          job.getType(),
+          job.getPostId());
+      return false;
+    }
+
+    return true;
+  }
+
+  @Scheduled(cron = "${application.ai-enrichment.purge-cron:0 45 3 * * *}")
+  public void purge() {
+
+    try {
+      OffsetDateTime cutoff = now().minusDays(retentionDays);
+
+      Integer purged =
+          transactionTemplate.execute(
+              status ->
+                  aiEnrichmentJobRepository.deleteFinishedBefore(
+                      List.of(AiEnrichmentJobStatus.DONE, AiEnrichmentJobStatus.FAILED), cutoff));
+
+      log.info("Purged {} finished AI enrichment jobs older than {} days", purged, retentionDays);
+
+    } catch (Exception e) {
+      log.error("Purging AI enrichment jobs failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private Duration backoff(int attempts) {
+
+    long exponential = baseBackoffMs << Math.min(attempts - 1, 20);
+    long capped = Math.min(maxBackoffMs, exponential);
+    long jitter = ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+
+    return Duration.ofMillis(capped + jitter);
+  }
+
+  private void refreshQueueMetrics() {
+
+    queueDepth.set(aiEnrichmentJobRepository.countByStatus(AiEnrichmentJobStatus.PENDING));
+
+    OffsetDateTime oldest =
+        aiEnrichmentJobRepository.findOldestCreatedAtByStatus(AiEnrichmentJobStatus.PENDING);
+
+    oldestJobAgeSeconds.set(oldest == null ? 0 : Duration.between(oldest, now()).toSeconds());
+  }
+
+  private static String truncate(String message) {
+    return message.length() > 2000 ? message.substring(0, 2000) : message;
+  }
+
+  private static OffsetDateTime now() {
+    return OffsetDateTime.now(ZoneOffset.UTC);
+  }
+
+  private static Counter jobCounter(MeterRegistry meterRegistry, String result) {
+
+    return Counter.builder("roamance.ai.enrichment.jobs")
+        .description("Processed AI enrichment jobs, by outcome")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
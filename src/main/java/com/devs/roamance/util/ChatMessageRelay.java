@@ -0,0 +1,234 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.util.ChatRelayTransport.Envelope;
+import com.devs.roamance.util.ChatRelayTransport.Frame;
+import com.devs.roamance.util.ChatRelayTransport.Sessions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Sends messages to the WebSocket sessions of a user, wherever they are connected. The simple
+ * broker only knows the sessions of its own instance, so every message is delivered to the local
+ * sessions of the user and, if the user is connected to another instance, published on the {@link
+ * ChatRelayTransport}; the instances the user is connected to deliver it to their sessions.
+ *
+ * <p>Instances announce on the transport when the first session of a user opens on them and when
+ * the last one closes, and periodically all of their users, so each instance knows who is connected
+ * elsewhere. Instances that stop announcing are forgotten after the TTL. Until an instance has been
+ * up for a TTL it has not heard from every other one yet and publishes every message.
+ */
+@Component
+public class ChatMessageRelay {
+
+  private final UUID instanceId = UUID.randomUUID();
+  private long startedAtMillis = System.currentTimeMillis();
+
+  private final SimpMessagingTemplate simpMessagingTemplate;
+  private final SimpUserRegistry simpUserRegistry;
+  private final ChatRelayTransport chatRelayTransport;
+
+  // Sessions of each user on this instance, changed only in compute() of their user
+  private final Map<String, Set<String>> localSessions = new ConcurrentHashMap<>();
+
+  private final Map<UUID, RemoteInstance> remoteInstances = new ConcurrentHashMap<>();
+
+  private final Counter deliveredMessages;
+  private final Counter receivedMessages;
+  private final Counter skippedPublishes;
+
+  @Value("${application.chat-relay.instance-ttl-ms:30000}")
+  private long instanceTtlMs;
+
+  public ChatMessageRelay(
+      SimpMessagingTemplate simpMessagingTemplate,
+      SimpUserRegistry simpUserRegistry,
+      ChatRelayTransport chatRelayTransport,
+      MeterRegistry meterRegistry) {
+
+    this.simpMessagingTemplate = simpMessagingTemplate;
+    this.simpUserRegistry = simpUserRegistry;
+    this.chatRelayTransport = chatRelayTransport;
+
+    this.deliveredMessages =
+        Counter.builder("roamance.chat.relay.delivered")
+            .description("Messages delivered to WebSocket sessions of this instance")
+            .register(meterRegistry);
+    this.receivedMessages =
+        Counter.builder("roamance.chat.relay.received")
+            .description("Messages received from other instances")
+            .register(meterRegistry);
+    this.skippedPublishes =
+        Counter.builder("roamance.chat.relay.skipped")
+            .description("Messages not published as no other instance has the user")
+            .register(meterRegistry);
+
+    chatRelayTransport.subscribe(this::receive);
+  }
+
+  /**
+   * Sends the payload to every session of the user, like {@link
+   * SimpMessagingTemplate#convertAndSendToUser} does for the sessions of this instance
+   *
+   * @param userId ID of the user, WebSocket sessions are named by it
+   * @param destination user destination, e.g. /queue/messages
+   * @param payload the message
+   */
+  public void sendToUser(String userId, String destination, Object payload) {
+
+    deliver(userId, destination, payload);
+
+    if (!mayBeConnectedElsewhere(userId)) {
+      skippedPublishes.increment();
+      return;
+    }
+
+    chatRelayTransport.publish(new Envelope(instanceId, userId, destination, payload));
+  }
+
+  /** Whether another instance may have a session of the user, true while that is not known. */
+  public boolean mayBeConnectedElsewhere(String userId) {
+    return System.currentTimeMillis() - startedAtMillis < instanceTtlMs
+        || isConnectedElsewhere(userId);
+  }
+
+  /** Whether another instance has announced a session of the user. */
+  public boolean isConnectedElsewhere(String userId) {
+
+    long now = System.currentTimeMillis();
+
+    for (RemoteInstance instance : remoteInstances.values()) {
+      if (instance.isAlive(now - instanceTtlMs) && instance.users.contains(userId)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+
+    if (event.getUser() != null) {
+      connected(
+          event.getUser().getName(),
+          SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()));
+    }
+  }
+
+  // Published more than once for some sessions, removing the session again is a no-op
+  @EventListener
+  public void onDisconnected(SessionDisconnectEvent event) {
+
+    if (event.getUser() != null) {
+      disconnected(event.getUser().getName(), event.getSessionId());
+    }
+  }
+
+  void connected(String userId, String sessionId) {
+
+    AtomicBoolean first = new AtomicBoolean();
+
+    localSessions.compute(
+        userId,
+        (id, sessions) -> {
+          Set<String> updated = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+          first.set(sessions == null);
+          updated.add(sessionId);
+          return updated;
+        });
+
+    if (first.get()) {
+      chatRelayTransport.publish(new Sessions(instanceId, List.of(userId), List.of(), false));
+    }
+  }
+
+  void disconnected(String userId, String sessionId) {
+
+    AtomicBoolean last = new AtomicBoolean();
+
+    localSessions.computeIfPresent(
+        userId,
+        (id, sessions) -> {
+          sessions.remove(sessionId);
+          last.set(sessions.isEmpty());
+          return sessions.isEmpty() ? null : sessions;
+        });
+
+    if (last.get()) {
+      chatRelayTransport.publish(new Sessions(instanceId, List.of(), List.of(userId), false));
+    }
+  }
+
+  /** Repairs announcements other instances missed and keeps this instance alive to them. */
+  @Scheduled(
+      fixedDelayString = "${application.chat-relay.announce-interval-ms:10000}",
+      scheduler = "chatScheduler")
+  public void announce() {
+
+    chatRelayTransport.publish(
+        new Sessions(instanceId, List.copyOf(localSessions.keySet()), List.of(), true));
+
+    long expiredBefore = System.currentTimeMillis() - instanceTtlMs;
+    remoteInstances.values().removeIf(instance -> !instance.isAlive(expiredBefore));
+  }
+
+  private void receive(Frame frame) {
+
+    if (instanceId.equals(frame.origin())) {
+      return;
+    }
+
+    switch (frame) {
+      case Envelope envelope -> {
+        receivedMessages.increment();
+        deliver(envelope.user(), envelope.destination(), envelope.payload());
+      }
+      case Sessions sessions -> {
+        RemoteInstance instance =
+            remoteInstances.computeIfAbsent(sessions.origin(), id -> new RemoteInstance());
+
+        if (sessions.full()) {
+          instance.users.retainAll(Set.copyOf(sessions.connected()));
+        }
+        instance.users.addAll(sessions.connected());
+        instance.users.removeAll(sessions.disconnected());
+        instance.lastSeenMillis = System.currentTimeMillis();
+      }
+    }
+  }
+
+  private void deliver(String userId, String destination, Object payload) {
+
+    if (simpUserRegistry.getUser(userId) == null) {
+      return;
+    }
+
+    simpMessagingTemplate.convertAndSendToUser(userId, destination, payload);
+    deliveredMessages.increment();
+  }
+
+  private static class RemoteInstance {
+
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+    private volatile long lastSeenMillis = System.currentTimeMillis();
+
+    private boolean isAlive(long expiredBefore) {
+      return lastSeenMillis >= expiredBefore;
+    }
+  }
+}
@@ -0,0 +1,511 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.constant.ResponseMessage;
+import com.devs.roamance.dto.request.social.RealTimeChatRequestDto;
+import com.devs.roamance.dto.response.AuditDto;
+import com.devs.roamance.dto.response.social.ChatMessageAckDto;
+import com.devs.roamance.dto.response.social.MessageDto;
+import com.devs.roamance.model.social.Chat;
+import com.devs.roamance.model.social.ChatInboxEntry;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.ChatRepository;
+import com.devs.roamance.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Persists chat messages sent over WebSocket. The STOMP handler only queues a message, a single
+ * worker writes them in batches: whatever queued up while one batch was written goes into the next,
+ * so a burst of messages turns into a few transactions instead of one per message. A batch inserts
+ * its messages and their media paths with JDBC batching and updates the last text and inbox rows of
+ * every chat in it once. Messages are relayed to the participants of their chat and acknowledged
+ * to their senders after the batch commits. When the queue is full, messages are rejected right
+ * away instead of blocking the inbound channel.
+ */
+@Component
+@Slf4j
+public class ChatMessageWriter {
+
+  private record PendingMessage(
+      UUID id,
+      UUID chatId,
+      UUID senderId,
+      String principalName,
+      String clientMessageId,
+      String text,
+      List<String> imagePaths,
+      List<String> videoPaths,
+      OffsetDateTime createdAt) {}
+
+  private static final String MESSAGES_DESTINATION = "/queue/messages";
+  private static final String ACKS_DESTINATION = "/queue/message-acks";
+
+  private static final String INSERT_MESSAGE_SQL =
+      """
+      INSERT INTO messages
+        (id, text, user_id, chat_id, created_at, last_modified_at, created_by, last_modified_by)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private static final String INSERT_IMAGE_PATH_SQL =
+      "INSERT INTO message_image_paths (message_id, image_paths) VALUES (?, ?)";
+
+  private static final String INSERT_VIDEO_PATH_SQL =
+      "INSERT INTO message_video_paths (message_id, video_paths) VALUES (?, ?)";
+
+  private static final String UPDATE_LAST_TEXT_SQL =
+      "UPDATE chats SET last_text = ?, last_modified_at = ?, last_modified_by = ? WHERE id = ?";
+
+  // Same rules as ChatInboxRepository.recordMessage, for all messages of a chat in the batch. A
+  // user who sent one of them has read everything before it, messages without content keep the
+  // previous preview like they keep the last text of the chat.
+  private static final String UPDATE_INBOX_SQL =
+      """
+      UPDATE chat_inbox SET
+        last_message_id = CASE WHEN last_activity_at <= ? THEN ? ELSE last_message_id END,
+        last_message_preview = CASE WHEN last_activity_at <= ?
+          THEN COALESCE(?, last_message_preview) ELSE last_message_preview END,
+        last_activity_at = GREATEST(last_activity_at, ?),
+        unread_count = CASE WHEN ? THEN 0 ELSE unread_count END + ?,
+        last_read_at = CASE WHEN ? THEN ? ELSE last_read_at END
+      WHERE user_id = ? AND chat_id = ?
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ChatRepository chatRepository;
+  private final ChatParticipantCache chatParticipantCache;
+  private final UserRepository userRepository;
+  private final ChatMessageRelay chatMessageRelay;
+  private final DtoMapper dtoMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<PendingMessage> queue;
+
+  private final Counter persistedMessages;
+  private final Counter rejectedMessages;
+  private final Counter failedMessages;
+  private final DistributionSummary batchSizes;
+  private final Timer batchLatency;
+
+  private Thread worker;
+  private volatile boolean running = true;
+
+  @Value("${application.chat-writer.max-batch-size:500}")
+  private int maxBatchSize;
+
+  public ChatMessageWriter(
+      JdbcTemplate jdbcTemplate,
+      ChatRepository chatRepository,
+      ChatParticipantCache chatParticipantCache,
+      UserRepository userRepository,
+      ChatMessageRelay chatMessageRelay,
+      DtoMapper dtoMapper,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${application.chat-writer.queue-capacity:10000}") int queueCapacity) {
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.chatRepository = chatRepository;
+    this.chatParticipantCache = chatParticipantCache;
+    this.userRepository = userRepository;
+    this.chatMessageRelay = chatMessageRelay;
+    this.dtoMapper = dtoMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    Gauge.builder("roamance.chat.messages.queued", queue, BlockingQueue::size)
+        .description("WebSocket chat messages waiting to be persisted")
+        .register(meterRegistry);
+
+    this.persistedMessages = messageCounter(meterRegistry, "persisted");
+    this.rejectedMessages = messageCounter(meterRegistry, "rejected");
+    this.failedMessages = messageCounter(meterRegistry, "failed");
+
+    this.batchSizes =
+        DistributionSummary.builder("roamance.chat.messages.batch.size")
+            .description("Number of chat messages persisted per transaction")
+            .register(meterRegistry);
+    this.batchLatency =
+        Timer.builder("roamance.chat.messages.batch.latency")
+            .description("Latency of persisting a batch of chat messages")
+            .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+
+    worker = new Thread(this::runLoop, "chat-message-writer");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /** Writes what is still queued before the connection pool goes away. */
+  @PreDestroy
+  public void close() throws InterruptedException {
+
+    running = false;
+    worker.join(10_000);
+
+    if (!queue.isEmpty()) {
+      log.error("Shutting down with {} unpersisted chat messages", queue.size());
+    }
+  }
+
+  /**
+   * Queues a message for persistence. The sender gets an acknowledgement with the stored message
+   * once it is committed, or right away if the queue is full.
+   *
+   * @param chatId ID of the chat
+   * @param senderId ID of the sending user
+   * @param principalName name of the sender's WebSocket session, acknowledgements go to it
+   * @param request the message
+   * @return whether the message was queued
+   */
+  public boolean submit(
+      UUID chatId, UUID senderId, String principalName, RealTimeChatRequestDto request) {
+
+    PendingMessage message =
+        new PendingMessage(
+            UUID.randomUUID(),
+            chatId,
+            senderId,
+            principalName,
+            request.getClientMessageId(),
+            request.getText(),
+            copy(request.getImagePaths()),
+            copy(request.getVideoPaths()),
+            OffsetDateTime.now());
+
+    if (queue.offer(message)) {
+      return true;
+    }
+
+    rejectedMessages.increment();
+    acknowledge(message, 503, ResponseMessage.MESSAGE_QUEUE_FULL, null);
+
+    return false;
+  }
+
+  private void runLoop() {
+
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          write(batchStartingWith(first));
+        }
+
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+
+      } catch (Exception e) {
+        log.error("Writing chat messages failed: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  /** Writes everything queued so far on the calling thread. */
+  void flush() {
+
+    for (PendingMessage first = queue.poll(); first != null; first = queue.poll()) {
+      write(batchStartingWith(first));
+    }
+  }
+
+  private List<PendingMessage> batchStartingWith(PendingMessage first) {
+
+    List<PendingMessage> batch = new ArrayList<>();
+    batch.add(first);
+    queue.drainTo(batch, maxBatchSize - 1);
+
+    return batch;
+  }
+
+  private void write(List<PendingMessage> batch) {
+
+    // Lookup failures answer every message of the batch, nothing was written yet
+    Map<UUID, Set<UUID>> participants;
+    try {
+      participants = findParticipants(batch);
+    } catch (Exception e) {
+      failAll(batch, e);
+      return;
+    }
+
+    List<PendingMessage> accepted = new ArrayList<>();
+    for (PendingMessage message : batch) {
+      if (participants.getOrDefault(message.chatId(), Set.of()).contains(message.senderId())) {
+        accepted.add(message);
+      } else {
+        failedMessages.increment();
+        acknowledge(message, 403, ResponseMessage.CHAT_ACCESS_DENIED, null);
+      }
+    }
+
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    Map<UUID, User> senders;
+    try {
+      senders =
+          userRepository
+              .findAllById(accepted.stream().map(PendingMessage::senderId).distinct().toList())
+              .stream()
+              .collect(Collectors.toMap(User::getId, Function.identity()));
+    } catch (Exception e) {
+      failAll(accepted, e);
+      return;
+    }
+
+    try {
+      batchLatency.record(
+          () ->
+              transactionTemplate.executeWithoutResult(
+                  status -> persist(accepted, participants, senders)));
+
+    } catch (Exception e) {
+      if (accepted.size() > 1) {
+        // One bad message must not fail the others, so they are written one by one instead
+        log.warn(
+            "Persisting {} chat messages failed, retrying one by one: {}",
+            accepted.size(),
+            e.getMessage());
+
+        accepted.forEach(message -> write(List.of(message)));
+        return;
+      }
+
+      log.error("Persisting chat message {} failed: {}", accepted.get(0).id(), e.getMessage(), e);
+
+      failedMessages.increment();
+      acknowledge(accepted.get(0), 500, ResponseMessage.MESSAGE_SEND_FAILED, null);
+      return;
+    }
+
+    batchSizes.record(accepted.size());
+    persistedMessages.increment(accepted.size());
+
+    for (PendingMessage message : accepted) {
+      MessageDto dto = toMessageDto(message, senders.get(message.senderId()));
+
+      participants
+          .get(message.chatId())
+          .forEach(
+              userId -> chatMessageRelay.sendToUser(userId.toString(), MESSAGES_DESTINATION, dto));
+      acknowledge(message, 201, ResponseMessage.MESSAGE_CREATE_SUCCESS, dto);
+    }
+  }
+
+  private Map<UUID, Set<UUID>> findParticipants(List<PendingMessage> batch) {
+
+    Map<UUID, Set<UUID>> participants = new HashMap<>();
+    chatRepository
+        .findParticipantsByChatIds(batch.stream().map(PendingMessage::chatId).distinct().toList())
+        .forEach(
+            participant ->
+                participants
+                    .computeIfAbsent(participant.chatId(), id -> new HashSet<>())
+                    .add(participant.userId()));
+
+    // Read from the database for the access check, then shared with the typing indicator
+    chatParticipantCache.putAll(participants);
+
+    return participants;
+  }
+
+  private void failAll(List<PendingMessage> messages, Exception e) {
+
+    log.error("Loading chats of {} messages failed: {}", messages.size(), e.getMessage(), e);
+
+    failedMessages.increment(messages.size());
+    messages.forEach(
+        message -> acknowledge(message, 500, ResponseMessage.MESSAGE_SEND_FAILED, null));
+  }
+
+  private void persist(
+      List<PendingMessage> batch, Map<UUID, Set<UUID>> participants, Map<UUID, User> senders) {
+
+    List<Object[]> messageRows = new ArrayList<>();
+    List<Object[]> imageRows = new ArrayList<>();
+    List<Object[]> videoRows = new ArrayList<>();
+
+    for (PendingMessage message : batch) {
+      messageRows.add(
+          new Object[] {
+            message.id(),
+            message.text(),
+            message.senderId(),
+            message.chatId(),
+            message.createdAt(),
+            message.createdAt(),
+            message.senderId(),
+            message.senderId()
+          });
+
+      message.imagePaths().forEach(path -> imageRows.add(new Object[] {message.id(), path}));
+      message.videoPaths().forEach(path -> videoRows.add(new Object[] {message.id(), path}));
+    }
+
+    jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, messageRows);
+
+    if (!imageRows.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_IMAGE_PATH_SQL, imageRows);
+    }
+    if (!videoRows.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_VIDEO_PATH_SQL, videoRows);
+    }
+
+    // Messages of the same chat in send order, chats sorted so that concurrent writers of several
+    // instances lock the rows in the same order
+    Map<UUID, List<PendingMessage>> chats =
+        batch.stream()
+            .sorted(Comparator.comparing(PendingMessage::createdAt))
+            .collect(
+                Collectors.groupingBy(PendingMessage::chatId, TreeMap::new, Collectors.toList()));
+
+    List<Object[]> lastTextRows = new ArrayList<>();
+    List<Object[]> inboxRows = new ArrayList<>();
+
+    for (Map.Entry<UUID, List<PendingMessage>> chat : chats.entrySet()) {
+      UUID chatId = chat.getKey();
+      List<PendingMessage> messages = chat.getValue();
+      PendingMessage last = null;
+      String lastText = null;
+
+      for (PendingMessage message : messages) {
+        String text =
+            Chat.lastTextOf(
+                senders.get(message.senderId()).getName(),
+                message.text(),
+                message.imagePaths(),
+                message.videoPaths());
+
+        if (text != null) {
+          last = message;
+          lastText = text;
+        }
+      }
+
+      if (last != null) {
+        lastTextRows.add(new Object[] {lastText, last.createdAt(), last.senderId(), chatId});
+      }
+
+      PendingMessage newest = messages.get(messages.size() - 1);
+      String preview = ChatInboxEntry.previewOf(lastText);
+
+      List<UUID> userIds = new ArrayList<>(participants.get(chatId));
+      userIds.sort(null);
+
+      for (UUID userId : userIds) {
+        inboxRows.add(inboxRow(chatId, userId, messages, newest, preview));
+      }
+    }
+
+    if (!lastTextRows.isEmpty()) {
+      jdbcTemplate.batchUpdate(UPDATE_LAST_TEXT_SQL, lastTextRows);
+    }
+    jdbcTemplate.batchUpdate(UPDATE_INBOX_SQL, inboxRows);
+  }
+
+  private static Object[] inboxRow(
+      UUID chatId,
+      UUID userId,
+      List<PendingMessage> messages,
+      PendingMessage newest,
+      String preview) {
+
+    // Messages of the others after the user's own last message are unread
+    PendingMessage lastSent = null;
+    int unread = 0;
+
+    for (PendingMessage message : messages) {
+      if (message.senderId().equals(userId)) {
+        lastSent = message;
+        unread = 0;
+      } else {
+        unread++;
+      }
+    }
+
+    boolean sent = lastSent != null;
+    OffsetDateTime readAt = sent ? lastSent.createdAt() : newest.createdAt();
+
+    return new Object[] {
+      newest.createdAt(),
+      newest.id(),
+      newest.createdAt(),
+      preview,
+      newest.createdAt(),
+      sent,
+      unread,
+      sent,
+      readAt,
+      userId,
+      chatId
+    };
+  }
+
+  private MessageDto toMessageDto(PendingMessage message, User sender) {
+
+    return new MessageDto(
+        message.id(),
+        message.text(),
+        message.imagePaths(),
+        message.videoPaths(),
+        dtoMapper.toUserDto(sender),
+        new AuditDto(
+            message.createdAt(), message.createdAt(), message.senderId(), message.senderId()));
+  }
+
+  private void acknowledge(PendingMessage message, int status, String text, MessageDto dto) {
+
+    if (message.principalName() == null) {
+      return;
+    }
+
+    chatMessageRelay.sendToUser(
+        message.principalName(),
+        ACKS_DESTINATION,
+        new ChatMessageAckDto(
+            status, status < 300, text, message.clientMessageId(), message.chatId(), dto));
+  }
+
+  private static List<String> copy(List<String> paths) {
+    return paths == null ? List.of() : List.copyOf(paths);
+  }
+
+  private static Counter messageCounter(MeterRegistry meterRegistry, String outcome) {
+
+    return Counter.builder("roamance.chat.messages")
+        .description("WebSocket chat messages by outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
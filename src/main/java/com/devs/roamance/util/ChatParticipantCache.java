@@ -0,0 +1,97 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.repository.ChatRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Small cache of the participants of chats, for the real-time paths that look them up for every
+ * batch of messages or typing events. The participants of a chat are fixed when it is created, so
+ * entries only expire to bound the memory of chats that went quiet and users that were deleted.
+ */
+@Component
+public class ChatParticipantCache {
+
+  private record Entry(Set<UUID> userIds, long loadedAtMillis) {}
+
+  private final ChatRepository chatRepository;
+
+  private final Map<UUID, Entry> entries;
+
+  @Value("${application.chat-participant-cache.ttl-ms:300000}")
+  private long ttlMs;
+
+  public ChatParticipantCache(
+      ChatRepository chatRepository,
+      @Value("${application.chat-participant-cache.max-size:10000}") int maxSize) {
+
+    this.chatRepository = chatRepository;
+    this.entries =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxSize;
+              }
+            });
+  }
+
+  /**
+   * Returns the participants of the chats, loading the ones not cached in one query
+   *
+   * @param chatIds IDs of the chats
+   * @return Participant IDs by chat ID, chats that do not exist are missing
+   */
+  public Map<UUID, Set<UUID>> get(Collection<UUID> chatIds) {
+
+    long expiredBefore = System.currentTimeMillis() - ttlMs;
+
+    Map<UUID, Set<UUID>> participants = new HashMap<>();
+    List<UUID> missing = new ArrayList<>();
+
+    for (UUID chatId : chatIds) {
+      Entry entry = entries.get(chatId);
+
+      if (entry != null && entry.loadedAtMillis() >= expiredBefore) {
+        participants.put(chatId, entry.userIds());
+      } else {
+        missing.add(chatId);
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      Map<UUID, Set<UUID>> loaded = new HashMap<>();
+      chatRepository
+          .findParticipantsByChatIds(missing)
+          .forEach(
+              participant ->
+                  loaded
+                      .computeIfAbsent(participant.chatId(), id -> new HashSet<>())
+                      .add(participant.userId()));
+
+      putAll(loaded);
+      participants.putAll(loaded);
+    }
+
+    return participants;
+  }
+
+  /** Caches participants loaded elsewhere, e.g. by the chat message writer. */
+  public void putAll(Map<UUID, Set<UUID>> participants) {
+
+    long now = System.currentTimeMillis();
+
+    participants.forEach(
+        (chatId, userIds) -> entries.put(chatId, new Entry(Set.copyOf(userIds), now)));
+  }
+}
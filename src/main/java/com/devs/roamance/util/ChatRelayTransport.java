@@ -0,0 +1,54 @@
+package com.devs.roamance.util;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Carries messages for WebSocket users between the instances of the application, so a message
+ * sent on one instance reaches users connected to another one.
+ */
+public interface ChatRelayTransport {
+
+  /** Anything sent between instances. */
+  @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+  @JsonSubTypes({
+    @JsonSubTypes.Type(value = Envelope.class, name = "message"),
+    @JsonSubTypes.Type(value = Sessions.class, name = "sessions")
+  })
+  sealed interface Frame permits Envelope, Sessions {
+
+    /** ID of the instance that sent it. */
+    UUID origin();
+  }
+
+  /**
+   * A message for the sessions of one user
+   *
+   * @param origin ID of the instance that sent it
+   * @param user name of the user, i.e. the user id
+   * @param destination user destination, e.g. /queue/messages
+   * @param payload the message, serialized as JSON when it leaves the JVM
+   */
+  record Envelope(UUID origin, String user, String destination, Object payload) implements Frame {}
+
+  /**
+   * Users with WebSocket sessions on an instance
+   *
+   * @param origin ID of the instance
+   * @param connected users whose first session on the instance opened, or all of its users
+   * @param disconnected users whose last session on the instance closed
+   * @param full whether {@code connected} lists all users of the instance, replacing what was
+   *     announced before
+   */
+  record Sessions(
+      UUID origin, Collection<String> connected, Collection<String> disconnected, boolean full)
+      implements Frame {}
+
+  /** Hands the frame to every instance, including this one. */
+  void publish(Frame frame);
+
+  void subscribe(Consumer<Frame> listener);
+}
@@ -0,0 +1,90 @@
+package com.devs.roamance.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the stored chat data for chats created before it existed. Participant keys: if a pair of
+ * users ended up with several chats, only the oldest one gets the key, so it is the one returned
+ * when either user starts the chat again; the others stay reachable by id. Inbox rows: the last
+ * message is taken from {@code messages}, unread counts start at zero.
+ */
+@Component
+@Slf4j
+public class ChatUtil {
+
+  private static final String BACKFILL_PARTICIPANT_KEYS_SQL =
+      """
+      UPDATE chats SET participant_key = k.participant_key
+      FROM (
+        SELECT DISTINCT ON (pairs.participant_key) pairs.chat_id, pairs.participant_key
+        FROM (
+          SELECT c.id AS chat_id, c.created_at,
+            string_agg(cu.user_id::text, ':' ORDER BY cu.user_id::text COLLATE "C")
+              AS participant_key
+          FROM chats c JOIN chat_users cu ON cu.chat_id = c.id
+          WHERE c.participant_key IS NULL
+          GROUP BY c.id, c.created_at
+        ) pairs
+        WHERE NOT EXISTS (SELECT 1 FROM chats o WHERE o.participant_key = pairs.participant_key)
+        ORDER BY pairs.participant_key, pairs.created_at, pairs.chat_id
+      ) k
+      WHERE chats.id = k.chat_id
+      """;
+
+  private static final String BACKFILL_INBOX_SQL =
+      """
+      INSERT INTO chat_inbox
+        (user_id, chat_id, other_user_id, last_message_id, last_activity_at,
+         last_message_preview, unread_count)
+      SELECT cu.user_id, c.id,
+        COALESCE(
+          (SELECT o.user_id FROM chat_users o
+           WHERE o.chat_id = c.id AND o.user_id <> cu.user_id LIMIT 1),
+          cu.user_id),
+        m.id, COALESCE(m.created_at, c.created_at), LEFT(c.last_text, 200), 0
+      FROM chats c
+      JOIN chat_users cu ON cu.chat_id = c.id
+      LEFT JOIN LATERAL (
+        SELECT id, created_at FROM messages
+        WHERE chat_id = c.id ORDER BY created_at DESC, id DESC LIMIT 1
+      ) m ON true
+      WHERE NOT EXISTS
+        (SELECT 1 FROM chat_inbox i WHERE i.user_id = cu.user_id AND i.chat_id = c.id)
+      ON CONFLICT DO NOTHING
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${application.chats.backfill-on-startup:true}")
+  private boolean backfillOnStartup;
+
+  public ChatUtil(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+
+    if (!backfillOnStartup) {
+      return;
+    }
+
+    try {
+      int chats = jdbcTemplate.update(BACKFILL_PARTICIPANT_KEYS_SQL);
+      int inboxRows = jdbcTemplate.update(BACKFILL_INBOX_SQL);
+
+      if (chats > 0 || inboxRows > 0) {
+        log.info(
+            "Backfilled the participant key of {} chats and {} chat inbox rows", chats, inboxRows);
+      }
+
+    } catch (Exception e) {
+      log.error("Backfilling chat data failed: {}", e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.constant.ResponseMessage;
+import com.devs.roamance.model.audit.Audit;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Opaque cursors for keyset pagination on {@code (audit.createdAt, id)}. A cursor points at the
+ * last row of a slice, the next slice starts strictly after it, so no rows have to be skipped with
+ * OFFSET and no COUNT query is needed.
+ */
+public class CursorUtil {
+
+  public record Cursor(OffsetDateTime createdAt, UUID id) {}
+
+  private static final String SEPARATOR = "|";
+
+  private CursorUtil() {}
+
+  public static String encode(OffsetDateTime createdAt, UUID id) {
+
+    String raw = createdAt.toInstant() + SEPARATOR + id;
+
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor received from a client
+   *
+   * @param cursor the cursor, or null/blank for the first slice
+   * @return Decoded cursor, or null for the first slice
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static Cursor decode(String cursor) {
+
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+      int separator = raw.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new IllegalArgumentException(ResponseMessage.INVALID_CURSOR);
+      }
+
+      return new Cursor(
+          Instant.parse(raw.substring(0, separator)).atOffset(ZoneOffset.UTC),
+          UUID.fromString(raw.substring(separator + 1)));
+
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException(ResponseMessage.INVALID_CURSOR, e);
+    }
+  }
+
+  /** Returns the cursor of the slice's last row, or null if there is nothing after it. */
+  public static <T> String nextCursor(
+      Slice<T> slice, Function<T, Audit> audit, Function<T, UUID> id) {
+
+    return nextCursorAt(slice, row -> audit.apply(row).getCreatedAt(), id);
+  }
+
+  /** Like {@link #nextCursor}, for slices ordered by a timestamp other than the creation time. */
+  public static <T> String nextCursorAt(
+      Slice<T> slice, Function<T, OffsetDateTime> time, Function<T, UUID> id) {
+
+    List<T> content = slice.getContent();
+    if (!slice.hasNext() || content.isEmpty()) {
+      return null;
+    }
+
+    T last = content.get(content.size() - 1);
+
+    return encode(time.apply(last), id.apply(last));
+  }
+}
@@ -0,0 +1,279 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.dto.response.AuditDto;
+import com.devs.roamance.dto.response.AuditTimeDto;
+import com.devs.roamance.dto.response.social.ChatDto;
+import com.devs.roamance.dto.response.social.ChatInboxDto;
+import com.devs.roamance.dto.response.social.CommentDto;
+import com.devs.roamance.dto.response.social.MessageDto;
+import com.devs.roamance.dto.response.social.PostDto;
+import com.devs.roamance.dto.response.travel.LocationResponseDto;
+import com.devs.roamance.dto.response.travel.itinerary.ActivityDto;
+import com.devs.roamance.dto.response.travel.itinerary.DayPlanBriefDto;
+import com.devs.roamance.dto.response.travel.itinerary.DayPlanDetailDto;
+import com.devs.roamance.dto.response.travel.itinerary.ItineraryBriefDto;
+import com.devs.roamance.dto.response.travel.itinerary.ItineraryDetailDto;
+import com.devs.roamance.dto.response.travel.itinerary.RoutePlanResponseDto;
+import com.devs.roamance.dto.response.user.UserDto;
+import com.devs.roamance.model.audit.Audit;
+import com.devs.roamance.model.audit.AuditTime;
+import com.devs.roamance.model.common.Location;
+import com.devs.roamance.model.social.Chat;
+import com.devs.roamance.model.social.Comment;
+import com.devs.roamance.model.social.Message;
+import com.devs.roamance.model.social.Post;
+import com.devs.roamance.model.travel.itinerary.Activity;
+import com.devs.roamance.model.travel.itinerary.DayPlan;
+import com.devs.roamance.model.travel.itinerary.Itinerary;
+import com.devs.roamance.model.travel.itinerary.RoutePlan;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.projection.ChatInboxItem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hand-written entity to response DTO mappings for the feed, chat and itinerary endpoints. These
+ * run once per row of every list response, so they replace the reflective {@code ModelMapper} on
+ * those paths; the output is kept identical to it, see {@code DtoMapperParityTest}. Request DTOs
+ * are still mapped with {@code ModelMapper}.
+ */
+@Component
+public class DtoMapper {
+
+  public PostDto toPostDto(Post post) {
+
+    PostDto dto = new PostDto();
+
+    dto.setId(post.getId());
+    dto.setText(post.getText());
+    dto.setImagePaths(copy(post.getImagePaths()));
+    dto.setVideoPaths(copy(post.getVideoPaths()));
+    dto.setLocation(toLocationDto(post.getLocation()));
+    dto.setIsSafe(post.getIsSafe());
+    dto.setTidbits(post.getTidbits());
+    dto.setLikesCount(post.getLikesCount());
+    dto.setCommentsCount(post.getCommentsCount());
+    dto.setUser(toUserDto(post.getUser()));
+    dto.setAudit(toAuditDto(post.getAudit()));
+
+    return dto;
+  }
+
+  public CommentDto toCommentDto(Comment comment) {
+
+    CommentDto dto = new CommentDto();
+
+    dto.setId(comment.getId());
+    dto.setText(comment.getText());
+    dto.setImagePath(comment.getImagePath());
+    dto.setVideoPath(comment.getVideoPath());
+    dto.setUser(toUserDto(comment.getUser()));
+    dto.setAudit(toAuditDto(comment.getAudit()));
+
+    return dto;
+  }
+
+  public MessageDto toMessageDto(Message message) {
+
+    MessageDto dto = new MessageDto();
+
+    dto.setId(message.getId());
+    dto.setText(message.getText());
+    dto.setImagePaths(copy(message.getImagePaths()));
+    dto.setVideoPaths(copy(message.getVideoPaths()));
+    dto.setUser(toUserDto(message.getUser()));
+    dto.setAudit(toAuditDto(message.getAudit()));
+
+    return dto;
+  }
+
+  public ChatDto toChatDto(Chat chat) {
+
+    ChatDto dto = new ChatDto();
+
+    dto.setId(chat.getId());
+    dto.setLastText(chat.getLastText());
+    dto.setAudit(toAuditDto(chat.getAudit()));
+
+    List<UserDto> users = new ArrayList<>(chat.getUsers().size());
+    for (User user : chat.getUsers()) {
+      users.add(toUserDto(user));
+    }
+    dto.setUsers(users);
+
+    return dto;
+  }
+
+  public ChatInboxDto toChatInboxDto(ChatInboxItem item) {
+
+    return new ChatInboxDto(
+        item.chatId(),
+        item.userId(),
+        item.userName(),
+        item.userProfileImage(),
+        item.lastMessageId(),
+        item.lastActivityAt(),
+        item.lastMessagePreview(),
+        item.unreadCount());
+  }
+
+  public UserDto toUserDto(User user) {
+
+    if (user == null) {
+      return null;
+    }
+
+    UserDto dto = new UserDto();
+
+    dto.setId(user.getId());
+    dto.setName(user.getName());
+    dto.setEmail(user.getEmail());
+    dto.setProfileImage(user.getProfileImage());
+    dto.setAudit(toAuditTimeDto(user.getAudit()));
+
+    return dto;
+  }
+
+  public ActivityDto toActivityDto(Activity activity) {
+
+    ActivityDto dto = new ActivityDto();
+
+    dto.setId(activity.getId());
+    dto.setLocation(toLocationDto(activity.getLocation()));
+    dto.setStartTime(activity.getStartTime());
+    dto.setEndTime(activity.getEndTime());
+    dto.setType(activity.getType());
+    dto.setOtherTypeName(activity.getOtherTypeName());
+    dto.setNote(activity.getNote());
+    dto.setCost(activity.getCost());
+    dto.setAudit(toAuditDto(activity.getAudit()));
+
+    return dto;
+  }
+
+  public DayPlanBriefDto toDayPlanBriefDto(DayPlan dayPlan) {
+
+    DayPlanBriefDto dto = new DayPlanBriefDto();
+    mapDayPlanBrief(dayPlan, dto);
+
+    return dto;
+  }
+
+  public DayPlanDetailDto toDayPlanDetailDto(DayPlan dayPlan) {
+
+    DayPlanDetailDto dto = new DayPlanDetailDto();
+    mapDayPlanBrief(dayPlan, dto);
+
+    dto.setRoutePlan(toRoutePlanDto(dayPlan.getRoutePlan()));
+    dto.setNotes(copy(dayPlan.getNotes()));
+
+    return dto;
+  }
+
+  public ItineraryBriefDto toItineraryBriefDto(Itinerary itinerary) {
+
+    ItineraryBriefDto dto = new ItineraryBriefDto();
+    mapItineraryBrief(itinerary, dto);
+
+    return dto;
+  }
+
+  public ItineraryDetailDto toItineraryDetailDto(Itinerary itinerary) {
+
+    ItineraryDetailDto dto = new ItineraryDetailDto();
+    mapItineraryBrief(itinerary, dto);
+
+    Set<LocationResponseDto> locations = new HashSet<>();
+    for (Location location : itinerary.getLocations()) {
+      locations.add(toLocationDto(location));
+    }
+    dto.setLocations(locations);
+    dto.setNotes(copy(itinerary.getNotes()));
+
+    return dto;
+  }
+
+  private void mapDayPlanBrief(DayPlan dayPlan, DayPlanBriefDto dto) {
+
+    dto.setId(dayPlan.getId());
+    dto.setDate(dayPlan.getDate());
+    dto.setTotalCost(dayPlan.getTotalCost());
+    dto.setAudit(toAuditDto(dayPlan.getAudit()));
+  }
+
+  private void mapItineraryBrief(Itinerary itinerary, ItineraryBriefDto dto) {
+
+    dto.setId(itinerary.getId());
+    dto.setTitle(itinerary.getTitle());
+    dto.setDescription(itinerary.getDescription());
+    dto.setStartDate(itinerary.getStartDate());
+    dto.setEndDate(itinerary.getEndDate());
+    dto.setTotalCost(itinerary.getTotalCost());
+    dto.setUser(toUserDto(itinerary.getUser()));
+    dto.setAudit(toAuditDto(itinerary.getAudit()));
+  }
+
+  private static RoutePlanResponseDto toRoutePlanDto(RoutePlan routePlan) {
+
+    if (routePlan == null) {
+      return null;
+    }
+
+    RoutePlanResponseDto dto = new RoutePlanResponseDto();
+
+    dto.setRouteTotalDistance(routePlan.getRouteTotalDistance());
+    dto.setRouteTotalTime(routePlan.getRouteTotalTime());
+    dto.setRouteDescription(routePlan.getRouteDescription());
+
+    List<Location> locations = new ArrayList<>(routePlan.getRouteLocations().size());
+    for (Location location : routePlan.getRouteLocations()) {
+      locations.add(new Location(location.getLatitude(), location.getLongitude()));
+    }
+    dto.setRouteLocations(locations);
+
+    return dto;
+  }
+
+  private static LocationResponseDto toLocationDto(Location location) {
+
+    if (location == null) {
+      return null;
+    }
+
+    return new LocationResponseDto(location.getLatitude(), location.getLongitude());
+  }
+
+  private static AuditDto toAuditDto(Audit audit) {
+
+    AuditDto dto = new AuditDto();
+
+    if (audit != null) {
+      dto.setCreatedAt(audit.getCreatedAt());
+      dto.setLastModifiedAt(audit.getLastModifiedAt());
+      dto.setCreatedBy(audit.getCreatedBy());
+      dto.setLastModifiedBy(audit.getLastModifiedBy());
+    }
+
+    return dto;
+  }
+
+  private static AuditTimeDto toAuditTimeDto(AuditTime audit) {
+
+    AuditTimeDto dto = new AuditTimeDto();
+
+    if (audit != null) {
+      dto.setCreatedAt(audit.getCreatedAt());
+      dto.setLastModifiedAt(audit.getLastModifiedAt());
+    }
+
+    return dto;
+  }
+
+  private static List<String> copy(Collection<String> values) {
+    return values == null ? new ArrayList<>() : new ArrayList<>(values);
+  }
+}
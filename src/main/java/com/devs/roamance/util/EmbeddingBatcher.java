@@ -0,0 +1,242 @@
+package com.devs.roamance.util;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EmbeddingModel} that collects segments from concurrent callers for a short window (or
+ * until a size cap is reached), embeds them with a single request to the delegate model and hands
+ * every caller back its own slice of the vectors. No request exceeds the cap: a caller that would
+ * overflow a batch starts the next one, and a caller with more segments than the cap is split into
+ * several requests.
+ */
+@Slf4j
+public class EmbeddingBatcher implements EmbeddingModel, AutoCloseable {
+
+  private record PendingRequest(
+      List<TextSegment> segments, CompletableFuture<List<Embedding>> result) {}
+
+  private final EmbeddingModel delegate;
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final Duration callerTimeout;
+
+  private final BlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<>();
+  private final Thread worker;
+  private volatile boolean running = true;
+
+  // Request that did not fit the previous batch, only touched by the worker thread
+  private PendingRequest carried;
+
+  private final DistributionSummary batchSizes;
+  private final Timer batchLatency;
+
+  public EmbeddingBatcher(
+      String name,
+      EmbeddingModel delegate,
+      Duration window,
+      int maxBatchSize,
+      Duration callerTimeout,
+      MeterRegistry meterRegistry) {
+
+    this.delegate = delegate;
+    this.windowNanos = window.toNanos();
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.callerTimeout = callerTimeout;
+
+    this.batchSizes =
+        DistributionSummary.builder("roamance.ai.embedding.batch.size")
+            .description("Number of text segments sent per embedding request")
+            .tag("batcher", name)
+            .register(meterRegistry);
+    this.batchLatency =
+        Timer.builder("roamance.ai.embedding.batch.latency")
+            .description("Latency of batched embedding requests")
+            .tag("batcher", name)
+            .register(meterRegistry);
+
+    this.worker = new Thread(this::runLoop, "embedding-batcher-" + name);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  @Override
+  public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+
+    if (textSegments == null || textSegments.isEmpty()) {
+      return Response.from(List.of());
+    }
+
+    if (!running) {
+      throw new IllegalStateException("Embedding batcher is closed");
+    }
+
+    List<CompletableFuture<List<Embedding>>> chunks = new ArrayList<>();
+    for (int from = 0; from < textSegments.size(); from += maxBatchSize) {
+      List<TextSegment> chunk =
+          textSegments.subList(from, Math.min(textSegments.size(), from + maxBatchSize));
+
+      CompletableFuture<List<Embedding>> result = new CompletableFuture<>();
+      queue.add(new PendingRequest(List.copyOf(chunk), result));
+      chunks.add(result);
+    }
+
+    // Closed while queueing, the worker may already have drained the queue
+    if (!running) {
+      drainRemaining();
+    }
+
+    try {
+      List<Embedding> embeddings = new ArrayList<>(textSegments.size());
+      long deadline = System.nanoTime() + callerTimeout.toNanos();
+
+      for (CompletableFuture<List<Embedding>> chunk : chunks) {
+        embeddings.addAll(chunk.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+      }
+
+      return Response.from(embeddings);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for embeddings", e);
+
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("Timed out while waiting for embeddings", e);
+
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Embedding generation failed", e.getCause());
+    }
+  }
+
+  @Override
+  public int dimension() {
+    return delegate.dimension();
+  }
+
+  @Override
+  public void close() {
+
+    running = false;
+    worker.interrupt();
+  }
+
+  private void runLoop() {
+
+    while (running) {
+      try {
+        PendingRequest first = carried != null ? carried : queue.poll(100, TimeUnit.MILLISECONDS);
+        carried = null;
+        if (first == null) {
+          continue;
+        }
+
+        flush(collectBatch(first));
+
+      } catch (InterruptedException e) {
+        if (running) {
+          log.warn("Embedding batcher interrupted while running");
+        }
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    drainRemaining();
+  }
+
+  private List<PendingRequest> collectBatch(PendingRequest first) throws InterruptedException {
+
+    List<PendingRequest> batch = new ArrayList<>();
+    batch.add(first);
+
+    int segmentCount = first.segments().size();
+    long deadline = System.nanoTime() + windowNanos;
+
+    while (segmentCount < maxBatchSize) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        break;
+      }
+
+      PendingRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+
+      if (segmentCount + next.segments().size() > maxBatchSize) {
+        carried = next;
+        break;
+      }
+
+      batch.add(next);
+      segmentCount += next.segments().size();
+    }
+
+    return batch;
+  }
+
+  private void flush(List<PendingRequest> batch) {
+
+    List<TextSegment> segments = new ArrayList<>();
+    batch.forEach(request -> segments.addAll(request.segments()));
+
+    batchSizes.record(segments.size());
+
+    try {
+      List<Embedding> embeddings = batchLatency.record(() -> delegate.embedAll(segments).content());
+
+      if (embeddings == null || embeddings.size() != segments.size()) {
+        throw new IllegalStateException(
+            "Expected "
+                + segments.size()
+                + " embeddings but received "
+                + (embeddings == null ? 0 : embeddings.size()));
+      }
+
+      int offset = 0;
+      for (PendingRequest request : batch) {
+        int size = request.segments().size();
+        request.result().complete(List.copyOf(embeddings.subList(offset, offset + size)));
+        offset += size;
+      }
+
+    } catch (Exception e) {
+      log.error("Batched embedding of {} segments failed: {}", segments.size(), e.getMessage(), e);
+      batch.forEach(request -> request.result().completeExceptionally(e));
+    }
+  }
+
+  private void drainRemaining() {
+
+    List<PendingRequest> remaining = new ArrayList<>();
+    if (carried != null && Thread.currentThread() == worker) {
+      remaining.add(carried);
+      carried = null;
+    }
+    queue.drainTo(remaining);
+
+    remaining.forEach(
+        request ->
+            request
+                .result()
+                .completeExceptionally(new IllegalStateException("Embedding batcher is closed")));
+  }
+}
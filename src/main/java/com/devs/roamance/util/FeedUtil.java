@@ -0,0 +1,153 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.repository.FeedEntryRepository;
+import com.devs.roamance.repository.PostRepository;
+import com.devs.roamance.repository.projection.FeedItem;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the precomputed home feeds in {@code feed_entries}. A new post is written into the feed
+ * of its author and of every follower in the transaction that creates it, so reading a feed is a
+ * range scan over one index. Posts of authors with more followers than the fan-out limit are
+ * flagged as not fanned out and merged in at read time instead, so a single post never turns into
+ * an unbounded insert. The flag is kept per post rather than derived from the current follower
+ * count, so an author crossing the limit neither hides nor duplicates earlier posts. Entries older
+ * than the retention period are trimmed daily.
+ */
+@Component
+@Slf4j
+public class FeedUtil {
+
+  // Same order as the feed index and Postgres, which compares UUIDs as unsigned bytes
+  private static final Comparator<FeedItem> NEWEST_FIRST =
+      Comparator.comparing(FeedItem::createdAt)
+          .thenComparing(FeedItem::postId, FeedUtil::compareUnsigned)
+          .reversed();
+
+  private final FeedEntryRepository feedEntryRepository;
+  private final PostRepository postRepository;
+
+  @Value("${application.feed.fan-out-follower-limit:5000}")
+  private long fanOutFollowerLimit;
+
+  @Value("${application.feed.backfill-size:50}")
+  private int backfillSize;
+
+  @Value("${application.feed.retention-days:30}")
+  private int retentionDays;
+
+  public FeedUtil(FeedEntryRepository feedEntryRepository, PostRepository postRepository) {
+
+    this.feedEntryRepository = feedEntryRepository;
+    this.postRepository = postRepository;
+  }
+
+  /**
+   * Adds a flushed post to the feeds of its author and followers. Must run in the transaction that
+   * created the post, so a rolled back post never shows up in a feed.
+   *
+   * @param postId ID of the post
+   */
+  public void fanOut(UUID postId) {
+
+    feedEntryRepository.markNotFannedOut(postId, fanOutFollowerLimit);
+    int entries = feedEntryRepository.fanOut(postId);
+
+    log.debug("Fanned out post {} to {} feeds", postId, entries);
+  }
+
+  public void removePost(UUID postId) {
+    feedEntryRepository.deleteAllByPostId(postId);
+  }
+
+  public void removeUser(UUID userId) {
+    feedEntryRepository.deleteAllOfUser(userId);
+  }
+
+  /** Copies the latest posts of a newly followed author into the follower's feed. */
+  public void onFollow(UUID followerId, UUID followeeId) {
+    feedEntryRepository.backfill(followerId, followeeId, backfillSize);
+  }
+
+  public void onUnfollow(UUID followerId, UUID followeeId) {
+    feedEntryRepository.deleteAllByUserIdAndAuthorId(followerId, followeeId);
+  }
+
+  /**
+   * Reads a slice of a user's home feed
+   *
+   * @param userId ID of the user whose feed is read
+   * @param after cursor of the last item of the previous slice, or null for the first slice
+   * @param limit maximum number of items
+   * @return Items of the slice, newest first, possibly of posts deleted in the meantime
+   */
+  public List<FeedItem> findItems(UUID userId, CursorUtil.Cursor after, int limit) {
+
+    Pageable pageable = PageRequest.of(0, limit);
+
+    List<FeedItem> items =
+        new ArrayList<>(
+            after == null
+                ? feedEntryRepository.findFirstItems(userId, pageable)
+                : feedEntryRepository.findItemsBefore(
+                    userId, after.createdAt(), after.id(), pageable));
+
+    // Fan-out on read for posts that were not fanned out, usually there are none
+    List<FeedItem> pulledItems =
+        after == null
+            ? postRepository.findFirstPulledFeedItems(userId, pageable)
+            : postRepository.findPulledFeedItemsBefore(
+                userId, after.createdAt(), after.id(), pageable);
+
+    if (pulledItems.isEmpty()) {
+      return items;
+    }
+
+    items.addAll(pulledItems);
+
+    // Pulled posts backfilled on follow are found twice
+    Set<UUID> postIds = new HashSet<>();
+
+    return items.stream()
+        .sorted(NEWEST_FIRST)
+        .filter(item -> postIds.add(item.postId()))
+        .limit(limit)
+        .toList();
+  }
+
+  @Scheduled(cron = "${application.feed.trim-cron:0 15 4 * * *}")
+  public void trim() {
+
+    try {
+      int trimmed =
+          feedEntryRepository.deleteAllOlderThan(OffsetDateTime.now().minusDays(retentionDays));
+
+      log.info("Trimmed {} feed entries older than {} days", trimmed, retentionDays);
+
+    } catch (Exception e) {
+      log.error("Trimming feed entries failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private static int compareUnsigned(UUID first, UUID second) {
+
+    int result =
+        Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+
+    return result != 0
+        ? result
+        : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+  }
+}
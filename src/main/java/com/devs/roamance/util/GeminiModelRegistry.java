@@ -0,0 +1,118 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.config.GeminiModelConfig;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one pre-built, thread-safe Gemini model per {@link GeminiModelConfig} so that the HTTP
+ * client and its connections are reused across requests instead of being rebuilt per AI call.
+ */
+@Component
+@Slf4j
+public class GeminiModelRegistry {
+
+  private final GeminiModelUtil geminiModelUtil;
+
+  private final Map<GeminiModelConfig, ChatLanguageModel> chatModels = new ConcurrentHashMap<>();
+  private final Map<GeminiModelConfig, StreamingChatLanguageModel> streamingModels =
+      new ConcurrentHashMap<>();
+
+  private final Counter chatHits;
+  private final Counter chatBuilds;
+  private final Counter streamingHits;
+  private final Counter streamingBuilds;
+
+  @Value("${application.gemini.api-key}")
+  private String geminiApiKey;
+
+  @Value("${application.gemini.model-name:gemini-2.0-flash}")
+  private String geminiModelName;
+
+  public GeminiModelRegistry(GeminiModelUtil geminiModelUtil, MeterRegistry meterRegistry) {
+
+    this.geminiModelUtil = geminiModelUtil;
+
+    this.chatHits = modelCounter(meterRegistry, "chat", "hit");
+    this.chatBuilds = modelCounter(meterRegistry, "chat", "build");
+    this.streamingHits = modelCounter(meterRegistry, "streaming", "hit");
+    this.streamingBuilds = modelCounter(meterRegistry, "streaming", "build");
+  }
+
+  /**
+   * Returns the shared chat model for the given configuration, building it only on first use
+   *
+   * @param config Configuration object with model parameters
+   * @return Shared ChatLanguageModel instance
+   */
+  public ChatLanguageModel chatModel(GeminiModelConfig config) {
+
+    ChatLanguageModel model = chatModels.get(config);
+    if (model != null) {
+      chatHits.increment();
+      return model;
+    }
+
+    return chatModels.computeIfAbsent(
+        config,
+        key -> {
+          chatBuilds.increment();
+          log.info("Building Gemini chat model for config: {}", key);
+          return geminiModelUtil.geminiModelBuilder(geminiApiKey, geminiModelName, key);
+        });
+  }
+
+  /**
+   * Returns the shared streaming chat model for the given configuration, building it only on first
+   * use
+   *
+   * @param config Configuration object with model parameters
+   * @return Shared StreamingChatLanguageModel instance
+   */
+  public StreamingChatLanguageModel streamingModel(GeminiModelConfig config) {
+
+    StreamingChatLanguageModel model = streamingModels.get(config);
+    if (model != null) {
+      streamingHits.increment();
+      return model;
+    }
+
+    return streamingModels.computeIfAbsent(
+        config,
+        key -> {
+          streamingBuilds.increment();
+          log.info("Building Gemini streaming model for config: {}", key);
+          return geminiModelUtil.geminiStreamingModelBuilder(geminiApiKey, geminiModelName, key);
+        });
+  }
+
+  /** Pre-builds the given chat and streaming model configurations, typically at startup. */
+  public void warmUp(
+      Collection<GeminiModelConfig> chatConfigs, Collection<GeminiModelConfig> streamingConfigs) {
+
+    chatConfigs.forEach(this::chatModel);
+    streamingConfigs.forEach(this::streamingModel);
+
+    log.info(
+        "Gemini model registry warmed up with {} chat and {} streaming models",
+        chatModels.size(),
+        streamingModels.size());
+  }
+
+  private static Counter modelCounter(MeterRegistry meterRegistry, String type, String result) {
+
+    return Counter.builder("roamance.ai.gemini.models")
+        .description("Gemini model registry lookups, by model type and hit/build result")
+        .tag("type", type)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,192 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.repository.DayPlanRepository;
+import com.devs.roamance.repository.ItineraryRepository;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the stored {@code total_cost} of day plans and itineraries in step with their activities.
+ * Changes are applied as deltas in the transaction that changes the activity, and a periodic
+ * reconciliation recomputes both totals from {@code activities} under row locks to repair any
+ * drift.
+ */
+@Component
+@Slf4j
+public class ItineraryCostUtil {
+
+  // Rows are locked in the order activity changes lock them, day plans before their itinerary
+  private static final String LOCK_DAY_PLANS_SQL =
+      "SELECT id FROM day_plans WHERE itinerary_id IN (%s) ORDER BY id FOR UPDATE";
+
+  private static final String LOCK_ITINERARIES_SQL =
+      "SELECT id FROM itineraries WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+  private static final String RECONCILE_DAY_PLANS_SQL =
+      """
+      UPDATE day_plans SET total_cost =
+        (SELECT COALESCE(SUM(a.cost), 0) FROM activities a WHERE a.day_plan_id = day_plans.id)
+      WHERE itinerary_id IN (%s) AND total_cost <>
+        (SELECT COALESCE(SUM(a.cost), 0) FROM activities a WHERE a.day_plan_id = day_plans.id)
+      """;
+
+  private static final String RECONCILE_ITINERARIES_SQL =
+      """
+      UPDATE itineraries SET total_cost =
+        (SELECT COALESCE(SUM(d.total_cost), 0) FROM day_plans d
+         WHERE d.itinerary_id = itineraries.id)
+      WHERE id IN (%s) AND total_cost <>
+        (SELECT COALESCE(SUM(d.total_cost), 0) FROM day_plans d
+         WHERE d.itinerary_id = itineraries.id)
+      """;
+
+  private final DayPlanRepository dayPlanRepository;
+  private final ItineraryRepository itineraryRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${application.itinerary-costs.reconcile-batch-size:500}")
+  private int reconcileBatchSize;
+
+  @Value("${application.itinerary-costs.reconcile-on-startup:true}")
+  private boolean reconcileOnStartup;
+
+  public ItineraryCostUtil(
+      DayPlanRepository dayPlanRepository,
+      ItineraryRepository itineraryRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+
+    this.dayPlanRepository = dayPlanRepository;
+    this.itineraryRepository = itineraryRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Adds the cost change of an activity to its day plan and itinerary. Must be called inside the
+   * transaction that creates, updates or deletes the activity.
+   *
+   * @param dayPlanId ID of the day plan the activity belongs to
+   * @param previousCost cost before the change, null for a new activity
+   * @param newCost cost after the change, null for a deleted activity
+   */
+  public void applyActivityCostChange(UUID dayPlanId, BigDecimal previousCost, BigDecimal newCost) {
+
+    BigDecimal delta = orZero(newCost).subtract(orZero(previousCost));
+    if (delta.signum() == 0) {
+      return;
+    }
+
+    dayPlanRepository.addToTotalCost(dayPlanId, delta);
+    itineraryRepository.addToTotalCostByDayPlanId(dayPlanId, delta);
+  }
+
+  /** Removes the total of a day plan from its itinerary, must be called before deleting it. */
+  public void removeDayPlanCost(UUID dayPlanId) {
+    itineraryRepository.subtractDayPlanTotalCost(dayPlanId);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void reconcileOnStartup() {
+
+    if (reconcileOnStartup) {
+      reconcile();
+    }
+  }
+
+  /**
+   * Recomputes the totals of all itineraries and their day plans, a batch of itineraries per
+   * transaction. The rows of a batch are locked before the totals are summed, so an activity change
+   * that commits meanwhile either is part of the sum or applies its delta after it, never both.
+   */
+  @Scheduled(cron = "${application.itinerary-costs.reconcile-cron:0 0 4 * * *}")
+  public void reconcile() {
+
+    int dayPlans = 0;
+    int itineraries = 0;
+
+    try {
+      List<UUID> batch = nextItineraryIds(null);
+      while (!batch.isEmpty()) {
+        int[] corrected = reconcileBatch(batch);
+        dayPlans += corrected[0];
+        itineraries += corrected[1];
+
+        batch =
+            batch.size() < reconcileBatchSize
+                ? List.of()
+                : nextItineraryIds(batch.get(batch.size() - 1));
+      }
+
+    } catch (Exception e) {
+      log.error("Reconciling itinerary costs failed: {}", e.getMessage(), e);
+    }
+
+    if (dayPlans > 0 || itineraries > 0) {
+      log.warn(
+          "Reconciliation corrected the total cost of {} day plans and {} itineraries",
+          dayPlans,
+          itineraries);
+    }
+  }
+
+  private int[] reconcileBatch(List<UUID> itineraryIds) {
+
+    try {
+      int[] corrected = transactionTemplate.execute(status -> reconcile(itineraryIds));
+      return corrected != null ? corrected : new int[2];
+
+    } catch (Exception e) {
+      // Left for the next run, e.g. after a deadlock with a concurrent day plan delete
+      log.error(
+          "Reconciling the costs of {} itineraries failed: {}",
+          itineraryIds.size(),
+          e.getMessage(),
+          e);
+      return new int[2];
+    }
+  }
+
+  private int[] reconcile(List<UUID> itineraryIds) {
+
+    String placeholders = String.join(",", Collections.nCopies(itineraryIds.size(), "?"));
+    Object[] ids = itineraryIds.toArray();
+
+    jdbcTemplate.queryForList(LOCK_DAY_PLANS_SQL.formatted(placeholders), UUID.class, ids);
+    jdbcTemplate.queryForList(LOCK_ITINERARIES_SQL.formatted(placeholders), UUID.class, ids);
+
+    // Day plans first, the itinerary totals are summed from them
+    int dayPlans = jdbcTemplate.update(RECONCILE_DAY_PLANS_SQL.formatted(placeholders), ids);
+    int itineraries = jdbcTemplate.update(RECONCILE_ITINERARIES_SQL.formatted(placeholders), ids);
+
+    return new int[] {dayPlans, itineraries};
+  }
+
+  private List<UUID> nextItineraryIds(UUID after) {
+
+    return after == null
+        ? jdbcTemplate.queryForList(
+            "SELECT id FROM itineraries ORDER BY id LIMIT ?", UUID.class, reconcileBatchSize)
+        : jdbcTemplate.queryForList(
+            "SELECT id FROM itineraries WHERE id > ? ORDER BY id LIMIT ?",
+            UUID.class,
+            after,
+            reconcileBatchSize);
+  }
+
+  private static BigDecimal orZero(BigDecimal value) {
+    return value == null ? BigDecimal.ZERO : value;
+  }
+}
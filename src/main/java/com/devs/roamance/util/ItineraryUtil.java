@@ -3,11 +3,14 @@ package com.devs.roamance.util;
 import com.devs.roamance.dto.common.AiPoweredActivityDto;
 import com.devs.roamance.dto.common.AiPoweredDayPlanDto;
 import com.devs.roamance.dto.common.AiPoweredItineraryDto;
+import com.devs.roamance.exception.ScheduleCollisionException;
 import com.devs.roamance.model.common.Location;
 import com.devs.roamance.model.travel.itinerary.Activity;
+import com.devs.roamance.model.travel.itinerary.ActivitySchedule;
 import com.devs.roamance.model.travel.itinerary.DayPlan;
 import com.devs.roamance.model.travel.itinerary.Itinerary;
 import com.devs.roamance.model.user.User;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -27,16 +30,35 @@ public class ItineraryUtil {
 
   public void validateDayPlansAndActivities(Itinerary itinerary) {
 
+    List<String> collisions = new ArrayList<>();
+
+    // One sweep per day plan, so that every collision of the itinerary is reported at once
     for (DayPlan dayPlan : itinerary.getDayPlans()) {
 
       itinerary.validateDayPlanDate(dayPlan);
 
-      for (Activity activity : dayPlan.getActivities()) {
-
-        dayPlan.validateNoTimeCollisions(activity);
-        activity.setId(null); // clear before persisting
+      for (ActivitySchedule.Collision collision : dayPlan.findTimeCollisions()) {
+        collisions.add(
+            dayPlan.getDate()
+                + " "
+                + collision.first().getStartTime()
+                + "-"
+                + collision.first().getEndTime()
+                + " with "
+                + collision.second().getStartTime()
+                + "-"
+                + collision.second().getEndTime());
       }
     }
+
+    if (!collisions.isEmpty()) {
+      throw new ScheduleCollisionException(
+          "Activity schedule collisions detected on " + String.join(", ", collisions));
+    }
+
+    for (DayPlan dayPlan : itinerary.getDayPlans()) {
+      dayPlan.getActivities().forEach(activity -> activity.setId(null)); // clear before persisting
+    }
   }
 
   public void mapToDayPlansAndActivities(
@@ -57,6 +79,8 @@ public class ItineraryUtil {
             });
 
     List<DayPlan> dayPlans = new ArrayList<>();
+    BigDecimal itineraryTotalCost = BigDecimal.ZERO;
+
     for (AiPoweredDayPlanDto dayPlanDto : itineraryDto.getDayPlans()) {
 
       DayPlan dayPlan = modelMapper.map(dayPlanDto, DayPlan.class);
@@ -65,6 +89,8 @@ public class ItineraryUtil {
       dayPlan.setUser(user);
 
       List<Activity> activities = new ArrayList<>();
+      BigDecimal dayPlanTotalCost = BigDecimal.ZERO;
+
       for (AiPoweredActivityDto activityDto : dayPlanDto.getActivities()) {
 
         Activity activity = modelMapper.map(activityDto, Activity.class);
@@ -77,12 +103,21 @@ public class ItineraryUtil {
         activityUtil.setActivityType(activity, activityDto.getType());
 
         activities.add(activity);
+
+        if (activity.getCost() != null) {
+          dayPlanTotalCost = dayPlanTotalCost.add(activity.getCost());
+        }
       }
 
+      // Totals are stored columns, they are only written on insert
+      dayPlan.setTotalCost(dayPlanTotalCost);
+      itineraryTotalCost = itineraryTotalCost.add(dayPlanTotalCost);
+
       dayPlan.setActivities(activities);
       dayPlans.add(dayPlan);
     }
 
+    itinerary.setTotalCost(itineraryTotalCost);
     itinerary.setDayPlans(dayPlans);
   }
 }
@@ -0,0 +1,31 @@
+package com.devs.roamance.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transport for a single instance: envelopes are handed to the subscribers in the same JVM, there
+ * is nobody else to reach.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "application.chat-relay.transport",
+    havingValue = "local",
+    matchIfMissing = true)
+public class LocalChatRelayTransport implements ChatRelayTransport {
+
+  private final List<Consumer<Frame>> listeners = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(Frame frame) {
+    listeners.forEach(listener -> listener.accept(frame));
+  }
+
+  @Override
+  public void subscribe(Consumer<Frame> listener) {
+    listeners.add(listener);
+  }
+}
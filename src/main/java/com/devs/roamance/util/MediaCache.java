@@ -0,0 +1,380 @@
+package com.devs.roamance.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded cache of downloaded media, keyed by URL and revalidated with the ETag the server
+ * returned. Entries live in an in-memory LRU and, if enabled, in an on-disk tier that survives
+ * memory eviction. Concurrent requests for the same URL share a single download.
+ */
+@Component
+@Slf4j
+public class MediaCache {
+
+  /** Cached media together with the validator and the time it was last confirmed fresh. */
+  public record CachedMedia(RestUtil.Media media, String etag, long validatedAtMillis) {
+
+    public CachedMedia revalidated() {
+      return new CachedMedia(media, etag, System.currentTimeMillis());
+    }
+  }
+
+  private final Map<String, CachedMedia> memory = new LinkedHashMap<>(64, 0.75f, true);
+  private final Map<String, CompletableFuture<RestUtil.Media>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong memoryBytes = new AtomicLong();
+  private final AtomicLong diskBytes = new AtomicLong();
+
+  private final Counter memoryHits;
+  private final Counter diskHits;
+  private final Counter misses;
+  private final Counter revalidations;
+  private final Counter sharedDownloads;
+  private final Counter downloadedBytes;
+
+  @Value("${application.media-cache.memory.max-bytes:67108864}")
+  private long maxMemoryBytes;
+
+  @Value("${application.media-cache.max-entry-bytes:16777216}")
+  private long maxEntryBytes;
+
+  @Value("${application.media-cache.revalidate-after-ms:3600000}")
+  private long revalidateAfterMs;
+
+  @Value("${application.media-cache.disk.enabled:false}")
+  private boolean diskEnabled;
+
+  @Value("${application.media-cache.disk.dir:${java.io.tmpdir}/roamance-media-cache}")
+  private Path diskDir;
+
+  @Value("${application.media-cache.disk.max-bytes:536870912}")
+  private long maxDiskBytes;
+
+  public MediaCache(MeterRegistry meterRegistry) {
+
+    this.memoryHits = requestCounter(meterRegistry, "memory_hit");
+    this.diskHits = requestCounter(meterRegistry, "disk_hit");
+    this.misses = requestCounter(meterRegistry, "miss");
+    this.revalidations = requestCounter(meterRegistry, "revalidated");
+    this.sharedDownloads = requestCounter(meterRegistry, "shared_download");
+
+    this.downloadedBytes =
+        Counter.builder("roamance.media.cache.downloaded")
+            .description("Bytes downloaded on media cache misses")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+
+    Gauge.builder("roamance.media.cache.size", memoryBytes, AtomicLong::get)
+        .description("Bytes held by the media cache")
+        .baseUnit("bytes")
+        .tag("tier", "memory")
+        .register(meterRegistry);
+    Gauge.builder("roamance.media.cache.size", diskBytes, AtomicLong::get)
+        .description("Bytes held by the media cache")
+        .baseUnit("bytes")
+        .tag("tier", "disk")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void initializeDiskTier() {
+
+    if (!diskEnabled) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(diskDir);
+
+      try (Stream<Path> files = Files.list(diskDir)) {
+        diskBytes.set(files.filter(MediaCache::isContentFile).mapToLong(MediaCache::sizeOf).sum());
+      }
+
+      log.info("Media cache disk tier at {} holds {} bytes", diskDir, diskBytes.get());
+
+    } catch (IOException e) {
+      log.error("Media cache disk tier disabled, {} is not usable: {}", diskDir, e.getMessage());
+      diskEnabled = false;
+    }
+  }
+
+  /**
+   * Returns the media of the given URL from the cache, or loads it with the given loader. The
+   * loader receives the stale cached entry (or null) so it can revalidate it with a conditional
+   * request, and returns the entry to cache.
+   *
+   * @param url the URL of the media
+   * @param loader downloads or revalidates the media
+   * @return a CompletableFuture containing the media
+   */
+  public CompletableFuture<RestUtil.Media> get(
+      String url, Function<CachedMedia, CachedMedia> loader) {
+
+    CachedMedia cached = fromMemory(url);
+    if (cached != null && isFresh(cached)) {
+      memoryHits.increment();
+      return CompletableFuture.completedFuture(cached.media());
+    }
+
+    if (cached == null) {
+      cached = fromDisk(url);
+      if (cached != null && isFresh(cached)) {
+        diskHits.increment();
+        putInMemory(url, cached);
+        return CompletableFuture.completedFuture(cached.media());
+      }
+    }
+
+    CompletableFuture<RestUtil.Media> download = new CompletableFuture<>();
+    CompletableFuture<RestUtil.Media> existing = inFlight.putIfAbsent(url, download);
+    if (existing != null) {
+      sharedDownloads.increment();
+      return existing;
+    }
+
+    try {
+      CachedMedia loaded = loader.apply(cached);
+
+      if (cached != null && loaded.media() == cached.media()) {
+        revalidations.increment();
+      } else {
+        misses.increment();
+        downloadedBytes.increment(loaded.media().size());
+      }
+
+      put(url, loaded);
+      download.complete(loaded.media());
+
+    } catch (Exception e) {
+      download.completeExceptionally(e);
+
+    } finally {
+      inFlight.remove(url, download);
+    }
+
+    return download;
+  }
+
+  private boolean isFresh(CachedMedia cached) {
+    return System.currentTimeMillis() - cached.validatedAtMillis() < revalidateAfterMs;
+  }
+
+  private void put(String url, CachedMedia cached) {
+
+    if (cached.media().base64().length() > maxEntryBytes) {
+      return;
+    }
+
+    putInMemory(url, cached);
+    putOnDisk(url, cached);
+  }
+
+  private CachedMedia fromMemory(String url) {
+
+    synchronized (memory) {
+      return memory.get(url);
+    }
+  }
+
+  private void putInMemory(String url, CachedMedia cached) {
+
+    synchronized (memory) {
+      CachedMedia previous = memory.put(url, cached);
+      if (previous != null) {
+        memoryBytes.addAndGet(-previous.media().base64().length());
+      }
+      memoryBytes.addAndGet(cached.media().base64().length());
+
+      // Access-ordered map, so iteration starts at the least recently used entry
+      Iterator<Map.Entry<String, CachedMedia>> iterator = memory.entrySet().iterator();
+      while (memoryBytes.get() > maxMemoryBytes && iterator.hasNext()) {
+        Map.Entry<String, CachedMedia> eldest = iterator.next();
+        if (eldest.getKey().equals(url)) {
+          continue;
+        }
+        iterator.remove();
+        memoryBytes.addAndGet(-eldest.getValue().media().base64().length());
+      }
+    }
+  }
+
+  private CachedMedia fromDisk(String url) {
+
+    if (!diskEnabled) {
+      return null;
+    }
+
+    Path content = contentPath(url);
+    Path metadata = metadataPath(url);
+    if (!Files.exists(content) || !Files.exists(metadata)) {
+      return null;
+    }
+
+    try (InputStream in = Files.newInputStream(metadata)) {
+      Properties properties = new Properties();
+      properties.load(in);
+
+      // Guard against hash collisions
+      if (!url.equals(properties.getProperty("url"))) {
+        return null;
+      }
+
+      String base64 = Files.readString(content, StandardCharsets.ISO_8859_1);
+      Files.setLastModifiedTime(content, FileTime.fromMillis(System.currentTimeMillis()));
+
+      return new CachedMedia(
+          new RestUtil.Media(
+              base64,
+              properties.getProperty("mimeType"),
+              Long.parseLong(properties.getProperty("size", "0"))),
+          properties.getProperty("etag"),
+          Long.parseLong(properties.getProperty("validatedAt", "0")));
+
+    } catch (IOException | NumberFormatException e) {
+      log.warn("Reading cached media of {} from disk failed: {}", url, e.getMessage());
+      return null;
+    }
+  }
+
+  private void putOnDisk(String url, CachedMedia cached) {
+
+    if (!diskEnabled) {
+      return;
+    }
+
+    Path content = contentPath(url);
+    Path metadata = metadataPath(url);
+
+    try {
+      long previousSize = Files.exists(content) ? Files.size(content) : 0;
+
+      Path tmp = Files.createTempFile(diskDir, "media", ".tmp");
+      Files.writeString(tmp, cached.media().base64(), StandardCharsets.ISO_8859_1);
+      Files.move(tmp, content, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      Properties properties = new Properties();
+      properties.setProperty("url", url);
+      properties.setProperty("mimeType", cached.media().mimeType());
+      properties.setProperty("size", Long.toString(cached.media().size()));
+      properties.setProperty("validatedAt", Long.toString(cached.validatedAtMillis()));
+      if (cached.etag() != null) {
+        properties.setProperty("etag", cached.etag());
+      }
+      try (OutputStream out = Files.newOutputStream(metadata)) {
+        properties.store(out, null);
+      }
+
+      if (diskBytes.addAndGet(cached.media().base64().length() - previousSize) > maxDiskBytes) {
+        evictFromDisk();
+      }
+
+    } catch (IOException e) {
+      log.warn("Writing cached media of {} to disk failed: {}", url, e.getMessage());
+    }
+  }
+
+  private synchronized void evictFromDisk() {
+
+    try (Stream<Path> files = Files.list(diskDir)) {
+      Iterator<Path> oldestFirst =
+          files
+              .filter(MediaCache::isContentFile)
+              .sorted(Comparator.comparingLong(MediaCache::lastModifiedOf))
+              .iterator();
+
+      while (diskBytes.get() > maxDiskBytes && oldestFirst.hasNext()) {
+        Path content = oldestFirst.next();
+        long size = sizeOf(content);
+
+        Files.deleteIfExists(content);
+        Files.deleteIfExists(content.resolveSibling(baseName(content) + ".properties"));
+        diskBytes.addAndGet(-size);
+      }
+
+    } catch (IOException e) {
+      log.warn("Media cache disk eviction failed: {}", e.getMessage());
+    }
+  }
+
+  private Path contentPath(String url) {
+    return diskDir.resolve(hash(url) + ".bin");
+  }
+
+  private Path metadataPath(String url) {
+    return diskDir.resolve(hash(url) + ".properties");
+  }
+
+  private static String hash(String url) {
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static boolean isContentFile(Path path) {
+    return path.getFileName().toString().endsWith(".bin");
+  }
+
+  private static String baseName(Path path) {
+
+    String name = path.getFileName().toString();
+    return name.substring(0, name.lastIndexOf('.'));
+  }
+
+  private static long sizeOf(Path path) {
+
+    try {
+      return Files.size(path);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static long lastModifiedOf(Path path) {
+
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+
+    return Counter.builder("roamance.media.cache.requests")
+        .description("Media cache lookups, by result")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,142 @@
+package com.devs.roamance.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.pgvector.PgVectorEmbeddingStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Owns one connection pool for the pgvector database and one long-lived {@link
+ * PgVectorEmbeddingStore} per table, so schema checks and connection setup happen once instead of
+ * on every embedding or retrieval call.
+ */
+@Component
+@Slf4j
+public class PgVectorStoreRegistry {
+
+  public static final String TEXTS_TABLE = "texts";
+  public static final String IMAGE_DESCRIPTIONS_TABLE = "image_descriptions";
+  public static final String IMAGE_EMBEDDINGS_TABLE = "image_embeddings";
+
+  private static final List<String> TABLES =
+      List.of(TEXTS_TABLE, IMAGE_DESCRIPTIONS_TABLE, IMAGE_EMBEDDINGS_TABLE);
+
+  private final HikariDataSource dataSource;
+  private final Map<String, EmbeddingStore<TextSegment>> stores = new ConcurrentHashMap<>();
+
+  @Value("${application.pgvector.dimension:768}")
+  private Integer dimension;
+
+  @Value("${application.pgvector.initialize-on-startup:true}")
+  private boolean initializeOnStartup;
+
+  public PgVectorStoreRegistry(
+      @Value("${application.pgvector.host}") String host,
+      @Value("${application.pgvector.port}") Integer port,
+      @Value("${application.pgvector.db}") String vectorDb,
+      @Value("${application.pgvector.user}") String user,
+      @Value("${application.pgvector.password}") String password,
+      @Value("${application.pgvector.pool-size:10}") int poolSize,
+      @Value("${application.pgvector.connection-timeout-ms:5000}") long connectionTimeoutMs,
+      MeterRegistry meterRegistry) {
+
+    // Configured through setters so the pool starts lazily and a missing vector db never blocks
+    // application startup
+    HikariDataSource ds = new HikariDataSource();
+    ds.setPoolName("pgvector-pool");
+    ds.setJdbcUrl(String.format("jdbc:postgresql://%s:%d/%s", host, port, vectorDb));
+    ds.setUsername(user);
+    ds.setPassword(password);
+    ds.setMaximumPoolSize(poolSize);
+    ds.setMinimumIdle(Math.min(2, poolSize));
+    ds.setConnectionTimeout(connectionTimeoutMs);
+    ds.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+    this.dataSource = ds;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void initializeStores() {
+
+    if (!initializeOnStartup) {
+      return;
+    }
+
+    for (String table : TABLES) {
+      try {
+        getStore(table);
+      } catch (Exception e) {
+        log.error("Pgvector store initialization failed for {}: {}", table, e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Returns the shared embedding store of the given table, creating the table on first use
+   *
+   * @param tableName name of the pgvector table
+   * @return Shared EmbeddingStore instance
+   */
+  public EmbeddingStore<TextSegment> getStore(String tableName) {
+
+    return stores.computeIfAbsent(tableName, this::buildEmbeddingStore);
+  }
+
+  public int getDimension() {
+    return dimension;
+  }
+
+  public int getMaximumPoolSize() {
+    return dataSource.getMaximumPoolSize();
+  }
+
+  public int getActiveConnections() {
+    return dataSource.getHikariPoolMXBean() != null
+        ? dataSource.getHikariPoolMXBean().getActiveConnections()
+        : 0;
+  }
+
+  public int getInitializedStoreCount() {
+    return stores.size();
+  }
+
+  /** Checks out a connection and validates it, used by the actuator health indicator. */
+  public boolean isReachable(int timeoutSeconds) throws SQLException {
+
+    try (Connection connection = dataSource.getConnection()) {
+      return connection.isValid(timeoutSeconds);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    dataSource.close();
+  }
+
+  private EmbeddingStore<TextSegment> buildEmbeddingStore(String tableName) {
+
+    log.info("Initializing pgvector embedding store for table: {}", tableName);
+
+    return PgVectorEmbeddingStore.datasourceBuilder()
+        .datasource(dataSource)
+        .table(tableName)
+        .dimension(dimension)
+        .useIndex(true)
+        .indexListSize(100)
+        .createTable(true)
+        .build();
+  }
+}
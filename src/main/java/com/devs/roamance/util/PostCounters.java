@@ -0,0 +1,205 @@
+package com.devs.roamance.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Like and comment counters of posts. A like or comment does not update its post row, it appends a
+ * delta to {@code post_counter_deltas} in its own transaction, and a periodic flush folds the
+ * deltas into {@code posts} in batch updates, so likes on a popular post no longer queue up on the
+ * lock of its row. As the deltas commit with the likes and comments, a counter plus its pending
+ * deltas always matches the join tables, on every instance and across crashes. The counters are
+ * periodically reconciled against {@code post_likes} and {@code comments} on that basis to repair
+ * drift.
+ *
+ * <p>Flushes and reconciliation hold the same advisory lock, so at most one of them updates the
+ * counters at a time across all instances. Both use Postgres-only SQL and are switched off where
+ * the database is not Postgres.
+ */
+@Component
+@Slf4j
+public class PostCounters {
+
+  private static final long COUNTER_LOCK_KEY = 0x726f616d616e6365L;
+
+  private static final String INSERT_DELTA_SQL =
+      "INSERT INTO post_counter_deltas (post_id, likes_delta, comments_delta) VALUES (?, ?, ?)";
+
+  // Deltas of posts deleted in the meantime match no row and are dropped with the others
+  private static final String FLUSH_SQL =
+      """
+      WITH applied AS (
+        DELETE FROM post_counter_deltas
+        WHERE id IN (SELECT id FROM post_counter_deltas ORDER BY id LIMIT ?)
+        RETURNING post_id, likes_delta, comments_delta
+      ), totals AS (
+        SELECT post_id, SUM(likes_delta) AS likes, SUM(comments_delta) AS comments
+        FROM applied GROUP BY post_id
+      )
+      UPDATE posts SET
+        likes_count = posts.likes_count + totals.likes,
+        comments_count = posts.comments_count + totals.comments
+      FROM totals
+      WHERE posts.id = totals.post_id
+      """;
+
+  // Pending deltas are subtracted, they are added to the counters by a later flush
+  private static final String RECONCILE_SQL =
+      """
+      WITH expected AS (
+        SELECT p.id,
+          (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id)
+            - COALESCE((SELECT SUM(d.likes_delta) FROM post_counter_deltas d
+                WHERE d.post_id = p.id), 0) AS likes,
+          (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)
+            - COALESCE((SELECT SUM(d.comments_delta) FROM post_counter_deltas d
+                WHERE d.post_id = p.id), 0) AS comments
+        FROM posts p
+      )
+      UPDATE posts SET likes_count = expected.likes, comments_count = expected.comments
+      FROM expected
+      WHERE posts.id = expected.id
+        AND (posts.likes_count <> expected.likes OR posts.comments_count <> expected.comments)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  private final AtomicLong pendingDeltas = new AtomicLong();
+
+  private final Counter flushedRows;
+  private final Counter failedFlushes;
+  private final Counter reconciledRows;
+
+  @Value("${application.counters.scheduling-enabled:true}")
+  private boolean schedulingEnabled;
+
+  @Value("${application.counters.max-batch-size:10000}")
+  private int maxBatchSize;
+
+  public PostCounters(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+    Gauge.builder("roamance.posts.counters.pending", pendingDeltas, AtomicLong::get)
+        .description("Counter deltas waiting to be flushed")
+        .register(meterRegistry);
+
+    this.flushedRows =
+        Counter.builder("roamance.posts.counters.flushed")
+            .description("Post rows updated by counter flushes")
+            .register(meterRegistry);
+    this.failedFlushes =
+        Counter.builder("roamance.posts.counters.flush.failures")
+            .description("Counter flushes that failed and were retried")
+            .register(meterRegistry);
+    this.reconciledRows =
+        Counter.builder("roamance.posts.counters.reconciled")
+            .description("Post rows whose counters were corrected by reconciliation")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Adds the delta to the like counter of the post. It is written in the current transaction, so a
+   * rolled back like is not counted.
+   *
+   * @param postId ID of the post
+   * @param delta amount to add, negative for unlikes
+   */
+  public void addLikes(UUID postId, int delta) {
+    jdbcTemplate.update(INSERT_DELTA_SQL, postId, delta, 0);
+  }
+
+  /**
+   * Adds the delta to the comment counter of the post. It is written in the current transaction,
+   * so a rolled back comment is not counted.
+   *
+   * @param postId ID of the post
+   * @param delta amount to add, negative for deleted comments
+   */
+  public void addComments(UUID postId, int delta) {
+    jdbcTemplate.update(INSERT_DELTA_SQL, postId, 0, delta);
+  }
+
+  @Scheduled(fixedDelayString = "${application.counters.flush-interval-ms:1000}")
+  public void flush() {
+
+    if (!schedulingEnabled) {
+      return;
+    }
+
+    try {
+      Integer flushed =
+          transactionTemplate.execute(
+              status -> {
+                // Another instance is flushing or reconciling, its flush covers these deltas
+                if (!tryLock()) {
+                  return 0;
+                }
+
+                return jdbcTemplate.update(FLUSH_SQL, maxBatchSize);
+              });
+
+      if (flushed != null) {
+        flushedRows.increment(flushed);
+      }
+
+      Long pending =
+          jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_counter_deltas", Long.class);
+      pendingDeltas.set(pending == null ? 0 : pending);
+
+    } catch (Exception e) {
+      log.warn("Flushing post counters failed, retrying on the next flush: {}", e.getMessage());
+      failedFlushes.increment();
+    }
+  }
+
+  /** Recomputes the counters of every post from the join tables and the pending deltas. */
+  @Scheduled(cron = "${application.counters.reconcile-cron:0 30 3 * * *}")
+  public void reconcile() {
+
+    if (!schedulingEnabled) {
+      return;
+    }
+
+    try {
+      Integer corrected =
+          transactionTemplate.execute(
+              status -> {
+                // Waits for a running flush, later ones skip until this transaction ends
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {}, COUNTER_LOCK_KEY);
+
+                return jdbcTemplate.update(RECONCILE_SQL);
+              });
+
+      if (corrected != null && corrected > 0) {
+        reconciledRows.increment(corrected);
+        log.warn("Reconciliation corrected the like and comment counters of {} posts", corrected);
+      }
+
+    } catch (Exception e) {
+      log.error("Reconciling post counters failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private boolean tryLock() {
+
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, COUNTER_LOCK_KEY));
+  }
+}
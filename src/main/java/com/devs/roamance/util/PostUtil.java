@@ -2,17 +2,26 @@ package com.devs.roamance.util;
 
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.request.ai.MultiModalAiRequestDto;
-import com.devs.roamance.dto.request.social.PostRequestDto;
 import com.devs.roamance.dto.response.ai.TidbitsAndSafetyDto;
+import com.devs.roamance.exception.AiGenerationFailedException;
 import com.devs.roamance.exception.ResourceNotFoundException;
+import com.devs.roamance.model.ai.AiEnrichmentJob;
+import com.devs.roamance.model.ai.AiEnrichmentJobType;
 import com.devs.roamance.model.social.Post;
+import com.devs.roamance.repository.AiEnrichmentJobRepository;
 import com.devs.roamance.repository.PostRepository;
 import com.devs.roamance.service.AiService;
 import dev.langchain4j.model.output.FinishReason;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 @Slf4j
@@ -20,66 +29,160 @@ public class PostUtil {
 
   private final AiService aiService;
   private final PostRepository postRepository;
-
-  public PostUtil(AiService aiService, PostRepository postRepository) {
+  private final AiEnrichmentJobRepository aiEnrichmentJobRepository;
+  private final RagSearchCache ragSearchCache;
+  private final RagUtil ragUtil;
+  private final TransactionTemplate readOnlyTransaction;
+
+  public PostUtil(
+      AiService aiService,
+      PostRepository postRepository,
+      AiEnrichmentJobRepository aiEnrichmentJobRepository,
+      RagSearchCache ragSearchCache,
+      RagUtil ragUtil,
+      PlatformTransactionManager transactionManager) {
     this.aiService = aiService;
     this.postRepository = postRepository;
+    this.aiEnrichmentJobRepository = aiEnrichmentJobRepository;
+    this.ragSearchCache = ragSearchCache;
+    this.ragUtil = ragUtil;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
-  @Async("asyncExecutor")
-  public void backgroundAiAnalysis(UUID postId, PostRequestDto createRequestDto) {
-    try {
-      MultiModalAiRequestDto aiRequestDto = new MultiModalAiRequestDto();
-      setFields(aiRequestDto, createRequestDto);
+  /**
+   * Records the AI enrichment work of a newly created post as outbox jobs. Must be called inside
+   * the transaction that saves the post, so the jobs exist if and only if the post does.
+   */
+  public void enqueueAiEnrichment(UUID postId) {
 
-      TidbitsAndSafetyDto responseDto = aiService.getTidbitsAndSafety(aiRequestDto).join();
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
 
-      Post post =
-          postRepository
-              .findById(postId)
-              .orElseThrow(
-                  () ->
-                      new ResourceNotFoundException(
-                          String.format(ResponseMessage.POST_NOT_FOUND, postId)));
+    aiEnrichmentJobRepository.saveAll(
+        List.of(
+            new AiEnrichmentJob(postId, AiEnrichmentJobType.TIDBITS_AND_SAFETY, now),
+            new AiEnrichmentJob(postId, AiEnrichmentJobType.VECTOR_INDEX, now)));
+  }
 
-      updatePostWithAnalysis(responseDto, post);
+  /** Generates tidbits and the safety verdict of a post, throwing if the AI call failed. */
+  public void applyAiAnalysis(UUID postId) {
 
-      postRepository.save(post);
+    MultiModalAiRequestDto aiRequestDto = new MultiModalAiRequestDto();
 
-    } catch (Exception e) {
-      log.error("Error in background AI analysis for post {}: {}", postId, e.getMessage(), e);
+    // The media collections are lazy, they have to be read before the AI call outside a transaction
+    Post post =
+        readOnlyTransaction.execute(
+            status -> {
+              Post found = findPost(postId);
+              setFields(
+                  aiRequestDto, found.getText(), found.getImagePaths(), found.getVideoPaths());
+              return found;
+            });
+
+    TidbitsAndSafetyDto responseDto = aiService.getTidbitsAndSafety(aiRequestDto).join();
+
+    if (responseDto.getFinishReason() == FinishReason.OTHER && responseDto.getText() == null) {
+      throw new AiGenerationFailedException(ResponseMessage.AI_TIDBITS_GENERATION_FAILED);
     }
-  }
 
-  public void addToVectorDb(UUID postId, PostRequestDto requestDto) {
+    if (responseDto.getFinishReason() == FinishReason.CONTENT_FILTER) {
+      postRepository.updateAnalysis(postId, false, post.getTidbits());
+    } else if (responseDto.getText() != null && !responseDto.getText().isEmpty()) {
+      postRepository.updateAnalysis(postId, post.getIsSafe(), responseDto.getText());
+    }
+  }
 
-    requestDto.setVideoPaths(null);
+  /** Embeds the text and images of a post into the vector db, throwing if any part failed. */
+  public void indexInVectorDb(UUID postId) {
 
     MultiModalAiRequestDto aiRequestDto = new MultiModalAiRequestDto();
-    setFields(aiRequestDto, requestDto);
 
-    aiService.addContentToVectorDb(aiRequestDto, postId);
-  }
+    readOnlyTransaction.executeWithoutResult(
+        status -> {
+          Post post = findPost(postId);
+          setFields(aiRequestDto, post.getText(), post.getImagePaths(), null);
+        });
 
-  private void setFields(MultiModalAiRequestDto aiRequestDto, PostRequestDto createRequestDto) {
+    aiService.addContentToVectorDb(aiRequestDto, postId).join();
 
-    if (createRequestDto.getText() != null && !createRequestDto.getText().isEmpty()) {
-      aiRequestDto.setText(createRequestDto.getText());
+    // Deleted while it was embedded, its vectors were removed before these were added
+    if (!postRepository.existsById(postId)) {
+      removeVectors(postId);
     }
-    if (createRequestDto.getImagePaths() != null && !createRequestDto.getImagePaths().isEmpty()) {
-      aiRequestDto.setMediaUrls(createRequestDto.getImagePaths());
+  }
+
+  /**
+   * Removes the vectors of a deleted post, so searches stop retrieving it. Inside a transaction
+   * this happens after commit. Must be called before {@link #evictFromRagSearchCache}, a search
+   * that starts after the eviction then cannot retrieve the post any more.
+   */
+  public void removeFromVectorDb(UUID postId) {
+    afterCommit(() -> removeVectors(postId));
+  }
+
+  /**
+   * Drops cached RAG search results that would still point to a deleted post. Inside a transaction
+   * this happens after commit, so a rolled back delete keeps its cached results. Searches that were
+   * running at the time cannot cache the post again, see {@link RagSearchCache}.
+   */
+  public void evictFromRagSearchCache(UUID postId) {
+    afterCommit(() -> ragSearchCache.evictPost(postId));
+  }
+
+  private void removeVectors(UUID postId) {
+
+    try {
+      ragUtil.removeContent(
+          postId.toString(),
+          PgVectorStoreRegistry.TEXTS_TABLE,
+          PgVectorStoreRegistry.IMAGE_DESCRIPTIONS_TABLE,
+          PgVectorStoreRegistry.IMAGE_EMBEDDINGS_TABLE);
+
+    } catch (Exception e) {
+      log.error("Removing embeddings of post {} failed: {}", postId, e.getMessage(), e);
     }
-    if (createRequestDto.getVideoPaths() != null && !createRequestDto.getVideoPaths().isEmpty()) {
-      aiRequestDto.getMediaUrls().addAll(createRequestDto.getVideoPaths());
+  }
+
+  private static void afterCommit(Runnable action) {
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
     }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
   }
 
-  private void updatePostWithAnalysis(TidbitsAndSafetyDto responseDto, Post post) {
+  private Post findPost(UUID postId) {
 
-    if (responseDto.getFinishReason() == FinishReason.CONTENT_FILTER) {
-      post.setIsSafe(false);
-    } else if (responseDto.getText() != null && !responseDto.getText().isEmpty()) {
-      post.setTidbits(responseDto.getText());
+    return postRepository
+        .findById(postId)
+        .orElseThrow(
+            () ->
+                new ResourceNotFoundException(
+                    String.format(ResponseMessage.POST_NOT_FOUND, postId)));
+  }
+
+  private void setFields(
+      MultiModalAiRequestDto aiRequestDto,
+      String text,
+      List<String> imagePaths,
+      List<String> videoPaths) {
+
+    if (text != null && !text.isEmpty()) {
+      aiRequestDto.setText(text);
+    }
+    if (imagePaths != null && !imagePaths.isEmpty()) {
+      aiRequestDto.getMediaUrls().addAll(imagePaths);
+    }
+    if (videoPaths != null && !videoPaths.isEmpty()) {
+      aiRequestDto.getMediaUrls().addAll(videoPaths);
     }
   }
 }
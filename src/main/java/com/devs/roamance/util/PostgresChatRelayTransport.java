@@ -0,0 +1,289 @@
+package com.devs.roamance.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transport over Postgres {@code LISTEN}/{@code NOTIFY}, so instances sharing the database reach
+ * each other without a separate broker. Every instance listens on one channel with a connection of
+ * its own, taken from the pool for as long as the instance runs. Notification payloads are limited
+ * to 8000 bytes, larger frames are stored in an unlogged table and only their key is notified.
+ * Frames published while an instance is reconnecting are lost to it; the messages themselves are
+ * persisted, so clients catch up by reading the chat.
+ *
+ * <p>Publishing only queues the frame. A publisher thread packs everything queued so far into as
+ * few notifications as fit the limit and sends them in one statement, so neither the chat writer
+ * nor STOMP threads wait for the database and a burst of messages costs one round trip.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "application.chat-relay.transport", havingValue = "postgres")
+public class PostgresChatRelayTransport implements ChatRelayTransport {
+
+  private static final String CHANNEL = "roamance_chat_relay";
+
+  // Leaves room below the 8000 byte limit of NOTIFY for the channel name
+  private static final int MAX_NOTIFY_BYTES = 7900;
+
+  private static final String CREATE_PAYLOADS_TABLE_SQL =
+      """
+      CREATE UNLOGGED TABLE IF NOT EXISTS chat_relay_payloads (
+        id uuid PRIMARY KEY,
+        envelope text NOT NULL,
+        created_at timestamptz NOT NULL DEFAULT now()
+      )
+      """;
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  // Every statement notifies in array order, so instances receive frames in publish order
+  private static final String NOTIFY_SQL =
+      """
+      SELECT pg_notify(?, n.notification) FROM (
+        SELECT notification FROM unnest(?::text[]) WITH ORDINALITY AS u(notification, position)
+        ORDER BY position
+      ) n
+      """;
+
+  private final List<Consumer<Frame>> listeners = new CopyOnWriteArrayList<>();
+
+  private final BlockingQueue<Frame> outbox;
+
+  private Thread listenerThread;
+  private Thread publisherThread;
+  private volatile boolean running = true;
+
+  @Value("${application.chat-relay.postgres.poll-timeout-ms:500}")
+  private int pollTimeoutMs;
+
+  @Value("${application.chat-relay.postgres.reconnect-delay-ms:5000}")
+  private long reconnectDelayMs;
+
+  @Value("${application.chat-relay.postgres.max-batch-size:500}")
+  private int maxBatchSize;
+
+  public PostgresChatRelayTransport(
+      DataSource dataSource,
+      JdbcTemplate jdbcTemplate,
+      ObjectMapper objectMapper,
+      @Value("${application.chat-relay.postgres.queue-capacity:10000}") int queueCapacity) {
+
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.outbox = new LinkedBlockingQueue<>(queueCapacity);
+  }
+
+  @PostConstruct
+  public void start() {
+
+    jdbcTemplate.execute(CREATE_PAYLOADS_TABLE_SQL);
+
+    listenerThread = new Thread(this::listen, "chat-relay-listener");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+
+    publisherThread = new Thread(this::publishLoop, "chat-relay-publisher");
+    publisherThread.setDaemon(true);
+    publisherThread.start();
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+
+    running = false;
+    publisherThread.join(pollTimeoutMs * 2L);
+    listenerThread.join(pollTimeoutMs * 2L);
+  }
+
+  @Override
+  public void publish(Frame frame) {
+
+    if (!outbox.offer(frame)) {
+      log.error("Relay queue is full, dropping a frame from instance {}", frame.origin());
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<Frame> listener) {
+    listeners.add(listener);
+  }
+
+  // Every instance has read a stored frame by the time it is a minute old
+  @Scheduled(fixedDelayString = "${application.chat-relay.postgres.cleanup-interval-ms:60000}")
+  public void deleteStoredEnvelopes() {
+
+    try {
+      jdbcTemplate.update(
+          "DELETE FROM chat_relay_payloads WHERE created_at < now() - interval '1 minute'");
+
+    } catch (Exception e) {
+      log.error("Deleting relayed chat payloads failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private void listen() {
+
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+        log.info("Listening for relayed chat messages on channel {}", CHANNEL);
+
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              receive(notification.getParameter());
+            }
+          }
+        }
+
+      } catch (Exception e) {
+        if (!running) {
+          return;
+        }
+
+        log.warn(
+            "Listening for relayed chat messages failed, reconnecting in {} ms: {}",
+            reconnectDelayMs,
+            e.getMessage());
+
+        try {
+          Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void publishLoop() {
+
+    while (running || !outbox.isEmpty()) {
+      try {
+        Frame first = outbox.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+
+        List<Frame> batch = new ArrayList<>();
+        batch.add(first);
+        outbox.drainTo(batch, maxBatchSize - 1);
+
+        sendNotifications(batch);
+
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+
+      } catch (Exception e) {
+        log.error("Relaying chat messages failed: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  /** Sends the frames as JSON arrays of at most the notification limit each. */
+  private void sendNotifications(List<Frame> batch) throws JsonProcessingException {
+
+    List<String> notifications = new ArrayList<>();
+    List<Object[]> storedRows = new ArrayList<>();
+
+    StringJoiner notification = newNotification();
+    int notificationBytes = 2;
+
+    for (Frame frame : batch) {
+      String json = objectMapper.writeValueAsString(frame);
+      int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+
+      if (bytes > MAX_NOTIFY_BYTES - 2) {
+        UUID id = UUID.randomUUID();
+        storedRows.add(new Object[] {id, json});
+
+        json = objectMapper.writeValueAsString(Map.of("ref", id));
+        bytes = json.length();
+      }
+
+      // One more byte for the separating comma
+      if (notification.length() > 2 && notificationBytes + bytes + 1 > MAX_NOTIFY_BYTES) {
+        notifications.add(notification.toString());
+        notification = newNotification();
+        notificationBytes = 2;
+      }
+
+      notification.add(json);
+      notificationBytes += bytes + 1;
+    }
+
+    notifications.add(notification.toString());
+
+    if (!storedRows.isEmpty()) {
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO chat_relay_payloads (id, envelope) VALUES (?, ?)", storedRows);
+    }
+
+    jdbcTemplate.query(NOTIFY_SQL, rs -> {}, CHANNEL, notifications.toArray(String[]::new));
+  }
+
+  private static StringJoiner newNotification() {
+    return new StringJoiner(",", "[", "]");
+  }
+
+  private void receive(String notification) {
+
+    try {
+      for (JsonNode item : objectMapper.readTree(notification)) {
+        JsonNode ref = item.get("ref");
+
+        Frame frame =
+            ref == null
+                ? objectMapper.treeToValue(item, Frame.class)
+                : objectMapper.readValue(
+                    jdbcTemplate.queryForObject(
+                        "SELECT envelope FROM chat_relay_payloads WHERE id = ?",
+                        String.class,
+                        UUID.fromString(ref.asText())),
+                    Frame.class);
+
+        listeners.forEach(listener -> listener.accept(frame));
+      }
+
+    } catch (Exception e) {
+      log.error("Receiving relayed chat messages failed: {}", e.getMessage(), e);
+    }
+  }
+}
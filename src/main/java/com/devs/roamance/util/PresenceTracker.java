@@ -0,0 +1,250 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.dto.response.social.PresenceDto;
+import com.devs.roamance.repository.ChatInboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Tracks which users are online from their WebSocket sessions. A session counts from its STOMP
+ * CONNECT to its DISCONNECT and has to send a heartbeat within the TTL in between, so sessions of a
+ * client or instance that went away without disconnecting expire instead of staying online. Chat
+ * partners of a user are told when the user comes online and when the last session goes away.
+ * Sessions are tracked by the instance they are connected to; which users other instances have is
+ * known from the {@link ChatMessageRelay}, so a user is only announced offline once no instance has
+ * a session. Users whose last session here went away while another instance may still have one
+ * are checked again on every sweep, so two instances losing their last sessions at the same time
+ * still announce the user offline, possibly twice.
+ *
+ * <p>Announcing looks up the chat partners in the database, so it runs on the presence executor
+ * rather than on the STOMP and event threads that notice the change.
+ */
+@Component
+@Slf4j
+public class PresenceTracker {
+
+  private static final String PRESENCE_DESTINATION = "/queue/presence";
+
+  // Sessions of every online user, with the time each of them was last seen. Sessions are only
+  // added and removed in compute() of their user, so coming online and going offline are atomic.
+  private final Map<UUID, Map<String, Long>> sessions = new ConcurrentHashMap<>();
+
+  // Users that went offline here while another instance may have had a session
+  private final Set<UUID> offlineHere = ConcurrentHashMap.newKeySet();
+
+  private final ChatInboxRepository chatInboxRepository;
+  private final ChatMessageRelay chatMessageRelay;
+  private final UserUtil userUtil;
+  private final Executor presenceExecutor;
+
+  @Value("${application.presence.ttl-ms:60000}")
+  private long ttlMs;
+
+  public PresenceTracker(
+      ChatInboxRepository chatInboxRepository,
+      ChatMessageRelay chatMessageRelay,
+      UserUtil userUtil,
+      @Qualifier("presenceExecutor") Executor presenceExecutor,
+      MeterRegistry meterRegistry) {
+
+    this.chatInboxRepository = chatInboxRepository;
+    this.chatMessageRelay = chatMessageRelay;
+    this.userUtil = userUtil;
+    this.presenceExecutor = presenceExecutor;
+
+    Gauge.builder("roamance.chat.presence.online", sessions, Map::size)
+        .description("Users with a WebSocket session on this instance")
+        .register(meterRegistry);
+  }
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+
+    if (event.getUser() == null) {
+      return;
+    }
+
+    heartbeat(
+        userUtil.getUserId(event.getUser()),
+        SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()));
+  }
+
+  @EventListener
+  public void onDisconnected(SessionDisconnectEvent event) {
+
+    if (event.getUser() == null) {
+      return;
+    }
+
+    UUID userId = userUtil.getUserId(event.getUser());
+    AtomicBoolean wentOffline = new AtomicBoolean();
+
+    sessions.computeIfPresent(
+        userId,
+        (id, userSessions) -> {
+          userSessions.remove(event.getSessionId());
+          wentOffline.set(userSessions.isEmpty());
+          return userSessions.isEmpty() ? null : userSessions;
+        });
+
+    if (wentOffline.get()) {
+      announceOffline(userId);
+    }
+  }
+
+  /**
+   * Marks the session as seen now, a user whose sessions had all expired comes online again
+   *
+   * @param userId ID of the user
+   * @param sessionId ID of the WebSocket session
+   */
+  public void heartbeat(UUID userId, String sessionId) {
+
+    long now = System.currentTimeMillis();
+    AtomicBoolean cameOnline = new AtomicBoolean();
+
+    sessions.compute(
+        userId,
+        (id, userSessions) -> {
+          Map<String, Long> updated =
+              userSessions != null ? userSessions : new ConcurrentHashMap<>();
+          cameOnline.set(userSessions == null);
+          updated.put(sessionId, now);
+          return updated;
+        });
+
+    if (cameOnline.get()) {
+      offlineHere.remove(userId);
+
+      // Partners already know a user that is online on another instance
+      if (!chatMessageRelay.isConnectedElsewhere(userId.toString())) {
+        announce(userId, true);
+      }
+    }
+  }
+
+  /** Returns the chat partners of the user that are online, so a new session starts complete. */
+  public List<PresenceDto> getOnlinePartners(UUID userId) {
+
+    List<PresenceDto> online = new ArrayList<>();
+
+    for (UUID partnerId : chatInboxRepository.findOtherUserIds(userId)) {
+      Map<String, Long> partnerSessions = sessions.get(partnerId);
+
+      if (partnerSessions != null) {
+        online.add(new PresenceDto(partnerId, true, lastSeenAt(partnerSessions)));
+      } else if (chatMessageRelay.isConnectedElsewhere(partnerId.toString())) {
+        online.add(new PresenceDto(partnerId, true, OffsetDateTime.now()));
+      }
+    }
+
+    return online;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${application.presence.sweep-interval-ms:10000}",
+      scheduler = "chatScheduler")
+  public void expire() {
+
+    long expiredBefore = System.currentTimeMillis() - ttlMs;
+    List<UUID> offline = new ArrayList<>();
+
+    for (UUID userId : sessions.keySet()) {
+      sessions.computeIfPresent(
+          userId,
+          (id, userSessions) -> {
+            userSessions.values().removeIf(lastSeen -> lastSeen < expiredBefore);
+            if (!userSessions.isEmpty()) {
+              return userSessions;
+            }
+
+            offline.add(userId);
+            return null;
+          });
+    }
+
+    offline.forEach(this::announceOffline);
+
+    if (!offline.isEmpty()) {
+      log.debug("Presence of {} users expired", offline.size());
+    }
+
+    offlineHere.removeIf(
+        userId -> {
+          if (sessions.containsKey(userId)) {
+            return true;
+          }
+          if (chatMessageRelay.mayBeConnectedElsewhere(userId.toString())) {
+            return false;
+          }
+
+          announce(userId, false);
+          return true;
+        });
+  }
+
+  private void announceOffline(UUID userId) {
+
+    if (chatMessageRelay.mayBeConnectedElsewhere(userId.toString())) {
+      offlineHere.add(userId);
+      return;
+    }
+
+    announce(userId, false);
+  }
+
+  private void announce(UUID userId, boolean online) {
+
+    PresenceDto presence = new PresenceDto(userId, online, OffsetDateTime.now());
+
+    try {
+      presenceExecutor.execute(
+          () -> {
+            try {
+              for (UUID partnerId : chatInboxRepository.findOtherUserIds(userId)) {
+                chatMessageRelay.sendToUser(partnerId.toString(), PRESENCE_DESTINATION, presence);
+              }
+
+            } catch (Exception e) {
+              log.error(
+                  "Announcing the presence of user {} failed: {}", userId, e.getMessage(), e);
+            }
+          });
+
+    } catch (RejectedExecutionException e) {
+      log.warn("Presence queue is full, not announcing user {}", userId);
+    }
+  }
+
+  private static OffsetDateTime lastSeenAt(Map<String, Long> userSessions) {
+
+    long lastSeen =
+        userSessions.values().stream()
+            .mapToLong(Long::longValue)
+            .max()
+            .orElseGet(System::currentTimeMillis);
+
+    return OffsetDateTime.ofInstant(Instant.ofEpochMilli(lastSeen), ZoneId.systemDefault());
+  }
+}
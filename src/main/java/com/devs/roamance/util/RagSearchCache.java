@@ -0,0 +1,266 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.dto.response.ai.PostIdListRagSearchDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Semantic cache of RAG post search results. Entries are keyed by the embedding of the search
+ * text; a lookup hits when a cached embedding lies within the configured cosine distance of the
+ * new one (and both searches used the same image, if any).
+ *
+ * <p>Evictions are numbered by a generation counter. A search reads the generation before it
+ * retrieves and hands it back to {@link #put}, which drops the result if one of its posts was
+ * evicted since, so a search that retrieved before a delete committed cannot re-cache the post.
+ */
+@Component
+@Slf4j
+public class RagSearchCache {
+
+  private record Entry(
+      float[] embedding, String imageUrl, List<UUID> postIds, long createdAtMillis) {}
+
+  private final List<Entry> entries = new ArrayList<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Generation of the last eviction of each post, oldest first and bounded like the entries
+  private final Map<UUID, Long> evictions = new LinkedHashMap<>();
+  private long generation;
+  // Evictions up to this generation were dropped from the map, searches older than it are unsafe
+  private long forgottenGeneration;
+
+  private final Counter hits;
+  private final Counter misses;
+
+  @Value("${application.rag.cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${application.rag.cache.max-cosine-distance:0.05}")
+  private double maxCosineDistance;
+
+  @Value("${application.rag.cache.ttl-ms:600000}")
+  private long ttlMs;
+
+  @Value("${application.rag.cache.max-entries:1000}")
+  private int maxEntries;
+
+  public RagSearchCache(MeterRegistry meterRegistry) {
+
+    this.hits = lookupCounter(meterRegistry, "hit");
+    this.misses = lookupCounter(meterRegistry, "miss");
+
+    Gauge.builder("roamance.ai.rag.cache.size", this, RagSearchCache::size)
+        .description("Number of cached RAG search results")
+        .register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the cached result of the closest fresh entry within the distance threshold, if any
+   *
+   * @param embedding L2-normalized embedding of the search text
+   * @param imageUrl image the search was made with, or null
+   * @return Copy of the cached result
+   */
+  public Optional<PostIdListRagSearchDto> get(float[] embedding, String imageUrl) {
+
+    long now = System.currentTimeMillis();
+    double minSimilarity = 1 - maxCosineDistance;
+
+    Entry best = null;
+    double bestSimilarity = minSimilarity;
+
+    lock.readLock().lock();
+    try {
+      for (Entry entry : entries) {
+        if (isExpired(entry, now) || !Objects.equals(entry.imageUrl(), imageUrl)) {
+          continue;
+        }
+
+        double similarity = dot(entry.embedding(), embedding);
+        if (similarity >= bestSimilarity) {
+          best = entry;
+          bestSimilarity = similarity;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    if (best == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+
+    hits.increment();
+    return Optional.of(new PostIdListRagSearchDto(new ArrayList<>(best.postIds())));
+  }
+
+  /** Current eviction generation, to be read before a search retrieves anything. */
+  public long generation() {
+
+    lock.readLock().lock();
+    try {
+      return generation;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Caches the result of a search, unless one of its posts was evicted while it ran
+   *
+   * @param embedding L2-normalized embedding of the search text
+   * @param imageUrl image the search was made with, or null
+   * @param result result of the search
+   * @param searchGeneration {@link #generation()} read before the search retrieved
+   */
+  public void put(
+      float[] embedding, String imageUrl, PostIdListRagSearchDto result, long searchGeneration) {
+
+    if (result == null || result.getPostIds() == null) {
+      return;
+    }
+
+    Entry entry =
+        new Entry(
+            embedding, imageUrl, List.copyOf(result.getPostIds()), System.currentTimeMillis());
+
+    lock.writeLock().lock();
+    try {
+      if (isEvictedSince(entry, searchGeneration)) {
+        log.debug("Not caching RAG search result with posts evicted while it ran");
+        return;
+      }
+
+      long now = System.currentTimeMillis();
+      entries.removeIf(existing -> isExpired(existing, now));
+
+      // Entries are appended in insertion order, so the head is always the oldest one
+      while (entries.size() >= maxEntries && !entries.isEmpty()) {
+        entries.remove(0);
+      }
+
+      entries.add(entry);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Drops every cached result that contains the given post, e.g. after it was deleted. */
+  public void evictPost(UUID postId) {
+
+    int removed = 0;
+
+    lock.writeLock().lock();
+    try {
+      generation++;
+      evictions.remove(postId);
+      evictions.put(postId, generation);
+
+      Iterator<Map.Entry<UUID, Long>> oldest = evictions.entrySet().iterator();
+      while (evictions.size() > maxEntries) {
+        forgottenGeneration = oldest.next().getValue();
+        oldest.remove();
+      }
+
+      Iterator<Entry> iterator = entries.iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next().postIds().contains(postId)) {
+          iterator.remove();
+          removed++;
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    if (removed > 0) {
+      log.info("Evicted {} cached RAG search results containing post {}", removed, postId);
+    }
+  }
+
+  public int size() {
+
+    lock.readLock().lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Scales the vector to unit length so that cosine similarity becomes a plain dot product. */
+  public static float[] normalize(float[] vector) {
+
+    double norm = 0;
+    for (float value : vector) {
+      norm += value * value;
+    }
+    norm = Math.sqrt(norm);
+
+    float[] normalized = new float[vector.length];
+    if (norm == 0) {
+      return normalized;
+    }
+
+    for (int i = 0; i < vector.length; i++) {
+      normalized[i] = (float) (vector[i] / norm);
+    }
+
+    return normalized;
+  }
+
+  private boolean isEvictedSince(Entry entry, long searchGeneration) {
+
+    if (searchGeneration < forgottenGeneration) {
+      return true;
+    }
+
+    return entry.postIds().stream()
+        .anyMatch(postId -> evictions.getOrDefault(postId, Long.MIN_VALUE) > searchGeneration);
+  }
+
+  private boolean isExpired(Entry entry, long now) {
+    return now - entry.createdAtMillis() > ttlMs;
+  }
+
+  private static double dot(float[] a, float[] b) {
+
+    if (a.length != b.length) {
+      return -1;
+    }
+
+    double sum = 0;
+    for (int i = 0; i < a.length; i++) {
+      sum += a[i] * b[i];
+    }
+
+    return sum;
+  }
+
+  private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+
+    return Counter.builder("roamance.ai.rag.cache.lookups")
+        .description("Semantic RAG search cache lookups, by hit/miss result")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -19,9 +19,13 @@ import dev.langchain4j.rag.query.router.DefaultQueryRouter;
 import dev.langchain4j.rag.query.router.QueryRouter;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
-import dev.langchain4j.store.embedding.pgvector.PgVectorEmbeddingStore;
+import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -32,28 +36,34 @@ public class RagUtil {
 
   private String metadataKey = "contentId";
 
-  @Value("${application.pgvector.host}")
-  private String host;
+  private record EmbeddingModelKey(String apiKey, String taskType) {}
 
-  @Value("${application.pgvector.port}")
-  private Integer port;
+  private final PgVectorStoreRegistry pgVectorStoreRegistry;
+  private final MeterRegistry meterRegistry;
 
-  @Value("${application.pgvector.db}")
-  private String vectorDb;
+  private final Map<EmbeddingModelKey, EmbeddingBatcher> embeddingModels =
+      new ConcurrentHashMap<>();
 
-  @Value("${application.pgvector.user}")
-  private String user;
+  @Value("${application.nomic.base-url:https://api-atlas.nomic.ai/v1/}")
+  private String nomicBaseUrl;
 
-  @Value("${application.pgvector.password}")
-  private String password;
+  @Value("${application.nomic.batch.window-ms:25}")
+  private long batchWindowMs;
+
+  @Value("${application.nomic.batch.max-size:64}")
+  private int batchMaxSize;
+
+  public RagUtil(PgVectorStoreRegistry pgVectorStoreRegistry, MeterRegistry meterRegistry) {
+    this.pgVectorStoreRegistry = pgVectorStoreRegistry;
+    this.meterRegistry = meterRegistry;
+  }
 
   public void embedAndStore(
       String apiKey, Document document, String contentId, String taskType, String tableName) {
 
     EmbeddingModel embeddingModel = buildEmbeddingModel(apiKey, taskType);
 
-    EmbeddingStore<TextSegment> embeddingStore =
-        buildEmbeddingStore(embeddingModel.dimension(), tableName);
+    EmbeddingStore<TextSegment> embeddingStore = pgVectorStoreRegistry.getStore(tableName);
 
     EmbeddingStoreIngestor ingestor =
         EmbeddingStoreIngestor.builder()
@@ -76,12 +86,9 @@ public class RagUtil {
   }
 
   public void store(
-      List<EmbeddingResponse> embeddingResponses,
-      Integer dimension,
-      String contentId,
-      String tableName) {
+      List<EmbeddingResponse> embeddingResponses, String contentId, String tableName) {
 
-    EmbeddingStore<TextSegment> embeddingStore = buildEmbeddingStore(dimension, tableName);
+    EmbeddingStore<TextSegment> embeddingStore = pgVectorStoreRegistry.getStore(tableName);
 
     embeddingResponses.forEach(
         embeddingResponse ->
@@ -90,15 +97,34 @@ public class RagUtil {
                 TextSegment.from("An image.", Metadata.from(metadataKey, contentId))));
   }
 
+  /** Embeds a search query with the shared search_query model. */
+  public float[] embedQuery(String apiKey, String query) {
+
+    return buildEmbeddingModel(apiKey, "search_query").embed(query).content().vector();
+  }
+
+  /**
+   * Removes every vector stored for the given content from the given tables, so re-indexing the
+   * same content does not leave duplicates behind
+   */
+  public void removeContent(String contentId, String... tableNames) {
+
+    for (String tableName : tableNames) {
+      pgVectorStoreRegistry
+          .getStore(tableName)
+          .removeAll(MetadataFilterBuilder.metadataKey(metadataKey).isEqualTo(contentId));
+    }
+  }
+
   public RetrievalAugmentor buildAugmentor(
       String apiKey, String taskType, String textsTableName, String imageDescriptionsTableName) {
 
     EmbeddingModel embeddingModel = buildEmbeddingModel(apiKey, taskType);
 
     EmbeddingStore<TextSegment> textsEmbeddingStore =
-        buildEmbeddingStore(embeddingModel.dimension(), textsTableName);
+        pgVectorStoreRegistry.getStore(textsTableName);
     EmbeddingStore<TextSegment> imageDescriptionsEmbeddingStore =
-        buildEmbeddingStore(embeddingModel.dimension(), imageDescriptionsTableName);
+        pgVectorStoreRegistry.getStore(imageDescriptionsTableName);
 
     ContentRetriever textsContentRetriever =
         EmbeddingStoreContentRetriever.builder()
@@ -136,33 +162,39 @@ public class RagUtil {
         .build();
   }
 
-  private EmbeddingModel buildEmbeddingModel(String apiKey, String taskType) {
-
-    return NomicEmbeddingModel.builder()
-        .baseUrl("https://api-atlas.nomic.ai/v1/")
-        .apiKey(apiKey)
-        .modelName("nomic-embed-text-v1.5")
-        .taskType(taskType)
-        .maxSegmentsPerBatch(1)
-        .timeout(Duration.ofSeconds(10))
-        .logRequests(true)
-        .logResponses(true)
-        .build();
+  @PreDestroy
+  public void close() {
+    embeddingModels.values().forEach(EmbeddingBatcher::close);
   }
 
-  private EmbeddingStore<TextSegment> buildEmbeddingStore(Integer dimension, String tableName) {
-
-    return PgVectorEmbeddingStore.builder()
-        .host(host)
-        .port(port)
-        .database(vectorDb)
-        .user(user)
-        .password(password)
-        .table(tableName)
-        .dimension(dimension)
-        .useIndex(true)
-        .indexListSize(100)
-        .createTable(true)
-        .build();
+  /**
+   * Returns the shared, batching embedding model of the given task type. Segments embedded
+   * concurrently (e.g. by several post creations) are merged into one Nomic request per window.
+   */
+  private EmbeddingModel buildEmbeddingModel(String apiKey, String taskType) {
+
+    return embeddingModels.computeIfAbsent(
+        new EmbeddingModelKey(apiKey, taskType),
+        key -> {
+          log.info("Building batched Nomic embedding model for task type: {}", taskType);
+
+          EmbeddingModel nomicEmbeddingModel =
+              NomicEmbeddingModel.builder()
+                  .baseUrl(nomicBaseUrl)
+                  .apiKey(apiKey)
+                  .modelName("nomic-embed-text-v1.5")
+                  .taskType(taskType)
+                  .maxSegmentsPerBatch(batchMaxSize)
+                  .timeout(Duration.ofSeconds(30))
+                  .build();
+
+          return new EmbeddingBatcher(
+              taskType,
+              nomicEmbeddingModel,
+              Duration.ofMillis(batchWindowMs),
+              batchMaxSize,
+              Duration.ofSeconds(60),
+              meterRegistry);
+        });
   }
 }
@@ -1,19 +1,31 @@
 package com.devs.roamance.util;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.*;
 import org.springframework.lang.NonNull;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 @Component
 @Slf4j
@@ -22,34 +34,48 @@ public class RestUtil {
   /** Default fallback MIME type */
   private static final String DEFAULT_MIME = "application/octet-stream";
 
-  private final RestTemplate restTemplate = new RestTemplate();
+  /** Number of leading bytes the JDK needs to sniff a MIME type */
+  private static final int SNIFF_BYTES = 16;
+
+  private static final int READ_CHUNK_BYTES = 16 * 1024;
+
+  /** Initial size of the encode buffer when the response does not declare its length */
+  private static final int DEFAULT_ENCODE_BUFFER_BYTES = 64 * 1024;
+
+  private final HttpClient httpClient =
+      HttpClient.newBuilder()
+          .connectTimeout(Duration.ofSeconds(10))
+          .followRedirects(HttpClient.Redirect.NEVER)
+          .build();
+
   private final RestUtil self;
+  private final MediaCache mediaCache;
+  private final WorkloadLimiter workloadLimiter;
 
   private static final List<String> ALLOWED_DOMAINS = List.of("res.cloudinary.com");
 
-  public RestUtil(@Lazy RestUtil self) {
-    this.self = self;
-  }
+  @Value("${application.media.max-bytes:10485760}")
+  private long maxMediaBytes;
 
-  /** Simple holder for downloaded bytes + resolved MIME type. */
-  public record Media(byte[] content, String mimeType) {
+  @Value("${application.media.read-timeout-ms:30000}")
+  private long readTimeoutMs;
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (!(o instanceof Media(byte[] content1, String type))) return false;
-      return Arrays.equals(content, content1) && Objects.equals(mimeType, type);
-    }
+  public RestUtil(@Lazy RestUtil self, MediaCache mediaCache, WorkloadLimiter workloadLimiter) {
+    this.self = self;
+    this.mediaCache = mediaCache;
+    this.workloadLimiter = workloadLimiter;
+  }
 
-    @Override
-    public int hashCode() {
-      return 31 * Arrays.hashCode(content) + Objects.hashCode(mimeType);
-    }
+  /**
+   * Simple holder for downloaded media, already base64 encoded, + resolved MIME type. The raw
+   * bytes are never kept, since every consumer sends the media inline as base64.
+   */
+  public record Media(String base64, String mimeType, long size) {
 
     @Override
     @NonNull
     public String toString() {
-      return "Media[mimeType=" + mimeType + ", contentLength=" + content.length + "]";
+      return "Media[mimeType=" + mimeType + ", contentLength=" + size + "]";
     }
   }
 
@@ -68,21 +94,177 @@ public class RestUtil {
           new IllegalArgumentException("Invalid or unauthorized media URL"));
     }
 
+    return mediaCache.get(url, cached -> fetchMedia(url, cached));
+  }
+
+  /**
+   * Downloads the media, or only revalidates the cached copy when the server confirms its ETag is
+   * still current.
+   */
+  private MediaCache.CachedMedia fetchMedia(String url, MediaCache.CachedMedia cached) {
+
+    HttpRequest.Builder requestBuilder =
+        HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).GET();
+    if (cached != null && cached.etag() != null) {
+      requestBuilder.header(HttpHeaders.IF_NONE_MATCH, cached.etag());
+    }
+
+    HttpRequest request = requestBuilder.build();
+
+    try {
+      // The permit is held while the body is streamed, since that is where the time goes
+      return workloadLimiter.call(
+          WorkloadLimiter.Workload.CLOUDINARY, () -> readResponse(send(request), url, cached));
+
+    } catch (IOException e) {
+      log.error("Error fetching {}: {}", url, e.getMessage(), e);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private HttpResponse<InputStream> send(HttpRequest request) throws IOException {
+
     try {
-      ResponseEntity<byte[]> resp =
-          restTemplate.exchange(URI.create(url), HttpMethod.GET, HttpEntity.EMPTY, byte[].class);
+      return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
 
-      byte[] bytes = resp.getBody();
-      if (bytes == null || bytes.length == 0) {
-        return CompletableFuture.failedFuture(new IOException("No content at " + url));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while fetching " + request.uri());
+    }
+  }
+
+  private MediaCache.CachedMedia readResponse(
+      HttpResponse<InputStream> resp, String url, MediaCache.CachedMedia cached)
+      throws IOException {
+
+    try (InputStream body = resp.body()) {
+      if (cached != null && resp.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+        return cached.revalidated();
       }
 
-      String mime = extractMime(resp.getHeaders(), bytes);
-      return CompletableFuture.completedFuture(new Media(bytes, mime));
+      if (resp.statusCode() != HttpStatus.OK.value()) {
+        throw new IOException("Unexpected status " + resp.statusCode() + " from " + url);
+      }
 
-    } catch (Exception e) {
-      log.error("Error fetching {}: {}", url, e.getMessage(), e);
-      return CompletableFuture.failedFuture(e);
+      long declaredLength = resp.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH).orElse(-1);
+      if (declaredLength > maxMediaBytes) {
+        throw new IOException("Media at " + url + " exceeds " + maxMediaBytes + " bytes");
+      }
+
+      // The request timeout ends with the headers, a server that stalls while sending the body
+      // would hold the download, and its CLOUDINARY permit, forever. Closing the body unblocks a
+      // read that is waiting for data.
+      AtomicBoolean timedOut = new AtomicBoolean();
+      CompletableFuture<Void> watchdog =
+          CompletableFuture.runAsync(
+              () -> {
+                timedOut.set(true);
+                closeQuietly(body);
+              },
+              CompletableFuture.delayedExecutor(readTimeoutMs, TimeUnit.MILLISECONDS));
+
+      Media media;
+      try {
+        media =
+            readAsBase64(
+                body,
+                resp.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null),
+                declaredLength,
+                url,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readTimeoutMs),
+                timedOut);
+
+      } catch (IOException e) {
+        if (timedOut.get()) {
+          throw readTimeout(url);
+        }
+        throw e;
+
+      } finally {
+        watchdog.cancel(false);
+      }
+
+      return new MediaCache.CachedMedia(
+          media,
+          resp.headers().firstValue(HttpHeaders.ETAG).orElse(null),
+          System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Streams the body through a base64 encoder in fixed-size chunks, so the raw media is never
+   * held in memory as a whole and the size cap and read deadline are enforced while reading.
+   * Buffers are allocated per download and sized from the declared length, thread-local buffers
+   * would not be reused on virtual threads and would stay held by every pool thread otherwise. The
+   * encoded bytes are copied once more into the returned string, so the base64 form briefly
+   * exists twice.
+   */
+  private Media readAsBase64(
+      InputStream body,
+      String contentType,
+      long declaredLength,
+      String url,
+      long deadlineNanos,
+      AtomicBoolean timedOut)
+      throws IOException {
+
+    byte[] chunk = new byte[READ_CHUNK_BYTES];
+    ByteArrayOutputStream encoded =
+        new ByteArrayOutputStream(
+            declaredLength > 0
+                ? (int) Math.min(Integer.MAX_VALUE - 8L, (declaredLength + 2) / 3 * 4)
+                : DEFAULT_ENCODE_BUFFER_BYTES);
+
+    byte[] head = new byte[SNIFF_BYTES];
+    int headLength = 0;
+    long total = 0;
+
+    // Closing the encoder only writes the final padding, the buffer itself stays open
+    try (OutputStream encoder = Base64.getEncoder().wrap(encoded)) {
+      int read;
+      while ((read = body.read(chunk)) != -1) {
+        if (timedOut.get() || System.nanoTime() - deadlineNanos > 0) {
+          throw readTimeout(url);
+        }
+
+        total += read;
+        if (total > maxMediaBytes) {
+          throw new IOException("Media at " + url + " exceeds " + maxMediaBytes + " bytes");
+        }
+
+        if (headLength < SNIFF_BYTES) {
+          int copied = Math.min(read, SNIFF_BYTES - headLength);
+          System.arraycopy(chunk, 0, head, headLength, copied);
+          headLength += copied;
+        }
+
+        encoder.write(chunk, 0, read);
+      }
+    }
+
+    // A body closed by the watchdog may look like a complete one
+    if (timedOut.get()) {
+      throw readTimeout(url);
+    }
+
+    if (total == 0) {
+      throw new IOException("No content at " + url);
+    }
+
+    String mime = extractMime(contentType, Arrays.copyOf(head, headLength));
+    return new Media(encoded.toString(StandardCharsets.ISO_8859_1), mime, total);
+  }
+
+  private IOException readTimeout(String url) {
+    return new IOException("Reading media at " + url + " exceeded " + readTimeoutMs + " ms");
+  }
+
+  private static void closeQuietly(InputStream body) {
+
+    try {
+      body.close();
+    } catch (IOException e) {
+      log.debug("Closing a timed out media body failed: {}", e.getMessage());
     }
   }
 
@@ -121,18 +303,23 @@ public class RestUtil {
                     .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
   }
 
-  /** Extracts the MIME type from headers, falling back to byte‐sniffing. */
-  private String extractMime(HttpHeaders headers, byte[] content) {
-    MediaType ct = headers.getContentType();
+  /** Extracts the MIME type from the Content-Type header, falling back to byte‐sniffing. */
+  private String extractMime(String contentType, byte[] head) {
+    MediaType ct = null;
+    try {
+      ct = contentType != null ? MediaType.parseMediaType(contentType) : null;
+    } catch (InvalidMediaTypeException e) {
+      log.warn("Invalid Content-Type {}: {}", contentType, e.getMessage());
+    }
     if (ct != null && !ct.isWildcardType() && !DEFAULT_MIME.equals(ct.toString())) {
       return ct.toString();
     }
-    return guessMime(content);
+    return guessMime(head);
   }
 
   /** Uses Java’s built‐in stream sniffing on the first bytes of content. */
-  private String guessMime(byte[] content) {
-    try (var in = new ByteArrayInputStream(content)) {
+  private String guessMime(byte[] head) {
+    try (var in = new ByteArrayInputStream(head)) {
       String guessed = URLConnection.guessContentTypeFromStream(in);
       return (guessed != null ? guessed : DEFAULT_MIME);
     } catch (IOException e) {
@@ -0,0 +1,285 @@
+package com.devs.roamance.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory ranking of trending posts. Every like, comment and save adds its weight to the score of
+ * the post, and scores decay exponentially with the configured half-life, so recent activity
+ * outranks a large but old like count. Weights are added relative to a landmark time (forward
+ * decay), so adding is a single atomic add and scores of different posts stay comparable without
+ * decaying all of them on every event. A periodic refresh rebases the scores to the current time,
+ * drops posts whose score decayed away, and snapshots the top posts for the trending endpoint.
+ * Scores are seeded from the counters of recent posts on startup.
+ *
+ * <p>Events are not timestamped, so an unlike or unsave cannot take back exactly the decayed weight
+ * its like or save added. It subtracts at the current weight instead and never takes a score below
+ * zero, the ranking is approximate in that direction until the next seed.
+ */
+@Component
+@Slf4j
+public class TrendingPostRanker {
+
+  private static final String SEED_SQL =
+      """
+      SELECT p.id, p.likes_count, p.comments_count, p.created_at,
+        (SELECT COUNT(*) FROM post_saves s WHERE s.post_id = p.id) AS saves_count
+      FROM posts p WHERE p.created_at > ?
+      """;
+
+  // Scores below this are indistinguishable from posts without activity
+  private static final double MIN_SCORE = 0.01;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final Map<UUID, DoubleAdder> scores = new ConcurrentHashMap<>();
+
+  // Events add under the read lock, refreshes rescale all scores under the write lock
+  private final ReadWriteLock rescaleLock = new ReentrantReadWriteLock();
+
+  private volatile long landmarkMillis = System.currentTimeMillis();
+  private volatile List<UUID> snapshot = List.of();
+
+  @Value("${application.trending.half-life-hours:6}")
+  private double halfLifeHours;
+
+  @Value("${application.trending.size:100}")
+  private int size;
+
+  @Value("${application.trending.max-tracked-posts:10000}")
+  private int maxTrackedPosts;
+
+  @Value("${application.trending.seed-window-hours:48}")
+  private int seedWindowHours;
+
+  @Value("${application.trending.weights.like:1}")
+  private double likeWeight;
+
+  @Value("${application.trending.weights.comment:3}")
+  private double commentWeight;
+
+  @Value("${application.trending.weights.save:2}")
+  private double saveWeight;
+
+  public TrendingPostRanker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+
+    this.jdbcTemplate = jdbcTemplate;
+
+    Gauge.builder("roamance.posts.trending.tracked", scores, Map::size)
+        .description("Posts with a trending score")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records likes of the post once the current transaction commits
+   *
+   * @param postId ID of the post
+   * @param delta number of likes, negative for unlikes
+   */
+  public void addLikes(UUID postId, int delta) {
+    addAfterCommit(postId, delta * likeWeight);
+  }
+
+  public void addComments(UUID postId, int delta) {
+    addAfterCommit(postId, delta * commentWeight);
+  }
+
+  public void addSaves(UUID postId, int delta) {
+    addAfterCommit(postId, delta * saveWeight);
+  }
+
+  /** Drops a post from the ranking once the current transaction commits. */
+  public void remove(UUID postId) {
+    afterCommit(() -> removeNow(postId));
+  }
+
+  /**
+   * Returns a page of the last snapshot, the ranking is at most one refresh interval old
+   *
+   * @param offset number of top posts to skip
+   * @param limit maximum number of posts
+   * @return IDs of the posts, highest score first
+   */
+  public List<UUID> getTopPostIds(int offset, int limit) {
+
+    List<UUID> current = snapshot;
+    if (offset >= current.size()) {
+      return List.of();
+    }
+
+    return current.subList(offset, Math.min(current.size(), offset + limit));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void seed() {
+
+    try {
+      long since = System.currentTimeMillis() - seedWindowHours * 3_600_000L;
+
+      jdbcTemplate.query(
+          SEED_SQL,
+          row -> {
+            double weight =
+                row.getLong("likes_count") * likeWeight
+                    + row.getLong("comments_count") * commentWeight
+                    + row.getLong("saves_count") * saveWeight;
+
+            // Without event times, the post's age stands in for the age of its activity
+            add(
+                row.getObject("id", UUID.class),
+                weight,
+                row.getTimestamp("created_at").getTime());
+          },
+          new Timestamp(since));
+
+      refresh();
+
+      log.info("Seeded trending scores of {} posts", scores.size());
+
+    } catch (Exception e) {
+      log.error("Seeding trending scores failed: {}", e.getMessage(), e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${application.trending.refresh-interval-ms:60000}")
+  public void refresh() {
+
+    rescaleLock.writeLock().lock();
+    try {
+      rescale(System.currentTimeMillis());
+    } finally {
+      rescaleLock.writeLock().unlock();
+    }
+
+    // Bounded min-heap, so picking the top posts does not sort every tracked post
+    PriorityQueue<Map.Entry<UUID, Double>> top =
+        new PriorityQueue<>(size + 1, Map.Entry.comparingByValue());
+
+    scores.forEach(
+        (postId, score) -> {
+          top.add(Map.entry(postId, score.sum()));
+          if (top.size() > size) {
+            top.poll();
+          }
+        });
+
+    List<Map.Entry<UUID, Double>> ranked = new ArrayList<>(top);
+    ranked.sort(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder()));
+
+    snapshot = ranked.stream().map(Map.Entry::getKey).toList();
+  }
+
+  /** Decays all scores to the given time, which becomes the new landmark, and prunes them. */
+  private void rescale(long nowMillis) {
+
+    double factor = 1 / growth(nowMillis);
+
+    List<Map.Entry<UUID, Double>> remaining = new ArrayList<>(scores.size());
+
+    scores
+        .entrySet()
+        .removeIf(
+            entry -> {
+              double score = entry.getValue().sumThenReset() * factor;
+              if (score < MIN_SCORE) {
+                return true;
+              }
+
+              entry.getValue().add(score);
+              remaining.add(Map.entry(entry.getKey(), score));
+              return false;
+            });
+
+    landmarkMillis = nowMillis;
+
+    if (remaining.size() > maxTrackedPosts) {
+      remaining.sort(Map.Entry.comparingByValue());
+      remaining
+          .subList(0, remaining.size() - maxTrackedPosts)
+          .forEach(entry -> scores.remove(entry.getKey()));
+    }
+  }
+
+  private void addAfterCommit(UUID postId, double weight) {
+    afterCommit(() -> add(postId, weight, System.currentTimeMillis()));
+  }
+
+  private void afterCommit(Runnable action) {
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  private void add(UUID postId, double weight, long atMillis) {
+
+    if (weight == 0) {
+      return;
+    }
+
+    rescaleLock.readLock().lock();
+    try {
+      double scaled = weight * growth(atMillis);
+
+      if (scaled > 0) {
+        scores.computeIfAbsent(postId, id -> new DoubleAdder()).add(scaled);
+        return;
+      }
+
+      // Removals are serialized per post and additions only raise the score, so it stays >= 0
+      scores.computeIfPresent(
+          postId,
+          (id, score) -> {
+            score.add(-Math.min(score.sum(), -scaled));
+            return score;
+          });
+
+    } finally {
+      rescaleLock.readLock().unlock();
+    }
+  }
+
+  private void removeNow(UUID postId) {
+
+    scores.remove(postId);
+
+    List<UUID> current = snapshot;
+    if (current.contains(postId)) {
+      snapshot = current.stream().filter(id -> !id.equals(postId)).toList();
+    }
+  }
+
+  /** Weight of an event at the given time relative to one at the landmark. */
+  private double growth(long atMillis) {
+    return Math.pow(2, (atMillis - landmarkMillis) / (halfLifeHours * 3_600_000));
+  }
+}
@@ -0,0 +1,116 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.dto.response.social.TypingDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces typing events. Clients send an event per keystroke or so, which are collected per chat
+ * and broadcast on a fixed interval, so a chat gets at most one typing broadcast per interval no
+ * matter how many of its users type or how fast. Each participant is sent the other users of the
+ * chat that typed during the interval; clients show them as typing until no broadcast names them
+ * for a few seconds. Participants come from the {@link ChatParticipantCache}, so a broadcast of
+ * chats that recently had messages or typing needs no query.
+ */
+@Component
+@Slf4j
+public class TypingIndicator {
+
+  private static final String TYPING_DESTINATION = "/queue/typing";
+
+  // Users that typed in each chat since the last broadcast
+  private final Map<UUID, Set<UUID>> typing = new ConcurrentHashMap<>();
+
+  private final ChatParticipantCache chatParticipantCache;
+  private final ChatMessageRelay chatMessageRelay;
+
+  private final Counter receivedEvents;
+  private final Counter broadcasts;
+
+  public TypingIndicator(
+      ChatParticipantCache chatParticipantCache,
+      ChatMessageRelay chatMessageRelay,
+      MeterRegistry meterRegistry) {
+
+    this.chatParticipantCache = chatParticipantCache;
+    this.chatMessageRelay = chatMessageRelay;
+
+    this.receivedEvents =
+        Counter.builder("roamance.chat.typing.events")
+            .description("Typing events received from clients")
+            .register(meterRegistry);
+    this.broadcasts =
+        Counter.builder("roamance.chat.typing.broadcasts")
+            .description("Coalesced typing broadcasts sent to chats")
+            .register(meterRegistry);
+  }
+
+  public void typing(UUID chatId, UUID userId) {
+
+    typing.computeIfAbsent(chatId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+    receivedEvents.increment();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${application.typing.broadcast-interval-ms:300}",
+      scheduler = "chatScheduler")
+  public void broadcast() {
+
+    if (typing.isEmpty()) {
+      return;
+    }
+
+    // An event added to a set right after it is taken is lost, the typist's next one makes up for
+    // it within an interval
+    Map<UUID, Set<UUID>> batch = new HashMap<>();
+    for (UUID chatId : typing.keySet()) {
+      Set<UUID> userIds = typing.remove(chatId);
+      if (userIds != null) {
+        batch.put(chatId, userIds);
+      }
+    }
+
+    try {
+      Map<UUID, Set<UUID>> participants = chatParticipantCache.get(batch.keySet());
+
+      batch.forEach(
+          (chatId, userIds) ->
+              broadcast(chatId, userIds, participants.getOrDefault(chatId, Set.of())));
+
+    } catch (Exception e) {
+      log.error("Broadcasting typing of {} chats failed: {}", batch.size(), e.getMessage(), e);
+    }
+  }
+
+  private void broadcast(UUID chatId, Set<UUID> userIds, Set<UUID> participants) {
+
+    // Only participants can type in a chat
+    List<UUID> typists = new ArrayList<>(userIds);
+    typists.retainAll(participants);
+
+    if (typists.isEmpty()) {
+      return;
+    }
+
+    broadcasts.increment();
+
+    for (UUID recipient : participants) {
+      List<UUID> others = typists.stream().filter(userId -> !userId.equals(recipient)).toList();
+
+      if (!others.isEmpty()) {
+        chatMessageRelay.sendToUser(
+            recipient.toString(), TYPING_DESTINATION, new TypingDto(chatId, others));
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.devs.roamance.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the trigram index behind user search. Hibernate cannot declare expression or GIN indexes,
+ * so it is created on startup instead. With it, the {@code LIKE '%query%'} of {@code
+ * UserRepository.searchUsers} is answered from the index rather than a scan of {@code users}.
+ */
+@Component
+@Slf4j
+public class UserSearchIndexInitializer {
+
+  private static final String CREATE_EXTENSION_SQL = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+  private static final String CREATE_INDEX_SQL =
+      "CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users "
+          + "USING gin (LOWER(name) gin_trgm_ops)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${application.user-search.initialize-on-startup:true}")
+  private boolean initializeOnStartup;
+
+  public UserSearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void initialize() {
+
+    if (!initializeOnStartup) {
+      return;
+    }
+
+    try {
+      jdbcTemplate.execute(CREATE_EXTENSION_SQL);
+      jdbcTemplate.execute(CREATE_INDEX_SQL);
+
+    } catch (Exception e) {
+      // Search still works without the index, only slower
+      log.error("Creating the user search index failed: {}", e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.devs.roamance.util;
+
+import com.devs.roamance.model.user.Role;
+import com.devs.roamance.model.user.User;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Small cache of immutable user snapshots used for access checks, so checking the roles of the
+ * authenticated user does not need a database round-trip. Entries are evicted whenever the user is
+ * updated or deleted.
+ */
+@Component
+public class UserSnapshotCache {
+
+  public record UserSnapshot(UUID id, String email, Set<Role> roles, long loadedAtMillis) {
+
+    public boolean isAdmin() {
+      return roles.contains(Role.ADMIN);
+    }
+  }
+
+  private final Map<UUID, UserSnapshot> snapshots;
+
+  @Value("${application.security.user-snapshot-cache.ttl-ms:300000}")
+  private long ttlMs;
+
+  public UserSnapshotCache(
+      @Value("${application.security.user-snapshot-cache.max-size:10000}") int maxSize) {
+
+    this.snapshots =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<UUID, UserSnapshot> eldest) {
+                return size() > maxSize;
+              }
+            });
+  }
+
+  public Optional<UserSnapshot> get(UUID userId) {
+
+    UserSnapshot snapshot = snapshots.get(userId);
+
+    if (snapshot == null) {
+      return Optional.empty();
+    }
+
+    if (System.currentTimeMillis() - snapshot.loadedAtMillis() > ttlMs) {
+      snapshots.remove(userId);
+      return Optional.empty();
+    }
+
+    return Optional.of(snapshot);
+  }
+
+  public UserSnapshot put(User user) {
+
+    UserSnapshot snapshot =
+        new UserSnapshot(
+            user.getId(),
+            user.getEmail(),
+            Set.copyOf(user.getRoles()),
+            System.currentTimeMillis());
+
+    snapshots.put(user.getId(), snapshot);
+
+    return snapshot;
+  }
+
+  /**
+   * Evicts the snapshot of the given user right away and, inside a transaction, once more after
+   * commit, so a concurrent read cannot put back a snapshot of the pre-commit state.
+   */
+  public void evict(UUID userId) {
+
+    snapshots.remove(userId);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              snapshots.remove(userId);
+            }
+          });
+    }
+  }
+}
@@ -1,40 +1,137 @@
 package com.devs.roamance.util;
 
 import com.devs.roamance.exception.AuthenticatedUserNotFoundException;
-import com.devs.roamance.model.user.Role;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.util.UserSnapshotCache.UserSnapshot;
+import java.security.Principal;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 public class UserUtil {
 
+  private static final String AUTHENTICATED_USER_ATTRIBUTE = UserUtil.class.getName() + ".user";
+
   private final UserRepository userRepository;
+  private final UserSnapshotCache userSnapshotCache;
 
-  public UserUtil(@Autowired UserRepository userRepository) {
+  public UserUtil(
+      @Autowired UserRepository userRepository, @Autowired UserSnapshotCache userSnapshotCache) {
     this.userRepository = userRepository;
+    this.userSnapshotCache = userSnapshotCache;
   }
 
+  /**
+   * Returns the id of the authenticated user from the verified JWT. The user still has to exist,
+   * which the snapshot cache answers without a database round-trip; snapshots are evicted when a
+   * user is deleted, so a token of a deleted user is rejected on the next miss.
+   */
   public UUID getAuthenticatedUserId() {
+
+    UUID userId = getPrincipalUserId(SecurityContextHolder.getContext().getAuthentication());
+
+    if (userId != null && userSnapshotCache.get(userId).isPresent()) {
+      return userId;
+    }
+
     return getAuthenticatedUser().getId();
   }
 
+  /**
+   * Returns the id of the user behind a WebSocket session. STOMP handlers run outside the HTTP
+   * request, so the user comes from the principal of the handshake instead of the security context.
+   * Like {@link #getAuthenticatedUserId()}, the user has to still exist.
+   */
+  public UUID getUserId(Principal principal) {
+
+    UUID userId =
+        principal instanceof Authentication authentication
+            ? getPrincipalUserId(authentication)
+            : null;
+
+    if (userId == null) {
+      throw new AuthenticatedUserNotFoundException("No authenticated user found!");
+    }
+
+    if (userSnapshotCache.get(userId).isEmpty()) {
+      userSnapshotCache.put(
+          userRepository
+              .findById(userId)
+              .orElseThrow(
+                  () -> new AuthenticatedUserNotFoundException("No authenticated user found!")));
+    }
+
+    return userId;
+  }
+
+  /**
+   * Loads the authenticated user once per request; later calls in the same request get the same
+   * instance.
+   */
   public User getAuthenticatedUser() {
 
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    Object memoized =
+        requestAttributes != null
+            ? requestAttributes.getAttribute(
+                AUTHENTICATED_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            : null;
+
+    if (memoized instanceof User user) {
+      return user;
+    }
+
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    String email = authentication.getName();
+    UUID userId = getPrincipalUserId(authentication);
 
-    return userRepository
-        .findByEmail(email)
-        .orElseThrow(() -> new AuthenticatedUserNotFoundException("No authenticated user found!"));
+    Optional<User> authenticatedUser =
+        userId != null
+            ? userRepository.findById(userId)
+            : userRepository.findByEmail(authentication.getName());
+
+    User user =
+        authenticatedUser.orElseThrow(
+            () -> new AuthenticatedUserNotFoundException("No authenticated user found!"));
+
+    userSnapshotCache.put(user);
+
+    if (requestAttributes != null) {
+      requestAttributes.setAttribute(
+          AUTHENTICATED_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    return user;
   }
 
   public boolean isAuthenticatedUserAdmin() {
-    User user = getAuthenticatedUser();
-    return user != null && user.getRoles().contains(Role.ADMIN);
+
+    UUID userId = getAuthenticatedUserId();
+
+    UserSnapshot snapshot =
+        userSnapshotCache
+            .get(userId)
+            .orElseGet(() -> userSnapshotCache.put(getAuthenticatedUser()));
+
+    return snapshot.isAdmin();
+  }
+
+  private UUID getPrincipalUserId(Authentication authentication) {
+
+    if (authentication == null || authentication.getDetails() == null) {
+      return null;
+    }
+
+    try {
+      return UUID.fromString(authentication.getDetails().toString());
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
   }
 }
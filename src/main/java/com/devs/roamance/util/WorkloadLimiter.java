@@ -0,0 +1,106 @@
+package com.devs.roamance.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the number of concurrent calls per external dependency. With virtual threads the executor
+ * no longer limits concurrency, so these semaphores are what keeps a spike from flooding Gemini,
+ * Nomic or Cloudinary.
+ */
+@Component
+public class WorkloadLimiter {
+
+  public enum Workload {
+    GEMINI,
+    NOMIC,
+    CLOUDINARY
+  }
+
+  @FunctionalInterface
+  public interface LimitedCall<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  private final Map<Workload, Semaphore> semaphores = new EnumMap<>(Workload.class);
+  private final Map<Workload, Counter> rejections = new EnumMap<>(Workload.class);
+  private final long acquireTimeoutMs;
+
+  public WorkloadLimiter(
+      @Value("${application.async.limits.gemini:32}") int geminiLimit,
+      @Value("${application.async.limits.nomic:16}") int nomicLimit,
+      @Value("${application.async.limits.cloudinary:64}") int cloudinaryLimit,
+      @Value("${application.async.limits.acquire-timeout-ms:30000}") long acquireTimeoutMs,
+      MeterRegistry meterRegistry) {
+
+    this.acquireTimeoutMs = acquireTimeoutMs;
+
+    register(Workload.GEMINI, geminiLimit, meterRegistry);
+    register(Workload.NOMIC, nomicLimit, meterRegistry);
+    register(Workload.CLOUDINARY, cloudinaryLimit, meterRegistry);
+  }
+
+  /**
+   * Runs the call once a permit of the given workload is available
+   *
+   * @param workload the external dependency the call goes to
+   * @param task the call to run
+   * @return Result of the call
+   * @throws IllegalStateException if no permit became available within the acquire timeout
+   */
+  public <T, E extends Exception> T call(Workload workload, LimitedCall<T, E> task) throws E {
+
+    Semaphore semaphore = semaphores.get(workload);
+
+    boolean acquired;
+    try {
+      acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a " + workload + " permit", e);
+    }
+
+    if (!acquired) {
+      rejections.get(workload).increment();
+      throw new IllegalStateException("Concurrency limit of " + workload + " reached");
+    }
+
+    try {
+      return task.call();
+    } finally {
+      semaphore.release();
+    }
+  }
+
+  private void register(Workload workload, int limit, MeterRegistry meterRegistry) {
+
+    Semaphore semaphore = new Semaphore(limit, true);
+    semaphores.put(workload, semaphore);
+
+    String tag = workload.name().toLowerCase();
+
+    Gauge.builder("roamance.async.workload.in-use", semaphore, s -> limit - s.availablePermits())
+        .description("Calls currently holding a permit, by external workload")
+        .tag("workload", tag)
+        .register(meterRegistry);
+    Gauge.builder("roamance.async.workload.waiting", semaphore, Semaphore::getQueueLength)
+        .description("Calls waiting for a permit, by external workload")
+        .tag("workload", tag)
+        .register(meterRegistry);
+
+    rejections.put(
+        workload,
+        Counter.builder("roamance.async.workload.rejected")
+            .description("Calls rejected after waiting too long for a permit")
+            .tag("workload", tag)
+            .register(meterRegistry));
+  }
+}
@@ -0,0 +1,29 @@
+package com.devs.roamance;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base for tests of Postgres-specific SQL (advisory locks, LISTEN/NOTIFY, ON CONFLICT and the
+ * like) that H2 cannot run. The database runs in a container shared by all tests of a class, tests
+ * are skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(
+    properties = {
+      "spring.datasource.driver-class-name=org.postgresql.Driver",
+      "spring.jpa.database=postgresql"
+    })
+public abstract class AbstractPostgresTest {
+
+  @Container @ServiceConnection
+  protected static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:16-alpine");
+}
@@ -0,0 +1,129 @@
+package com.devs.roamance.model.travel.itinerary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ActivityScheduleTest {
+
+  @Test
+  void findCollisions_WithTouchingIntervals_ShouldNotCollide() {
+    // Arrange
+    Activity morning = activity("09:00", "10:00");
+    Activity noon = activity("11:00", "12:00");
+
+    // Act
+    List<Activity> collisions =
+        ActivitySchedule.findCollisions(List.of(morning, noon), activity("10:00", "11:00"));
+
+    // Assert
+    assertTrue(collisions.isEmpty());
+  }
+
+  @Test
+  void findCollisions_WithNestedIntervals_ShouldCollideBothWays() {
+    // Arrange
+    Activity outer = activity("09:00", "17:00");
+    Activity inner = activity("12:00", "13:00");
+
+    // Act
+    List<Activity> insideOuter = ActivitySchedule.findCollisions(List.of(outer), inner);
+    List<Activity> aroundInner = ActivitySchedule.findCollisions(List.of(inner), outer);
+
+    // Assert
+    assertEquals(List.of(outer), insideOuter);
+    assertEquals(List.of(inner), aroundInner);
+  }
+
+  @Test
+  void findCollisions_ShouldReturnOverlapsOrderedByStartTime() {
+    // Arrange
+    Activity allDay = activity("08:00", "18:00");
+    Activity breakfast = activity("08:30", "09:00");
+    Activity museum = activity("10:00", "11:00");
+    Activity lunch = activity("12:00", "13:00");
+
+    // Act
+    List<Activity> collisions =
+        ActivitySchedule.findCollisions(
+            List.of(lunch, allDay, museum, breakfast), activity("10:30", "12:30"));
+
+    // Assert
+    assertEquals(List.of(allDay, museum, lunch), collisions);
+  }
+
+  @Test
+  void findCollisions_ShouldSkipTheCandidateItself() {
+    // Arrange
+    Activity stored = activity("09:00", "10:00");
+    stored.setId(UUID.randomUUID());
+
+    Activity updated = activity("09:30", "10:30");
+    updated.setId(stored.getId());
+
+    // Act
+    List<Activity> collisions = ActivitySchedule.findCollisions(List.of(stored), updated);
+
+    // Assert
+    assertTrue(collisions.isEmpty());
+  }
+
+  @Test
+  void findCollisions_ShouldIgnoreActivitiesWithoutTimes() {
+    // Arrange
+    Activity unscheduled = activity("09:00", "10:00");
+    unscheduled.setEndTime(null);
+
+    // Act
+    List<Activity> collisions =
+        ActivitySchedule.findCollisions(List.of(unscheduled), activity("09:00", "10:00"));
+
+    // Assert
+    assertTrue(collisions.isEmpty());
+  }
+
+  @Test
+  void findAllCollisions_ShouldReportEveryOverlappingPair() {
+    // Arrange
+    Activity allDay = activity("08:00", "18:00");
+    Activity museum = activity("10:00", "12:00");
+    Activity lunch = activity("11:00", "13:00");
+    Activity touching = activity("18:00", "19:00");
+    ActivitySchedule schedule = ActivitySchedule.of(List.of(touching, lunch, museum, allDay));
+
+    // Act
+    List<ActivitySchedule.Collision> collisions = schedule.findAllCollisions();
+
+    // Assert
+    assertEquals(3, collisions.size());
+    assertTrue(collisions.contains(new ActivitySchedule.Collision(allDay, museum)));
+    assertTrue(collisions.contains(new ActivitySchedule.Collision(allDay, lunch)));
+    assertTrue(collisions.contains(new ActivitySchedule.Collision(museum, lunch)));
+  }
+
+  @Test
+  void findAllCollisions_WithTouchingIntervals_ShouldBeEmpty() {
+    // Arrange
+    ActivitySchedule schedule =
+        ActivitySchedule.of(
+            List.of(
+                activity("09:00", "10:00"),
+                activity("10:00", "11:00"),
+                activity("11:00", "12:00")));
+
+    // Act & Assert
+    assertTrue(schedule.findAllCollisions().isEmpty());
+  }
+
+  private static Activity activity(String start, String end) {
+
+    Activity activity = new Activity();
+    activity.setStartTime(LocalTime.parse(start));
+    activity.setEndTime(LocalTime.parse(end));
+
+    return activity;
+  }
+}
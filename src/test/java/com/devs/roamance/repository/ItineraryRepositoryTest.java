@@ -0,0 +1,179 @@
+package com.devs.roamance.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.AbstractPostgresTest;
+import com.devs.roamance.model.common.ActivityType;
+import com.devs.roamance.model.common.Location;
+import com.devs.roamance.model.travel.itinerary.Activity;
+import com.devs.roamance.model.travel.itinerary.DayPlan;
+import com.devs.roamance.model.travel.itinerary.Itinerary;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.util.ItineraryCostUtil;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Reconciliation commits its own transactions, so tests run without one
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItineraryRepositoryTest extends AbstractPostgresTest {
+
+  private static final LocalDate START_DATE = LocalDate.of(2026, 6, 1);
+
+  @Autowired private ItineraryRepository itineraryRepository;
+
+  @Autowired private DayPlanRepository dayPlanRepository;
+
+  @Autowired private ActivityRepository activityRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private ItineraryCostUtil itineraryCostUtil;
+  private User user;
+  private Itinerary itinerary;
+  private DayPlan firstDay;
+  private DayPlan secondDay;
+
+  @BeforeEach
+  void setUp() {
+    itineraryCostUtil =
+        new ItineraryCostUtil(
+            dayPlanRepository, itineraryRepository, jdbcTemplate, transactionManager);
+    ReflectionTestUtils.setField(itineraryCostUtil, "reconcileBatchSize", 500);
+
+    String name = UUID.randomUUID().toString();
+    user = new User();
+    user.setName(name);
+    user.setEmail(name + "@example.com");
+    user.setPassword("password");
+    user.setInfo(null);
+    user.setPreferences(null);
+    user = userRepository.save(user);
+
+    Itinerary newItinerary = new Itinerary();
+    newItinerary.setTitle("Trip");
+    newItinerary.setStartDate(START_DATE);
+    newItinerary.setEndDate(START_DATE.plusDays(1));
+    newItinerary.setLocations(Set.of(new Location(23.8, 90.4)));
+    newItinerary.setUser(user);
+    itinerary = itineraryRepository.save(newItinerary);
+
+    firstDay = newDayPlan(START_DATE);
+    secondDay = newDayPlan(START_DATE.plusDays(1));
+  }
+
+  @Test
+  void reconcile_ShouldRepairDriftedTotals() {
+    // Arrange
+    // Saved without ItineraryCostUtil, so the stored totals stay at zero
+    newActivity(firstDay, LocalTime.of(9, 0), "10.50");
+    newActivity(firstDay, LocalTime.of(12, 0), "4.50");
+    newActivity(secondDay, LocalTime.of(9, 0), "20.00");
+
+    jdbcTemplate.update("UPDATE itineraries SET total_cost = 99 WHERE id = ?", itinerary.getId());
+
+    // Act
+    itineraryCostUtil.reconcile();
+
+    // Assert
+    assertTotal("day_plans", firstDay.getId(), "15.00");
+    assertTotal("day_plans", secondDay.getId(), "20.00");
+    assertTotal("itineraries", itinerary.getId(), "35.00");
+  }
+
+  @Test
+  void applyActivityCostChange_ShouldKeepTotalsInStepWithActivities() {
+    // Arrange
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+    // Act
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          newActivity(firstDay, LocalTime.of(9, 0), "12.00");
+          itineraryCostUtil.applyActivityCostChange(
+              firstDay.getId(), null, new BigDecimal("12.00"));
+        });
+    transactionTemplate.executeWithoutResult(
+        status ->
+            itineraryCostUtil.applyActivityCostChange(
+                firstDay.getId(), new BigDecimal("12.00"), new BigDecimal("8.00")));
+
+    // Assert
+    assertTotal("day_plans", firstDay.getId(), "8.00");
+    assertTotal("itineraries", itinerary.getId(), "8.00");
+  }
+
+  @Test
+  void save_ShouldNotOverwriteStoredTotals() {
+    // Arrange
+    // Loaded before the totals change, so both are saved below with a stale total
+    DayPlan staleDayPlan = dayPlanRepository.findByIdLite(firstDay.getId()).orElseThrow();
+    Itinerary staleItinerary = itineraryRepository.findByIdLite(itinerary.getId()).orElseThrow();
+
+    jdbcTemplate.update("UPDATE day_plans SET total_cost = 5 WHERE id = ?", firstDay.getId());
+    jdbcTemplate.update("UPDATE itineraries SET total_cost = 5 WHERE id = ?", itinerary.getId());
+
+    // Act
+    staleDayPlan.setDate(START_DATE.plusDays(1));
+    dayPlanRepository.save(staleDayPlan);
+
+    staleItinerary.setTitle("Renamed trip");
+    itineraryRepository.save(staleItinerary);
+
+    // Assert
+    assertEquals(
+        START_DATE.plusDays(1),
+        dayPlanRepository.findByIdLite(firstDay.getId()).orElseThrow().getDate());
+    assertTotal("day_plans", firstDay.getId(), "5.00");
+    assertTotal("itineraries", itinerary.getId(), "5.00");
+  }
+
+  private DayPlan newDayPlan(LocalDate date) {
+
+    DayPlan dayPlan = new DayPlan();
+    dayPlan.setDate(date);
+    dayPlan.setItinerary(itinerary);
+    dayPlan.setUser(user);
+
+    return dayPlanRepository.save(dayPlan);
+  }
+
+  private void newActivity(DayPlan dayPlan, LocalTime startTime, String cost) {
+
+    Activity activity = new Activity();
+    activity.setStartTime(startTime);
+    activity.setEndTime(startTime.plusHours(1));
+    activity.setType(ActivityType.SIGHTSEEING);
+    activity.setCost(new BigDecimal(cost));
+    activity.setDayPlan(dayPlan);
+    activity.setUser(user);
+
+    activityRepository.save(activity);
+  }
+
+  private void assertTotal(String table, UUID id, String expected) {
+
+    BigDecimal total =
+        jdbcTemplate.queryForObject(
+            "SELECT total_cost FROM " + table + " WHERE id = ?", BigDecimal.class, id);
+
+    assertEquals(0, new BigDecimal(expected).compareTo(total), table + " total was " + total);
+  }
+}
@@ -0,0 +1,75 @@
+package com.devs.roamance.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.model.common.Location;
+import com.devs.roamance.model.travel.journal.Journal;
+import com.devs.roamance.model.travel.journal.SightseeingSubsection;
+import com.devs.roamance.repository.projection.JournalSummary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class JournalRepositoryTest {
+
+  private static final int PAGE_SIZE = 50;
+  private static final int SUBSECTIONS_PER_JOURNAL = 3;
+
+  @Autowired private JournalRepository journalRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      Journal journal = new Journal("Journal " + i, new Location(23.8, 90.4));
+
+      for (int j = 0; j < SUBSECTIONS_PER_JOURNAL; j++) {
+        SightseeingSubsection subsection = new SightseeingSubsection(new Location(23.8, 90.4));
+        subsection.setTitle("Subsection " + j);
+        journal.addSubsection(subsection);
+      }
+
+      entityManager.persist(journal);
+    }
+
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics =
+        entityManager
+            .getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void findAllSummaries_ShouldLoadPageWithoutPerRowQueries() {
+    // Act
+    Page<JournalSummary> page =
+        journalRepository.findAllSummaries(PageRequest.of(0, PAGE_SIZE, Sort.by("title")));
+
+    // Assert
+    assertEquals(PAGE_SIZE, page.getNumberOfElements());
+    page.forEach(
+        summary -> assertEquals(SUBSECTIONS_PER_JOURNAL, summary.subsectionCount().intValue()));
+
+    // One grouped select for the page and one count query, regardless of the page size
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+}
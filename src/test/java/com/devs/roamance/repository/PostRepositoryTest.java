@@ -0,0 +1,134 @@
+package com.devs.roamance.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.dto.response.social.PostDto;
+import com.devs.roamance.model.social.Post;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.util.DtoMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PostRepositoryTest {
+
+  private static final int POST_COUNT = 40;
+  private static final int AUTHOR_COUNT = 3;
+  private static final int SMALL_PAGE_SIZE = 6;
+  private static final int LARGE_PAGE_SIZE = 12;
+
+  // Posts rotate through the authors, so every page below contains all of them
+  private static final Sort BY_TEXT = Sort.by("text");
+
+  @Autowired private PostRepository postRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  private final DtoMapper dtoMapper = new DtoMapper();
+
+  private List<User> authors;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+
+    authors = new ArrayList<>();
+    for (int i = 0; i < AUTHOR_COUNT; i++) {
+      User author = new User();
+      author.setName("Author " + i);
+      author.setEmail("author" + i + "@example.com");
+      author.setPassword("password");
+      author.setInfo(null);
+      author.setPreferences(null);
+
+      authors.add(entityManager.persist(author));
+    }
+
+    for (int i = 0; i < POST_COUNT; i++) {
+      Post post = new Post();
+      post.setText(String.format("Post %02d", i));
+      post.setImagePaths(
+          new ArrayList<>(List.of("image-" + i + "-a.jpg", "image-" + i + "-b.jpg")));
+      post.setVideoPaths(new ArrayList<>(List.of("video-" + i + ".mp4")));
+      post.setUser(authors.get(i % AUTHOR_COUNT));
+
+      entityManager.persist(post);
+    }
+
+    entityManager.flush();
+
+    statistics =
+        entityManager
+            .getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+  }
+
+  @Test
+  void findAll_ShouldLoadMediaAndAuthorsInBatches() {
+    // Act
+    long smallPage =
+        countStatements(() -> postRepository.findAll(PageRequest.of(0, SMALL_PAGE_SIZE, BY_TEXT)));
+    long largePage =
+        countStatements(() -> postRepository.findAll(PageRequest.of(0, LARGE_PAGE_SIZE, BY_TEXT)));
+
+    // Assert
+    assertEquals(smallPage, largePage);
+  }
+
+  @Test
+  void findAllByUserId_ShouldLoadMediaInBatches() {
+    // Arrange
+    User author = authors.get(0);
+
+    // Act
+    long smallPage =
+        countStatements(
+            () ->
+                postRepository.findAllByUserId(
+                    author.getId(), PageRequest.of(0, SMALL_PAGE_SIZE, BY_TEXT)));
+    long largePage =
+        countStatements(
+            () ->
+                postRepository.findAllByUserId(
+                    author.getId(), PageRequest.of(0, LARGE_PAGE_SIZE, BY_TEXT)));
+
+    // Assert
+    assertEquals(smallPage, largePage);
+  }
+
+  /** Maps a page like the post list endpoints do and returns the number of statements it took. */
+  private long countStatements(Supplier<Iterable<Post>> query) {
+
+    entityManager.clear();
+    statistics.clear();
+
+    List<PostDto> dtos = new ArrayList<>();
+    query.get().forEach(post -> dtos.add(dtoMapper.toPostDto(post)));
+
+    long statements = statistics.getPrepareStatementCount();
+
+    assertFalse(dtos.isEmpty());
+    dtos.forEach(
+        dto -> {
+          assertEquals(2, dto.getImagePaths().size());
+          assertEquals(1, dto.getVideoPaths().size());
+          assertNotNull(dto.getUser().getName());
+        });
+
+    return statements;
+  }
+}
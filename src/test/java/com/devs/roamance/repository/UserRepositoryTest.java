@@ -0,0 +1,72 @@
+package com.devs.roamance.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.model.user.User;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRepositoryTest {
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+
+    List<String> names =
+        List.of("Rahim Uddin", "Karim Rahman", "Rahman", "rahman khan", "Nusrat Jahan");
+
+    for (int i = 0; i < names.size(); i++) {
+      User user = new User();
+      user.setName(names.get(i));
+      user.setEmail("user" + i + "@example.com");
+      user.setPassword("password");
+      user.setInfo(null);
+      user.setPreferences(null);
+
+      entityManager.persist(user);
+    }
+
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void searchUsers_ShouldRankExactThenPrefixThenContainedMatches() {
+    // Act
+    Page<User> users = userRepository.searchUsers("RAHMAN", PageRequest.of(0, 10));
+
+    // Assert
+    assertEquals(
+        List.of("Rahman", "rahman khan", "Karim Rahman"),
+        users.getContent().stream().map(User::getName).toList());
+    assertEquals(3, users.getTotalElements());
+  }
+
+  @Test
+  void searchUsers_ShouldPageThroughMatches() {
+    // Act
+    Page<User> firstPage = userRepository.searchUsers("rah", PageRequest.of(0, 2));
+    Page<User> secondPage = userRepository.searchUsers("rah", PageRequest.of(1, 2));
+
+    // Assert
+    assertEquals(
+        List.of("Rahim Uddin", "Rahman"),
+        firstPage.getContent().stream().map(User::getName).toList());
+    assertEquals(
+        List.of("rahman khan", "Karim Rahman"),
+        secondPage.getContent().stream().map(User::getName).toList());
+    assertEquals(4, firstPage.getTotalElements());
+  }
+}
@@ -0,0 +1,153 @@
+package com.devs.roamance.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtUtilsTest {
+
+  private static final String SECRET =
+      "cm9hbWFuY2UtdGVzdC1zZWNyZXQtZm9yLWp3dC11dGlscy1jbGFpbXMtY2FjaGU=";
+
+  private JwtUtils jwtUtils;
+
+  @BeforeEach
+  void setUp() {
+    jwtUtils = newJwtUtils(3_600_000, 100);
+  }
+
+  @Test
+  void parseToken_ShouldReturnVerifiedClaims() {
+    // Arrange
+    String userId = UUID.randomUUID().toString();
+    String token = jwtUtils.generateAccessToken(authentication("user@example.com", userId));
+
+    // Act
+    JwtClaims claims = jwtUtils.parseToken(token);
+
+    // Assert
+    assertEquals("user@example.com", claims.email());
+    assertEquals("access", claims.type());
+    assertEquals(List.of("ROLE_USER"), claims.roles());
+    assertEquals(userId, claims.userId());
+    assertFalse(claims.isExpired());
+  }
+
+  @Test
+  void parseToken_Twice_ShouldServeTheCachedClaims() {
+    // Arrange
+    String token = jwtUtils.generateAccessToken(authentication("user@example.com"));
+
+    // Act
+    JwtClaims first = jwtUtils.parseToken(token);
+    JwtClaims second = jwtUtils.parseToken(token);
+
+    // Assert
+    assertSame(first, second);
+  }
+
+  @Test
+  void parseToken_WhenCachedTokenExpired_ShouldNotServeIt() throws InterruptedException {
+    // Arrange
+    jwtUtils = newJwtUtils(2_000, 100);
+    String token = jwtUtils.generateAccessToken(authentication("user@example.com"));
+
+    jwtUtils.parseToken(token);
+    assertTrue(verifiedTokens().containsKey(hash(token)));
+
+    // The expiry claim is stored in whole seconds
+    Thread.sleep(2_500);
+
+    // Act & Assert
+    assertThrows(ExpiredJwtException.class, () -> jwtUtils.parseToken(token));
+    assertFalse(verifiedTokens().containsKey(hash(token)));
+  }
+
+  @Test
+  void parseToken_WithTamperedSignatureOfCachedToken_ShouldMissTheCache() {
+    // Arrange
+    String token = jwtUtils.generateAccessToken(authentication("user@example.com"));
+    jwtUtils.parseToken(token);
+
+    // Same header and claims, different signature
+    int signatureStart = token.lastIndexOf('.') + 1;
+    int tamperedAt = signatureStart + 5;
+    char replacement = token.charAt(tamperedAt) == 'A' ? 'B' : 'A';
+    String tampered =
+        token.substring(0, tamperedAt) + replacement + token.substring(tamperedAt + 1);
+
+    // Act & Assert
+    assertThrows(SignatureException.class, () -> jwtUtils.parseToken(tampered));
+    assertFalse(verifiedTokens().containsKey(hash(tampered)));
+  }
+
+  @Test
+  void parseToken_AboveClaimsCacheSize_ShouldEvictTheLeastRecentlyUsedToken() {
+    // Arrange
+    jwtUtils = newJwtUtils(3_600_000, 2);
+
+    String first = jwtUtils.generateAccessToken(authentication("first@example.com"));
+    String second = jwtUtils.generateAccessToken(authentication("second@example.com"));
+    String third = jwtUtils.generateAccessToken(authentication("third@example.com"));
+
+    jwtUtils.parseToken(first);
+    jwtUtils.parseToken(second);
+    jwtUtils.parseToken(first);
+
+    // Act
+    jwtUtils.parseToken(third);
+
+    // Assert
+    Map<String, JwtClaims> verifiedTokens = verifiedTokens();
+    assertEquals(2, verifiedTokens.size());
+    assertTrue(verifiedTokens.containsKey(hash(first)));
+    assertFalse(verifiedTokens.containsKey(hash(second)));
+    assertTrue(verifiedTokens.containsKey(hash(third)));
+  }
+
+  private static JwtUtils newJwtUtils(int accessTokenExpiration, int claimsCacheSize) {
+
+    JwtUtils jwtUtils = new JwtUtils();
+
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtUtils, "accessTokenExpiration", accessTokenExpiration);
+    ReflectionTestUtils.setField(jwtUtils, "refreshTokenExpiration", accessTokenExpiration);
+    ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", claimsCacheSize);
+
+    jwtUtils.init();
+
+    return jwtUtils;
+  }
+
+  private static UsernamePasswordAuthenticationToken authentication(String email) {
+    return authentication(email, UUID.randomUUID().toString());
+  }
+
+  private static UsernamePasswordAuthenticationToken authentication(String email, String userId) {
+
+    UsernamePasswordAuthenticationToken authentication =
+        new UsernamePasswordAuthenticationToken(
+            email, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    authentication.setDetails(userId);
+
+    return authentication;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, JwtClaims> verifiedTokens() {
+    return (Map<String, JwtClaims>) ReflectionTestUtils.getField(jwtUtils, "verifiedTokens");
+  }
+
+  private static String hash(String token) {
+    return ReflectionTestUtils.invokeMethod(JwtUtils.class, "hash", token);
+  }
+}
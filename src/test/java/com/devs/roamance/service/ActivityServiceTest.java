@@ -3,6 +3,7 @@ package com.devs.roamance.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -12,6 +13,7 @@ import com.devs.roamance.dto.request.travel.itinerary.ActivityUpdateRequestDto;
 import com.devs.roamance.dto.response.travel.itinerary.ActivityDto;
 import com.devs.roamance.dto.response.travel.itinerary.ActivityListResponseDto;
 import com.devs.roamance.dto.response.travel.itinerary.ActivityResponseDto;
+import com.devs.roamance.exception.ScheduleCollisionException;
 import com.devs.roamance.model.travel.itinerary.Activity;
 import com.devs.roamance.model.travel.itinerary.DayPlan;
 import com.devs.roamance.model.user.User;
@@ -19,7 +21,11 @@ import com.devs.roamance.repository.ActivityRepository;
 import com.devs.roamance.repository.DayPlanRepository;
 import com.devs.roamance.service.impl.ActivityServiceImpl;
 import com.devs.roamance.util.ActivityUtil;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.ItineraryCostUtil;
 import com.devs.roamance.util.UserUtil;
+import java.math.BigDecimal;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -43,8 +49,12 @@ class ActivityServiceTest {
 
   @Mock private ActivityUtil activityUtil;
 
+  @Mock private ItineraryCostUtil itineraryCostUtil;
+
   @Mock private UserUtil userUtil;
 
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   private ActivityService activityService;
@@ -59,7 +69,13 @@ class ActivityServiceTest {
   void setUp() {
     activityService =
         new ActivityServiceImpl(
-            activityRepository, dayPlanRepository, activityUtil, userUtil, modelMapper);
+            activityRepository,
+            dayPlanRepository,
+            activityUtil,
+            itineraryCostUtil,
+            userUtil,
+            dtoMapper,
+            modelMapper);
 
     // Setup test data
     UUID testUserId = UUID.randomUUID();
@@ -92,7 +108,7 @@ class ActivityServiceTest {
     when(activityRepository.save(any(Activity.class))).thenReturn(testActivity);
 
     ActivityDto activityDto = new ActivityDto();
-    when(modelMapper.map(testActivity, ActivityDto.class)).thenReturn(activityDto);
+    when(dtoMapper.toActivityDto(testActivity)).thenReturn(activityDto);
 
     // Act
     ActivityResponseDto result = activityService.create(createRequestDto);
@@ -102,6 +118,34 @@ class ActivityServiceTest {
     assertEquals(activityDto, result.getData());
     verify(activityRepository, times(1)).save(any(Activity.class));
     verify(activityRepository, times(1)).flush();
+    verify(itineraryCostUtil, times(1))
+        .applyActivityCostChange(testDayPlanId, null, testActivity.getCost());
+  }
+
+  @Test
+  void create_ShouldThrowException_WhenActivityOverlapsExistingOne() {
+    // Arrange
+    Activity existingActivity = new Activity();
+    existingActivity.setId(UUID.randomUUID());
+    existingActivity.setStartTime(LocalTime.of(10, 0));
+    existingActivity.setEndTime(LocalTime.of(11, 0));
+    testDayPlan.getActivities().add(existingActivity);
+
+    Activity newActivity = new Activity();
+    newActivity.setStartTime(LocalTime.of(10, 30));
+    newActivity.setEndTime(LocalTime.of(11, 30));
+
+    ActivityCreateRequestDto createRequestDto = new ActivityCreateRequestDto();
+    createRequestDto.setDayPlanId(testDayPlanId);
+
+    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(dayPlanRepository.findByIdWithActivities(testDayPlanId))
+        .thenReturn(Optional.of(testDayPlan));
+    when(modelMapper.map(createRequestDto, Activity.class)).thenReturn(newActivity);
+
+    // Act & Assert
+    assertThrows(ScheduleCollisionException.class, () -> activityService.create(createRequestDto));
+    verify(activityRepository, never()).save(any(Activity.class));
   }
 
   @Test
@@ -111,7 +155,7 @@ class ActivityServiceTest {
 
     // Create ActivityDto for the result instead of directly returning ActivityResponseDto
     ActivityDto activityDto = new ActivityDto();
-    when(modelMapper.map(testActivity, ActivityDto.class)).thenReturn(activityDto);
+    when(dtoMapper.toActivityDto(testActivity)).thenReturn(activityDto);
 
     // Act
     ActivityResponseDto result = activityService.get(testActivityId);
@@ -136,7 +180,7 @@ class ActivityServiceTest {
 
     when(activityRepository.findAllByDayPlanId(eq(testDayPlanId), any(Pageable.class)))
         .thenReturn(activityPage);
-    when(modelMapper.map(testActivity, ActivityDto.class)).thenReturn(new ActivityDto());
+    when(dtoMapper.toActivityDto(testActivity)).thenReturn(new ActivityDto());
 
     // Act
     ActivityListResponseDto result =
@@ -152,15 +196,16 @@ class ActivityServiceTest {
   void update_ShouldUpdateActivity() {
     // Arrange
     ActivityUpdateRequestDto updateRequestDto = new ActivityUpdateRequestDto();
+    updateRequestDto.setCost(BigDecimal.TEN);
 
     when(activityRepository.findByIdWithDayPlan(testActivityId))
         .thenReturn(Optional.of(testActivity));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(activityRepository.save(any(Activity.class))).thenReturn(testActivity);
 
     // Create ActivityDto for the result instead of directly returning ActivityResponseDto
     ActivityDto activityDto = new ActivityDto();
-    when(modelMapper.map(testActivity, ActivityDto.class)).thenReturn(activityDto);
+    when(dtoMapper.toActivityDto(testActivity)).thenReturn(activityDto);
 
     // Act
     ActivityResponseDto result = activityService.update(updateRequestDto, testActivityId);
@@ -170,18 +215,22 @@ class ActivityServiceTest {
     assertEquals(activityDto, result.getData());
     verify(activityRepository, times(1)).save(any(Activity.class));
     verify(activityRepository, times(1)).flush();
+    verify(itineraryCostUtil, times(1))
+        .applyActivityCostChange(testDayPlanId, BigDecimal.ZERO, BigDecimal.TEN);
   }
 
   @Test
   void delete_ShouldDeleteActivity() {
     // Arrange
     when(activityRepository.findById(testActivityId)).thenReturn(Optional.of(testActivity));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
 
     // Act
     activityService.delete(testActivityId);
 
     // Assert
     verify(activityRepository, times(1)).delete(testActivity);
+    verify(itineraryCostUtil, times(1))
+        .applyActivityCostChange(testDayPlanId, testActivity.getCost(), null);
   }
 }
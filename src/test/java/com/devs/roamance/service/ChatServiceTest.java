@@ -3,20 +3,32 @@ package com.devs.roamance.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.ChatDto;
+import com.devs.roamance.dto.response.social.ChatInboxDto;
 import com.devs.roamance.dto.response.social.ChatListResponseDto;
 import com.devs.roamance.dto.response.social.ChatResponseDto;
+import com.devs.roamance.exception.ResourceNotFoundException;
 import com.devs.roamance.exception.UnauthorizedAccessException;
+import com.devs.roamance.exception.UserNotFoundException;
 import com.devs.roamance.model.social.Chat;
 import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.ChatInboxRepository;
 import com.devs.roamance.repository.ChatRepository;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.ChatInboxItem;
 import com.devs.roamance.service.impl.ChatServiceImpl;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.UserUtil;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,15 +41,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class ChatServiceTest {
 
   @Mock private ChatRepository chatRepository;
 
+  @Mock private ChatInboxRepository chatInboxRepository;
+
   @Mock private UserRepository userRepository;
 
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   @Mock private UserUtil userUtil;
@@ -53,7 +71,9 @@ class ChatServiceTest {
 
   @BeforeEach
   void setUp() {
-    chatService = new ChatServiceImpl(chatRepository, userRepository, modelMapper, userUtil);
+    chatService =
+        new ChatServiceImpl(
+            chatRepository, chatInboxRepository, userRepository, dtoMapper, modelMapper, userUtil);
 
     // Setup test data
     testUserId = UUID.randomUUID();
@@ -75,11 +95,17 @@ class ChatServiceTest {
   @Test
   void create_ShouldCreateNewChat() {
     // Arrange
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
-    when(userRepository.findById(testUser2Id)).thenReturn(Optional.of(testUser2));
-    when(chatRepository.findByUsers(testUser, testUser2)).thenReturn(null);
-    when(chatRepository.save(any(Chat.class))).thenReturn(testChat);
-    when(modelMapper.map(testChat, ChatDto.class)).thenReturn(new ChatDto());
+    String participantKey = Chat.participantKeyOf(testUserId, testUser2Id);
+
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(userRepository.existsById(testUser2Id)).thenReturn(true);
+    when(chatRepository.findByParticipantKey(participantKey))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(testChat));
+    when(chatRepository.insertIfAbsent(
+            any(UUID.class), eq(participantKey), eq(testUserId), any(OffsetDateTime.class)))
+        .thenReturn(1);
+    when(dtoMapper.toChatDto(testChat)).thenReturn(new ChatDto());
 
     // Act
     ChatResponseDto result = chatService.create(testUser2Id);
@@ -88,16 +114,19 @@ class ChatServiceTest {
     assertNotNull(result);
     assertEquals(201, result.getStatus());
     assertTrue(result.isSuccess());
-    verify(chatRepository, times(1)).save(any(Chat.class));
+    verify(chatRepository, times(1)).addUsers(any(UUID.class), eq(testUserId), eq(testUser2Id));
+    verify(chatInboxRepository, times(1))
+        .addChat(any(UUID.class), eq(testUserId), eq(testUser2Id), any(OffsetDateTime.class));
   }
 
   @Test
   void create_ShouldReturnExistingChat() {
     // Arrange
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
-    when(userRepository.findById(testUser2Id)).thenReturn(Optional.of(testUser2));
-    when(chatRepository.findByUsers(testUser, testUser2)).thenReturn(testChat);
-    when(modelMapper.map(testChat, ChatDto.class)).thenReturn(new ChatDto());
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(userRepository.existsById(testUser2Id)).thenReturn(true);
+    when(chatRepository.findByParticipantKey(Chat.participantKeyOf(testUser2Id, testUserId)))
+        .thenReturn(Optional.of(testChat));
+    when(dtoMapper.toChatDto(testChat)).thenReturn(new ChatDto());
 
     // Act
     ChatResponseDto result = chatService.create(testUser2Id);
@@ -106,15 +135,48 @@ class ChatServiceTest {
     assertNotNull(result);
     assertEquals(200, result.getStatus());
     assertTrue(result.isSuccess());
-    verify(chatRepository, times(0)).save(any(Chat.class));
+    verify(chatRepository, never()).insertIfAbsent(any(), any(), any(), any());
+  }
+
+  @Test
+  void create_ShouldReturnConcurrentlyCreatedChat_WhenInsertConflicts() {
+    // Arrange
+    String participantKey = Chat.participantKeyOf(testUserId, testUser2Id);
+
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(userRepository.existsById(testUser2Id)).thenReturn(true);
+    when(chatRepository.findByParticipantKey(participantKey))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(testChat));
+    when(chatRepository.insertIfAbsent(
+            any(UUID.class), eq(participantKey), eq(testUserId), any(OffsetDateTime.class)))
+        .thenReturn(0);
+    when(dtoMapper.toChatDto(testChat)).thenReturn(new ChatDto());
+
+    // Act
+    ChatResponseDto result = chatService.create(testUser2Id);
+
+    // Assert
+    assertEquals(200, result.getStatus());
+    verify(chatRepository, never()).addUsers(any(), any(), any());
+  }
+
+  @Test
+  void create_ShouldThrowException_WhenUserNotFound() {
+    // Arrange
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(userRepository.existsById(testUser2Id)).thenReturn(false);
+
+    // Act & Assert
+    assertThrows(UserNotFoundException.class, () -> chatService.create(testUser2Id));
   }
 
   @Test
   void get_ShouldReturnChat() {
     // Arrange
     when(chatRepository.findById(testChatId)).thenReturn(Optional.of(testChat));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
-    when(modelMapper.map(testChat, ChatDto.class)).thenReturn(new ChatDto());
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
+    when(dtoMapper.toChatDto(testChat)).thenReturn(new ChatDto());
 
     // Act
     ChatResponseDto result = chatService.get(testChatId);
@@ -132,7 +194,7 @@ class ChatServiceTest {
     unauthorizedUser.setId(UUID.randomUUID());
 
     when(chatRepository.findById(testChatId)).thenReturn(Optional.of(testChat));
-    when(userUtil.getAuthenticatedUser()).thenReturn(unauthorizedUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(unauthorizedUser.getId());
 
     // Act & Assert
     assertThrows(UnauthorizedAccessException.class, () -> chatService.get(testChatId));
@@ -150,10 +212,10 @@ class ChatServiceTest {
     chats.add(testChat);
     Page<Chat> chatPage = new PageImpl<>(chats);
 
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(chatRepository.findAllByUsers_Id(eq(testUserId), any(Pageable.class)))
         .thenReturn(chatPage);
-    when(modelMapper.map(testChat, ChatDto.class)).thenReturn(new ChatDto());
+    when(dtoMapper.toChatDto(testChat)).thenReturn(new ChatDto());
 
     // Act
     ChatListResponseDto result =
@@ -166,4 +228,59 @@ class ChatServiceTest {
     assertEquals(200, result.getStatus());
     assertTrue(result.isSuccess());
   }
+
+  @Test
+  void getInbox_ShouldReturnFirstSliceWithNextCursor() {
+    // Arrange
+    OffsetDateTime lastActivityAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    ChatInboxItem item =
+        new ChatInboxItem(
+            testChatId,
+            testUser2Id,
+            "Other User",
+            null,
+            UUID.randomUUID(),
+            lastActivityAt,
+            "See you there",
+            2);
+
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(chatInboxRepository.findFirstSlice(eq(testUserId), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 1), true));
+    when(dtoMapper.toChatInboxDto(item)).thenReturn(new ChatInboxDto());
+
+    // Act
+    CursorListResponseDto<ChatInboxDto> result = chatService.getInbox(null, 1);
+
+    // Assert
+    assertEquals(1, result.getData().size());
+    assertEquals(
+        new CursorUtil.Cursor(lastActivityAt, testChatId),
+        CursorUtil.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void markAsRead_ShouldResetUnreadCount() {
+    // Arrange
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(chatInboxRepository.markAsRead(eq(testUserId), eq(testChatId), any(OffsetDateTime.class)))
+        .thenReturn(1);
+
+    // Act
+    BaseResponseDto result = chatService.markAsRead(testChatId);
+
+    // Assert
+    assertEquals(200, result.getStatus());
+  }
+
+  @Test
+  void markAsRead_ShouldThrowException_WhenUserIsNotInChat() {
+    // Arrange
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(chatInboxRepository.markAsRead(eq(testUserId), eq(testChatId), any(OffsetDateTime.class)))
+        .thenReturn(0);
+
+    // Act & Assert
+    assertThrows(ResourceNotFoundException.class, () -> chatService.markAsRead(testChatId));
+  }
 }
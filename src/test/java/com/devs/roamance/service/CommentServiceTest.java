@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.request.social.CommentRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.CommentDto;
 import com.devs.roamance.dto.response.social.CommentListResponseDto;
 import com.devs.roamance.dto.response.social.CommentResponseDto;
@@ -19,7 +20,13 @@ import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.CommentRepository;
 import com.devs.roamance.repository.PostRepository;
 import com.devs.roamance.service.impl.CommentServiceImpl;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.PostCounters;
+import com.devs.roamance.util.TrendingPostRanker;
 import com.devs.roamance.util.UserUtil;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -32,7 +39,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class CommentServiceTest {
@@ -43,6 +53,12 @@ class CommentServiceTest {
 
   @Mock private UserUtil userUtil;
 
+  @Mock private PostCounters postCounters;
+
+  @Mock private TrendingPostRanker trendingPostRanker;
+
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   private CommentService commentService;
@@ -57,7 +73,14 @@ class CommentServiceTest {
   @BeforeEach
   void setUp() {
     commentService =
-        new CommentServiceImpl(commentRepository, postRepository, userUtil, modelMapper);
+        new CommentServiceImpl(
+            commentRepository,
+            postRepository,
+            userUtil,
+            postCounters,
+            trendingPostRanker,
+            dtoMapper,
+            modelMapper);
 
     // Setup test data
     testUserId = UUID.randomUUID();
@@ -90,7 +113,7 @@ class CommentServiceTest {
     when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
 
     CommentDto commentDto = new CommentDto();
-    when(modelMapper.map(testComment, CommentDto.class)).thenReturn(commentDto);
+    when(dtoMapper.toCommentDto(testComment)).thenReturn(commentDto);
 
     // Act
     CommentResponseDto result = commentService.create(requestDto, testPostId);
@@ -98,7 +121,8 @@ class CommentServiceTest {
     // Assert
     assertNotNull(result);
     assertEquals(commentDto, result.getData());
-    verify(postRepository, times(1)).incrementCommentCount(testPostId);
+    verify(postCounters, times(1)).addComments(testPostId, 1);
+    verify(trendingPostRanker, times(1)).addComments(testPostId, 1);
     verify(commentRepository, times(1)).save(any(Comment.class));
     verify(commentRepository, times(1)).flush();
   }
@@ -125,7 +149,7 @@ class CommentServiceTest {
     when(commentRepository.findById(testCommentId)).thenReturn(Optional.of(testComment));
 
     CommentDto commentDto = new CommentDto();
-    when(modelMapper.map(testComment, CommentDto.class)).thenReturn(commentDto);
+    when(dtoMapper.toCommentDto(testComment)).thenReturn(commentDto);
 
     // Act
     CommentResponseDto result = commentService.get(testCommentId);
@@ -166,7 +190,7 @@ class CommentServiceTest {
         .thenReturn(commentPage);
 
     CommentDto commentDto = new CommentDto();
-    when(modelMapper.map(testComment, CommentDto.class)).thenReturn(commentDto);
+    when(dtoMapper.toCommentDto(testComment)).thenReturn(commentDto);
 
     // Act
     CommentListResponseDto result =
@@ -195,4 +219,37 @@ class CommentServiceTest {
         () -> commentService.getByPostId(testPostId, pageNumber, pageSize, sortBy, sortDir),
         String.format(ResponseMessage.POST_NOT_FOUND, testPostId));
   }
+
+  @Test
+  void getByPostIdAndCursor_ShouldReturnSliceWithNextCursor() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    ReflectionTestUtils.setField(testComment.getAudit(), "createdAt", createdAt);
+
+    when(postRepository.existsById(testPostId)).thenReturn(true);
+    when(commentRepository.findFirstSliceByPostId(eq(testPostId), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(testComment), PageRequest.of(0, 1), true));
+    when(dtoMapper.toCommentDto(testComment)).thenReturn(new CommentDto());
+
+    // Act
+    CursorListResponseDto<CommentDto> result =
+        commentService.getByPostIdAndCursor(testPostId, null, 1);
+
+    // Assert
+    assertEquals(1, result.getData().size());
+    assertEquals(
+        new CursorUtil.Cursor(createdAt, testCommentId),
+        CursorUtil.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void getByPostIdAndCursor_ShouldThrowException_WhenPostNotFound() {
+    // Arrange
+    when(postRepository.existsById(testPostId)).thenReturn(false);
+
+    // Act & Assert
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> commentService.getByPostIdAndCursor(testPostId, null, 10));
+  }
 }
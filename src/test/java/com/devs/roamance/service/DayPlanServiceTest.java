@@ -23,6 +23,8 @@ import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.DayPlanRepository;
 import com.devs.roamance.repository.ItineraryRepository;
 import com.devs.roamance.service.impl.DayPlanServiceImpl;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.ItineraryCostUtil;
 import com.devs.roamance.util.UserUtil;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -46,8 +48,12 @@ class DayPlanServiceTest {
 
   @Mock private ItineraryRepository itineraryRepository;
 
+  @Mock private ItineraryCostUtil itineraryCostUtil;
+
   @Mock private UserUtil userUtil;
 
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   private DayPlanService dayPlanService;
@@ -62,7 +68,13 @@ class DayPlanServiceTest {
   @BeforeEach
   void setUp() {
     dayPlanService =
-        new DayPlanServiceImpl(dayPlanRepository, itineraryRepository, userUtil, modelMapper);
+        new DayPlanServiceImpl(
+            dayPlanRepository,
+            itineraryRepository,
+            itineraryCostUtil,
+            userUtil,
+            dtoMapper,
+            modelMapper);
 
     // Setup test data
     testUserId = UUID.randomUUID();
@@ -96,7 +108,7 @@ class DayPlanServiceTest {
     when(dayPlanRepository.save(any(DayPlan.class))).thenReturn(testDayPlan);
 
     DayPlanDetailDto dayPlanDetailDto = new DayPlanDetailDto();
-    when(modelMapper.map(testDayPlan, DayPlanDetailDto.class)).thenReturn(dayPlanDetailDto);
+    when(dtoMapper.toDayPlanDetailDto(testDayPlan)).thenReturn(dayPlanDetailDto);
 
     // Act
     DayPlanResponseDto result = dayPlanService.create(createRequestDto);
@@ -114,7 +126,7 @@ class DayPlanServiceTest {
     when(dayPlanRepository.findById(testDayPlanId)).thenReturn(Optional.of(testDayPlan));
 
     DayPlanDetailDto dayPlanDetailDto = new DayPlanDetailDto();
-    when(modelMapper.map(testDayPlan, DayPlanDetailDto.class)).thenReturn(dayPlanDetailDto);
+    when(dtoMapper.toDayPlanDetailDto(testDayPlan)).thenReturn(dayPlanDetailDto);
 
     // Act
     DayPlanResponseDto result = dayPlanService.get(testDayPlanId);
@@ -153,7 +165,7 @@ class DayPlanServiceTest {
         .thenReturn(dayPlanPage);
 
     DayPlanBriefDto dayPlanBriefDto = new DayPlanBriefDto();
-    when(modelMapper.map(testDayPlan, DayPlanBriefDto.class)).thenReturn(dayPlanBriefDto);
+    when(dtoMapper.toDayPlanBriefDto(testDayPlan)).thenReturn(dayPlanBriefDto);
 
     // Act
     DayPlanListResponseDto result =
@@ -175,11 +187,11 @@ class DayPlanServiceTest {
 
     when(dayPlanRepository.findByIdWithItinerary(testDayPlanId))
         .thenReturn(Optional.of(testDayPlan));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(dayPlanRepository.save(any(DayPlan.class))).thenReturn(testDayPlan);
 
     DayPlanDetailDto dayPlanDetailDto = new DayPlanDetailDto();
-    when(modelMapper.map(testDayPlan, DayPlanDetailDto.class)).thenReturn(dayPlanDetailDto);
+    when(dtoMapper.toDayPlanDetailDto(testDayPlan)).thenReturn(dayPlanDetailDto);
 
     // Act
     DayPlanResponseDto result = dayPlanService.update(updateRequestDto, testDayPlanId);
@@ -201,7 +213,7 @@ class DayPlanServiceTest {
 
     when(dayPlanRepository.findByIdWithItinerary(testDayPlanId))
         .thenReturn(Optional.of(testDayPlan));
-    when(userUtil.getAuthenticatedUser()).thenReturn(differentUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(differentUser.getId());
 
     // Act & Assert
     assertThrows(
@@ -214,13 +226,14 @@ class DayPlanServiceTest {
   void delete_ShouldDeleteDayPlan() {
     // Arrange
     when(dayPlanRepository.findByIdLite(testDayPlanId)).thenReturn(Optional.of(testDayPlan));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
 
     // Act
     BaseResponseDto result = dayPlanService.delete(testDayPlanId);
 
     // Assert
     assertNotNull(result);
+    verify(itineraryCostUtil, times(1)).removeDayPlanCost(testDayPlanId);
     verify(dayPlanRepository, times(1)).delete(testDayPlan);
   }
 
@@ -231,7 +244,7 @@ class DayPlanServiceTest {
     differentUser.setId(UUID.randomUUID());
 
     when(dayPlanRepository.findByIdLite(testDayPlanId)).thenReturn(Optional.of(testDayPlan));
-    when(userUtil.getAuthenticatedUser()).thenReturn(differentUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(differentUser.getId());
 
     // Act & Assert
     assertThrows(
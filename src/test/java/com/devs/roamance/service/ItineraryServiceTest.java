@@ -22,6 +22,7 @@ import com.devs.roamance.model.travel.itinerary.Itinerary;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.ItineraryRepository;
 import com.devs.roamance.service.impl.ItineraryServiceImpl;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.ItineraryUtil;
 import com.devs.roamance.util.UserUtil;
 import java.time.LocalDate;
@@ -48,6 +49,8 @@ class ItineraryServiceTest {
 
   @Mock private UserUtil userUtil;
 
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   private ItineraryService itineraryService;
@@ -60,7 +63,8 @@ class ItineraryServiceTest {
   @BeforeEach
   void setUp() {
     itineraryService =
-        new ItineraryServiceImpl(itineraryRepository, itineraryUtil, modelMapper, userUtil);
+        new ItineraryServiceImpl(
+            itineraryRepository, itineraryUtil, dtoMapper, modelMapper, userUtil);
 
     // Setup test data
     testUserId = UUID.randomUUID();
@@ -92,7 +96,7 @@ class ItineraryServiceTest {
     when(itineraryRepository.save(any(Itinerary.class))).thenReturn(testItinerary);
 
     ItineraryDetailDto itineraryDetailDto = new ItineraryDetailDto();
-    when(modelMapper.map(testItinerary, ItineraryDetailDto.class)).thenReturn(itineraryDetailDto);
+    when(dtoMapper.toItineraryDetailDto(testItinerary)).thenReturn(itineraryDetailDto);
 
     // Act
     ItineraryResponseDto result = itineraryService.create(createRequestDto);
@@ -113,7 +117,7 @@ class ItineraryServiceTest {
     when(itineraryRepository.save(any(Itinerary.class))).thenReturn(testItinerary);
 
     ItineraryDetailDto itineraryDetailDto = new ItineraryDetailDto();
-    when(modelMapper.map(testItinerary, ItineraryDetailDto.class)).thenReturn(itineraryDetailDto);
+    when(dtoMapper.toItineraryDetailDto(testItinerary)).thenReturn(itineraryDetailDto);
 
     // Act
     ItineraryResponseDto result = itineraryService.createWithDetails(aiPoweredItineraryDto);
@@ -143,7 +147,7 @@ class ItineraryServiceTest {
     when(itineraryRepository.findAll(any(Pageable.class))).thenReturn(itineraryPage);
 
     ItineraryBriefDto itineraryBriefDto = new ItineraryBriefDto();
-    when(modelMapper.map(testItinerary, ItineraryBriefDto.class)).thenReturn(itineraryBriefDto);
+    when(dtoMapper.toItineraryBriefDto(testItinerary)).thenReturn(itineraryBriefDto);
 
     // Act
     ItineraryListResponseDto result =
@@ -162,7 +166,7 @@ class ItineraryServiceTest {
     when(itineraryRepository.findById(testItineraryId)).thenReturn(Optional.of(testItinerary));
 
     ItineraryDetailDto itineraryDetailDto = new ItineraryDetailDto();
-    when(modelMapper.map(testItinerary, ItineraryDetailDto.class)).thenReturn(itineraryDetailDto);
+    when(dtoMapper.toItineraryDetailDto(testItinerary)).thenReturn(itineraryDetailDto);
 
     // Act
     ItineraryResponseDto result = itineraryService.get(testItineraryId);
@@ -201,7 +205,7 @@ class ItineraryServiceTest {
         .thenReturn(itineraryPage);
 
     ItineraryBriefDto itineraryBriefDto = new ItineraryBriefDto();
-    when(modelMapper.map(testItinerary, ItineraryBriefDto.class)).thenReturn(itineraryBriefDto);
+    when(dtoMapper.toItineraryBriefDto(testItinerary)).thenReturn(itineraryBriefDto);
 
     // Act
     ItineraryListResponseDto result =
@@ -222,11 +226,11 @@ class ItineraryServiceTest {
     updateRequestDto.setDescription("Updated Description");
 
     when(itineraryRepository.findById(testItineraryId)).thenReturn(Optional.of(testItinerary));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(itineraryRepository.save(any(Itinerary.class))).thenReturn(testItinerary);
 
     ItineraryDetailDto itineraryDetailDto = new ItineraryDetailDto();
-    when(modelMapper.map(testItinerary, ItineraryDetailDto.class)).thenReturn(itineraryDetailDto);
+    when(dtoMapper.toItineraryDetailDto(testItinerary)).thenReturn(itineraryDetailDto);
 
     // Act
     ItineraryResponseDto result = itineraryService.update(updateRequestDto, testItineraryId);
@@ -247,7 +251,7 @@ class ItineraryServiceTest {
     differentUser.setId(UUID.randomUUID());
 
     when(itineraryRepository.findById(testItineraryId)).thenReturn(Optional.of(testItinerary));
-    when(userUtil.getAuthenticatedUser()).thenReturn(differentUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(differentUser.getId());
 
     // Act & Assert
     assertThrows(
@@ -260,7 +264,7 @@ class ItineraryServiceTest {
   void delete_ShouldDeleteItinerary() {
     // Arrange
     when(itineraryRepository.findByIdLite(testItineraryId)).thenReturn(Optional.of(testItinerary));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
 
     // Act
     BaseResponseDto result = itineraryService.delete(testItineraryId);
@@ -277,7 +281,7 @@ class ItineraryServiceTest {
     differentUser.setId(UUID.randomUUID());
 
     when(itineraryRepository.findByIdLite(testItineraryId)).thenReturn(Optional.of(testItinerary));
-    when(userUtil.getAuthenticatedUser()).thenReturn(differentUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(differentUser.getId());
 
     // Act & Assert
     assertThrows(
@@ -23,6 +23,7 @@ import com.devs.roamance.model.travel.journal.Journal;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.JournalRepository;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.JournalSummary;
 import com.devs.roamance.service.impl.JournalServiceImpl;
 import com.devs.roamance.util.UserUtil;
 import java.util.*;
@@ -171,8 +172,8 @@ class JournalServiceTest {
     String sortBy = "createdAt";
     String sortDir = "desc";
 
-    List<Journal> journals = Collections.singletonList(testJournal);
-    Page<Journal> journalPage = new PageImpl<>(journals);
+    List<JournalSummary> journals = Collections.singletonList(new JournalSummary(testJournal, 3L));
+    Page<JournalSummary> journalPage = new PageImpl<>(journals);
 
     when(securityContext.getAuthentication()).thenReturn(authentication);
     SecurityContextHolder.setContext(securityContext);
@@ -180,9 +181,8 @@ class JournalServiceTest {
     when(authentication.getName()).thenReturn("test@example.com");
     when(userUtil.isAuthenticatedUserAdmin()).thenReturn(false);
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-    when(journalRepository.findAllByAudit_CreatedBy(eq(userId), any(Pageable.class)))
+    when(journalRepository.findAllSummariesByCreatedBy(eq(userId), any(Pageable.class)))
         .thenReturn(journalPage);
-    when(journalRepository.findById(journalId)).thenReturn(Optional.of(testJournal));
     when(modelMapper.map(testJournal, JournalBriefDto.class)).thenReturn(journalBriefDto);
 
     // Act
@@ -194,6 +194,8 @@ class JournalServiceTest {
     assertTrue(result.isSuccess());
     assertEquals(1, result.getData().size());
     assertEquals(journalBriefDto, result.getData().get(0));
+    assertEquals(3, result.getData().get(0).getTotalSubsections());
+    verify(journalRepository, never()).findById(any(UUID.class));
   }
 
   @Test
@@ -204,12 +206,11 @@ class JournalServiceTest {
     String sortBy = "createdAt";
     String sortDir = "desc";
 
-    List<Journal> journals = Collections.singletonList(testJournal);
-    Page<Journal> journalPage = new PageImpl<>(journals);
+    List<JournalSummary> journals = Collections.singletonList(new JournalSummary(testJournal, 3L));
+    Page<JournalSummary> journalPage = new PageImpl<>(journals);
 
     when(userUtil.isAuthenticatedUserAdmin()).thenReturn(true);
-    when(journalRepository.findAll(any(Pageable.class))).thenReturn(journalPage);
-    when(journalRepository.findById(journalId)).thenReturn(Optional.of(testJournal));
+    when(journalRepository.findAllSummaries(any(Pageable.class))).thenReturn(journalPage);
     when(modelMapper.map(testJournal, JournalBriefDto.class)).thenReturn(journalBriefDto);
 
     // Act
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.devs.roamance.dto.request.social.MessageRequestDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.MessageDto;
 import com.devs.roamance.dto.response.social.MessageListResponseDto;
 import com.devs.roamance.dto.response.social.MessageResponseDto;
@@ -12,10 +13,15 @@ import com.devs.roamance.exception.ResourceNotFoundException;
 import com.devs.roamance.model.social.Chat;
 import com.devs.roamance.model.social.Message;
 import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.ChatInboxRepository;
 import com.devs.roamance.repository.ChatRepository;
 import com.devs.roamance.repository.MessageRepository;
 import com.devs.roamance.service.impl.MessageServiceImpl;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
 import com.devs.roamance.util.UserUtil;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,7 +31,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class MessageServiceTest {
@@ -34,6 +42,10 @@ class MessageServiceTest {
 
   @Mock private ChatRepository chatRepository;
 
+  @Mock private ChatInboxRepository chatInboxRepository;
+
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   @Mock private UserUtil userUtil;
@@ -50,7 +62,13 @@ class MessageServiceTest {
   @BeforeEach
   void setUp() {
     messageService =
-        new MessageServiceImpl(messageRepository, chatRepository, modelMapper, userUtil);
+        new MessageServiceImpl(
+            messageRepository,
+            chatRepository,
+            chatInboxRepository,
+            dtoMapper,
+            modelMapper,
+            userUtil);
 
     // Setup test data
     chatId = UUID.randomUUID();
@@ -85,7 +103,7 @@ class MessageServiceTest {
     when(chatRepository.findById(chatId)).thenReturn(Optional.of(testChat));
     when(modelMapper.map(testMessageRequestDto, Message.class)).thenReturn(testMessage);
     when(messageRepository.save(any(Message.class))).thenReturn(testMessage);
-    when(modelMapper.map(testMessage, MessageDto.class)).thenReturn(testMessageDto);
+    when(dtoMapper.toMessageDto(testMessage)).thenReturn(testMessageDto);
 
     // Act
     MessageResponseDto result = messageService.create(chatId, testMessageRequestDto);
@@ -102,6 +120,8 @@ class MessageServiceTest {
     // Verify repository calls
     verify(messageRepository, times(1)).save(any(Message.class));
     verify(messageRepository, times(1)).flush();
+    verify(chatInboxRepository, times(1))
+        .recordMessage(chatId, userId, testMessage.getId(), null, "Hello world");
   }
 
   @Test
@@ -114,7 +134,7 @@ class MessageServiceTest {
     when(chatRepository.findById(chatId)).thenReturn(Optional.of(testChat));
     when(modelMapper.map(testMessageRequestDto, Message.class)).thenReturn(testMessage);
     when(messageRepository.save(any(Message.class))).thenReturn(testMessage);
-    when(modelMapper.map(testMessage, MessageDto.class)).thenReturn(testMessageDto);
+    when(dtoMapper.toMessageDto(testMessage)).thenReturn(testMessageDto);
 
     // Act
     MessageResponseDto result = messageService.create(chatId, testMessageRequestDto);
@@ -138,7 +158,7 @@ class MessageServiceTest {
     when(chatRepository.findById(chatId)).thenReturn(Optional.of(testChat));
     when(modelMapper.map(testMessageRequestDto, Message.class)).thenReturn(testMessage);
     when(messageRepository.save(any(Message.class))).thenReturn(testMessage);
-    when(modelMapper.map(testMessage, MessageDto.class)).thenReturn(testMessageDto);
+    when(dtoMapper.toMessageDto(testMessage)).thenReturn(testMessageDto);
 
     // Act
     MessageResponseDto result = messageService.create(chatId, testMessageRequestDto);
@@ -161,7 +181,7 @@ class MessageServiceTest {
     when(chatRepository.findById(chatId)).thenReturn(Optional.of(testChat));
     when(modelMapper.map(testMessageRequestDto, Message.class)).thenReturn(testMessage);
     when(messageRepository.save(any(Message.class))).thenReturn(testMessage);
-    when(modelMapper.map(testMessage, MessageDto.class)).thenReturn(testMessageDto);
+    when(dtoMapper.toMessageDto(testMessage)).thenReturn(testMessageDto);
 
     // Act
     MessageResponseDto result = messageService.create(chatId, testMessageRequestDto);
@@ -198,7 +218,7 @@ class MessageServiceTest {
 
     when(messageRepository.findAllByChatId(eq(chatId), any(Pageable.class)))
         .thenReturn(messagePage);
-    when(modelMapper.map(testMessage, MessageDto.class)).thenReturn(testMessageDto);
+    when(dtoMapper.toMessageDto(testMessage)).thenReturn(testMessageDto);
 
     // Act
     MessageListResponseDto result =
@@ -212,4 +232,26 @@ class MessageServiceTest {
     assertEquals(1, result.getData().size());
     assertEquals(testMessageDto, result.getData().get(0));
   }
+
+  @Test
+  void getByChatIdAndCursor_ShouldReturnMessagesBeforeCursor() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    UUID lastId = UUID.randomUUID();
+    String cursor = CursorUtil.encode(createdAt, lastId);
+
+    when(messageRepository.findSliceByChatIdBefore(
+            eq(chatId), eq(createdAt), eq(lastId), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(testMessage), PageRequest.of(0, 50), false));
+    when(dtoMapper.toMessageDto(testMessage)).thenReturn(testMessageDto);
+
+    // Act
+    CursorListResponseDto<MessageDto> result =
+        messageService.getByChatIdAndCursor(chatId, cursor, 50);
+
+    // Assert
+    assertEquals(List.of(testMessageDto), result.getData());
+    assertNull(result.getNextCursor());
+    verify(messageRepository, never()).findFirstSliceByChatId(any(), any(Pageable.class));
+  }
 }
@@ -0,0 +1,148 @@
+package com.devs.roamance.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.dto.response.social.PostDto;
+import com.devs.roamance.model.social.Post;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.PostRepository;
+import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.service.impl.PostServiceImpl;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.FeedUtil;
+import com.devs.roamance.util.PostCounters;
+import com.devs.roamance.util.PostUtil;
+import com.devs.roamance.util.TrendingPostRanker;
+import com.devs.roamance.util.UserUtil;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs the post list endpoints through the service with its own transactions and no open session
+ * in view, the way they run in production, and checks that mapping a page takes the same number of
+ * statements whatever its size.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({PostServiceImpl.class, DtoMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostServiceQueryCountTest {
+
+  private static final int POST_COUNT = 40;
+  private static final int AUTHOR_COUNT = 3;
+
+  @Autowired private PostService postService;
+
+  @Autowired private PostRepository postRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @MockitoBean private PostUtil postUtil;
+
+  @MockitoBean private UserUtil userUtil;
+
+  @MockitoBean private PostCounters postCounters;
+
+  @MockitoBean private FeedUtil feedUtil;
+
+  @MockitoBean private TrendingPostRanker trendingPostRanker;
+
+  @MockitoBean private ModelMapper modelMapper;
+
+  private List<User> authors;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+
+    postRepository.deleteAll();
+
+    authors = new ArrayList<>();
+    for (int i = 0; i < AUTHOR_COUNT; i++) {
+      User author = new User();
+      author.setName("Author " + i);
+      author.setEmail("post-service-author" + i + "-" + System.nanoTime() + "@example.com");
+      author.setPassword("password");
+      author.setInfo(null);
+      author.setPreferences(null);
+
+      authors.add(userRepository.save(author));
+    }
+
+    List<Post> posts = new ArrayList<>();
+    for (int i = 0; i < POST_COUNT; i++) {
+      Post post = new Post();
+      post.setText(String.format("Post %02d", i));
+      post.setImagePaths(
+          new ArrayList<>(List.of("image-" + i + "-a.jpg", "image-" + i + "-b.jpg")));
+      post.setVideoPaths(new ArrayList<>(List.of("video-" + i + ".mp4")));
+      post.setUser(authors.get(i % AUTHOR_COUNT));
+
+      posts.add(post);
+    }
+    postRepository.saveAll(posts);
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void getAll_ShouldMapPagesWithConstantStatementCount() {
+    // Act
+    long smallPage = countStatements(() -> postService.getAll(0, 6, "text", "asc").getData());
+    long largePage = countStatements(() -> postService.getAll(0, 12, "text", "asc").getData());
+
+    // Assert
+    assertEquals(smallPage, largePage);
+  }
+
+  @Test
+  void getByUserId_ShouldMapPagesWithConstantStatementCount() {
+    // Arrange
+    UUID authorId = authors.get(0).getId();
+
+    // Act
+    long smallPage =
+        countStatements(() -> postService.getByUserId(authorId, 0, 4, "text", "asc").getData());
+    long largePage =
+        countStatements(() -> postService.getByUserId(authorId, 0, 8, "text", "asc").getData());
+
+    // Assert
+    assertEquals(smallPage, largePage);
+  }
+
+  private long countStatements(Supplier<List<PostDto>> endpoint) {
+
+    statistics.clear();
+
+    List<PostDto> dtos = endpoint.get();
+
+    long statements = statistics.getPrepareStatementCount();
+
+    assertFalse(dtos.isEmpty());
+    dtos.forEach(
+        dto -> {
+          assertEquals(2, dto.getImagePaths().size());
+          assertEquals(1, dto.getVideoPaths().size());
+          assertNotNull(dto.getUser().getName());
+        });
+
+    return statements;
+  }
+}
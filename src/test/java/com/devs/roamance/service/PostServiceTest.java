@@ -8,6 +8,7 @@ import static org.mockito.Mockito.*;
 import com.devs.roamance.constant.ResponseMessage;
 import com.devs.roamance.dto.request.social.PostRequestDto;
 import com.devs.roamance.dto.response.BaseResponseDto;
+import com.devs.roamance.dto.response.CursorListResponseDto;
 import com.devs.roamance.dto.response.social.PostDto;
 import com.devs.roamance.dto.response.social.PostListResponseDto;
 import com.devs.roamance.dto.response.social.PostResponseDto;
@@ -19,9 +20,17 @@ import com.devs.roamance.model.social.Post;
 import com.devs.roamance.model.user.User;
 import com.devs.roamance.repository.PostRepository;
 import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.FeedItem;
 import com.devs.roamance.service.impl.PostServiceImpl;
+import com.devs.roamance.util.CursorUtil;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.FeedUtil;
+import com.devs.roamance.util.PostCounters;
 import com.devs.roamance.util.PostUtil;
+import com.devs.roamance.util.TrendingPostRanker;
 import com.devs.roamance.util.UserUtil;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -30,12 +39,16 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class PostServiceTest {
@@ -48,6 +61,14 @@ class PostServiceTest {
 
   @Mock private UserUtil userUtil;
 
+  @Mock private PostCounters postCounters;
+
+  @Mock private FeedUtil feedUtil;
+
+  @Mock private TrendingPostRanker trendingPostRanker;
+
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   private PostService postService;
@@ -60,7 +81,16 @@ class PostServiceTest {
   @BeforeEach
   void setUp() {
     postService =
-        new PostServiceImpl(postRepository, userRepository, postUtil, userUtil, modelMapper);
+        new PostServiceImpl(
+            postRepository,
+            userRepository,
+            postUtil,
+            userUtil,
+            postCounters,
+            feedUtil,
+            trendingPostRanker,
+            dtoMapper,
+            modelMapper);
 
     // Setup test data
     testUserId = UUID.randomUUID();
@@ -86,7 +116,7 @@ class PostServiceTest {
     when(postRepository.save(any(Post.class))).thenReturn(testPost);
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostResponseDto result = postService.create(createRequestDto);
@@ -96,8 +126,8 @@ class PostServiceTest {
     assertEquals(postDto, result.getData());
     verify(postRepository, times(1)).save(any(Post.class));
     verify(postRepository, times(1)).flush();
-    verify(postUtil, times(1)).backgroundAiAnalysis(testPost.getId(), createRequestDto);
-    verify(postUtil, times(1)).addToVectorDb(testPost.getId(), createRequestDto);
+    verify(postUtil, times(1)).enqueueAiEnrichment(testPost.getId());
+    verify(feedUtil, times(1)).fanOut(testPost.getId());
   }
 
   @Test
@@ -106,7 +136,7 @@ class PostServiceTest {
     when(postRepository.findById(testPostId)).thenReturn(Optional.of(testPost));
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostResponseDto result = postService.get(testPostId);
@@ -144,7 +174,7 @@ class PostServiceTest {
     when(postRepository.findAll(any(Pageable.class))).thenReturn(postPage);
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostListResponseDto result = postService.getAll(pageNumber, pageSize, sortBy, sortDir);
@@ -156,6 +186,164 @@ class PostServiceTest {
     verify(postRepository, times(1)).findAll(any(Pageable.class));
   }
 
+  @Test
+  void getAllByCursor_ShouldReturnFirstSliceWithNextCursor() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    ReflectionTestUtils.setField(testPost.getAudit(), "createdAt", createdAt);
+
+    when(postRepository.findFirstSlice(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(testPost), PageRequest.of(0, 1), true));
+
+    PostDto postDto = new PostDto();
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
+
+    // Act
+    CursorListResponseDto<PostDto> result = postService.getAllByCursor(null, 1);
+
+    // Assert
+    assertEquals(1, result.getData().size());
+    assertEquals(
+        new CursorUtil.Cursor(createdAt, testPostId), CursorUtil.decode(result.getNextCursor()));
+    verify(postRepository, never()).findSliceBefore(any(), any(), any(Pageable.class));
+  }
+
+  @Test
+  void getAllByCursor_ShouldContinueAfterCursor() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    UUID lastId = UUID.randomUUID();
+    String cursor = CursorUtil.encode(createdAt, lastId);
+
+    when(postRepository.findSliceBefore(eq(createdAt), eq(lastId), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(testPost), PageRequest.of(0, 10), false));
+    when(dtoMapper.toPostDto(testPost)).thenReturn(new PostDto());
+
+    // Act
+    CursorListResponseDto<PostDto> result = postService.getAllByCursor(cursor, 10);
+
+    // Assert
+    assertEquals(1, result.getData().size());
+    assertNull(result.getNextCursor());
+    verify(postRepository, never()).findFirstSlice(any(Pageable.class));
+  }
+
+  @Test
+  void getAllByCursor_ShouldThrowException_WhenCursorIsMalformed() {
+    // Act & Assert
+    assertThrows(
+        IllegalArgumentException.class, () -> postService.getAllByCursor("not-a-cursor", 10));
+  }
+
+  @Test
+  void getHomeFeed_ShouldReturnPostsInFeedOrderWithNextCursor() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    Post olderPost = new Post();
+    olderPost.setId(UUID.randomUUID());
+
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(feedUtil.findItems(testUserId, null, 3))
+        .thenReturn(
+            List.of(
+                new FeedItem(testPostId, createdAt),
+                new FeedItem(olderPost.getId(), createdAt.minusHours(1)),
+                new FeedItem(UUID.randomUUID(), createdAt.minusHours(2))));
+    when(postRepository.findAllById(List.of(testPostId, olderPost.getId())))
+        .thenReturn(List.of(olderPost, testPost));
+
+    PostDto postDto = new PostDto();
+    PostDto olderPostDto = new PostDto();
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(olderPost)).thenReturn(olderPostDto);
+
+    // Act
+    CursorListResponseDto<PostDto> result = postService.getHomeFeed(null, 2);
+
+    // Assert
+    assertEquals(List.of(postDto, olderPostDto), result.getData());
+    assertEquals(
+        new CursorUtil.Cursor(createdAt.minusHours(1), olderPost.getId()),
+        CursorUtil.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void getHomeFeed_ShouldSkipDeletedPostsAndEndWithoutCursor() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    UUID lastId = UUID.randomUUID();
+    String cursor = CursorUtil.encode(createdAt, lastId);
+    UUID deletedPostId = UUID.randomUUID();
+
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(feedUtil.findItems(testUserId, new CursorUtil.Cursor(createdAt, lastId), 11))
+        .thenReturn(
+            List.of(
+                new FeedItem(deletedPostId, createdAt.minusHours(1)),
+                new FeedItem(testPostId, createdAt.minusHours(2))));
+    when(postRepository.findAllById(List.of(deletedPostId, testPostId)))
+        .thenReturn(List.of(testPost));
+    when(dtoMapper.toPostDto(testPost)).thenReturn(new PostDto());
+
+    // Act
+    CursorListResponseDto<PostDto> result = postService.getHomeFeed(cursor, 10);
+
+    // Assert
+    assertEquals(1, result.getData().size());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void getHomeFeed_ShouldContinueAfterSliceOfDeletedPosts() {
+    // Arrange
+    OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    UUID firstDeletedId = UUID.randomUUID();
+    UUID lastDeletedId = UUID.randomUUID();
+
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(feedUtil.findItems(testUserId, null, 3))
+        .thenReturn(
+            List.of(
+                new FeedItem(firstDeletedId, createdAt),
+                new FeedItem(lastDeletedId, createdAt.minusHours(1)),
+                new FeedItem(testPostId, createdAt.minusHours(2))));
+    when(postRepository.findAllById(List.of(firstDeletedId, lastDeletedId)))
+        .thenReturn(List.of());
+
+    // Act
+    CursorListResponseDto<PostDto> result = postService.getHomeFeed(null, 2);
+
+    // Assert
+    assertTrue(result.getData().isEmpty());
+    assertEquals(
+        new CursorUtil.Cursor(createdAt.minusHours(1), lastDeletedId),
+        CursorUtil.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void getTrending_ShouldReturnPostsInRankingOrder() {
+    // Arrange
+    Post otherPost = new Post();
+    otherPost.setId(UUID.randomUUID());
+
+    when(trendingPostRanker.getTopPostIds(10, 10))
+        .thenReturn(List.of(otherPost.getId(), testPostId));
+    when(postRepository.findAllById(List.of(otherPost.getId(), testPostId)))
+        .thenReturn(List.of(testPost, otherPost));
+
+    PostDto postDto = new PostDto();
+    PostDto otherPostDto = new PostDto();
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(otherPost)).thenReturn(otherPostDto);
+
+    // Act
+    PostListResponseDto result = postService.getTrending(1, 10);
+
+    // Assert
+    assertEquals(List.of(otherPostDto, postDto), result.getData());
+  }
+
   @Test
   void getByIds_ShouldReturnPostsWithSpecifiedIds() {
     // Arrange
@@ -170,7 +358,7 @@ class PostServiceTest {
     when(postRepository.findAllByIds(any(UUID[].class), any(Pageable.class))).thenReturn(postPage);
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostListResponseDto result = postService.getByIds(postIds, pageNumber, pageSize);
@@ -197,7 +385,7 @@ class PostServiceTest {
     when(postRepository.findAllByUserId(eq(testUserId), any(Pageable.class))).thenReturn(postPage);
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostListResponseDto result =
@@ -218,7 +406,7 @@ class PostServiceTest {
     String sortBy = "createdAt";
     String sortDir = "desc";
 
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
 
     List<Post> posts = new ArrayList<>();
     posts.add(testPost);
@@ -228,7 +416,7 @@ class PostServiceTest {
         .thenReturn(postPage);
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostListResponseDto result =
@@ -257,7 +445,7 @@ class PostServiceTest {
         .thenReturn(userPage);
 
     UserDto userDto = new UserDto();
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(userDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(userDto);
 
     // Act
     UserListResponseDto result =
@@ -277,11 +465,11 @@ class PostServiceTest {
     updateRequestDto.setText("Updated Post Content");
 
     when(postRepository.findById(testPostId)).thenReturn(Optional.of(testPost));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(postRepository.save(any(Post.class))).thenReturn(testPost);
 
     PostDto postDto = new PostDto();
-    when(modelMapper.map(testPost, PostDto.class)).thenReturn(postDto);
+    when(dtoMapper.toPostDto(testPost)).thenReturn(postDto);
 
     // Act
     PostResponseDto result = postService.update(updateRequestDto, testPostId);
@@ -302,7 +490,7 @@ class PostServiceTest {
     differentUser.setId(UUID.randomUUID());
 
     when(postRepository.findById(testPostId)).thenReturn(Optional.of(testPost));
-    when(userUtil.getAuthenticatedUser()).thenReturn(differentUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(differentUser.getId());
 
     // Act & Assert
     assertThrows(
@@ -315,7 +503,7 @@ class PostServiceTest {
   void toggleSave_ShouldSavePost_WhenNotSaved() {
     // Arrange
     when(postRepository.existsById(testPostId)).thenReturn(true);
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(postRepository.isSavedByUser(testPostId, testUserId)).thenReturn(false);
 
     // Act
@@ -325,13 +513,14 @@ class PostServiceTest {
     assertNotNull(result);
     verify(postRepository, times(1)).saveByUser(testPostId, testUserId);
     verify(postRepository, times(0)).unsaveByUser(testPostId, testUserId);
+    verify(trendingPostRanker, times(1)).addSaves(testPostId, 1);
   }
 
   @Test
   void toggleSave_ShouldUnsavePost_WhenAlreadySaved() {
     // Arrange
     when(postRepository.existsById(testPostId)).thenReturn(true);
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(postRepository.isSavedByUser(testPostId, testUserId)).thenReturn(true);
 
     // Act
@@ -341,13 +530,14 @@ class PostServiceTest {
     assertNotNull(result);
     verify(postRepository, times(0)).saveByUser(testPostId, testUserId);
     verify(postRepository, times(1)).unsaveByUser(testPostId, testUserId);
+    verify(trendingPostRanker, times(1)).addSaves(testPostId, -1);
   }
 
   @Test
   void toggleLike_ShouldLikePost_WhenNotLiked() {
     // Arrange
     when(postRepository.existsById(testPostId)).thenReturn(true);
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(postRepository.isLikedByUser(testPostId, testUserId)).thenReturn(false);
 
     // Act
@@ -356,16 +546,17 @@ class PostServiceTest {
     // Assert
     assertNotNull(result);
     verify(postRepository, times(1)).likeByUser(testPostId, testUserId);
-    verify(postRepository, times(1)).incrementLikeCount(testPostId);
+    verify(postCounters, times(1)).addLikes(testPostId, 1);
     verify(postRepository, times(0)).unlikeByUser(testPostId, testUserId);
-    verify(postRepository, times(0)).decrementLikeCount(testPostId);
+    verify(postCounters, times(0)).addLikes(testPostId, -1);
+    verify(trendingPostRanker, times(1)).addLikes(testPostId, 1);
   }
 
   @Test
   void toggleLike_ShouldUnlikePost_WhenAlreadyLiked() {
     // Arrange
     when(postRepository.existsById(testPostId)).thenReturn(true);
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
     when(postRepository.isLikedByUser(testPostId, testUserId)).thenReturn(true);
 
     // Act
@@ -374,16 +565,17 @@ class PostServiceTest {
     // Assert
     assertNotNull(result);
     verify(postRepository, times(0)).likeByUser(testPostId, testUserId);
-    verify(postRepository, times(0)).incrementLikeCount(testPostId);
+    verify(postCounters, times(0)).addLikes(testPostId, 1);
     verify(postRepository, times(1)).unlikeByUser(testPostId, testUserId);
-    verify(postRepository, times(1)).decrementLikeCount(testPostId);
+    verify(postCounters, times(1)).addLikes(testPostId, -1);
+    verify(trendingPostRanker, times(1)).addLikes(testPostId, -1);
   }
 
   @Test
   void delete_ShouldDeletePost() {
     // Arrange
     when(postRepository.findById(testPostId)).thenReturn(Optional.of(testPost));
-    when(userUtil.getAuthenticatedUser()).thenReturn(testUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUser.getId());
 
     // Act
     BaseResponseDto result = postService.delete(testPostId);
@@ -391,6 +583,11 @@ class PostServiceTest {
     // Assert
     assertNotNull(result);
     verify(postRepository, times(1)).delete(testPost);
+    InOrder inOrder = inOrder(postUtil);
+    inOrder.verify(postUtil, times(1)).removeFromVectorDb(testPostId);
+    inOrder.verify(postUtil, times(1)).evictFromRagSearchCache(testPostId);
+    verify(feedUtil, times(1)).removePost(testPostId);
+    verify(trendingPostRanker, times(1)).remove(testPostId);
   }
 
   @Test
@@ -400,7 +597,7 @@ class PostServiceTest {
     differentUser.setId(UUID.randomUUID());
 
     when(postRepository.findById(testPostId)).thenReturn(Optional.of(testPost));
-    when(userUtil.getAuthenticatedUser()).thenReturn(differentUser);
+    when(userUtil.getAuthenticatedUserId()).thenReturn(differentUser.getId());
 
     // Act & Assert
     assertThrows(
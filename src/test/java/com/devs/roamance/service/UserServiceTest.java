@@ -20,6 +20,10 @@ import com.devs.roamance.model.user.UserInfo;
 import com.devs.roamance.model.user.preference.UserPreferences;
 import com.devs.roamance.repository.UserRepository;
 import com.devs.roamance.service.impl.UserServiceImpl;
+import com.devs.roamance.util.DtoMapper;
+import com.devs.roamance.util.FeedUtil;
+import com.devs.roamance.util.UserSnapshotCache;
+import com.devs.roamance.util.UserUtil;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,10 +43,18 @@ class UserServiceTest {
 
   @Mock private UserRepository userRepository;
 
+  @Mock private DtoMapper dtoMapper;
+
   @Mock private ModelMapper modelMapper;
 
   @Mock private PasswordEncoder passwordEncoder;
 
+  @Mock private UserSnapshotCache userSnapshotCache;
+
+  @Mock private UserUtil userUtil;
+
+  @Mock private FeedUtil feedUtil;
+
   private UserService userService;
 
   private User testUser;
@@ -51,7 +63,15 @@ class UserServiceTest {
 
   @BeforeEach
   void setUp() {
-    userService = new UserServiceImpl(userRepository, modelMapper, passwordEncoder);
+    userService =
+        new UserServiceImpl(
+            userRepository,
+            dtoMapper,
+            modelMapper,
+            passwordEncoder,
+            userSnapshotCache,
+            userUtil,
+            feedUtil);
 
     // Setup test data
     testUserId = UUID.randomUUID();
@@ -97,7 +117,7 @@ class UserServiceTest {
     when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
     when(modelMapper.map(createRequestDto, User.class)).thenReturn(newUser);
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(testUserDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(testUserDto);
 
     // Act
     UserResponseDto result = userService.create(createRequestDto);
@@ -153,7 +173,7 @@ class UserServiceTest {
     Page<User> userPage = new PageImpl<>(users);
 
     when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(testUserDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(testUserDto);
 
     // Act
     UserListResponseDto result = userService.getAll(pageNumber, pageSize, sortBy, sortDir);
@@ -170,7 +190,7 @@ class UserServiceTest {
   void get_ShouldReturnUserById() {
     // Arrange
     when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(testUserDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(testUserDto);
 
     // Act
     UserResponseDto result = userService.get(testUserId);
@@ -197,7 +217,7 @@ class UserServiceTest {
     // Arrange
     String email = "test@example.com";
     when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(testUserDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(testUserDto);
 
     // Act
     UserResponseDto result = userService.getByEmail(email);
@@ -231,7 +251,7 @@ class UserServiceTest {
     Page<User> userPage = new PageImpl<>(users);
 
     when(userRepository.searchUsers(eq(query), any(Pageable.class))).thenReturn(userPage);
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(testUserDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(testUserDto);
 
     // Act
     UserListResponseDto result = userService.search(query, pageNumber, pageSize);
@@ -255,7 +275,7 @@ class UserServiceTest {
     when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
     when(passwordEncoder.encode("newPassword")).thenReturn("encodedNewPassword");
     when(userRepository.save(testUser)).thenReturn(testUser);
-    when(modelMapper.map(testUser, UserDto.class)).thenReturn(testUserDto);
+    when(dtoMapper.toUserDto(testUser)).thenReturn(testUserDto);
 
     // Act
     UserResponseDto result = userService.update(updateRequestDto, testUserId);
@@ -269,6 +289,7 @@ class UserServiceTest {
     // Verify the user was updated correctly
     verify(userRepository).save(testUser);
     verify(userRepository).flush();
+    verify(userSnapshotCache).evict(testUserId);
 
     assertEquals("Updated Name", testUser.getName());
     assertEquals("updated@example.com", testUser.getEmail());
@@ -299,7 +320,10 @@ class UserServiceTest {
     assertNotNull(result);
     assertEquals(200, result.getStatus());
     assertEquals(ResponseMessage.USER_DELETE_SUCCESS, result.getMessage());
+    verify(userRepository).deleteAllFollowsOf(testUserId);
+    verify(feedUtil).removeUser(testUserId);
     verify(userRepository).delete(testUser);
+    verify(userSnapshotCache).evict(testUserId);
   }
 
   @Test
@@ -311,4 +335,61 @@ class UserServiceTest {
     // Act & Assert
     assertThrows(UserNotFoundException.class, () -> userService.delete(nonExistentId));
   }
+
+  @Test
+  void toggleFollow_ShouldFollowAndBackfillFeed_WhenNotFollowing() {
+    // Arrange
+    UUID followerId = UUID.randomUUID();
+    when(userUtil.getAuthenticatedUserId()).thenReturn(followerId);
+    when(userRepository.existsById(testUserId)).thenReturn(true);
+    when(userRepository.isFollowing(followerId, testUserId)).thenReturn(false);
+
+    // Act
+    BaseResponseDto result = userService.toggleFollow(testUserId);
+
+    // Assert
+    assertEquals(ResponseMessage.USER_FOLLOW_SUCCESS, result.getMessage());
+    verify(userRepository).follow(followerId, testUserId);
+    verify(userRepository).addToFollowersCount(testUserId, 1);
+    verify(feedUtil).onFollow(followerId, testUserId);
+  }
+
+  @Test
+  void toggleFollow_ShouldUnfollowAndClearFeed_WhenFollowing() {
+    // Arrange
+    UUID followerId = UUID.randomUUID();
+    when(userUtil.getAuthenticatedUserId()).thenReturn(followerId);
+    when(userRepository.existsById(testUserId)).thenReturn(true);
+    when(userRepository.isFollowing(followerId, testUserId)).thenReturn(true);
+
+    // Act
+    BaseResponseDto result = userService.toggleFollow(testUserId);
+
+    // Assert
+    assertEquals(ResponseMessage.USER_UNFOLLOW_SUCCESS, result.getMessage());
+    verify(userRepository).unfollow(followerId, testUserId);
+    verify(userRepository).addToFollowersCount(testUserId, -1);
+    verify(feedUtil).onUnfollow(followerId, testUserId);
+  }
+
+  @Test
+  void toggleFollow_ShouldThrowException_WhenFollowingSelf() {
+    // Arrange
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> userService.toggleFollow(testUserId));
+    verify(userRepository, never()).follow(any(), any());
+  }
+
+  @Test
+  void toggleFollow_WhenUserNotFound_ShouldThrowException() {
+    // Arrange
+    UUID nonExistentId = UUID.randomUUID();
+    when(userUtil.getAuthenticatedUserId()).thenReturn(testUserId);
+    when(userRepository.existsById(nonExistentId)).thenReturn(false);
+
+    // Act & Assert
+    assertThrows(UserNotFoundException.class, () -> userService.toggleFollow(nonExistentId));
+  }
 }
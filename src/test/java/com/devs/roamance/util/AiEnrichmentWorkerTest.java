@@ -0,0 +1,319 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.devs.roamance.AbstractPostgresTest;
+import com.devs.roamance.model.ai.AiEnrichmentJob;
+import com.devs.roamance.model.ai.AiEnrichmentJobStatus;
+import com.devs.roamance.model.ai.AiEnrichmentJobType;
+import com.devs.roamance.repository.AiEnrichmentJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Claims hold their row locks until their own transaction commits, so tests run without one
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiEnrichmentWorkerTest extends AbstractPostgresTest {
+
+  private static final long BASE_BACKOFF_MS = 60_000;
+
+  @Autowired private AiEnrichmentJobRepository aiEnrichmentJobRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private final PostUtil postUtil = mock(PostUtil.class);
+
+  private TransactionTemplate transactionTemplate;
+  private ThreadPoolTaskExecutor executor;
+  private AiEnrichmentWorker worker;
+
+  @BeforeEach
+  void setUp() {
+    aiEnrichmentJobRepository.deleteAll();
+
+    transactionTemplate = new TransactionTemplate(transactionManager);
+
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(4);
+    executor.initialize();
+
+    worker =
+        new AiEnrichmentWorker(
+            aiEnrichmentJobRepository,
+            postUtil,
+            executor,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            4);
+
+    ReflectionTestUtils.setField(worker, "maxAttempts", 2);
+    ReflectionTestUtils.setField(worker, "baseBackoffMs", BASE_BACKOFF_MS);
+    ReflectionTestUtils.setField(worker, "maxBackoffMs", 10 * BASE_BACKOFF_MS);
+    ReflectionTestUtils.setField(worker, "staleAfterMs", 600_000L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void claimDue_ConcurrentClaims_ShouldNotOverlap() throws Exception {
+    // Arrange
+    for (int i = 0; i < 4; i++) {
+      dueJob();
+    }
+
+    CountDownLatch firstClaimed = new CountDownLatch(1);
+    CountDownLatch secondClaimed = new CountDownLatch(1);
+
+    // Keeps its transaction, and the row locks, open until the second claim is done
+    CompletableFuture<List<UUID>> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                transactionTemplate.execute(
+                    status -> {
+                      List<UUID> ids = claim(2);
+                      firstClaimed.countDown();
+                      await(secondClaimed);
+                      return ids;
+                    }));
+
+    assertTrue(firstClaimed.await(10, TimeUnit.SECONDS));
+
+    // Act
+    List<UUID> second = transactionTemplate.execute(status -> claim(4));
+    secondClaimed.countDown();
+
+    // Assert
+    Set<UUID> claimed = new HashSet<>(first.get(10, TimeUnit.SECONDS));
+    assertEquals(2, claimed.size());
+    assertEquals(2, second.size());
+
+    second.forEach(id -> assertTrue(claimed.add(id), "Job " + id + " was claimed twice"));
+  }
+
+  @Test
+  void releaseStale_ShouldOnlyReleaseJobsClaimedBeforeTheCutoff() {
+    // Arrange
+    UUID stale = runningJob(now().minusHours(1));
+    UUID fresh = runningJob(now());
+
+    // Act
+    Integer released =
+        transactionTemplate.execute(
+            status ->
+                aiEnrichmentJobRepository.releaseStale(
+                    now().minusMinutes(10),
+                    AiEnrichmentJobStatus.RUNNING,
+                    AiEnrichmentJobStatus.PENDING));
+
+    // Assert
+    assertEquals(1, released);
+
+    AiEnrichmentJob releasedJob = job(stale);
+    assertEquals(AiEnrichmentJobStatus.PENDING, releasedJob.getStatus());
+    assertNull(releasedJob.getLockedAt());
+
+    assertEquals(AiEnrichmentJobStatus.RUNNING, job(fresh).getStatus());
+  }
+
+  @Test
+  void finish_WithStaleClaim_ShouldNotOverwriteTheOutcomeOfTheReClaim() {
+    // Arrange
+    OffsetDateTime staleClaim = now().minusHours(1);
+    UUID id = runningJob(staleClaim);
+
+    transactionTemplate.execute(
+        status ->
+            aiEnrichmentJobRepository.releaseStale(
+                now().minusMinutes(10),
+                AiEnrichmentJobStatus.RUNNING,
+                AiEnrichmentJobStatus.PENDING));
+
+    OffsetDateTime currentClaim = now();
+    setRunning(id, currentClaim);
+
+    // Act
+    Integer staleFinished = finish(id, staleClaim, AiEnrichmentJobStatus.FAILED, "Stale");
+    Integer currentFinished = finish(id, currentClaim, AiEnrichmentJobStatus.DONE, null);
+
+    // Assert
+    assertEquals(0, staleFinished);
+    assertEquals(1, currentFinished);
+
+    AiEnrichmentJob job = job(id);
+    assertEquals(AiEnrichmentJobStatus.DONE, job.getStatus());
+    assertNull(job.getLastError());
+  }
+
+  @Test
+  void poll_ShouldCompleteClaimedJobs() {
+    // Arrange
+    UUID id = dueJob();
+
+    // Act
+    worker.poll();
+
+    // Assert
+    AiEnrichmentJob job = awaitJob(id, j -> j.getStatus() == AiEnrichmentJobStatus.DONE);
+    assertEquals(1, job.getAttempts());
+    assertNull(job.getLockedAt());
+  }
+
+  @Test
+  void poll_WhenJobFails_ShouldRetryItAfterBackoff() {
+    // Arrange
+    doThrow(new IllegalStateException("Gemini unavailable")).when(postUtil).applyAiAnalysis(any());
+    UUID id = dueJob();
+    OffsetDateTime before = now();
+
+    // Act
+    worker.poll();
+
+    // Assert
+    AiEnrichmentJob job = awaitJob(id, j -> j.getStatus() == AiEnrichmentJobStatus.PENDING);
+    assertEquals(1, job.getAttempts());
+    assertNull(job.getLockedAt());
+    assertEquals("IllegalStateException: Gemini unavailable", job.getLastError());
+
+    // Base backoff plus at most a fifth of jitter
+    assertFalse(job.getNextAttemptAt().isBefore(before.plusNanos(BASE_BACKOFF_MS * 1_000_000)));
+    assertTrue(job.getNextAttemptAt().isBefore(now().plusNanos(BASE_BACKOFF_MS * 1_300_000)));
+
+    // Not due again until the backoff has passed
+    worker.poll();
+    assertEquals(1, job(id).getAttempts());
+  }
+
+  @Test
+  void poll_WhenJobFailsOnLastAttempt_ShouldMarkItFailed() {
+    // Arrange
+    doThrow(new IllegalStateException("Gemini unavailable")).when(postUtil).applyAiAnalysis(any());
+    UUID id = dueJob();
+    transactionTemplate.execute(
+        status -> {
+          aiEnrichmentJobRepository.findById(id).orElseThrow().setAttempts(1);
+          return null;
+        });
+
+    // Act
+    worker.poll();
+
+    // Assert
+    AiEnrichmentJob job = awaitJob(id, j -> j.getStatus() == AiEnrichmentJobStatus.FAILED);
+    assertEquals(2, job.getAttempts());
+  }
+
+  private UUID dueJob() {
+    return aiEnrichmentJobRepository
+        .save(
+            new AiEnrichmentJob(
+                UUID.randomUUID(), AiEnrichmentJobType.TIDBITS_AND_SAFETY, now().minusSeconds(1)))
+        .getId();
+  }
+
+  private UUID runningJob(OffsetDateTime lockedAt) {
+    UUID id = dueJob();
+    setRunning(id, lockedAt);
+    return id;
+  }
+
+  private void setRunning(UUID id, OffsetDateTime lockedAt) {
+    transactionTemplate.execute(
+        status -> {
+          AiEnrichmentJob job = aiEnrichmentJobRepository.findById(id).orElseThrow();
+          job.setStatus(AiEnrichmentJobStatus.RUNNING);
+          job.setLockedAt(lockedAt);
+          return null;
+        });
+  }
+
+  private List<UUID> claim(int limit) {
+    return aiEnrichmentJobRepository.claimDue(now(), limit).stream()
+        .map(AiEnrichmentJob::getId)
+        .toList();
+  }
+
+  private Integer finish(
+      UUID id, OffsetDateTime lockedAt, AiEnrichmentJobStatus status, String lastError) {
+
+    return transactionTemplate.execute(
+        txStatus ->
+            aiEnrichmentJobRepository.finish(
+                id,
+                lockedAt,
+                AiEnrichmentJobStatus.RUNNING,
+                status,
+                now(),
+                lastError,
+                now()));
+  }
+
+  private AiEnrichmentJob job(UUID id) {
+    return aiEnrichmentJobRepository.findById(id).orElseThrow();
+  }
+
+  // Jobs run on the executor after poll() returns
+  private AiEnrichmentJob awaitJob(UUID id, Predicate<AiEnrichmentJob> condition) {
+
+    long deadline = System.currentTimeMillis() + 10_000;
+
+    while (System.currentTimeMillis() < deadline) {
+      AiEnrichmentJob job = job(id);
+      if (condition.test(job)) {
+        return job;
+      }
+      sleep(50);
+    }
+
+    return fail("Job " + id + " did not reach the expected state");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Truncated to what the columns store, like the worker does for its claims
+  private static OffsetDateTime now() {
+    return OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+  }
+}
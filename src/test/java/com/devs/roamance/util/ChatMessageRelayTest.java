@@ -0,0 +1,143 @@
+package com.devs.roamance.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.devs.roamance.util.ChatRelayTransport.Envelope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Two instances in one JVM, connected by a shared transport like instances sharing a database. */
+@ExtendWith(MockitoExtension.class)
+class ChatMessageRelayTest {
+
+  private static final String DESTINATION = "/queue/messages";
+
+  @Mock private SimpMessagingTemplate templateA;
+
+  @Mock private SimpMessagingTemplate templateB;
+
+  @Mock private SimpUserRegistry registryA;
+
+  @Mock private SimpUserRegistry registryB;
+
+  @Mock private SimpUser connectedUser;
+
+  private LocalChatRelayTransport transport;
+  private ChatMessageRelay instanceA;
+  private ChatMessageRelay instanceB;
+  private String userId;
+  private Map<String, String> payload;
+
+  @BeforeEach
+  void setUp() {
+    transport = spy(new LocalChatRelayTransport());
+
+    instanceA = new ChatMessageRelay(templateA, registryA, transport, new SimpleMeterRegistry());
+    instanceB = new ChatMessageRelay(templateB, registryB, transport, new SimpleMeterRegistry());
+
+    // Instance A is past its start-up period, B has just started
+    ReflectionTestUtils.setField(instanceA, "instanceTtlMs", 60_000L);
+    ReflectionTestUtils.setField(instanceA, "startedAtMillis", 0L);
+    ReflectionTestUtils.setField(instanceB, "instanceTtlMs", 60_000L);
+
+    userId = UUID.randomUUID().toString();
+    payload = Map.of("text", "Hello");
+  }
+
+  @Test
+  void sendToUser_WhenUserIsConnectedToOtherInstance_ShouldDeliverThere() {
+    // Arrange
+    when(registryB.getUser(userId)).thenReturn(connectedUser);
+    instanceB.connected(userId, "session-b");
+
+    // Act
+    instanceA.sendToUser(userId, DESTINATION, payload);
+
+    // Assert
+    verify(templateB).convertAndSendToUser(userId, DESTINATION, payload);
+    verifyNoInteractions(templateA);
+  }
+
+  @Test
+  void sendToUser_WhenUserIsConnectedToSameInstanceOnly_ShouldNotPublish() {
+    // Arrange
+    when(registryA.getUser(userId)).thenReturn(connectedUser);
+    instanceA.connected(userId, "session-a");
+
+    // Act
+    instanceA.sendToUser(userId, DESTINATION, payload);
+
+    // Assert
+    verify(templateA).convertAndSendToUser(userId, DESTINATION, payload);
+    verify(transport, never()).publish(any(Envelope.class));
+    verifyNoInteractions(templateB);
+  }
+
+  @Test
+  void sendToUser_AfterLastSessionOnOtherInstanceClosed_ShouldNotPublish() {
+    // Arrange
+    instanceB.connected(userId, "session-b");
+    instanceB.connected(userId, "session-c");
+    instanceB.disconnected(userId, "session-b");
+    instanceB.disconnected(userId, "session-c");
+
+    // Act
+    instanceA.sendToUser(userId, DESTINATION, payload);
+
+    // Assert
+    verify(transport, never()).publish(any(Envelope.class));
+    verifyNoInteractions(templateA, templateB);
+  }
+
+  @Test
+  void sendToUser_BeforeOtherInstancesAnnounced_ShouldPublish() {
+    // Act
+    instanceB.sendToUser(userId, DESTINATION, payload);
+
+    // Assert
+    verify(transport).publish(any(Envelope.class));
+  }
+
+  @Test
+  void announce_ShouldReplaceUsersAnnouncedBefore() {
+    // Arrange
+    instanceB.connected(userId, "session-b");
+
+    // The session went away without the disconnect being announced
+    ((Map<?, ?>) ReflectionTestUtils.getField(instanceB, "localSessions")).clear();
+
+    // Act
+    instanceB.announce();
+    instanceA.sendToUser(userId, DESTINATION, payload);
+
+    // Assert
+    verify(transport, never()).publish(any(Envelope.class));
+  }
+
+  @Test
+  void sendToUser_WhenUserIsConnectedToBothInstances_ShouldDeliverToEach() {
+    // Arrange
+    when(registryA.getUser(userId)).thenReturn(connectedUser);
+    when(registryB.getUser(userId)).thenReturn(connectedUser);
+    instanceA.connected(userId, "session-a");
+    instanceB.connected(userId, "session-b");
+
+    // Act
+    instanceA.sendToUser(userId, DESTINATION, payload);
+
+    // Assert
+    verify(templateA).convertAndSendToUser(userId, DESTINATION, payload);
+    verify(templateB).convertAndSendToUser(userId, DESTINATION, payload);
+  }
+}
@@ -0,0 +1,218 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.devs.roamance.dto.request.social.RealTimeChatRequestDto;
+import com.devs.roamance.dto.response.social.ChatMessageAckDto;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.ChatRepository;
+import com.devs.roamance.repository.UserRepository;
+import com.devs.roamance.repository.projection.ChatParticipant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageWriterTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private ChatRepository chatRepository;
+
+  @Mock private ChatParticipantCache chatParticipantCache;
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private ChatMessageRelay chatMessageRelay;
+
+  @Mock private DtoMapper dtoMapper;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private ChatMessageWriter writer;
+  private UUID chatId;
+  private User alice;
+  private User bob;
+
+  @BeforeEach
+  void setUp() {
+    writer = newWriter(10);
+
+    chatId = UUID.randomUUID();
+
+    alice = new User();
+    alice.setId(UUID.randomUUID());
+    alice.setName("Alice");
+
+    bob = new User();
+    bob.setId(UUID.randomUUID());
+    bob.setName("Bob");
+  }
+
+  @Test
+  void flush_ShouldPersistQueuedMessagesInOneBatch() {
+    // Arrange
+    when(chatRepository.findParticipantsByChatIds(List.of(chatId)))
+        .thenReturn(
+            List.of(
+                new ChatParticipant(chatId, alice.getId()),
+                new ChatParticipant(chatId, bob.getId())));
+    when(userRepository.findAllById(any())).thenReturn(List.of(alice, bob));
+
+    writer.submit(chatId, alice.getId(), alice.getId().toString(), message("Hi", List.of()));
+    writer.submit(chatId, bob.getId(), bob.getId().toString(), message(null, List.of("photo.jpg")));
+    writer.submit(chatId, alice.getId(), alice.getId().toString(), message("Nice!", List.of()));
+
+    ArgumentCaptor<List<Object[]>> messageRows = rowsCaptor();
+    ArgumentCaptor<List<Object[]>> imageRows = rowsCaptor();
+    ArgumentCaptor<List<Object[]>> lastTextRows = rowsCaptor();
+    ArgumentCaptor<List<Object[]>> inboxRows = rowsCaptor();
+
+    // Act
+    writer.flush();
+
+    // Assert
+    verify(jdbcTemplate).batchUpdate(contains("INSERT INTO messages"), messageRows.capture());
+    verify(jdbcTemplate)
+        .batchUpdate(contains("INSERT INTO message_image_paths"), imageRows.capture());
+    verify(jdbcTemplate).batchUpdate(contains("UPDATE chats"), lastTextRows.capture());
+    verify(jdbcTemplate).batchUpdate(contains("UPDATE chat_inbox"), inboxRows.capture());
+    verify(jdbcTemplate, never()).batchUpdate(contains("message_video_paths"), anyList());
+
+    assertEquals(3, messageRows.getValue().size());
+    assertEquals("photo.jpg", imageRows.getValue().get(0)[1]);
+
+    assertEquals(1, lastTextRows.getValue().size());
+    assertEquals("Nice!", lastTextRows.getValue().get(0)[0]);
+
+    // Alice sent the last message, Bob has not read it yet
+    assertEquals(2, inboxRows.getValue().size());
+    for (Object[] row : inboxRows.getValue()) {
+      boolean isAlice = alice.getId().equals(row[9]);
+      assertEquals(isAlice ? 0 : 1, row[6]);
+      assertEquals("Nice!", row[3]);
+    }
+
+    // Both participants get every message
+    verify(chatMessageRelay, times(3))
+        .sendToUser(eq(alice.getId().toString()), eq("/queue/messages"), any());
+    verify(chatMessageRelay, times(3))
+        .sendToUser(eq(bob.getId().toString()), eq("/queue/messages"), any());
+
+    ArgumentCaptor<Object> acks = ArgumentCaptor.forClass(Object.class);
+    verify(chatMessageRelay, times(3))
+        .sendToUser(anyString(), eq("/queue/message-acks"), acks.capture());
+    acks.getAllValues().forEach(ack -> assertEquals(201, ((ChatMessageAckDto) ack).getStatus()));
+  }
+
+  @Test
+  void flush_ShouldRejectMessagesOfNonParticipants() {
+    // Arrange
+    when(chatRepository.findParticipantsByChatIds(List.of(chatId)))
+        .thenReturn(List.of(new ChatParticipant(chatId, alice.getId())));
+
+    writer.submit(chatId, bob.getId(), bob.getId().toString(), message("Hi", List.of()));
+
+    ArgumentCaptor<Object> ack = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    writer.flush();
+
+    // Assert
+    verifyNoInteractions(jdbcTemplate, userRepository);
+    verify(chatMessageRelay)
+        .sendToUser(eq(bob.getId().toString()), eq("/queue/message-acks"), ack.capture());
+    assertEquals(403, ((ChatMessageAckDto) ack.getValue()).getStatus());
+  }
+
+  @Test
+  void flush_WhenParticipantLookupFails_ShouldAnswerEveryMessageWithError() {
+    // Arrange
+    when(chatRepository.findParticipantsByChatIds(List.of(chatId)))
+        .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+    writer.submit(chatId, alice.getId(), alice.getId().toString(), message("Hi", List.of()));
+    writer.submit(chatId, bob.getId(), bob.getId().toString(), message("Hey", List.of()));
+
+    ArgumentCaptor<Object> acks = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    writer.flush();
+
+    // Assert
+    verifyNoInteractions(jdbcTemplate, userRepository);
+    verify(chatMessageRelay, times(2))
+        .sendToUser(anyString(), eq("/queue/message-acks"), acks.capture());
+    acks.getAllValues().forEach(ack -> assertEquals(500, ((ChatMessageAckDto) ack).getStatus()));
+    verify(chatMessageRelay, never()).sendToUser(anyString(), eq("/queue/messages"), any());
+  }
+
+  @Test
+  void submit_WhenQueueIsFull_ShouldRejectMessage() {
+    // Arrange
+    writer = newWriter(1);
+    writer.submit(chatId, alice.getId(), alice.getId().toString(), message("First", List.of()));
+
+    ArgumentCaptor<Object> ack = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    boolean queued =
+        writer.submit(
+            chatId, alice.getId(), alice.getId().toString(), message("Second", List.of()));
+
+    // Assert
+    assertFalse(queued);
+    verify(chatMessageRelay)
+        .sendToUser(eq(alice.getId().toString()), eq("/queue/message-acks"), ack.capture());
+    assertEquals(503, ((ChatMessageAckDto) ack.getValue()).getStatus());
+  }
+
+  private ChatMessageWriter newWriter(int queueCapacity) {
+
+    ChatMessageWriter chatMessageWriter =
+        new ChatMessageWriter(
+            jdbcTemplate,
+            chatRepository,
+            chatParticipantCache,
+            userRepository,
+            chatMessageRelay,
+            dtoMapper,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            queueCapacity);
+
+    ReflectionTestUtils.setField(chatMessageWriter, "maxBatchSize", 100);
+
+    return chatMessageWriter;
+  }
+
+  private static RealTimeChatRequestDto message(String text, List<String> imagePaths) {
+
+    RealTimeChatRequestDto request = new RealTimeChatRequestDto();
+    request.setText(text);
+    request.setImagePaths(imagePaths);
+    request.setClientMessageId(UUID.randomUUID().toString());
+
+    return request;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentCaptor<List<Object[]>> rowsCaptor() {
+    return ArgumentCaptor.forClass(List.class);
+  }
+}
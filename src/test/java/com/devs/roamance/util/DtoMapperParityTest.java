@@ -0,0 +1,225 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.dto.response.social.ChatDto;
+import com.devs.roamance.dto.response.social.CommentDto;
+import com.devs.roamance.dto.response.social.MessageDto;
+import com.devs.roamance.dto.response.social.PostDto;
+import com.devs.roamance.dto.response.travel.itinerary.ActivityDto;
+import com.devs.roamance.dto.response.travel.itinerary.DayPlanBriefDto;
+import com.devs.roamance.dto.response.travel.itinerary.DayPlanDetailDto;
+import com.devs.roamance.dto.response.travel.itinerary.ItineraryBriefDto;
+import com.devs.roamance.dto.response.travel.itinerary.ItineraryDetailDto;
+import com.devs.roamance.dto.response.user.UserDto;
+import com.devs.roamance.model.audit.Audit;
+import com.devs.roamance.model.audit.AuditTime;
+import com.devs.roamance.model.common.ActivityType;
+import com.devs.roamance.model.common.Location;
+import com.devs.roamance.model.social.Chat;
+import com.devs.roamance.model.social.Comment;
+import com.devs.roamance.model.social.Message;
+import com.devs.roamance.model.social.Post;
+import com.devs.roamance.model.travel.itinerary.Activity;
+import com.devs.roamance.model.travel.itinerary.DayPlan;
+import com.devs.roamance.model.travel.itinerary.Itinerary;
+import com.devs.roamance.model.travel.itinerary.RoutePlan;
+import com.devs.roamance.model.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Checks that {@link DtoMapper} produces the same JSON as the ModelMapper mappings it replaced. */
+class DtoMapperParityTest {
+
+  private static final OffsetDateTime CREATED_AT =
+      OffsetDateTime.of(2025, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+  private static final OffsetDateTime LAST_MODIFIED_AT =
+      OffsetDateTime.of(2025, 3, 2, 10, 0, 0, 0, ZoneOffset.UTC);
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private DtoMapper dtoMapper;
+  private ModelMapper modelMapper;
+
+  private User testUser;
+
+  @BeforeEach
+  void setUp() {
+    dtoMapper = new DtoMapper();
+
+    // Same matching strategy as ModelMapperConfig
+    modelMapper = new ModelMapper();
+    modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+
+    testUser = user("Test User");
+  }
+
+  @Test
+  void toPostDto_ShouldMatchModelMapper() {
+    Post post = new Post();
+    post.setId(UUID.randomUUID());
+    post.setText("Sunset at Cox's Bazar");
+    post.setImagePaths(new ArrayList<>(List.of("image-1.jpg", "image-2.jpg")));
+    post.setVideoPaths(new ArrayList<>(List.of("video-1.mp4")));
+    post.setLocation(new Location(21.43, 91.97));
+    post.setIsSafe(false);
+    post.setTidbits("Longest natural sea beach");
+    post.setLikesCount(12);
+    post.setCommentsCount(3);
+    post.setUser(testUser);
+    post.setAudit(audit());
+
+    assertSameJson(modelMapper.map(post, PostDto.class), dtoMapper.toPostDto(post));
+  }
+
+  @Test
+  void toPostDto_ShouldMatchModelMapper_WhenOptionalFieldsAreMissing() {
+    Post post = new Post();
+    post.setId(UUID.randomUUID());
+
+    assertSameJson(modelMapper.map(post, PostDto.class), dtoMapper.toPostDto(post));
+  }
+
+  @Test
+  void toCommentDto_ShouldMatchModelMapper() {
+    Comment comment = new Comment();
+    comment.setId(UUID.randomUUID());
+    comment.setText("Looks amazing");
+    comment.setImagePath("image.jpg");
+    comment.setVideoPath("video.mp4");
+    comment.setUser(testUser);
+    comment.setAudit(audit());
+
+    assertSameJson(modelMapper.map(comment, CommentDto.class), dtoMapper.toCommentDto(comment));
+  }
+
+  @Test
+  void toMessageDto_ShouldMatchModelMapper() {
+    Message message = new Message();
+    message.setId(UUID.randomUUID());
+    message.setText("See you there");
+    message.setImagePaths(new ArrayList<>(List.of("image.jpg")));
+    message.setUser(testUser);
+    message.setAudit(audit());
+
+    assertSameJson(modelMapper.map(message, MessageDto.class), dtoMapper.toMessageDto(message));
+  }
+
+  @Test
+  void toChatDto_ShouldMatchModelMapper() {
+    Chat chat = new Chat();
+    chat.setId(UUID.randomUUID());
+    chat.setUsers(new ArrayList<>(List.of(testUser, user("Other User"))));
+    chat.setLastText("See you there");
+    chat.setAudit(audit());
+
+    assertSameJson(modelMapper.map(chat, ChatDto.class), dtoMapper.toChatDto(chat));
+  }
+
+  @Test
+  void toUserDto_ShouldMatchModelMapper() {
+    assertSameJson(modelMapper.map(testUser, UserDto.class), dtoMapper.toUserDto(testUser));
+  }
+
+  @Test
+  void toActivityDto_ShouldMatchModelMapper() {
+    Activity activity = new Activity();
+    activity.setId(UUID.randomUUID());
+    activity.setLocation(new Location(23.81, 90.41));
+    activity.setStartTime(LocalTime.of(9, 30));
+    activity.setEndTime(LocalTime.of(11, 0));
+    activity.setType(ActivityType.OTHER);
+    activity.setOtherTypeName("Boat ride");
+    activity.setNote("Bring a jacket");
+    activity.setCost(new BigDecimal("25.50"));
+    activity.setAudit(audit());
+
+    assertSameJson(modelMapper.map(activity, ActivityDto.class), dtoMapper.toActivityDto(activity));
+  }
+
+  @Test
+  void toDayPlanDtos_ShouldMatchModelMapper() {
+    DayPlan dayPlan = new DayPlan();
+    dayPlan.setId(UUID.randomUUID());
+    dayPlan.setDate(LocalDate.of(2025, 3, 14));
+    dayPlan.setRoutePlan(
+        new RoutePlan(
+            12.5,
+            90,
+            "Along the river",
+            new ArrayList<>(List.of(new Location(23.81, 90.41), new Location(23.75, 90.39)))));
+    dayPlan.setNotes(new ArrayList<>(List.of("Start early")));
+    dayPlan.setTotalCost(new BigDecimal("40.00"));
+    dayPlan.setAudit(audit());
+
+    assertSameJson(
+        modelMapper.map(dayPlan, DayPlanBriefDto.class), dtoMapper.toDayPlanBriefDto(dayPlan));
+    assertSameJson(
+        modelMapper.map(dayPlan, DayPlanDetailDto.class), dtoMapper.toDayPlanDetailDto(dayPlan));
+  }
+
+  @Test
+  void toItineraryDtos_ShouldMatchModelMapper() {
+    Itinerary itinerary = new Itinerary();
+    itinerary.setId(UUID.randomUUID());
+    itinerary.setTitle("Weekend in Sylhet");
+    itinerary.setDescription("Tea gardens and waterfalls");
+    itinerary.setStartDate(LocalDate.of(2025, 3, 14));
+    itinerary.setEndDate(LocalDate.of(2025, 3, 16));
+    // A single location, the DTO keeps them in a HashSet without a stable order
+    itinerary.setLocations(new HashSet<>(Set.of(new Location(24.89, 91.87))));
+    itinerary.setNotes(new ArrayList<>(List.of("Book the resort", "Carry cash")));
+    itinerary.setTotalCost(new BigDecimal("120.00"));
+    itinerary.setUser(testUser);
+    itinerary.setAudit(audit());
+
+    assertSameJson(
+        modelMapper.map(itinerary, ItineraryBriefDto.class),
+        dtoMapper.toItineraryBriefDto(itinerary));
+    assertSameJson(
+        modelMapper.map(itinerary, ItineraryDetailDto.class),
+        dtoMapper.toItineraryDetailDto(itinerary));
+  }
+
+  private void assertSameJson(Object expected, Object actual) {
+    assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(actual));
+  }
+
+  private static User user(String name) {
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    user.setName(name);
+    user.setEmail(name.toLowerCase().replace(' ', '.') + "@example.com");
+    user.setProfileImage("profile.jpg");
+
+    AuditTime audit = new AuditTime();
+    ReflectionTestUtils.setField(audit, "createdAt", CREATED_AT);
+    ReflectionTestUtils.setField(audit, "lastModifiedAt", LAST_MODIFIED_AT);
+    user.setAudit(audit);
+
+    return user;
+  }
+
+  private static Audit audit() {
+    Audit audit = new Audit();
+    ReflectionTestUtils.setField(audit, "createdAt", CREATED_AT);
+    ReflectionTestUtils.setField(audit, "lastModifiedAt", LAST_MODIFIED_AT);
+    ReflectionTestUtils.setField(audit, "createdBy", UUID.randomUUID());
+    ReflectionTestUtils.setField(audit, "lastModifiedBy", UUID.randomUUID());
+    return audit;
+  }
+}
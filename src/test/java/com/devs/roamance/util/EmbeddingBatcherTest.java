@@ -0,0 +1,209 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EmbeddingBatcherTest {
+
+  private final StubEmbeddingModel delegate = new StubEmbeddingModel();
+
+  private EmbeddingBatcher batcher;
+
+  @AfterEach
+  void tearDown() {
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  @Test
+  void embedAll_ShouldHandEveryCallerItsOwnSliceOfOneBatch() {
+    // Arrange
+    batcher = batcher(Duration.ofMillis(500), 10);
+
+    // Act
+    CompletableFuture<List<Float>> first = embedAsync("1", "2");
+    CompletableFuture<List<Float>> second = embedAsync("3");
+
+    // Assert
+    assertEquals(List.of(1f, 2f), first.join());
+    assertEquals(List.of(3f), second.join());
+    assertEquals(List.of(3), delegate.batchSizes);
+  }
+
+  @Test
+  void embedAll_ShouldFlushBeforeTheWindowWhenTheCapIsReached() {
+    // Arrange
+    batcher = batcher(Duration.ofSeconds(30), 2);
+
+    // Act
+    CompletableFuture<List<Float>> first = embedAsync("1");
+    CompletableFuture<List<Float>> second = embedAsync("2");
+
+    // Assert
+    assertEquals(List.of(1f), first.orTimeout(5, TimeUnit.SECONDS).join());
+    assertEquals(List.of(2f), second.orTimeout(5, TimeUnit.SECONDS).join());
+    assertEquals(List.of(2), delegate.batchSizes);
+  }
+
+  @Test
+  void embedAll_ShouldMoveACallerThatWouldOverflowTheCapToTheNextBatch() {
+    // Arrange
+    batcher = batcher(Duration.ofMillis(500), 3);
+
+    // Act
+    CompletableFuture<List<Float>> first = embedAsync("1", "2");
+    CompletableFuture<List<Float>> second = embedAsync("3", "4");
+
+    // Assert
+    assertEquals(List.of(1f, 2f), first.join());
+    assertEquals(List.of(3f, 4f), second.join());
+    assertEquals(List.of(2, 2), delegate.batchSizes);
+  }
+
+  @Test
+  void embedAll_ShouldSplitACallerAboveTheCap() {
+    // Arrange
+    batcher = batcher(Duration.ofMillis(50), 2);
+
+    // Act
+    List<Float> vectors = embed("1", "2", "3", "4", "5");
+
+    // Assert
+    assertEquals(List.of(1f, 2f, 3f, 4f, 5f), vectors);
+    assertEquals(List.of(2, 2, 1), delegate.batchSizes);
+  }
+
+  @Test
+  void embedAll_WhenDelegateFails_ShouldFailEveryCallerInTheBatch() {
+    // Arrange
+    delegate.embed =
+        segments -> {
+          throw new IllegalStateException("Model unavailable");
+        };
+    batcher = batcher(Duration.ofMillis(500), 10);
+
+    // Act
+    CompletableFuture<List<Float>> first = embedAsync("1");
+    CompletableFuture<List<Float>> second = embedAsync("2");
+
+    // Assert
+    assertEquals("Model unavailable", failure(first).getMessage());
+    assertEquals("Model unavailable", failure(second).getMessage());
+    assertEquals(List.of(2), delegate.batchSizes);
+  }
+
+  @Test
+  void embedAll_WhenDelegateReturnsTooFewEmbeddings_ShouldFail() {
+    // Arrange
+    delegate.embed = segments -> List.of(Embedding.from(new float[] {1f}));
+    batcher = batcher(Duration.ofMillis(50), 10);
+
+    // Act
+    IllegalStateException exception =
+        assertThrows(IllegalStateException.class, () -> embed("1", "2"));
+
+    // Assert
+    assertEquals("Expected 2 embeddings but received 1", exception.getMessage());
+  }
+
+  @Test
+  void close_ShouldFailCallersStillWaiting() throws InterruptedException {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    delegate.embed =
+        segments -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return StubEmbeddingModel.vectors(segments);
+        };
+    batcher = batcher(Duration.ZERO, 10);
+
+    CompletableFuture<List<Float>> inFlight = embedAsync("1");
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<List<Float>> queued = embedAsync("2");
+    Thread.sleep(100);
+
+    // Act
+    batcher.close();
+    release.countDown();
+
+    // Assert
+    assertEquals(List.of(1f), inFlight.orTimeout(5, TimeUnit.SECONDS).join());
+    assertEquals("Embedding batcher is closed", failure(queued).getMessage());
+    assertThrows(IllegalStateException.class, () -> embed("3"));
+  }
+
+  private EmbeddingBatcher batcher(Duration window, int maxBatchSize) {
+    return new EmbeddingBatcher(
+        "test", delegate, window, maxBatchSize, Duration.ofSeconds(10), new SimpleMeterRegistry());
+  }
+
+  private List<Float> embed(String... texts) {
+    List<TextSegment> segments = Stream.of(texts).map(TextSegment::from).toList();
+
+    return batcher.embedAll(segments).content().stream()
+        .map(embedding -> embedding.vector()[0])
+        .toList();
+  }
+
+  private CompletableFuture<List<Float>> embedAsync(String... texts) {
+    CompletableFuture<List<Float>> result = CompletableFuture.supplyAsync(() -> embed(texts));
+
+    // Keep the order in which callers queue deterministic
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    return result;
+  }
+
+  private static Throwable failure(CompletableFuture<?> future) {
+    CompletionException exception =
+        assertThrows(CompletionException.class, () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+    return exception.getCause();
+  }
+
+  private static class StubEmbeddingModel implements EmbeddingModel {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private volatile Function<List<TextSegment>, List<Embedding>> embed =
+        StubEmbeddingModel::vectors;
+
+    // Embeds each segment as a vector holding the number it spells
+    private static List<Embedding> vectors(List<TextSegment> segments) {
+      return segments.stream()
+          .map(segment -> Embedding.from(new float[] {Float.parseFloat(segment.text())}))
+          .toList();
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+      batchSizes.add(textSegments.size());
+      return Response.from(embed.apply(textSegments));
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.exception.DateOutOfRangeException;
+import com.devs.roamance.exception.ScheduleCollisionException;
+import com.devs.roamance.model.travel.itinerary.Activity;
+import com.devs.roamance.model.travel.itinerary.DayPlan;
+import com.devs.roamance.model.travel.itinerary.Itinerary;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+@ExtendWith(MockitoExtension.class)
+class ItineraryUtilTest {
+
+  private static final LocalDate START_DATE = LocalDate.of(2026, 6, 1);
+
+  @Mock private ActivityUtil activityUtil;
+
+  @Mock private ModelMapper modelMapper;
+
+  private ItineraryUtil itineraryUtil;
+  private Itinerary itinerary;
+
+  @BeforeEach
+  void setUp() {
+    itineraryUtil = new ItineraryUtil(activityUtil, modelMapper);
+
+    itinerary = new Itinerary();
+    itinerary.setStartDate(START_DATE);
+    itinerary.setEndDate(START_DATE.plusDays(2));
+  }
+
+  @Test
+  void validateDayPlansAndActivities_ShouldReportEveryCollisionOfTheItinerary() {
+    // Arrange
+    addDayPlan(START_DATE, activity("09:00", "11:00"), activity("10:00", "12:00"));
+    addDayPlan(START_DATE.plusDays(1), activity("09:00", "10:00"), activity("10:00", "11:00"));
+    addDayPlan(
+        START_DATE.plusDays(2),
+        activity("08:00", "18:00"),
+        activity("12:00", "13:00"),
+        activity("12:30", "14:00"));
+
+    // Act
+    ScheduleCollisionException exception =
+        assertThrows(
+            ScheduleCollisionException.class,
+            () -> itineraryUtil.validateDayPlansAndActivities(itinerary));
+
+    // Assert
+    // Collisions with the same later activity may be listed in any order
+    String prefix = "Activity schedule collisions detected on ";
+    assertTrue(exception.getMessage().startsWith(prefix));
+    assertEquals(
+        Set.of(
+            "2026-06-01 09:00-11:00 with 10:00-12:00",
+            "2026-06-03 08:00-18:00 with 12:00-13:00",
+            "2026-06-03 08:00-18:00 with 12:30-14:00",
+            "2026-06-03 12:00-13:00 with 12:30-14:00"),
+        Set.of(exception.getMessage().substring(prefix.length()).split(", ")));
+  }
+
+  @Test
+  void validateDayPlansAndActivities_WithoutCollisions_ShouldClearActivityIds() {
+    // Arrange
+    Activity first = activity("09:00", "10:00");
+    Activity second = activity("10:00", "11:00");
+    first.setId(UUID.randomUUID());
+    second.setId(UUID.randomUUID());
+
+    addDayPlan(START_DATE, first, second);
+
+    // Act
+    itineraryUtil.validateDayPlansAndActivities(itinerary);
+
+    // Assert
+    assertNull(first.getId());
+    assertNull(second.getId());
+  }
+
+  @Test
+  void validateDayPlansAndActivities_WithDayPlanOutsideItinerary_ShouldThrow() {
+    // Arrange
+    addDayPlan(START_DATE.plusDays(3), activity("09:00", "10:00"));
+
+    // Act & Assert
+    assertThrows(
+        DateOutOfRangeException.class,
+        () -> itineraryUtil.validateDayPlansAndActivities(itinerary));
+  }
+
+  private void addDayPlan(LocalDate date, Activity... activities) {
+
+    DayPlan dayPlan = new DayPlan();
+    dayPlan.setDate(date);
+    dayPlan.setActivities(new ArrayList<>(List.of(activities)));
+
+    itinerary.getDayPlans().add(dayPlan);
+  }
+
+  private static Activity activity(String start, String end) {
+
+    Activity activity = new Activity();
+    activity.setStartTime(LocalTime.parse(start));
+    activity.setEndTime(LocalTime.parse(end));
+
+    return activity;
+  }
+}
@@ -0,0 +1,300 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MediaCacheTest {
+
+  private static final String URL_A = "https://example.com/a.jpg";
+  private static final String URL_B = "https://example.com/b.jpg";
+  private static final String URL_C = "https://example.com/c.jpg";
+
+  @TempDir private Path diskDir;
+
+  private SimpleMeterRegistry meterRegistry;
+  private MediaCache cache;
+
+  // Downloads per URL, counted by the stub loader
+  private final Map<String, AtomicInteger> downloads = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void setUp() {
+    cache = newCache(false);
+  }
+
+  @Test
+  void get_ShouldServeRepeatedRequestsFromMemory() {
+    // Arrange
+    get(URL_A, "aaaa");
+
+    // Act
+    RestUtil.Media media = get(URL_A, "other");
+
+    // Assert
+    assertEquals("aaaa", media.base64());
+    assertEquals(1, downloads(URL_A));
+    assertEquals(1, requests("memory_hit"));
+  }
+
+  @Test
+  void get_AboveMemoryBytes_ShouldEvictTheLeastRecentlyUsedEntry() {
+    // Arrange
+    ReflectionTestUtils.setField(cache, "maxMemoryBytes", 10L);
+
+    get(URL_A, "aaaa");
+    get(URL_B, "bbbb");
+    get(URL_A, "aaaa");
+
+    // Act
+    get(URL_C, "cccc");
+
+    // Assert
+    get(URL_A, "aaaa");
+    get(URL_B, "bbbb");
+
+    assertEquals(1, downloads(URL_A));
+    assertEquals(2, downloads(URL_B));
+  }
+
+  @Test
+  void get_AboveMaxEntryBytes_ShouldNotCache() {
+    // Arrange
+    ReflectionTestUtils.setField(cache, "maxEntryBytes", 3L);
+
+    // Act
+    get(URL_A, "aaaa");
+    get(URL_A, "aaaa");
+
+    // Assert
+    assertEquals(2, downloads(URL_A));
+  }
+
+  @Test
+  void get_WhileDownloading_ShouldShareTheDownload() throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<CompletableFuture<RestUtil.Media>> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                cache.get(
+                    URL_A,
+                    cached -> {
+                      started.countDown();
+                      await(release);
+                      return download(URL_A, "aaaa");
+                    }));
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // Act
+    CompletableFuture<RestUtil.Media> second = cache.get(URL_A, cached -> download(URL_A, "bbbb"));
+    release.countDown();
+
+    // Assert
+    assertEquals("aaaa", second.get(5, TimeUnit.SECONDS).base64());
+    assertEquals("aaaa", first.get(5, TimeUnit.SECONDS).join().base64());
+    assertEquals(1, downloads(URL_A));
+    assertEquals(1, requests("shared_download"));
+  }
+
+  @Test
+  void get_AfterFailedDownload_ShouldDownloadAgain() {
+    // Arrange
+    CompletableFuture<RestUtil.Media> failed =
+        cache.get(
+            URL_A,
+            cached -> {
+              throw new IllegalStateException("Connection reset");
+            });
+
+    // Act
+    RestUtil.Media media = get(URL_A, "aaaa");
+
+    // Assert
+    assertThrows(CompletionException.class, failed::join);
+    assertEquals("aaaa", media.base64());
+  }
+
+  @Test
+  void get_WhenStale_ShouldRevalidateWithTheEtag() {
+    // Arrange
+    get(URL_A, "aaaa");
+    ReflectionTestUtils.setField(cache, "revalidateAfterMs", -1L);
+
+    List<String> etags = new ArrayList<>();
+
+    // Act
+    RestUtil.Media media =
+        cache
+            .get(
+                URL_A,
+                cached -> {
+                  // What RestUtil does when the server answers 304 Not Modified
+                  etags.add(cached.etag());
+                  return cached.revalidated();
+                })
+            .join();
+
+    // Assert
+    assertEquals(List.of("\"etag-" + URL_A + "\""), etags);
+    assertEquals("aaaa", media.base64());
+    assertEquals(1, requests("revalidated"));
+  }
+
+  @Test
+  void get_WithDiskTier_ShouldServeEntriesEvictedFromMemory() {
+    // Arrange
+    cache = newCache(true);
+    get(URL_A, "aaaa");
+
+    // Empty memory, same directory
+    cache = newCache(true);
+
+    // Act
+    RestUtil.Media media = get(URL_A, "other");
+
+    // Assert
+    assertEquals("aaaa", media.base64());
+    assertEquals(1, downloads(URL_A));
+    assertEquals(1, requests("disk_hit"));
+  }
+
+  @Test
+  void get_WithDiskEntryOfAnotherUrl_ShouldIgnoreIt() throws IOException {
+    // Arrange
+    cache = newCache(true);
+    get(URL_A, "aaaa");
+
+    // As if another URL had the same hash and its entry was written last
+    Path metadata = onlyFile(".properties");
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(metadata)) {
+      properties.load(in);
+    }
+    properties.setProperty("url", URL_B);
+    try (OutputStream out = Files.newOutputStream(metadata)) {
+      properties.store(out, null);
+    }
+
+    cache = newCache(true);
+
+    // Act
+    RestUtil.Media media = get(URL_A, "fresh");
+
+    // Assert
+    assertEquals("fresh", media.base64());
+    assertEquals(2, downloads(URL_A));
+  }
+
+  @Test
+  void get_AboveDiskBytes_ShouldEvictTheOldestFiles() throws IOException {
+    // Arrange
+    cache = newCache(true);
+    ReflectionTestUtils.setField(cache, "maxDiskBytes", 10L);
+
+    get(URL_A, "aaaaaa");
+    Files.setLastModifiedTime(onlyFile(".bin"), FileTime.fromMillis(0));
+
+    // Act
+    get(URL_B, "bbbbbb");
+
+    // Assert
+    try (Stream<Path> files = Files.list(diskDir)) {
+      assertEquals(2, files.count());
+    }
+    assertEquals(
+        6, meterRegistry.get("roamance.media.cache.size").tag("tier", "disk").gauge().value());
+
+    cache = newCache(true);
+    ReflectionTestUtils.setField(cache, "maxDiskBytes", 10L);
+
+    get(URL_A, "aaaaaa");
+    assertEquals(2, downloads(URL_A));
+  }
+
+  private MediaCache newCache(boolean diskEnabled) {
+
+    meterRegistry = new SimpleMeterRegistry();
+    MediaCache mediaCache = new MediaCache(meterRegistry);
+
+    ReflectionTestUtils.setField(mediaCache, "maxMemoryBytes", 1024L);
+    ReflectionTestUtils.setField(mediaCache, "maxEntryBytes", 1024L);
+    ReflectionTestUtils.setField(mediaCache, "revalidateAfterMs", 3_600_000L);
+    ReflectionTestUtils.setField(mediaCache, "diskEnabled", diskEnabled);
+    ReflectionTestUtils.setField(mediaCache, "diskDir", diskDir);
+    ReflectionTestUtils.setField(mediaCache, "maxDiskBytes", 1024L);
+
+    mediaCache.initializeDiskTier();
+
+    return mediaCache;
+  }
+
+  private RestUtil.Media get(String url, String base64) {
+    return cache.get(url, cached -> download(url, base64)).join();
+  }
+
+  private MediaCache.CachedMedia download(String url, String base64) {
+
+    downloads.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+
+    return new MediaCache.CachedMedia(
+        new RestUtil.Media(base64, "image/jpeg", base64.length()),
+        "\"etag-" + url + "\"",
+        System.currentTimeMillis());
+  }
+
+  private int downloads(String url) {
+    return downloads.getOrDefault(url, new AtomicInteger()).get();
+  }
+
+  private double requests(String result) {
+    return meterRegistry
+        .get("roamance.media.cache.requests")
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+
+  private Path onlyFile(String suffix) throws IOException {
+
+    try (Stream<Path> files = Files.list(diskDir)) {
+      List<Path> matching =
+          files.filter(path -> path.getFileName().toString().endsWith(suffix)).toList();
+
+      assertEquals(1, matching.size());
+      return matching.get(0);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
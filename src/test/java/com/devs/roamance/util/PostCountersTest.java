@@ -0,0 +1,136 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.AbstractPostgresTest;
+import com.devs.roamance.model.social.Post;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.PostRepository;
+import com.devs.roamance.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Flushes and reconciliation commit their own transactions, so tests run without one
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostCountersTest extends AbstractPostgresTest {
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PostRepository postRepository;
+
+  private PostCounters postCounters;
+  private UUID postId;
+
+  @BeforeEach
+  void setUp() {
+    postCounters = new PostCounters(jdbcTemplate, transactionManager, new SimpleMeterRegistry());
+
+    // Not injected without Spring, and scheduling is switched off in the test profile anyway
+    ReflectionTestUtils.setField(postCounters, "schedulingEnabled", true);
+    ReflectionTestUtils.setField(postCounters, "maxBatchSize", 10_000);
+
+    Post post = new Post();
+    post.setText("Post");
+    post.setUser(newUser());
+
+    postId = postRepository.save(post).getId();
+  }
+
+  @Test
+  void flush_ShouldApplyPendingDeltas() {
+    // Arrange
+    like();
+    like();
+    like();
+
+    // Act
+    postCounters.flush();
+
+    // Assert
+    assertEquals(3, likesCount());
+    assertEquals(0, pendingDeltas());
+  }
+
+  @Test
+  void reconcile_WithPendingDeltas_ShouldNotCountThemTwice() {
+    // Arrange
+    like();
+    like();
+
+    // Act
+    postCounters.reconcile();
+    postCounters.flush();
+
+    // Assert
+    assertEquals(2, likesCount());
+  }
+
+  @Test
+  void reconcile_ShouldRepairDrift() {
+    // Arrange
+    like();
+    postCounters.flush();
+
+    jdbcTemplate.update(
+        "UPDATE posts SET likes_count = 7, comments_count = 3 WHERE id = ?", postId);
+
+    // Act
+    postCounters.reconcile();
+
+    // Assert
+    assertEquals(1, likesCount());
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT comments_count FROM posts WHERE id = ?", Integer.class, postId));
+  }
+
+  /** Likes the post the way PostServiceImpl does, recording the like and its counter delta. */
+  private void like() {
+
+    UUID userId = newUser().getId();
+
+    jdbcTemplate.update("INSERT INTO post_likes (post_id, user_id) VALUES (?, ?)", postId, userId);
+    postCounters.addLikes(postId, 1);
+  }
+
+  private User newUser() {
+
+    String name = UUID.randomUUID().toString();
+
+    User user = new User();
+    user.setName(name);
+    user.setEmail(name + "@example.com");
+    user.setPassword("password");
+    user.setInfo(null);
+    user.setPreferences(null);
+
+    return userRepository.save(user);
+  }
+
+  private int likesCount() {
+
+    return jdbcTemplate.queryForObject(
+        "SELECT likes_count FROM posts WHERE id = ?", Integer.class, postId);
+  }
+
+  private long pendingDeltas() {
+
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM post_counter_deltas WHERE post_id = ?", Long.class, postId);
+  }
+}
@@ -0,0 +1,147 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.AbstractPostgresTest;
+import com.devs.roamance.util.ChatRelayTransport.Envelope;
+import com.devs.roamance.util.ChatRelayTransport.Frame;
+import com.devs.roamance.util.ChatRelayTransport.Sessions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Two instances talking through the Postgres container, without an application context. */
+class PostgresChatRelayTransportTest extends AbstractPostgresTest {
+
+  private PostgresChatRelayTransport instanceA;
+  private PostgresChatRelayTransport instanceB;
+
+  private final BlockingQueue<Frame> receivedByB = new LinkedBlockingQueue<>();
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    instanceA = newInstance();
+    instanceB = newInstance();
+
+    instanceB.subscribe(receivedByB::add);
+
+    awaitListening();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    instanceA.close();
+    instanceB.close();
+  }
+
+  @Test
+  void publish_ShouldReachOtherInstance() throws InterruptedException {
+    // Arrange
+    Envelope envelope =
+        new Envelope(UUID.randomUUID(), "user", "/queue/messages", Map.of("text", "Hello"));
+
+    // Act
+    instanceA.publish(envelope);
+
+    // Assert
+    Envelope received = (Envelope) receivedByB.poll(5, TimeUnit.SECONDS);
+    assertNotNull(received);
+    assertEquals(envelope.origin(), received.origin());
+    assertEquals("user", received.user());
+    assertEquals(Map.of("text", "Hello"), received.payload());
+  }
+
+  @Test
+  void publish_WithPayloadAboveNotifyLimit_ShouldReachOtherInstance() throws InterruptedException {
+    // Arrange
+    String text = "x".repeat(10_000);
+    Envelope envelope =
+        new Envelope(UUID.randomUUID(), "user", "/queue/messages", Map.of("text", text));
+
+    // Act
+    instanceA.publish(envelope);
+
+    // Assert
+    Envelope received = (Envelope) receivedByB.poll(5, TimeUnit.SECONDS);
+    assertNotNull(received);
+    assertEquals(Map.of("text", text), received.payload());
+  }
+
+  @Test
+  void publish_WithManyFrames_ShouldKeepTheirOrder() throws InterruptedException {
+    // Arrange
+    UUID origin = UUID.randomUUID();
+    String large = "x".repeat(10_000);
+
+    // Act
+    instanceA.publish(new Sessions(origin, List.of("alice"), List.of(), true));
+    for (int i = 0; i < 300; i++) {
+      instanceA.publish(
+          new Envelope(origin, "user", "/queue/messages", Map.of("text", i == 150 ? large : "")));
+    }
+    instanceA.publish(new Sessions(origin, List.of(), List.of("alice"), false));
+
+    // Assert
+    Sessions first = (Sessions) receivedByB.poll(5, TimeUnit.SECONDS);
+    assertNotNull(first);
+    assertEquals(List.of("alice"), List.copyOf(first.connected()));
+    assertTrue(first.full());
+
+    for (int i = 0; i < 300; i++) {
+      Envelope received = (Envelope) receivedByB.poll(5, TimeUnit.SECONDS);
+      assertNotNull(received);
+      assertEquals(i == 150 ? large : "", ((Map<?, ?>) received.payload()).get("text"));
+    }
+
+    Sessions last = (Sessions) receivedByB.poll(5, TimeUnit.SECONDS);
+    assertNotNull(last);
+    assertEquals(List.of("alice"), List.copyOf(last.disconnected()));
+  }
+
+  private PostgresChatRelayTransport newInstance() {
+
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+
+    PostgresChatRelayTransport transport =
+        new PostgresChatRelayTransport(
+            dataSource, new JdbcTemplate(dataSource), new ObjectMapper(), 1000);
+
+    ReflectionTestUtils.setField(transport, "pollTimeoutMs", 100);
+    ReflectionTestUtils.setField(transport, "reconnectDelayMs", 100L);
+    ReflectionTestUtils.setField(transport, "maxBatchSize", 100);
+
+    transport.start();
+
+    return transport;
+  }
+
+  /** Instances start listening in the background, notifications sent before that are lost. */
+  private void awaitListening() throws InterruptedException {
+
+    Envelope probe = new Envelope(UUID.randomUUID(), "probe", "/queue/probe", Map.of());
+
+    for (int attempt = 0; attempt < 50; attempt++) {
+      instanceA.publish(probe);
+
+      if (receivedByB.poll(200, TimeUnit.MILLISECONDS) != null) {
+        Thread.sleep(200);
+        receivedByB.clear();
+        return;
+      }
+    }
+
+    fail("Instance B did not start listening");
+  }
+}
@@ -0,0 +1,184 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.devs.roamance.dto.response.social.PresenceDto;
+import com.devs.roamance.repository.ChatInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceTrackerTest {
+
+  private static final String PRESENCE_DESTINATION = "/queue/presence";
+
+  @Mock private ChatInboxRepository chatInboxRepository;
+
+  @Mock private ChatMessageRelay chatMessageRelay;
+
+  @Mock private UserUtil userUtil;
+
+  @Mock private Principal principal;
+
+  private PresenceTracker presenceTracker;
+  private UUID aliceId;
+  private UUID bobId;
+
+  @BeforeEach
+  void setUp() {
+    presenceTracker =
+        new PresenceTracker(
+            chatInboxRepository,
+            chatMessageRelay,
+            userUtil,
+            Runnable::run,
+            new SimpleMeterRegistry());
+
+    ReflectionTestUtils.setField(presenceTracker, "ttlMs", 60_000L);
+
+    aliceId = UUID.randomUUID();
+    bobId = UUID.randomUUID();
+  }
+
+  @Test
+  void heartbeat_ShouldAnnounceOnlineOncePerUser() {
+    // Arrange
+    when(chatInboxRepository.findOtherUserIds(aliceId)).thenReturn(List.of(bobId));
+
+    ArgumentCaptor<Object> presence = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    presenceTracker.heartbeat(aliceId, "session-1");
+    presenceTracker.heartbeat(aliceId, "session-2");
+    presenceTracker.heartbeat(aliceId, "session-1");
+
+    // Assert
+    verify(chatMessageRelay)
+        .sendToUser(eq(bobId.toString()), eq(PRESENCE_DESTINATION), presence.capture());
+    assertEquals(aliceId, ((PresenceDto) presence.getValue()).getUserId());
+    assertTrue(((PresenceDto) presence.getValue()).isOnline());
+  }
+
+  @Test
+  void onDisconnected_ShouldAnnounceOfflineWhenLastSessionCloses() {
+    // Arrange
+    when(chatInboxRepository.findOtherUserIds(aliceId)).thenReturn(List.of(bobId));
+    when(userUtil.getUserId(principal)).thenReturn(aliceId);
+
+    presenceTracker.heartbeat(aliceId, "session-1");
+    presenceTracker.heartbeat(aliceId, "session-2");
+
+    ArgumentCaptor<Object> presence = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    presenceTracker.onDisconnected(disconnect("session-1"));
+    presenceTracker.onDisconnected(disconnect("session-2"));
+
+    // Assert
+    verify(chatMessageRelay, times(2))
+        .sendToUser(eq(bobId.toString()), eq(PRESENCE_DESTINATION), presence.capture());
+    assertFalse(((PresenceDto) presence.getAllValues().get(1)).isOnline());
+  }
+
+  @Test
+  void expire_ShouldTakeUsersWithoutHeartbeatOffline() {
+    // Arrange
+    when(chatInboxRepository.findOtherUserIds(aliceId)).thenReturn(List.of(bobId));
+
+    presenceTracker.heartbeat(aliceId, "session-1");
+    ReflectionTestUtils.setField(presenceTracker, "ttlMs", -1L);
+
+    ArgumentCaptor<Object> presence = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    presenceTracker.expire();
+
+    // Assert
+    verify(chatMessageRelay, times(2))
+        .sendToUser(eq(bobId.toString()), eq(PRESENCE_DESTINATION), presence.capture());
+    assertFalse(((PresenceDto) presence.getAllValues().get(1)).isOnline());
+  }
+
+  @Test
+  void heartbeat_WhenUserIsOnlineOnOtherInstance_ShouldNotAnnounce() {
+    // Arrange
+    when(chatMessageRelay.isConnectedElsewhere(aliceId.toString())).thenReturn(true);
+
+    // Act
+    presenceTracker.heartbeat(aliceId, "session-1");
+
+    // Assert
+    verifyNoInteractions(chatInboxRepository);
+    verify(chatMessageRelay, never()).sendToUser(any(), any(), any());
+  }
+
+  @Test
+  void onDisconnected_WhenOtherInstanceHasSession_ShouldAnnounceOfflineOnlyOnceItIsGone() {
+    // Arrange
+    when(chatInboxRepository.findOtherUserIds(aliceId)).thenReturn(List.of(bobId));
+    when(userUtil.getUserId(principal)).thenReturn(aliceId);
+    when(chatMessageRelay.mayBeConnectedElsewhere(aliceId.toString())).thenReturn(true, false);
+
+    presenceTracker.heartbeat(aliceId, "session-1");
+
+    ArgumentCaptor<Object> presence = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    presenceTracker.onDisconnected(disconnect("session-1"));
+    presenceTracker.expire();
+
+    // Assert
+    verify(chatMessageRelay, times(2))
+        .sendToUser(eq(bobId.toString()), eq(PRESENCE_DESTINATION), presence.capture());
+    assertTrue(((PresenceDto) presence.getAllValues().get(0)).isOnline());
+    assertFalse(((PresenceDto) presence.getAllValues().get(1)).isOnline());
+    verify(chatMessageRelay, times(2)).mayBeConnectedElsewhere(aliceId.toString());
+  }
+
+  @Test
+  void getOnlinePartners_ShouldReturnOnlyConnectedPartners() {
+    // Arrange
+    UUID carolId = UUID.randomUUID();
+    UUID daveId = UUID.randomUUID();
+
+    when(chatInboxRepository.findOtherUserIds(bobId)).thenReturn(List.of());
+    when(chatInboxRepository.findOtherUserIds(aliceId))
+        .thenReturn(List.of(bobId, carolId, daveId));
+    when(chatMessageRelay.isConnectedElsewhere(daveId.toString())).thenReturn(true);
+
+    presenceTracker.heartbeat(bobId, "session-1");
+
+    // Act
+    List<PresenceDto> online = presenceTracker.getOnlinePartners(aliceId);
+
+    // Assert
+    assertEquals(List.of(bobId, daveId), online.stream().map(PresenceDto::getUserId).toList());
+    assertTrue(online.get(0).isOnline());
+    verify(chatMessageRelay, never()).sendToUser(any(), any(), any());
+  }
+
+  private SessionDisconnectEvent disconnect(String sessionId) {
+
+    return new SessionDisconnectEvent(
+        this,
+        MessageBuilder.withPayload(new byte[0]).build(),
+        sessionId,
+        CloseStatus.NORMAL,
+        principal);
+  }
+}
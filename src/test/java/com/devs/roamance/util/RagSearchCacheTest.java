@@ -0,0 +1,160 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.devs.roamance.dto.response.ai.PostIdListRagSearchDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RagSearchCacheTest {
+
+  private static final String IMAGE_URL = "https://example.com/image.jpg";
+
+  private RagSearchCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new RagSearchCache(new SimpleMeterRegistry());
+
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "maxCosineDistance", 0.05);
+    ReflectionTestUtils.setField(cache, "ttlMs", 600_000L);
+    ReflectionTestUtils.setField(cache, "maxEntries", 2);
+  }
+
+  @Test
+  void get_WithinDistance_ShouldHit() {
+    // Arrange
+    UUID postId = UUID.randomUUID();
+    cache.put(vector(1, 0), null, result(postId), cache.generation());
+
+    // Act
+    Optional<PostIdListRagSearchDto> close = cache.get(vector(1, 0.1f), null);
+    Optional<PostIdListRagSearchDto> far = cache.get(vector(1, 1), null);
+
+    // Assert
+    assertTrue(close.isPresent());
+    assertEquals(List.of(postId), close.get().getPostIds());
+    assertTrue(far.isEmpty());
+  }
+
+  @Test
+  void get_WithOtherImage_ShouldMiss() {
+    // Arrange
+    cache.put(vector(1, 0), IMAGE_URL, result(UUID.randomUUID()), cache.generation());
+
+    // Act
+    Optional<PostIdListRagSearchDto> withoutImage = cache.get(vector(1, 0), null);
+    Optional<PostIdListRagSearchDto> withImage = cache.get(vector(1, 0), IMAGE_URL);
+
+    // Assert
+    assertTrue(withoutImage.isEmpty());
+    assertTrue(withImage.isPresent());
+  }
+
+  @Test
+  void get_AfterTtl_ShouldMiss() {
+    // Arrange
+    cache.put(vector(1, 0), null, result(UUID.randomUUID()), cache.generation());
+
+    // Every entry is older than a negative TTL
+    ReflectionTestUtils.setField(cache, "ttlMs", -1L);
+
+    // Act
+    Optional<PostIdListRagSearchDto> cached = cache.get(vector(1, 0), null);
+
+    // Assert
+    assertTrue(cached.isEmpty());
+  }
+
+  @Test
+  void put_AtMaxEntries_ShouldDropTheOldestEntry() {
+    // Arrange
+    cache.put(vector(1, 0), null, result(UUID.randomUUID()), cache.generation());
+    cache.put(vector(0, 1), null, result(UUID.randomUUID()), cache.generation());
+
+    // Act
+    cache.put(vector(-1, 0), null, result(UUID.randomUUID()), cache.generation());
+
+    // Assert
+    assertEquals(2, cache.size());
+    assertTrue(cache.get(vector(1, 0), null).isEmpty());
+    assertTrue(cache.get(vector(0, 1), null).isPresent());
+    assertTrue(cache.get(vector(-1, 0), null).isPresent());
+  }
+
+  @Test
+  void evictPost_ShouldDropResultsContainingThePost() {
+    // Arrange
+    UUID deleted = UUID.randomUUID();
+    cache.put(vector(1, 0), null, result(deleted, UUID.randomUUID()), cache.generation());
+    cache.put(vector(0, 1), null, result(UUID.randomUUID()), cache.generation());
+
+    // Act
+    cache.evictPost(deleted);
+
+    // Assert
+    assertTrue(cache.get(vector(1, 0), null).isEmpty());
+    assertTrue(cache.get(vector(0, 1), null).isPresent());
+  }
+
+  @Test
+  void put_WithPostEvictedDuringTheSearch_ShouldNotCacheIt() {
+    // Arrange
+    UUID deleted = UUID.randomUUID();
+    long searchGeneration = cache.generation();
+
+    cache.evictPost(deleted);
+
+    // Act
+    cache.put(vector(1, 0), null, result(deleted), searchGeneration);
+
+    // Assert
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void put_WithOtherPostsEvictedDuringTheSearch_ShouldCacheIt() {
+    // Arrange
+    UUID kept = UUID.randomUUID();
+    long searchGeneration = cache.generation();
+
+    cache.evictPost(UUID.randomUUID());
+
+    // Act
+    cache.put(vector(1, 0), null, result(kept), searchGeneration);
+
+    // Assert
+    assertTrue(cache.get(vector(1, 0), null).isPresent());
+  }
+
+  @Test
+  void put_WithSearchOlderThanTrackedEvictions_ShouldNotCacheIt() {
+    // Arrange
+    long searchGeneration = cache.generation();
+
+    // One more eviction than tracked, the first one is forgotten
+    cache.evictPost(UUID.randomUUID());
+    cache.evictPost(UUID.randomUUID());
+    cache.evictPost(UUID.randomUUID());
+
+    // Act
+    cache.put(vector(1, 0), null, result(UUID.randomUUID()), searchGeneration);
+
+    // Assert
+    assertEquals(0, cache.size());
+  }
+
+  private static float[] vector(float x, float y) {
+    return RagSearchCache.normalize(new float[] {x, y});
+  }
+
+  private static PostIdListRagSearchDto result(UUID... postIds) {
+    return new PostIdListRagSearchDto(List.of(postIds));
+  }
+}
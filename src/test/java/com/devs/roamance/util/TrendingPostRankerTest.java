@@ -0,0 +1,126 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TrendingPostRankerTest {
+
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  private TrendingPostRanker ranker;
+
+  @BeforeEach
+  void setUp() {
+    ranker = new TrendingPostRanker(null, new SimpleMeterRegistry());
+
+    ReflectionTestUtils.setField(ranker, "halfLifeHours", 6.0);
+    ReflectionTestUtils.setField(ranker, "size", 2);
+    ReflectionTestUtils.setField(ranker, "maxTrackedPosts", 10);
+    ReflectionTestUtils.setField(ranker, "likeWeight", 1.0);
+    ReflectionTestUtils.setField(ranker, "commentWeight", 3.0);
+    ReflectionTestUtils.setField(ranker, "saveWeight", 2.0);
+  }
+
+  @Test
+  void refresh_ShouldRankByWeightedActivity() {
+    // Arrange
+    UUID liked = UUID.randomUUID();
+    UUID commented = UUID.randomUUID();
+    UUID saved = UUID.randomUUID();
+
+    ranker.addLikes(liked, 5);
+    ranker.addComments(commented, 1);
+    ranker.addSaves(saved, 1);
+
+    // Act
+    ranker.refresh();
+
+    // Assert
+    assertEquals(List.of(liked, commented), ranker.getTopPostIds(0, 10));
+    assertEquals(List.of(commented), ranker.getTopPostIds(1, 10));
+    assertEquals(List.of(), ranker.getTopPostIds(2, 10));
+  }
+
+  @Test
+  void refresh_ShouldRankRecentActivityAboveOlderActivity() {
+    // Arrange
+    UUID oldPost = UUID.randomUUID();
+    UUID newPost = UUID.randomUUID();
+    long now = System.currentTimeMillis();
+
+    // Three times the likes, but two half-lives older
+    addAt(oldPost, 3, now - 12 * HOUR_MILLIS);
+    addAt(newPost, 1, now);
+
+    // Act
+    ranker.refresh();
+
+    // Assert
+    assertEquals(List.of(newPost, oldPost), ranker.getTopPostIds(0, 10));
+  }
+
+  @Test
+  void refresh_ShouldDropPostsWithoutRemainingScore() {
+    // Arrange
+    UUID unliked = UUID.randomUUID();
+
+    ranker.addLikes(unliked, 1);
+    ranker.addLikes(unliked, -1);
+
+    // Act
+    ranker.refresh();
+
+    // Assert
+    assertTrue(ranker.getTopPostIds(0, 10).isEmpty());
+  }
+
+  @Test
+  void addLikes_ShouldNotTakeScoreBelowZero() {
+    // Arrange
+    UUID unliked = UUID.randomUUID();
+    UUID liked = UUID.randomUUID();
+    long now = System.currentTimeMillis();
+
+    // The like decayed by two half-lives, the unlike subtracts at the current weight
+    addAt(unliked, 1, now - 12 * HOUR_MILLIS);
+    ranker.addLikes(unliked, -1);
+    ranker.addLikes(unliked, 1);
+    addAt(liked, 1, now - 12 * HOUR_MILLIS);
+
+    // Act
+    ranker.refresh();
+
+    // Assert
+    assertEquals(List.of(unliked, liked), ranker.getTopPostIds(0, 10));
+  }
+
+  @Test
+  void remove_ShouldDropPostFromRanking() {
+    // Arrange
+    UUID deleted = UUID.randomUUID();
+    UUID kept = UUID.randomUUID();
+
+    ranker.addLikes(deleted, 5);
+    ranker.addLikes(kept, 1);
+    ranker.refresh();
+
+    // Act
+    ranker.remove(deleted);
+
+    // Assert
+    assertEquals(List.of(kept), ranker.getTopPostIds(0, 10));
+
+    ranker.refresh();
+    assertEquals(List.of(kept), ranker.getTopPostIds(0, 10));
+  }
+
+  private void addAt(UUID postId, double weight, long atMillis) {
+    ReflectionTestUtils.invokeMethod(ranker, "add", postId, weight, atMillis);
+  }
+}
@@ -0,0 +1,114 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.devs.roamance.dto.response.social.TypingDto;
+import com.devs.roamance.repository.ChatRepository;
+import com.devs.roamance.repository.projection.ChatParticipant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TypingIndicatorTest {
+
+  private static final String TYPING_DESTINATION = "/queue/typing";
+
+  @Mock private ChatRepository chatRepository;
+
+  @Mock private ChatMessageRelay chatMessageRelay;
+
+  private ChatParticipantCache chatParticipantCache;
+  private TypingIndicator typingIndicator;
+  private UUID chatId;
+  private UUID aliceId;
+  private UUID bobId;
+
+  @BeforeEach
+  void setUp() {
+    chatParticipantCache = new ChatParticipantCache(chatRepository, 100);
+    ReflectionTestUtils.setField(chatParticipantCache, "ttlMs", 60_000L);
+
+    typingIndicator =
+        new TypingIndicator(chatParticipantCache, chatMessageRelay, new SimpleMeterRegistry());
+
+    chatId = UUID.randomUUID();
+    aliceId = UUID.randomUUID();
+    bobId = UUID.randomUUID();
+  }
+
+  @Test
+  void broadcast_ShouldSendOneCoalescedUpdatePerParticipant() {
+    // Arrange
+    when(chatRepository.findParticipantsByChatIds(List.of(chatId)))
+        .thenReturn(
+            List.of(new ChatParticipant(chatId, aliceId), new ChatParticipant(chatId, bobId)));
+
+    for (int i = 0; i < 20; i++) {
+      typingIndicator.typing(chatId, aliceId);
+    }
+    typingIndicator.typing(chatId, bobId);
+
+    ArgumentCaptor<Object> toAlice = ArgumentCaptor.forClass(Object.class);
+    ArgumentCaptor<Object> toBob = ArgumentCaptor.forClass(Object.class);
+
+    // Act
+    typingIndicator.broadcast();
+    typingIndicator.broadcast();
+
+    // Assert
+    verify(chatRepository).findParticipantsByChatIds(any());
+    verify(chatMessageRelay)
+        .sendToUser(eq(aliceId.toString()), eq(TYPING_DESTINATION), toAlice.capture());
+    verify(chatMessageRelay)
+        .sendToUser(eq(bobId.toString()), eq(TYPING_DESTINATION), toBob.capture());
+
+    // Nobody is told about their own typing
+    assertEquals(List.of(bobId), ((TypingDto) toAlice.getValue()).getUserIds());
+    assertEquals(List.of(aliceId), ((TypingDto) toBob.getValue()).getUserIds());
+  }
+
+  @Test
+  void broadcast_ShouldUseParticipantsCachedByMessageWriter() {
+    // Arrange
+    chatParticipantCache.putAll(Map.of(chatId, Set.of(aliceId, bobId)));
+
+    typingIndicator.typing(chatId, aliceId);
+
+    // Act
+    typingIndicator.broadcast();
+
+    // Assert
+    verifyNoInteractions(chatRepository);
+    verify(chatMessageRelay)
+        .sendToUser(eq(bobId.toString()), eq(TYPING_DESTINATION), any(TypingDto.class));
+  }
+
+  @Test
+  void broadcast_ShouldIgnoreUsersOutsideTheChat() {
+    // Arrange
+    when(chatRepository.findParticipantsByChatIds(List.of(chatId)))
+        .thenReturn(
+            List.of(new ChatParticipant(chatId, aliceId), new ChatParticipant(chatId, bobId)));
+
+    typingIndicator.typing(chatId, UUID.randomUUID());
+
+    // Act
+    typingIndicator.broadcast();
+
+    // Assert
+    verifyNoInteractions(chatMessageRelay);
+  }
+}
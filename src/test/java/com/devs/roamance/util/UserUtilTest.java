@@ -0,0 +1,91 @@
+package com.devs.roamance.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.devs.roamance.exception.AuthenticatedUserNotFoundException;
+import com.devs.roamance.model.user.User;
+import com.devs.roamance.repository.UserRepository;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@ExtendWith(MockitoExtension.class)
+class UserUtilTest {
+
+  @Mock private UserRepository userRepository;
+
+  private UserSnapshotCache userSnapshotCache;
+  private UserUtil userUtil;
+  private UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    userSnapshotCache = new UserSnapshotCache(100);
+    userUtil = new UserUtil(userRepository, userSnapshotCache);
+
+    userId = UUID.randomUUID();
+
+    UsernamePasswordAuthenticationToken authentication =
+        new UsernamePasswordAuthenticationToken("user@example.com", null, null);
+    authentication.setDetails(userId.toString());
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void getAuthenticatedUserId_WithCachedSnapshot_ShouldNotQueryRepository() {
+    // Arrange
+    userSnapshotCache.put(user());
+
+    // Act
+    UUID result = userUtil.getAuthenticatedUserId();
+
+    // Assert
+    assertEquals(userId, result);
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void getAuthenticatedUserId_WithDeletedUser_ShouldReject() {
+    // Arrange
+    userSnapshotCache.put(user());
+    userSnapshotCache.evict(userId);
+
+    when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(AuthenticatedUserNotFoundException.class, () -> userUtil.getAuthenticatedUserId());
+  }
+
+  @Test
+  void getUserId_WithDeletedUser_ShouldReject() {
+    // Arrange
+    when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(
+        AuthenticatedUserNotFoundException.class,
+        () -> userUtil.getUserId(SecurityContextHolder.getContext().getAuthentication()));
+  }
+
+  private User user() {
+
+    User user = new User();
+    user.setId(userId);
+    user.setEmail("user@example.com");
+
+    return user;
+  }
+}